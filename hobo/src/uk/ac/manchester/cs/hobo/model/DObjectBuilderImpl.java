@@ -331,9 +331,20 @@ class DObjectBuilderImpl implements DObjectBuilder {
 
 	void invokeInitialisers() {
 
-		for (DObjectInitialiser initialiser : initialisers) {
+		IUpdating updating = model.getCModel().getIUpdating();
 
-			initialiser.initialise();
+		updating.startUpdateBatch();
+
+		try {
+
+			for (DObjectInitialiser initialiser : initialisers) {
+
+				initialiser.initialise();
+			}
+		}
+		finally {
+
+			updating.endUpdateBatch();
 		}
 	}
 
@@ -39,7 +39,7 @@ import uk.ac.manchester.cs.mekon_util.config.*;
  *
  * @author Colin Puleston
  */
-public class BaseXMatcher extends NMatcher {
+public class BaseXMatcher extends NMatcher implements IBatchMatcher {
 
 	private IMatcherIndexes indexes = new LocalIndexes();
 	private QueryRenderer queryRenderer = new QueryRenderer();
@@ -131,6 +131,24 @@ public class BaseXMatcher extends NMatcher {
 		mainDatabase.remove(indexes.getIndex(identity));
 	}
 
+	/**
+	 * Disables the automatic flushing of database updates to disk
+	 * for the duration of the batch.
+	 */
+	public void startBatch() {
+
+		mainDatabase.startBatch();
+	}
+
+	/**
+	 * Flushes all database updates made during the batch to disk,
+	 * and re-enables automatic flushing.
+	 */
+	public void endBatch() {
+
+		mainDatabase.endBatch();
+	}
+
 	/**
 	 * Finds all instances that match the specified query by executing
 	 * an <i>XQuery</i> over the XML database.
@@ -143,6 +161,23 @@ public class BaseXMatcher extends NMatcher {
 		return new IUnrankedMatches(indexes.getIdentities(match(mainDatabase, query)));
 	}
 
+	/**
+	 * Finds the specified range of the instances that match the
+	 * specified query, with the iteration over the lazily-evaluated
+	 * query results ceasing as soon as the range has been filled.
+	 *
+	 * @param query Query to be matched
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	public IMatches match(NNode query, IMatchesRange range) {
+
+		List<Integer> indexes = match(mainDatabase, query, range.getEnd());
+		List<CIdentity> matches = this.indexes.getIdentities(indexes);
+
+		return new IUnrankedMatches(IMatchesRangeSelector.select(matches, range));
+	}
+
 	/**
 	 * Performs a single query-matching test by executing an
 	 * <i>XQuery</i> over a temporary XML database containing only a
@@ -192,4 +227,9 @@ public class BaseXMatcher extends NMatcher {
 
 		return database.executeQuery(queryRenderer.render(query));
 	}
+
+	private List<Integer> match(Database database, NNode query, int maxResults) {
+
+		return database.executeQuery(queryRenderer.render(query), maxResults);
+	}
 }
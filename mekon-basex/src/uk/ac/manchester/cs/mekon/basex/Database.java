@@ -93,13 +93,35 @@ class Database {
 		fileStore.removeFile(index);
 	}
 
+	void startBatch() {
+
+		execute(new org.basex.core.cmd.Set(MainOptions.AUTOFLUSH, false));
+	}
+
+	void endBatch() {
+
+		try {
+
+			execute(new Flush());
+		}
+		finally {
+
+			execute(new org.basex.core.cmd.Set(MainOptions.AUTOFLUSH, true));
+		}
+	}
+
 	List<Integer> executeQuery(String query) {
 
+		return executeQuery(query, Integer.MAX_VALUE);
+	}
+
+	List<Integer> executeQuery(String query, int maxResults) {
+
 		QueryProcessor proc = new QueryProcessor(query, context);
 
 		try {
 
-			return extractInstanceIndexes(proc.iter());
+			return extractInstanceIndexes(proc.iter(), maxResults);
 		}
 		catch (QueryException e) {
 
@@ -167,12 +189,15 @@ class Database {
 		}
 	}
 
-	private List<Integer> extractInstanceIndexes(Iter queryResults) throws QueryException {
+	private List<Integer> extractInstanceIndexes(
+							Iter queryResults,
+							int maxResults)
+							throws QueryException {
 
 		List<Integer> indexes = new ArrayList<Integer>();
 		Set<Integer> indexSet = new HashSet<Integer>();
 
-		for (Item item ; (item = queryResults.next()) != null ; ) {
+		for (Item item ; indexes.size() < maxResults && (item = queryResults.next()) != null ; ) {
 
 			int index = extractInstanceIndex(item);
 
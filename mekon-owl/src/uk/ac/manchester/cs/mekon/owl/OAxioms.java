@@ -39,6 +39,9 @@ class OAxioms {
 	private OModel model;
 	private OWLOntology ontology;
 
+	private int batchDepth = 0;
+	private boolean batchReasonerUpdateRequired = false;
+
 	private abstract class AxiomProcessor {
 
 		private boolean reasonerUpdateRequired = false;
@@ -73,7 +76,14 @@ class OAxioms {
 
 			if (reasonerUpdateRequired) {
 
-				model.updateReasoner();
+				if (batchDepth == 0) {
+
+					model.updateReasoner();
+				}
+				else {
+
+					batchReasonerUpdateRequired = true;
+				}
 			}
 		}
 	}
@@ -183,7 +193,7 @@ class OAxioms {
 		new AxiomAdder().process(axiom);
 	}
 
-	void addAll(Set<? extends OWLAxiom> axioms) {
+	synchronized void addAll(Set<? extends OWLAxiom> axioms) {
 
 		new AxiomAdder().processAll(axioms);
 	}
@@ -193,11 +203,26 @@ class OAxioms {
 		new AxiomRemover().process(axiom);
 	}
 
-	void removeAll(Set<? extends OWLAxiom> axioms) {
+	synchronized void removeAll(Set<? extends OWLAxiom> axioms) {
 
 		new AxiomRemover().processAll(axioms);
 	}
 
+	synchronized void startBatch() {
+
+		batchDepth++;
+	}
+
+	synchronized void endBatch() {
+
+		if (batchDepth > 0 && --batchDepth == 0 && batchReasonerUpdateRequired) {
+
+			batchReasonerUpdateRequired = false;
+
+			model.updateReasoner();
+		}
+	}
+
 	void purge(OAxiomPurgeSpec purgeSpec) {
 
 		new DeclarationPurger(purgeSpec).purge();
@@ -189,6 +189,28 @@ public class OModel {
 		instanceAxioms.removeAll(axioms);
 	}
 
+	/**
+	 * Signals the start of a batch of updates to the
+	 * instance-ontology, during which any required reasoner updates
+	 * will be deferred until the end of the batch. Batches can be
+	 * nested, in which case the reasoner update will be deferred
+	 * until the end of the outermost batch.
+	 */
+	public void startInstanceAxiomsBatch() {
+
+		instanceAxioms.startBatch();
+	}
+
+	/**
+	 * Signals the end of a batch of updates to the instance-ontology
+	 * (see {@link #startInstanceAxiomsBatch}), performing a single
+	 * reasoner update if required.
+	 */
+	public void endInstanceAxiomsBatch() {
+
+		instanceAxioms.endBatch();
+	}
+
 	/**
 	 * Performs axiom-purge operation in order to minimise memory usage
 	 * after the OWL-based model section has been built and the reasoner
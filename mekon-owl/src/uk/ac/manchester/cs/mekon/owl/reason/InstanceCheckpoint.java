@@ -0,0 +1,257 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.owl.reason;
+
+import java.io.*;
+import java.util.*;
+
+import org.semanticweb.owlapi.apibinding.*;
+import org.semanticweb.owlapi.formats.*;
+import org.semanticweb.owlapi.io.*;
+import org.semanticweb.owlapi.model.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.owl.util.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * @author Colin Puleston
+ */
+class InstanceCheckpoint {
+
+	static private final String AXIOMS_FILE_NAME = "INSTANCE-AXIOMS.owl";
+	static private final String IDENTITIES_FILE_NAME = "INSTANCE-IDS.bin";
+
+	static private final IRI INSTANCE_PROPERTY_IRI
+			= O_IRINamespaces.createEntityIRI("checkpoint", "instance");
+
+	private File axiomsFile;
+	private File identitiesFile;
+
+	private OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+	private OWLDataFactory dataFactory = manager.getOWLDataFactory();
+
+	private OWLAnnotationProperty instanceProperty
+			= dataFactory.getOWLAnnotationProperty(INSTANCE_PROPERTY_IRI);
+
+	private class AxiomsWriter {
+
+		private Map<OWLAxiom, Set<OWLAnnotation>> annotationsByAxiom
+						= new HashMap<OWLAxiom, Set<OWLAnnotation>>();
+
+		AxiomsWriter(Map<IRI, Set<OWLAxiom>> axiomsByInstance) {
+
+			for (Map.Entry<IRI, Set<OWLAxiom>> entry : axiomsByInstance.entrySet()) {
+
+				OWLAnnotation annotation = createInstanceAnnotation(entry.getKey());
+
+				for (OWLAxiom axiom : entry.getValue()) {
+
+					getAnnotations(axiom).add(annotation);
+				}
+			}
+		}
+
+		void write() throws OWLOntologyCreationException, OWLOntologyStorageException {
+
+			OWLOntology ontology = manager.createOntology();
+
+			for (Map.Entry<OWLAxiom, Set<OWLAnnotation>> entry : annotationsByAxiom.entrySet()) {
+
+				OWLAxiom axiom = entry.getKey().getAnnotatedAxiom(entry.getValue());
+
+				OWLAPIVersion.addAxiom(ontology, axiom);
+			}
+
+			manager.saveOntology(
+				ontology,
+				new FunctionalSyntaxDocumentFormat(),
+				new FileDocumentTarget(axiomsFile));
+		}
+
+		private Set<OWLAnnotation> getAnnotations(OWLAxiom axiom) {
+
+			Set<OWLAnnotation> annotations = annotationsByAxiom.get(axiom);
+
+			if (annotations == null) {
+
+				annotations = new HashSet<OWLAnnotation>();
+				annotationsByAxiom.put(axiom, annotations);
+			}
+
+			return annotations;
+		}
+
+		private OWLAnnotation createInstanceAnnotation(IRI instanceIRI) {
+
+			return dataFactory.getOWLAnnotation(instanceProperty, instanceIRI);
+		}
+	}
+
+	private class AxiomsReader {
+
+		private Map<IRI, Set<OWLAxiom>> axiomsByInstance;
+
+		AxiomsReader(Map<IRI, Set<OWLAxiom>> axiomsByInstance) {
+
+			this.axiomsByInstance = axiomsByInstance;
+		}
+
+		boolean read() throws OWLOntologyCreationException {
+
+			OWLOntology ontology = manager.loadOntologyFromOntologyDocument(axiomsFile);
+
+			for (OWLAxiom axiom : OWLAPIVersion.getAxioms(ontology)) {
+
+				if (!readAxiom(axiom)) {
+
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private boolean readAxiom(OWLAxiom annotatedAxiom) {
+
+			OWLAxiom axiom = annotatedAxiom.getAxiomWithoutAnnotations();
+
+			for (OWLAnnotation annotation : annotatedAxiom.getAnnotations(instanceProperty)) {
+
+				Set<OWLAxiom> axioms = axiomsByInstance.get(annotation.getValue());
+
+				if (axioms == null) {
+
+					return false;
+				}
+
+				axioms.add(axiom);
+			}
+
+			return true;
+		}
+	}
+
+	InstanceCheckpoint(File directory) {
+
+		axiomsFile = new File(directory, AXIOMS_FILE_NAME);
+		identitiesFile = new File(directory, IDENTITIES_FILE_NAME);
+	}
+
+	void write(Map<CIdentity, IRI> instanceIRIs, Map<IRI, Set<OWLAxiom>> axiomsByInstance) {
+
+		try {
+
+			writeIdentities(instanceIRIs);
+			new AxiomsWriter(axiomsByInstance).write();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+		catch (OWLException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	boolean read(Map<CIdentity, IRI> instanceIRIs, Map<IRI, Set<OWLAxiom>> axiomsByInstance) {
+
+		if (!axiomsFile.exists() || !identitiesFile.exists()) {
+
+			return false;
+		}
+
+		try {
+
+			readIdentities(instanceIRIs, axiomsByInstance);
+
+			return new AxiomsReader(axiomsByInstance).read();
+		}
+		catch (IOException e) {
+
+			return false;
+		}
+		catch (OWLException e) {
+
+			return false;
+		}
+		catch (RuntimeException e) {
+
+			return false;
+		}
+	}
+
+	private void writeIdentities(Map<CIdentity, IRI> instanceIRIs) throws IOException {
+
+		DataOutputStream output = new DataOutputStream(
+										new BufferedOutputStream(
+											new FileOutputStream(identitiesFile)));
+
+		try {
+
+			output.writeInt(instanceIRIs.size());
+
+			for (Map.Entry<CIdentity, IRI> entry : instanceIRIs.entrySet()) {
+
+				CIdentity identity = entry.getKey();
+
+				output.writeUTF(identity.getIdentifier());
+				output.writeUTF(identity.getLabel());
+				output.writeUTF(entry.getValue().toString());
+			}
+		}
+		finally {
+
+			output.close();
+		}
+	}
+
+	private void readIdentities(
+					Map<CIdentity, IRI> instanceIRIs,
+					Map<IRI, Set<OWLAxiom>> axiomsByInstance)
+					throws IOException {
+
+		DataInputStream input = new DataInputStream(
+									new BufferedInputStream(
+										new FileInputStream(identitiesFile)));
+
+		try {
+
+			for (int i = input.readInt() ; i > 0 ; i--) {
+
+				CIdentity identity = new CIdentity(input.readUTF(), input.readUTF());
+				IRI iri = IRI.create(input.readUTF());
+
+				instanceIRIs.put(identity, iri);
+				axiomsByInstance.put(iri, new HashSet<OWLAxiom>());
+			}
+		}
+		finally {
+
+			input.close();
+		}
+	}
+}
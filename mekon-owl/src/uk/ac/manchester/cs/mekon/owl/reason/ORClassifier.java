@@ -77,13 +77,6 @@ public class ORClassifier extends NClassifier {
 		return ORClassifierConfig.configNodeExists(parentConfigNode);
 	}
 
-	static private ReasoningModel createReasoningModel(
-									OModel model,
-									KConfigNode parentConfigNode) {
-
-		return new ORClassifierConfig(model, parentConfigNode).getReasoningModel();
-	}
-
 	private ReasoningModel reasoningModel;
 	private OntologyEntityResolver entityResolver;
 
@@ -118,7 +111,7 @@ public class ORClassifier extends NClassifier {
 	 */
 	public ORClassifier(OModel model, KConfigNode parentConfigNode) {
 
-		this(createReasoningModel(model, parentConfigNode));
+		this(new ORClassifierConfig(model, parentConfigNode));
 	}
 
 	/**
@@ -131,6 +124,7 @@ public class ORClassifier extends NClassifier {
 	public void setSemantics(ORSemantics semantics) {
 
 		reasoningModel.setSemantics(semantics);
+		clearClassificationCache();
 	}
 
 	/**
@@ -185,6 +179,14 @@ public class ORClassifier extends NClassifier {
 	void setForceIndividualBasedClassification(boolean value) {
 
 		forceIndividualBasedClassification = value;
+		clearClassificationCache();
+	}
+
+	private ORClassifier(ORClassifierConfig config) {
+
+		this(config.getReasoningModel());
+
+		setClassificationCacheSize(config.getClassificationCacheSize());
 	}
 
 	private ORClassifier(ReasoningModel reasoningModel) {
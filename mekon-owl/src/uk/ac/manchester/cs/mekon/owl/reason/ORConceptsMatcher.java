@@ -117,6 +117,20 @@ public class ORConceptsMatcher extends ORMatcher {
 		return expressionRenderer;
 	}
 
+	Set<OWLAxiom> getInstanceAxioms(IRI iri) {
+
+		Set<OWLAxiom> axioms = new HashSet<OWLAxiom>(getConceptAxioms(iri));
+
+		axioms.add(getDataFactory().getOWLDeclarationAxiom(getConcept(iri)));
+
+		return axioms;
+	}
+
+	void restoreInstance(IRI iri, Set<OWLAxiom> axioms) {
+
+		getModel().addInstanceAxioms(axioms);
+	}
+
 	private ExpressionRenderer createExpressionRenderer() {
 
 		return new ExpressionRenderer(getReasoningModel());
@@ -46,4 +46,5 @@ public interface ORConfigVocab extends OModelConfigVocab {
 	static public final String LOGGING_MODE_ATTR = "loggingMode";
 	static public final String MATCHER_CLASS_ATTR = "matcher";
 	static public final String INSTANCES_FILE_NAME_ATTR = "fileName";
+	static public final String CLASSIFICATION_CACHE_SIZE_ATTR = "classificationCacheSize";
 }
\ No newline at end of file
@@ -60,7 +60,9 @@ import uk.ac.manchester.cs.mekon.owl.util.*;
  *
  * @author Colin Puleston
  */
-public abstract class OROntologyLinkedMatcher extends NMatcher {
+public abstract class OROntologyLinkedMatcher
+							extends NMatcher
+							implements IBatchMatcher {
 
 	private OModel model;
 
@@ -109,6 +111,24 @@ public abstract class OROntologyLinkedMatcher extends NMatcher {
 		removeFromOntologyLinkedStore(instanceIRIs.mapToIRI(identity));
 	}
 
+	/**
+	 * Defers any reasoner updates resulting from the addition or
+	 * removal of instances until the end of the batch.
+	 */
+	public void startBatch() {
+
+		model.startInstanceAxiomsBatch();
+	}
+
+	/**
+	 * Performs any reasoner updates that have been deferred during
+	 * the batch.
+	 */
+	public void endBatch() {
+
+		model.endInstanceAxiomsBatch();
+	}
+
 	/**
 	 * Processes the specified network-based query representation
 	 * to ensure ontology-compliance (see above), then invokes
@@ -127,6 +147,25 @@ public abstract class OROntologyLinkedMatcher extends NMatcher {
 		return new IUnrankedMatches(instanceIRIs.getMappedIds(iris));
 	}
 
+	/**
+	 * Processes the specified network-based query representation
+	 * to ensure ontology-compliance (see above), then invokes
+	 * {@link #matchInOntologyLinkedStore(NNode, IMatchesRange)} to
+	 * perform the ranged matching operation.
+	 *
+	 * @param query Query to be matched
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	public IMatches match(NNode query, IMatchesRange range) {
+
+		entityResolver.resolve(query);
+
+		List<IRI> iris = matchInOntologyLinkedStore(query, range);
+
+		return new IUnrankedMatches(instanceIRIs.getMappedIds(iris));
+	}
+
 	/**
 	 * Processes the specified network-based query and instance
 	 * representations to ensure ontology-compliance (see above),
@@ -199,6 +238,27 @@ public abstract class OROntologyLinkedMatcher extends NMatcher {
 	 */
 	protected abstract List<IRI> matchInOntologyLinkedStore(NNode query);
 
+	/**
+	 * Performs the ranged matching operation against the OWL store.
+	 * This default implementation invokes {@link
+	 * #matchInOntologyLinkedStore(NNode)} and selects the range from
+	 * the full set of matches. Should be overridden by stores that
+	 * can apply the range directly.
+	 *
+	 * @param query Representation of query
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	protected List<IRI> matchInOntologyLinkedStore(NNode query, IMatchesRange range) {
+
+		List<IRI> iris = matchInOntologyLinkedStore(query);
+
+		int start = Math.min(range.getOffset(), iris.size());
+		int end = Math.min(range.getEnd(), iris.size());
+
+		return new ArrayList<IRI>(iris.subList(start, end));
+	}
+
 	/**
 	 * Performs the matching test using the OWL reasoner.
 	 *
@@ -218,6 +278,11 @@ public abstract class OROntologyLinkedMatcher extends NMatcher {
 		entityResolver = new OntologyEntityResolver(model);
 	}
 
+	IRI mapToInstanceIRI(CIdentity identity) {
+
+		return instanceIRIs.mapToIRI(identity);
+	}
+
 	boolean instanceIRI(IRI iri) {
 
 		return instanceIRIs.mappedIRI(iri);
@@ -26,6 +26,7 @@ package uk.ac.manchester.cs.mekon.owl.triples;
 
 import java.util.*;
 
+import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.network.*;
 
 /**
@@ -58,6 +59,11 @@ class MatchQuery extends SpecificQuery {
 		return executeSelect(ROOT_NODE_VARIABLE, renderQueryBody(query));
 	}
 
+	Set<OT_URI> execute(NNode query, IMatchesRange range) {
+
+		return executeSelect(ROOT_NODE_VARIABLE, renderQueryBody(query), range);
+	}
+
 	private String renderQueryBody(NNode query) {
 
 		return new QueryBodyRenderer(getConstants()).render(query);
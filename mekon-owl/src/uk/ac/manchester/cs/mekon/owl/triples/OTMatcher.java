@@ -28,6 +28,7 @@ import java.util.*;
 
 import org.semanticweb.owlapi.model.*;
 
+import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.network.*;
 import uk.ac.manchester.cs.mekon.owl.*;
 import uk.ac.manchester.cs.mekon.owl.reason.*;
@@ -89,6 +90,11 @@ public abstract class OTMatcher extends OROntologyLinkedMatcher {
 		return store.match(query);
 	}
 
+	protected List<IRI> matchInOntologyLinkedStore(NNode query, IMatchesRange range) {
+
+		return store.match(query, range);
+	}
+
 	/**
 	 */
 	protected boolean matchesWithRespectToOntology(NNode query, NNode instance) {
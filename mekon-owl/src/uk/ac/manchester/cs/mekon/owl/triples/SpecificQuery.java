@@ -26,6 +26,8 @@ package uk.ac.manchester.cs.mekon.owl.triples;
 
 import java.util.*;
 
+import uk.ac.manchester.cs.mekon.store.*;
+
 /**
  * @author Colin Puleston
  */
@@ -33,6 +35,8 @@ abstract class SpecificQuery {
 
 	static private final String ASK_FORMAT = "ASK {%s}";
 	static private final String SELECT_FORMAT = "SELECT %s {%s}";
+	static private final String SELECT_RANGE_FORMAT
+				= "SELECT DISTINCT %s {%s} ORDER BY %s OFFSET %d LIMIT %d";
 
 	private OTQuery query;
 	private OTQueryConstants constants = new OTQueryConstants();
@@ -57,6 +61,11 @@ abstract class SpecificQuery {
 		return query.executeSelect(renderSelect(variable, queryBody), constants);
 	}
 
+	Set<OT_URI> executeSelect(String variable, String queryBody, IMatchesRange range) {
+
+		return query.executeSelect(renderSelect(variable, queryBody, range), constants);
+	}
+
 	private String renderAsk(String queryBody) {
 
 		return String.format(ASK_FORMAT, queryBody);
@@ -66,4 +75,15 @@ abstract class SpecificQuery {
 
 		return String.format(SELECT_FORMAT, variable, queryBody);
 	}
+
+	private String renderSelect(String variable, String queryBody, IMatchesRange range) {
+
+		return String.format(
+					SELECT_RANGE_FORMAT,
+					variable,
+					queryBody,
+					variable,
+					range.getOffset(),
+					range.getLimit());
+	}
 }
@@ -28,6 +28,7 @@ import java.util.*;
 
 import org.semanticweb.owlapi.model.*;
 
+import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.network.*;
 import uk.ac.manchester.cs.mekon.owl.util.*;
 
@@ -57,14 +58,12 @@ class Store {
 
 	List<IRI> match(NNode query) {
 
-		List<IRI> matches = new ArrayList<IRI>();
-
-		for (OT_URI uri : executeMatch(query)) {
+		return toIRIs(new MatchQuery(factory).execute(query));
+	}
 
-			matches.add(toIRI(uri));
-		}
+	List<IRI> match(NNode query, IMatchesRange range) {
 
-		return matches;
+		return toIRIs(new MatchQuery(factory).execute(query, range));
 	}
 
 	boolean matches(NNode query, NNode instance) {
@@ -93,11 +92,6 @@ class Store {
 		remove(iri);
 	}
 
-	private Set<OT_URI> executeMatch(NNode query) {
-
-		return new MatchQuery(factory).execute(query);
-	}
-
 	private boolean executeMatches(NNode query, String baseURI) {
 
 		return new MatchesQuery(factory).execute(query, baseURI);
@@ -108,8 +102,28 @@ class Store {
 		return new Assertion(factory, iri.toString());
 	}
 
-	private IRI toIRI(OT_URI uri) {
+	private List<IRI> toIRIs(Set<OT_URI> uris) {
+
+		List<String> uriStrings = new ArrayList<String>();
+		List<IRI> iris = new ArrayList<IRI>();
+
+		for (OT_URI uri : uris) {
+
+			uriStrings.add(uri.toString());
+		}
+
+		Collections.sort(uriStrings);
+
+		for (String uriString : uriStrings) {
+
+			iris.add(toIRI(uriString));
+		}
+
+		return iris;
+	}
+
+	private IRI toIRI(String uri) {
 
-		return IRI.create(TriplesURIs.extractBaseURI(uri.toString()));
+		return IRI.create(TriplesURIs.extractBaseURI(uri));
 	}
 }
@@ -28,6 +28,9 @@ import java.util.*;
 
 /**
  * Manages the assignment of unique indexes to a set of entities.
+ * Indexes are allocated densely from zero, with freed indexes being
+ * re-assigned lowest first, so that the index-to-element mappings
+ * can be held in primitive-indexed structures.
  *
  * @author Colin Puleston
  */
@@ -35,10 +38,10 @@ public abstract class KIndexes<E> {
 
 	private int maxIndex = -1;
 
-	private List<Integer> freeIndexes = new ArrayList<Integer>();
+	private KIntSet freeIndexes = new KIntSet();
 
 	private Map<E, Integer> elementsToIndexes = new HashMap<E, Integer>();
-	private Map<Integer, E> indexesToElements = new HashMap<Integer, E>();
+	private List<E> indexesToElements = new ArrayList<E>();
 
 	/**
 	 * Assigns a unique index to an unspecified element.
@@ -47,7 +50,16 @@ public abstract class KIndexes<E> {
 	 */
 	public int assignIndex() {
 
-		return freeIndexes.isEmpty() ? ++maxIndex : freeIndexes.remove(0);
+		if (freeIndexes.isEmpty()) {
+
+			return ++maxIndex;
+		}
+
+		int index = freeIndexes.get(0);
+
+		freeIndexes.remove(index);
+
+		return index;
 	}
 
 	/**
@@ -70,7 +82,7 @@ public abstract class KIndexes<E> {
 	 */
 	public void assignIndex(E element, int index) {
 
-		if (indexesToElements.containsKey(index)) {
+		if (lookupElement(index) != null) {
 
 			throw createException("Index already assigned: " + index);
 		}
@@ -121,10 +133,10 @@ public abstract class KIndexes<E> {
 	 */
 	public int freeIndex(E element) {
 
-		Integer index = getIndex(element);
+		int index = getIndex(element);
 
-		removeFromMaps(element, index);
 		freeIndex(index);
+		removeFromMaps(element, index);
 
 		return index;
 	}
@@ -138,7 +150,7 @@ public abstract class KIndexes<E> {
 	 */
 	public E freeIndex(int index) {
 
-		E element = indexesToElements.get(index);
+		E element = lookupElement(index);
 
 		if (element != null) {
 
@@ -157,7 +169,7 @@ public abstract class KIndexes<E> {
 
 		for (int i = 0 ; i < maxIndex ; i++) {
 
-			if (!indexesToElements.containsKey(i)) {
+			if (lookupElement(i) == null) {
 
 				freeIndex(i);
 			}
@@ -214,7 +226,7 @@ public abstract class KIndexes<E> {
 	 */
 	public E getElement(int index) {
 
-		E element = indexesToElements.get(index);
+		E element = lookupElement(index);
 
 		if (element == null) {
 
@@ -237,7 +249,7 @@ public abstract class KIndexes<E> {
 
 		for (Integer index : indexes) {
 
-			E element = indexesToElements.get(index);
+			E element = lookupElement(index);
 
 			if (element != null) {
 
@@ -263,8 +275,13 @@ public abstract class KIndexes<E> {
 			throw createException("Index already assigned to element: " + element);
 		}
 
+		while (indexesToElements.size() <= index) {
+
+			indexesToElements.add(null);
+		}
+
 		elementsToIndexes.put(element, index);
-		indexesToElements.put(index, element);
+		indexesToElements.set(index, element);
 
 		return index;
 	}
@@ -272,6 +289,13 @@ public abstract class KIndexes<E> {
 	private void removeFromMaps(E element, int index) {
 
 		elementsToIndexes.remove(element);
-		indexesToElements.remove(index);
+		indexesToElements.set(index, null);
+	}
+
+	private E lookupElement(int index) {
+
+		return index >= 0 && index < indexesToElements.size()
+					? indexesToElements.get(index)
+					: null;
 	}
 }
@@ -0,0 +1,261 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon_util;
+
+import java.util.*;
+
+/**
+ * Set of primitive int values, held in ascending order in a single
+ * array. Suitable for compact posting lists over dense integer ids,
+ * with unions and intersections being performed by merging.
+ *
+ * @author Colin Puleston
+ */
+public class KIntSet {
+
+	static private final int INITIAL_CAPACITY = 4;
+
+	private int[] values;
+	private int size = 0;
+
+	/**
+	 * Constructs empty set.
+	 */
+	public KIntSet() {
+
+		values = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Constructs set that is a copy of another set.
+	 *
+	 * @param template Set to copy
+	 */
+	public KIntSet(KIntSet template) {
+
+		values = Arrays.copyOf(template.values, Math.max(template.size, INITIAL_CAPACITY));
+		size = template.size;
+	}
+
+	/**
+	 * Adds a value to the set.
+	 *
+	 * @param value Value to add
+	 * @return True if value was added, false if already present
+	 */
+	public boolean add(int value) {
+
+		int position = Arrays.binarySearch(values, 0, size, value);
+
+		if (position >= 0) {
+
+			return false;
+		}
+
+		position = -position - 1;
+
+		ensureCapacity(size + 1);
+		System.arraycopy(values, position, values, position + 1, size - position);
+
+		values[position] = value;
+		size++;
+
+		return true;
+	}
+
+	/**
+	 * Removes a value from the set.
+	 *
+	 * @param value Value to remove
+	 * @return True if value was removed, false if not present
+	 */
+	public boolean remove(int value) {
+
+		int position = Arrays.binarySearch(values, 0, size, value);
+
+		if (position < 0) {
+
+			return false;
+		}
+
+		size--;
+
+		System.arraycopy(values, position + 1, values, position, size - position);
+
+		return true;
+	}
+
+	/**
+	 * Adds all values from another set to this set.
+	 *
+	 * @param other Set whose values are to be added
+	 */
+	public void addAll(KIntSet other) {
+
+		int[] merged = new int[size + other.size];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < size && j < other.size) {
+
+			int a = values[i];
+			int b = other.values[j];
+
+			if (a <= b) {
+
+				i++;
+
+				if (a == b) {
+
+					j++;
+				}
+
+				merged[k++] = a;
+			}
+			else {
+
+				j++;
+				merged[k++] = b;
+			}
+		}
+
+		while (i < size) {
+
+			merged[k++] = values[i++];
+		}
+
+		while (j < other.size) {
+
+			merged[k++] = other.values[j++];
+		}
+
+		values = merged;
+		size = k;
+	}
+
+	/**
+	 * Removes all values from this set that are not present in
+	 * another set.
+	 *
+	 * @param other Set whose values are to be retained
+	 */
+	public void retainAll(KIntSet other) {
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < size && j < other.size) {
+
+			int a = values[i];
+			int b = other.values[j];
+
+			if (a < b) {
+
+				i++;
+			}
+			else if (a > b) {
+
+				j++;
+			}
+			else {
+
+				values[k++] = a;
+
+				i++;
+				j++;
+			}
+		}
+
+		size = k;
+	}
+
+	/**
+	 * Tests whether a value is present in the set.
+	 *
+	 * @param value Value to test for
+	 * @return True if value present
+	 */
+	public boolean contains(int value) {
+
+		return Arrays.binarySearch(values, 0, size, value) >= 0;
+	}
+
+	/**
+	 * Tests whether the set is empty.
+	 *
+	 * @return True if set is empty
+	 */
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	/**
+	 * Provides the number of values in the set.
+	 *
+	 * @return Number of values in set
+	 */
+	public int size() {
+
+		return size;
+	}
+
+	/**
+	 * Provides the value at the specified position in the ascending
+	 * ordering of the values in the set.
+	 *
+	 * @param index Position of required value
+	 * @return Value at specified position
+	 */
+	public int get(int index) {
+
+		if (index < 0 || index >= size) {
+
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return values[index];
+	}
+
+	/**
+	 * Provides the values in the set, in ascending order.
+	 *
+	 * @return Values in set
+	 */
+	public int[] toArray() {
+
+		return Arrays.copyOf(values, size);
+	}
+
+	private void ensureCapacity(int required) {
+
+		if (required > values.length) {
+
+			values = Arrays.copyOf(values, Math.max(required, values.length * 2));
+		}
+	}
+}
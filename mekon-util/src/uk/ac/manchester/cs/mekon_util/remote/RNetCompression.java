@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon_util.remote;
+
+import java.io.*;
+import java.util.zip.*;
+
+/**
+ * Specifies a type of compression that can be applied to the bodies
+ * of requests and responses passed between network client and
+ * server, with the relevant HTTP content-coding name.
+ *
+ * @author Colin Puleston
+ */
+public enum RNetCompression {
+
+	/**
+	 * Specifies no compression.
+	 */
+	NONE("identity"),
+
+	/**
+	 * Specifies GZIP compression.
+	 */
+	GZIP("gzip"),
+
+	/**
+	 * Specifies DEFLATE (ZLIB-format) compression.
+	 */
+	DEFLATE("deflate");
+
+	/**
+	 * Provides the compression type specified by a value for the
+	 * HTTP "Content-Encoding" header.
+	 *
+	 * @param encoding Value of header, or null if header not present
+	 * @return Relevant compression type, or null if not supported
+	 */
+	static public RNetCompression forEncoding(String encoding) {
+
+		if (encoding == null) {
+
+			return NONE;
+		}
+
+		for (RNetCompression compression : values()) {
+
+			if (compression.encoding.equalsIgnoreCase(encoding.trim())) {
+
+				return compression;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Selects the preferred compression type that is acceptable as
+	 * specified by a value for the HTTP "Accept-Encoding" header,
+	 * with GZIP being preferred over DEFLATE.
+	 *
+	 * @param acceptEncoding Value of header, or null if header not
+	 * present
+	 * @return Preferred acceptable compression type, or {@link #NONE}
+	 * if no supported compression types are acceptable
+	 */
+	static public RNetCompression selectAccepted(String acceptEncoding) {
+
+		RNetCompression selection = NONE;
+
+		if (acceptEncoding != null) {
+
+			for (String option : acceptEncoding.split(",")) {
+
+				RNetCompression compression = getAcceptedOrNull(option);
+
+				if (compression == GZIP) {
+
+					return GZIP;
+				}
+
+				if (compression == DEFLATE) {
+
+					selection = DEFLATE;
+				}
+			}
+		}
+
+		return selection;
+	}
+
+	static private RNetCompression getAcceptedOrNull(String option) {
+
+		String[] parts = option.split(";");
+
+		for (int i = 1 ; i < parts.length ; i++) {
+
+			if (parts[i].trim().matches("q=0(\\.0*)?")) {
+
+				return null;
+			}
+		}
+
+		return forEncoding(parts[0]);
+	}
+
+	private String encoding;
+
+	/**
+	 * Provides the HTTP content-coding name for the compression type.
+	 *
+	 * @return Content-coding name
+	 */
+	public String getEncoding() {
+
+		return encoding;
+	}
+
+	/**
+	 * Wraps an input-stream so as to decompress the content.
+	 *
+	 * @param input Input-stream providing compressed content
+	 * @return Input-stream providing decompressed content
+	 * @throws IOException if compressed content cannot be read
+	 */
+	public InputStream decompress(InputStream input) throws IOException {
+
+		switch (this) {
+
+			case GZIP:
+				return new GZIPInputStream(input);
+
+			case DEFLATE:
+				return new InflaterInputStream(input);
+
+			default:
+				return input;
+		}
+	}
+
+	/**
+	 * Wraps an output-stream so as to compress the content. The
+	 * returned stream must be closed in order to complete the
+	 * compressed content.
+	 *
+	 * @param output Output-stream to receive compressed content
+	 * @return Output-stream accepting uncompressed content
+	 * @throws IOException if compressed content cannot be written
+	 */
+	public OutputStream compress(OutputStream output) throws IOException {
+
+		switch (this) {
+
+			case GZIP:
+				return new GZIPOutputStream(output);
+
+			case DEFLATE:
+				return new DeflaterOutputStream(output);
+
+			default:
+				return output;
+		}
+	}
+
+	private RNetCompression(String encoding) {
+
+		this.encoding = encoding;
+	}
+}
@@ -34,4 +34,11 @@ public interface RNetVocab {
 
 	static public final String SERVER_INIT_REQUEST_ID = "ServerInitialisationRequest";
 	static public final String SERVER_INIT_OK_RESPONSE_ID = "ServerInitialisationOk";
+
+	static public final String CONTENT_TYPE_HEADER = "Content-Type";
+	static public final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+	static public final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+
+	static public final String XML_CONTENT_TYPE = "application/xml";
+	static public final String BINARY_CONTENT_TYPE = "application/x-mekon-xdoc";
 }
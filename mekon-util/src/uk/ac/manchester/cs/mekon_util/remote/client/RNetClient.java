@@ -33,11 +33,21 @@ import uk.ac.manchester.cs.mekon_util.remote.*;
 /**
  * Represents a network client, via which server-side actions
  * can be specified and performed.
+ * <p>
+ * Where the server is accessed via HTTP, each response is parsed
+ * directly from the connection, and any remaining content is then
+ * discarded before the connection is released, so that the underlying
+ * connection can be re-used for subsequent requests (HTTP keep-alive).
+ * Request and response bodies can optionally be compressed, and
+ * documents can optionally be transported using a compact binary
+ * format in place of XML.
  *
  * @author Colin Puleston
  */
 public class RNetClient implements RNetVocab {
 
+	static private final int READ_BUFFER_SIZE = 8192;
+
 	/**
 	 * Creates object and invokes {@link #initialiseServer} method,
 	 * interpreting first argument as the required server URL.
@@ -79,6 +89,10 @@ public class RNetClient implements RNetVocab {
 	private int connectTimeoutInMillis = 0;
 	private int readTimeoutInMillis = 0;
 
+	private RNetCompression requestCompression = RNetCompression.NONE;
+	private boolean acceptCompressedResponses = true;
+	private boolean binaryTransport = false;
+
 	/**
 	 * Constructor.
 	 *
@@ -111,6 +125,48 @@ public class RNetClient implements RNetVocab {
 		readTimeoutInMillis = timeInSeconds * 1000;
 	}
 
+	/**
+	 * Sets the type of compression to be applied to request bodies.
+	 * Should only be set to a compressing type if the server is known
+	 * to support the relevant type. By default there will be no request
+	 * compression.
+	 *
+	 * @param requestCompression Required request compression type
+	 */
+	public void setRequestCompression(RNetCompression requestCompression) {
+
+		this.requestCompression = requestCompression;
+	}
+
+	/**
+	 * Specifies whether the server is to be informed that compressed
+	 * response bodies are acceptable, in which case the server will
+	 * compress responses if it supports one of the acceptable
+	 * compression types. By default compressed responses will be
+	 * accepted.
+	 *
+	 * @param acceptCompressedResponses True if compressed responses
+	 * are acceptable
+	 */
+	public void setAcceptCompressedResponses(boolean acceptCompressedResponses) {
+
+		this.acceptCompressedResponses = acceptCompressedResponses;
+	}
+
+	/**
+	 * Specifies whether request documents are to be sent using the
+	 * compact binary format, rather than as XML, in which case the
+	 * server will respond in the same format. Should only be set if the
+	 * server is known to support the binary format. By default XML will
+	 * be used.
+	 *
+	 * @param binaryTransport True if binary format is to be used
+	 */
+	public void setBinaryTransport(boolean binaryTransport) {
+
+		this.binaryTransport = binaryTransport;
+	}
+
 	/**
 	 * Sets handler for any runtime-exceptions resulting from
 	 * server-access operations. By default all such exceptions will
@@ -149,9 +205,10 @@ public class RNetClient implements RNetVocab {
 
 		try {
 
-			URLConnection connection = connect();
+			byte[] body = render(request);
+			URLConnection connection = connect(body.length);
 
-			send(connection, request);
+			send(connection, body);
 
 			return receive(connection);
 		}
@@ -179,35 +236,156 @@ public class RNetClient implements RNetVocab {
 		return exceptionHandler.handle(exception);
 	}
 
-	private URLConnection connect() throws IOException {
+	private byte[] render(XDocument request) throws IOException {
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		OutputStream output = requestCompression.compress(body);
+
+		request.writeToOutput(output, binaryTransport);
+		output.close();
+
+		return body.toByteArray();
+	}
+
+	private URLConnection connect(int contentLength) throws IOException {
 
 		URLConnection connection = serverURL.openConnection();
 
 		connection.setDoInput(true);
 		connection.setDoOutput(true);
+		connection.setUseCaches(false);
 		connection.setConnectTimeout(connectTimeoutInMillis);
 		connection.setReadTimeout(readTimeoutInMillis);
 
+		setRequestHeaders(connection);
+
+		if (connection instanceof HttpURLConnection) {
+
+			((HttpURLConnection)connection).setFixedLengthStreamingMode(contentLength);
+		}
+
 		connection.connect();
 
 		return connection;
 	}
 
-	private void send(URLConnection connection, XDocument request) throws IOException {
+	private void setRequestHeaders(URLConnection connection) {
+
+		String contentType = binaryTransport ? BINARY_CONTENT_TYPE : XML_CONTENT_TYPE;
+
+		connection.setRequestProperty(CONTENT_TYPE_HEADER, contentType);
+
+		if (requestCompression != RNetCompression.NONE) {
+
+			connection.setRequestProperty(CONTENT_ENCODING_HEADER, requestCompression.getEncoding());
+		}
+
+		if (acceptCompressedResponses) {
+
+			connection.setRequestProperty(ACCEPT_ENCODING_HEADER, getAcceptedEncodings());
+		}
+	}
+
+	private void send(URLConnection connection, byte[] body) throws IOException {
 
 		OutputStream output = connection.getOutputStream();
 
-		request.writeToOutput(new BufferedOutputStream(output));
+		output.write(body);
 		output.close();
 	}
 
 	private XDocument receive(URLConnection connection) throws IOException {
 
-		InputStream input = connection.getInputStream();
-		XDocument response = new XDocument(new BufferedInputStream(input));
+		InputStream input = getInputStream(connection);
+
+		try {
+
+			return new XDocument(
+						getDecompressedInput(connection, input),
+						binaryResponse(connection));
+		}
+		finally {
+
+			discardRemainingResponse(input);
+		}
+	}
+
+	private InputStream getInputStream(URLConnection connection) throws IOException {
+
+		try {
+
+			return connection.getInputStream();
+		}
+		catch (IOException e) {
+
+			if (connection instanceof HttpURLConnection) {
+
+				discardErrorResponse((HttpURLConnection)connection);
+			}
+
+			throw e;
+		}
+	}
+
+	private InputStream getDecompressedInput(
+							URLConnection connection,
+							InputStream input)
+							throws IOException {
+
+		String encoding = connection.getContentEncoding();
+		RNetCompression compression = RNetCompression.forEncoding(encoding);
+
+		if (compression == null) {
+
+			throw new IOException("Unsupported response content-encoding: " + encoding);
+		}
+
+		return compression.decompress(input);
+	}
+
+	private boolean binaryResponse(URLConnection connection) {
+
+		String contentType = connection.getContentType();
+
+		return contentType != null && contentType.startsWith(BINARY_CONTENT_TYPE);
+	}
+
+	private void discardRemainingResponse(InputStream input) throws IOException {
+
+		try {
+
+			discardAll(input);
+		}
+		catch (IOException e) {
+
+			// HTTP response streams close themselves on reaching the end
+			// of the content, after which reads fail with "stream is closed"
+		}
 
 		input.close();
+	}
+
+	private void discardErrorResponse(HttpURLConnection connection) throws IOException {
+
+		InputStream error = connection.getErrorStream();
+
+		if (error != null) {
+
+			discardAll(error);
+			error.close();
+		}
+	}
+
+	private void discardAll(InputStream input) throws IOException {
+
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+		while (input.read(buffer) != -1) {
+		}
+	}
+
+	private String getAcceptedEncodings() {
 
-		return response;
+		return RNetCompression.GZIP.getEncoding() + ", " + RNetCompression.DEFLATE.getEncoding();
 	}
 }
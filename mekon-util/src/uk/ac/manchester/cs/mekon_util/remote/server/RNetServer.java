@@ -26,6 +26,7 @@ package uk.ac.manchester.cs.mekon_util.remote.server;
 
 import java.io.*;
 import javax.servlet.*;
+import javax.servlet.http.*;
 
 import uk.ac.manchester.cs.mekon_util.remote.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
@@ -33,6 +34,13 @@ import uk.ac.manchester.cs.mekon_util.xdoc.*;
 /**
  * Servlet via which server-side actions can be specified and
  * performed.
+ * <p>
+ * Where accessed via HTTP, compressed request bodies are accepted,
+ * and response bodies are compressed if the client indicates that
+ * compression is acceptable. Requests sent in the compact binary
+ * document format (see {@link XDocument}) are only accepted if the
+ * extending class enables them (see {@link #acceptBinaryRequests}),
+ * in which case they are responded to in the same format.
  *
  * @author Colin Puleston
  */
@@ -65,10 +73,12 @@ public abstract class RNetServer extends GenericServlet implements RNetVocab {
 
 		try {
 
-			XDocument requestDoc = new XDocument(getInputStream(request));
+			boolean binary = binaryRequest(request);
+
+			XDocument requestDoc = new XDocument(getInputStream(request), binary);
 			XDocument responseDoc = confirmInitOrPerformAction(requestDoc);
 
-			responseDoc.writeToOutput(getOutputStream(response));
+			writeResponse(request, response, responseDoc, binary);
 		}
 		catch (RuntimeException e) {
 
@@ -81,6 +91,30 @@ public abstract class RNetServer extends GenericServlet implements RNetVocab {
 	public void destroy() {
 	}
 
+	/**
+	 * Specifies whether responses are to be compressed where the client
+	 * indicates that compression is acceptable. The default
+	 * implementation returns true.
+	 *
+	 * @return True if responses can be compressed
+	 */
+	protected boolean compressResponses() {
+
+		return true;
+	}
+
+	/**
+	 * Specifies whether requests sent in the compact binary document
+	 * format are to be accepted. If not, any such requests will be
+	 * rejected. The default implementation returns false.
+	 *
+	 * @return True if binary requests are to be accepted
+	 */
+	protected boolean acceptBinaryRequests() {
+
+		return false;
+	}
+
 	/**
 	 * Performs any required initialisations for the extending class.
 	 */
@@ -105,9 +139,82 @@ public abstract class RNetServer extends GenericServlet implements RNetVocab {
 		return performAction(request);
 	}
 
+	private void writeResponse(
+					ServletRequest request,
+					ServletResponse response,
+					XDocument responseDoc,
+					boolean binary)
+					throws IOException {
+
+		RNetCompression compression = getResponseCompression(request);
+
+		response.setContentType(binary ? BINARY_CONTENT_TYPE : XML_CONTENT_TYPE);
+
+		if (compression != RNetCompression.NONE) {
+
+			((HttpServletResponse)response).setHeader(
+												CONTENT_ENCODING_HEADER,
+												compression.getEncoding());
+		}
+
+		OutputStream output = compression.compress(getOutputStream(response));
+
+		responseDoc.writeToOutput(output, binary);
+		output.close();
+	}
+
+	private boolean binaryRequest(ServletRequest request) {
+
+		String contentType = request.getContentType();
+
+		if (contentType == null || !contentType.startsWith(BINARY_CONTENT_TYPE)) {
+
+			return false;
+		}
+
+		if (!acceptBinaryRequests()) {
+
+			throw new RServerException("Binary request format not accepted");
+		}
+
+		return true;
+	}
+
+	private RNetCompression getResponseCompression(ServletRequest request) {
+
+		if (compressResponses() && request instanceof HttpServletRequest) {
+
+			String acceptEncoding = ((HttpServletRequest)request).getHeader(ACCEPT_ENCODING_HEADER);
+
+			return RNetCompression.selectAccepted(acceptEncoding);
+		}
+
+		return RNetCompression.NONE;
+	}
+
 	private InputStream getInputStream(ServletRequest request) throws IOException {
 
-		return new BufferedInputStream(request.getInputStream());
+		InputStream input = new BufferedInputStream(request.getInputStream());
+
+		return getRequestCompression(request).decompress(input);
+	}
+
+	private RNetCompression getRequestCompression(ServletRequest request) {
+
+		if (request instanceof HttpServletRequest) {
+
+			String encoding = ((HttpServletRequest)request).getHeader(CONTENT_ENCODING_HEADER);
+			RNetCompression compression = RNetCompression.forEncoding(encoding);
+
+			if (compression == null) {
+
+				throw new RServerException("Unsupported request content-encoding: " + encoding);
+			}
+
+			return compression;
+		}
+
+		return RNetCompression.NONE;
 	}
 
 	private OutputStream getOutputStream(ServletResponse response) throws IOException {
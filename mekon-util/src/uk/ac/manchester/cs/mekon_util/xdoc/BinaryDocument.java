@@ -0,0 +1,311 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon_util.xdoc;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Compact binary reading and writing of XML documents, as an
+ * alternative to the textual format for documents exchanged between
+ * processes. Element names, attribute names, attribute values and
+ * text are dictionary-encoded, such that each distinct string is
+ * written out in full only on first occurrence. On reading, counts,
+ * string lengths and element nesting depth are all bounded, so that
+ * malformed or hostile input is rejected rather than exhausting
+ * memory or stack.
+ *
+ * @author Colin Puleston
+ */
+class BinaryDocument {
+
+	static private final int FORMAT_MARKER = 0x4D4B5844;
+	static private final byte FORMAT_VERSION = 1;
+
+	static private final byte ELEMENT_TAG = 1;
+	static private final byte TEXT_TAG = 2;
+
+	static private final int FINAL_COUNT_BYTE_SHIFT = 28;
+	static private final int FINAL_COUNT_BYTE_MASK = 0x07;
+	static private final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+	static private final int MAX_DEPTH = 2048;
+
+	static private class Writer {
+
+		private DataOutputStream output;
+		private Map<String, Integer> stringCodes = new HashMap<String, Integer>();
+
+		Writer(OutputStream output) {
+
+			this.output = new DataOutputStream(new BufferedOutputStream(output));
+		}
+
+		void write(Document document) throws IOException {
+
+			output.writeInt(FORMAT_MARKER);
+			output.writeByte(FORMAT_VERSION);
+
+			writeElement(document.getDocumentElement());
+
+			output.flush();
+		}
+
+		private void writeElement(Element element) throws IOException {
+
+			NamedNodeMap attributes = element.getAttributes();
+
+			writeString(element.getTagName());
+			writeCount(attributes.getLength());
+
+			for (int i = 0 ; i < attributes.getLength() ; i++) {
+
+				Node attribute = attributes.item(i);
+
+				writeString(attribute.getNodeName());
+				writeString(attribute.getNodeValue());
+			}
+
+			for (Node child = element.getFirstChild() ; child != null ; child = child.getNextSibling()) {
+
+				if (child instanceof Element) {
+
+					output.writeByte(ELEMENT_TAG);
+					writeElement((Element)child);
+				}
+				else if (child instanceof Text) {
+
+					output.writeByte(TEXT_TAG);
+					writeString(child.getNodeValue());
+				}
+			}
+
+			output.writeByte(0);
+		}
+
+		private void writeString(String value) throws IOException {
+
+			Integer code = stringCodes.get(value);
+
+			if (code != null) {
+
+				writeCount(code);
+			}
+			else {
+
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+				code = stringCodes.size();
+
+				stringCodes.put(value, code);
+
+				writeCount(code);
+				writeCount(bytes.length);
+				output.write(bytes);
+			}
+		}
+
+		private void writeCount(int value) throws IOException {
+
+			while ((value & ~0x7F) != 0) {
+
+				output.writeByte((value & 0x7F) | 0x80);
+
+				value >>>= 7;
+			}
+
+			output.writeByte(value);
+		}
+	}
+
+	static private class Reader {
+
+		private DataInputStream input;
+		private List<String> strings = new ArrayList<String>();
+
+		private Document document = DOMDocument.createEmpty();
+
+		Reader(InputStream input) {
+
+			this.input = new DataInputStream(new BufferedInputStream(input));
+		}
+
+		Document read() throws IOException {
+
+			if (input.readInt() != FORMAT_MARKER) {
+
+				throw new XDocumentException("Unrecognised binary document format");
+			}
+
+			byte version = input.readByte();
+
+			if (version != FORMAT_VERSION) {
+
+				throw new XDocumentException("Unsupported binary document version: " + version);
+			}
+
+			document.appendChild(readElements());
+
+			return document;
+		}
+
+		private Element readElements() throws IOException {
+
+			Element root = readElement();
+			Deque<Element> openElements = new ArrayDeque<Element>();
+
+			openElements.push(root);
+
+			while (!openElements.isEmpty()) {
+
+				Element element = openElements.peek();
+				byte tag = input.readByte();
+
+				if (tag == 0) {
+
+					openElements.pop();
+				}
+				else if (tag == ELEMENT_TAG) {
+
+					if (openElements.size() == MAX_DEPTH) {
+
+						throw new XDocumentException(
+									"Binary document exceeds maximum depth: "
+									+ MAX_DEPTH);
+					}
+
+					Element child = readElement();
+
+					element.appendChild(child);
+					openElements.push(child);
+				}
+				else if (tag == TEXT_TAG) {
+
+					element.appendChild(document.createTextNode(readString()));
+				}
+				else {
+
+					throw new XDocumentException("Unrecognised binary document tag: " + tag);
+				}
+			}
+
+			return root;
+		}
+
+		private Element readElement() throws IOException {
+
+			Element element = document.createElement(readString());
+			int attributeCount = readCount();
+
+			for (int i = 0 ; i < attributeCount ; i++) {
+
+				element.setAttribute(readString(), readString());
+			}
+
+			return element;
+		}
+
+		private String readString() throws IOException {
+
+			int code = readCount();
+
+			if (code < strings.size()) {
+
+				return strings.get(code);
+			}
+
+			if (code != strings.size()) {
+
+				throw new XDocumentException("Invalid binary document string-code: " + code);
+			}
+
+			int length = readCount();
+
+			if (length > MAX_STRING_BYTES) {
+
+				throw new XDocumentException("Invalid binary document string-length: " + length);
+			}
+
+			byte[] bytes = new byte[length];
+
+			input.readFully(bytes);
+
+			String value = new String(bytes, StandardCharsets.UTF_8);
+
+			strings.add(value);
+
+			return value;
+		}
+
+		private int readCount() throws IOException {
+
+			int value = 0;
+			int shift = 0;
+			byte next;
+
+			do {
+
+				next = input.readByte();
+
+				if (shift == FINAL_COUNT_BYTE_SHIFT && (next & ~FINAL_COUNT_BYTE_MASK) != 0) {
+
+					throw new XDocumentException("Invalid binary document count encoding");
+				}
+
+				value |= (next & 0x7F) << shift;
+				shift += 7;
+			}
+			while ((next & 0x80) != 0);
+
+			return value;
+		}
+	}
+
+	static Document read(InputStream input) {
+
+		try {
+
+			return new Reader(input).read();
+		}
+		catch (IOException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+
+	static void write(Document document, OutputStream output) {
+
+		try {
+
+			new Writer(output).write(document);
+		}
+		catch (IOException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+}
@@ -29,7 +29,6 @@ import javax.xml.parsers.*;
 
 import org.w3c.dom.*;
 import org.w3c.dom.ls.*;
-import org.xml.sax.*;
 
 /**
  * @author Colin Puleston
@@ -38,37 +37,7 @@ class DOMDocument {
 
 	static private final String PRETTY_PRINT_ID = "format-pretty-print";
 
-	static Document read(File file) {
-
-		try {
-
-			return createBuilder().parse(file);
-		}
-		catch (IOException e) {
-
-			throw new XDocumentException(e);
-		}
-		catch (SAXException e) {
-
-			throw new XDocumentException(e);
-		}
-	}
-
-	static Document read(InputStream input) {
-
-		try {
-
-			return createBuilder().parse(input);
-		}
-		catch (IOException e) {
-
-			throw new XDocumentException(e);
-		}
-		catch (SAXException e) {
-
-			throw new XDocumentException(e);
-		}
-	}
+	static private final ThreadLocal<DocumentBuilder> builders = new ThreadLocal<DocumentBuilder>();
 
 	static void write(Document document, File file) {
 
@@ -94,7 +63,7 @@ class DOMDocument {
 
 	static Document create(String rootElementId) {
 
-		Document document = createBuilder().newDocument();
+		Document document = createEmpty();
 		Element rootEl = document.createElement(rootElementId);
 
 		document.appendChild(rootEl);
@@ -102,8 +71,30 @@ class DOMDocument {
 		return document;
 	}
 
+	static Document createEmpty() {
+
+		return createBuilder().newDocument();
+	}
+
 	static private DocumentBuilder createBuilder() {
 
+		DocumentBuilder builder = builders.get();
+
+		if (builder == null) {
+
+			builder = createNewBuilder();
+			builders.set(builder);
+		}
+		else {
+
+			builder.reset();
+		}
+
+		return builder;
+	}
+
+	static private DocumentBuilder createNewBuilder() {
+
 		try {
 
 			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -0,0 +1,352 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package uk.ac.manchester.cs.mekon_util.xdoc;
+
+import java.io.*;
+
+import javax.xml.*;
+import javax.xml.stream.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Streaming (StAX-based) reading and writing of XML documents. On
+ * reading, the DOM representation is built directly from the event
+ * stream, retaining any namespace declarations, and omitting any
+ * whitespace-only text that separates child elements (whitespace-only
+ * text is retained for elements that have no child elements). On
+ * writing, the output is
+ * produced without pretty-printing. The underlying factories are
+ * shared between all reads and writes.
+ *
+ * @author Colin Puleston
+ */
+class StAXDocument {
+
+	static private final String ENCODING = "UTF-8";
+	static private final String XML_VERSION = "1.0";
+
+	static private final XMLInputFactory inputFactory = createInputFactory();
+	static private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+	static private class DOMBuilder {
+
+		private XMLStreamReader reader;
+
+		private Document document = DOMDocument.createEmpty();
+		private Node current = document;
+
+		private String pendingWhitespace = null;
+
+		DOMBuilder(XMLStreamReader reader) {
+
+			this.reader = reader;
+		}
+
+		Document build() throws XMLStreamException {
+
+			while (reader.hasNext()) {
+
+				switch (reader.next()) {
+
+					case XMLStreamConstants.START_ELEMENT:
+						startElement();
+						break;
+
+					case XMLStreamConstants.END_ELEMENT:
+						endElement();
+						break;
+
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+						checkAddText();
+						break;
+				}
+			}
+
+			return document;
+		}
+
+		private void startElement() {
+
+			Element element = createElement();
+
+			pendingWhitespace = null;
+
+			for (int i = 0 ; i < reader.getNamespaceCount() ; i++) {
+
+				addNamespaceDeclaration(element, i);
+			}
+
+			for (int i = 0 ; i < reader.getAttributeCount() ; i++) {
+
+				addAttribute(element, i);
+			}
+
+			current.appendChild(element);
+			current = element;
+		}
+
+		private void endElement() {
+
+			if (pendingWhitespace != null && !hasChildElement(current)) {
+
+				addText(pendingWhitespace);
+			}
+
+			pendingWhitespace = null;
+			current = current.getParentNode();
+		}
+
+		private Element createElement() {
+
+			String uri = reader.getNamespaceURI();
+			String name = toQName(reader.getPrefix(), reader.getLocalName());
+
+			return uri != null
+					? document.createElementNS(uri, name)
+					: document.createElement(name);
+		}
+
+		private void addNamespaceDeclaration(Element element, int index) {
+
+			String prefix = reader.getNamespacePrefix(index);
+			String name = prefix == null || prefix.length() == 0
+							? XMLConstants.XMLNS_ATTRIBUTE
+							: XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+
+			element.setAttributeNS(
+				XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+				name,
+				reader.getNamespaceURI(index));
+		}
+
+		private void addAttribute(Element element, int index) {
+
+			String uri = reader.getAttributeNamespace(index);
+			String name = toQName(
+							reader.getAttributePrefix(index),
+							reader.getAttributeLocalName(index));
+			String value = reader.getAttributeValue(index);
+
+			if (uri != null && uri.length() != 0) {
+
+				element.setAttributeNS(uri, name, value);
+			}
+			else {
+
+				element.setAttribute(name, value);
+			}
+		}
+
+		private void checkAddText() {
+
+			if (current == document) {
+
+				return;
+			}
+
+			String text = reader.getText();
+
+			if (pendingWhitespace != null) {
+
+				text = pendingWhitespace + text;
+				pendingWhitespace = null;
+			}
+
+			if (reader.isWhiteSpace()) {
+
+				pendingWhitespace = text;
+			}
+			else {
+
+				addText(text);
+			}
+		}
+
+		private void addText(String text) {
+
+			current.appendChild(document.createTextNode(text));
+		}
+
+		private boolean hasChildElement(Node node) {
+
+			for (Node child = node.getFirstChild() ; child != null ; child = child.getNextSibling()) {
+
+				if (child instanceof Element) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private String toQName(String prefix, String localName) {
+
+			return prefix == null || prefix.length() == 0
+					? localName
+					: prefix + ":" + localName;
+		}
+	}
+
+	static Document read(File file) {
+
+		InputStream input = openStream(file);
+
+		try {
+
+			return read(input);
+		}
+		finally {
+
+			closeStream(input);
+		}
+	}
+
+	static Document read(InputStream input) {
+
+		try {
+
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+
+			try {
+
+				return new DOMBuilder(reader).build();
+			}
+			finally {
+
+				reader.close();
+			}
+		}
+		catch (XMLStreamException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+
+	static void write(Document document, OutputStream output) {
+
+		try {
+
+			XMLStreamWriter writer = outputFactory.createXMLStreamWriter(output, ENCODING);
+
+			writer.writeStartDocument(ENCODING, XML_VERSION);
+			writeElement(writer, document.getDocumentElement());
+			writer.writeEndDocument();
+			writer.close();
+
+			output.flush();
+		}
+		catch (XMLStreamException e) {
+
+			throw new XDocumentException(e);
+		}
+		catch (IOException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+
+	static private XMLInputFactory createInputFactory() {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+		return factory;
+	}
+
+	static private void writeElement(
+							XMLStreamWriter writer,
+							Element element)
+							throws XMLStreamException {
+
+		if (!element.hasChildNodes()) {
+
+			writer.writeEmptyElement(element.getTagName());
+			writeAttributes(writer, element);
+
+			return;
+		}
+
+		writer.writeStartElement(element.getTagName());
+		writeAttributes(writer, element);
+
+		for (Node child = element.getFirstChild() ; child != null ; child = child.getNextSibling()) {
+
+			if (child instanceof Element) {
+
+				writeElement(writer, (Element)child);
+			}
+			else if (child instanceof Text) {
+
+				writer.writeCharacters(child.getNodeValue());
+			}
+		}
+
+		writer.writeEndElement();
+	}
+
+	static private void writeAttributes(
+							XMLStreamWriter writer,
+							Element element)
+							throws XMLStreamException {
+
+		NamedNodeMap attributes = element.getAttributes();
+
+		for (int i = 0 ; i < attributes.getLength() ; i++) {
+
+			Node attribute = attributes.item(i);
+
+			writer.writeAttribute(attribute.getNodeName(), attribute.getNodeValue());
+		}
+	}
+
+	static private InputStream openStream(File file) {
+
+		try {
+
+			return new BufferedInputStream(new FileInputStream(file));
+		}
+		catch (FileNotFoundException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+
+	static private void closeStream(InputStream input) {
+
+		try {
+
+			input.close();
+		}
+		catch (IOException e) {
+
+			throw new XDocumentException(e);
+		}
+	}
+}
@@ -31,6 +31,13 @@ import org.w3c.dom.*;
  * Represents an XML format document, providing, via a tree of
  * {@link XNode} objects, a set of higher-level methods for reading
  * from, and writing to, the document.
+ * <p>
+ * Documents are read via a streaming (StAX) parser. Documents written
+ * to output-streams, which will generally be consumed by other
+ * processes, are also written via a streaming writer, without
+ * pretty-printing. Documents written to file are pretty-printed.
+ * Documents exchanged between processes can alternatively be read
+ * from, and written to, streams in a compact binary format.
  *
  * @author Colin Puleston
  */
@@ -49,7 +56,7 @@ public class XDocument {
 	 */
 	public XDocument(File file) {
 
-		this(DOMDocument.read(file));
+		this(StAXDocument.read(file));
 	}
 
 	/**
@@ -61,7 +68,22 @@ public class XDocument {
 	 */
 	public XDocument(InputStream inputStream) {
 
-		this(DOMDocument.read(inputStream));
+		this(StAXDocument.read(inputStream));
+	}
+
+	/**
+	 * Constructor that loads document from an input-stream, containing
+	 * either the standard XML format or the compact binary format (see
+	 * {@link #writeToOutput(OutputStream, boolean)}).
+	 *
+	 * @param inputStream Relevant input-stream
+	 * @param binary True if input-stream contains binary format
+	 * @throws XDocumentException if input-stream contains incorrectly
+	 * specified information, either syntactically or semantically
+	 */
+	public XDocument(InputStream inputStream, boolean binary) {
+
+		this(binary ? BinaryDocument.read(inputStream) : StAXDocument.read(inputStream));
 	}
 
 	/**
@@ -107,7 +129,31 @@ public class XDocument {
 	 */
 	public void writeToOutput(OutputStream output) {
 
-		DOMDocument.write(domDocument, output);
+		StAXDocument.write(domDocument, output);
+	}
+
+	/**
+	 * Writes the current document to an output-stream, using either
+	 * the standard XML format or a compact binary format, in which
+	 * all names and values are dictionary-encoded. The binary format
+	 * is only intended for exchange between processes that both use
+	 * this class.
+	 *
+	 * @param output Relevant output-stream
+	 * @param binary True if binary format required
+	 * @throws XDocumentException if document cannot be written to
+	 * output-stream for some reason
+	 */
+	public void writeToOutput(OutputStream output, boolean binary) {
+
+		if (binary) {
+
+			BinaryDocument.write(domDocument, output);
+		}
+		else {
+
+			StAXDocument.write(domDocument, output);
+		}
 	}
 
 	/**
@@ -131,6 +131,7 @@ class CConfig implements CConfigVocab {
 		KConfigNode node = rootNode.getChild(INSTANCE_UPDATING_ID);
 
 		builder.setAutoUpdate(node.getBoolean(INSTANCE_AUTO_UPDATE_ATTR));
+		builder.setAutoUpdateDelay(node.getInteger(INSTANCE_AUTO_UPDATE_DELAY_ATTR, 0));
 		setUpdateOpEnabling(builder, node.getChild(INSTANCE_UPDATE_DEFAULT_OPS_ID));
 	}
 
@@ -185,6 +186,16 @@ class CConfig implements CConfigVocab {
 			setDefaultDiskStoreDir(storeBldr);
 		}
 
+		storeBldr.setConcurrentReads(getDiskStoreConcurrentReads(node));
+		storeBldr.setMatchThreads(getDiskStoreMatchThreads(node));
+		storeBldr.setStartupThreads(getDiskStoreStartupThreads(node));
+		storeBldr.setMatcherCheckpoints(getDiskStoreMatcherCheckpoints(node));
+		storeBldr.setBackgroundReferenceUpdates(getDiskStoreBackgroundRefUpdates(node));
+		storeBldr.setLayout(getDiskStoreLayout(node));
+		storeBldr.setInstanceFormat(getDiskStoreFormat(node));
+		storeBldr.setInstanceCacheSize(getDiskStoreCacheSize(node));
+		storeBldr.setMatchCacheSize(getDiskStoreMatchCacheSize(node));
+
 		addDiskSubStores(storeBldr, node);
 	}
 
@@ -214,6 +225,57 @@ class CConfig implements CConfigVocab {
 		return node.getString(INSTANCE_DISK_STORE_DIR_ATTR, null);
 	}
 
+	private boolean getDiskStoreConcurrentReads(KConfigNode node) {
+
+		return node.getBoolean(INSTANCE_DISK_STORE_CONCURRENT_READS_ATTR, false);
+	}
+
+	private int getDiskStoreMatchThreads(KConfigNode node) {
+
+		return node.getInteger(INSTANCE_DISK_STORE_MATCH_THREADS_ATTR, 1);
+	}
+
+	private int getDiskStoreStartupThreads(KConfigNode node) {
+
+		return node.getInteger(INSTANCE_DISK_STORE_STARTUP_THREADS_ATTR, 1);
+	}
+
+	private boolean getDiskStoreMatcherCheckpoints(KConfigNode node) {
+
+		return node.getBoolean(INSTANCE_DISK_STORE_CHECKPOINTS_ATTR, false);
+	}
+
+	private boolean getDiskStoreBackgroundRefUpdates(KConfigNode node) {
+
+		return node.getBoolean(INSTANCE_DISK_STORE_BACKGROUND_REF_UPDATES_ATTR, false);
+	}
+
+	private int getDiskStoreCacheSize(KConfigNode node) {
+
+		return node.getInteger(INSTANCE_DISK_STORE_CACHE_SIZE_ATTR, 0);
+	}
+
+	private int getDiskStoreMatchCacheSize(KConfigNode node) {
+
+		return node.getInteger(INSTANCE_DISK_STORE_MATCH_CACHE_SIZE_ATTR, 0);
+	}
+
+	private IDiskStoreLayout getDiskStoreLayout(KConfigNode node) {
+
+		return node.getEnum(
+					INSTANCE_DISK_STORE_LAYOUT_ATTR,
+					IDiskStoreLayout.class,
+					IDiskStoreLayout.INSTANCE_FILES);
+	}
+
+	private IDiskStoreFormat getDiskStoreFormat(KConfigNode node) {
+
+		return node.getEnum(
+					INSTANCE_DISK_STORE_FORMAT_ATTR,
+					IDiskStoreFormat.class,
+					IDiskStoreFormat.XML);
+	}
+
 	private File getDiskStoreDir(String dirName) {
 
 		File parentDir = getConfigFileDir();
@@ -49,10 +49,20 @@ public interface CConfigVocab {
 
 	static public final String SECTION_BLDER_CLASS_ATTR = "builder";
 	static public final String INSTANCE_DISK_STORE_DIR_ATTR = "directory";
+	static public final String INSTANCE_DISK_STORE_CONCURRENT_READS_ATTR = "concurrentReads";
+	static public final String INSTANCE_DISK_STORE_MATCH_THREADS_ATTR = "matchThreads";
+	static public final String INSTANCE_DISK_STORE_LAYOUT_ATTR = "layout";
+	static public final String INSTANCE_DISK_STORE_FORMAT_ATTR = "instanceFormat";
+	static public final String INSTANCE_DISK_STORE_CACHE_SIZE_ATTR = "instanceCacheSize";
+	static public final String INSTANCE_DISK_STORE_MATCH_CACHE_SIZE_ATTR = "matchCacheSize";
+	static public final String INSTANCE_DISK_STORE_STARTUP_THREADS_ATTR = "startupThreads";
+	static public final String INSTANCE_DISK_STORE_CHECKPOINTS_ATTR = "matcherCheckpoints";
+	static public final String INSTANCE_DISK_STORE_BACKGROUND_REF_UPDATES_ATTR = "backgroundReferenceUpdates";
 	static public final String INSTANCE_DISK_SUBSTORE_NAME_ATTR = "name";
 	static public final String INSTANCE_DISK_SUBSTORE_SPLIT_ATTR = "splitByFunction";
 	static public final String INSTANCE_DISK_GROUP_ROOT_TYPE_ATTR = "rootType";
 	static public final String INSTANCE_AUTO_UPDATE_ATTR = "autoUpdate";
+	static public final String INSTANCE_AUTO_UPDATE_DELAY_ATTR = "autoUpdateDelay";
 	static public final String INSTANCE_UPDATE_INFERREDS_ATTR = "inferredTypes";
 	static public final String INSTANCE_UPDATE_SUGGESTEDS_ATTR = "suggestedTypes";
 	static public final String INSTANCE_UPDATE_SLOTS_ATTR = "slots";
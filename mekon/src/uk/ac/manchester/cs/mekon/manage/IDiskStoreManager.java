@@ -90,6 +90,44 @@ public class IDiskStoreManager {
 		return storeAccessor.storeFor(model);
 	}
 
+	/**
+	 * Provides the current usage statistics for the cache of
+	 * regenerated instances maintained by the instance-store for
+	 * the specified model.
+	 *
+	 * @param model Relevant model
+	 * @return Current instance-cache statistics for store
+	 */
+	static public IDiskStoreCacheStats getInstanceCacheStats(CModel model) {
+
+		return storeAccessor.getInstanceCacheStats(model);
+	}
+
+	/**
+	 * Provides the current usage statistics for the cache of
+	 * query-match results maintained by the instance-store for the
+	 * specified model.
+	 *
+	 * @param model Relevant model
+	 * @return Current match-cache statistics for store
+	 */
+	static public IDiskStoreCacheStats getMatchCacheStats(CModel model) {
+
+		return storeAccessor.getMatchCacheStats(model);
+	}
+
+	/**
+	 * Provides the times taken by each of the start-up phases for
+	 * the instance-store for the specified model.
+	 *
+	 * @param model Relevant model
+	 * @return Start-up timings for store
+	 */
+	static public IDiskStoreStartupTimings getStartupTimings(CModel model) {
+
+		return storeAccessor.getStartupTimings(model);
+	}
+
 	/**
 	 * Performs any necessary instance-store clear-ups after all
 	 * access of specified model has terminated.
@@ -479,12 +479,16 @@ class CAtomicFrame extends CFrame {
 
 		supers.add(sup);
 		sup.addSub(this);
+
+		subsumptions.onSupersUpdated();
 	}
 
 	private void removeLinksToSuper(CAtomicFrame sup) {
 
 		supers.remove(sup);
 		sup.removeSub(this);
+
+		subsumptions.onSupersUpdated();
 	}
 
 	private int insertSub(CAtomicFrame sub, int index) {
@@ -26,6 +26,7 @@ package uk.ac.manchester.cs.mekon.model;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import uk.ac.manchester.cs.mekon.model.motor.*;
 import uk.ac.manchester.cs.mekon.model.zlink.*;
@@ -46,6 +47,16 @@ class CBuilderImpl implements CBuilder {
 		model.getIUpdating().setAutoUpdate(autoUpdate);
 	}
 
+	public void setAutoUpdateDelay(int delayMillis) {
+
+		model.getIUpdating().setAutoUpdateDelay(delayMillis);
+	}
+
+	public void setAutoUpdateExecutor(Executor executor) {
+
+		model.getIUpdating().setAutoUpdateExecutor(executor);
+	}
+
 	public void setDefaultUpdateOp(IUpdateOp op, boolean enabled) {
 
 		model.getIUpdating().setDefaultOp(op, enabled);
@@ -25,39 +25,40 @@
 package uk.ac.manchester.cs.mekon.model;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * @author Colin Puleston
  */
 class CFrameSubsumptions {
 
+	static private final AtomicInteger nextSubsumptionIndex = new AtomicInteger();
+
 	private CAtomicFrame frame;
 
+	private int subsumptionIndex = nextSubsumptionIndex.getAndIncrement();
+	private volatile int[] ancestorIndexes = null;
+
 	private List<CAtomicFrame> ancestors = null;
 	private List<CAtomicFrame> structuredAncestors = null;
 
-	private class SubsumptionTester extends CHierarchyCrawler {
+	private class AncestorIndexesInvalidator extends CHierarchyCrawler {
 
-		private CAtomicFrame testSubsumer;
+		void invalidate() {
 
-		SubsumptionTester(CAtomicFrame testSubsumer) {
-
-			this.testSubsumer = testSubsumer;
-		}
-
-		boolean isSubsumption() {
-
-			return processAll(frame) == CrawlMode.DONE_ALL;
+			processAll(frame);
 		}
 
 		List<CAtomicFrame> getDirectlyLinked(CAtomicFrame current) {
 
-			return current.getAtomicSupers().getAll();
+			return current.getAtomicSubs().getAll();
 		}
 
 		CrawlMode process(CAtomicFrame current) {
 
-			return testSubsumer.equals(current) ? CrawlMode.DONE_ALL : CrawlMode.CRAWL;
+			return current.getSubsumptions().clearAncestorIndexes()
+						? CrawlMode.CRAWL
+						: CrawlMode.DONE_BRANCH;
 		}
 	}
 
@@ -236,6 +237,18 @@ class CFrameSubsumptions {
 
 		ancestors = null;
 		structuredAncestors = null;
+
+		clearAncestorIndexes();
+	}
+
+	void initialiseAncestorIndexes() {
+
+		getAncestorIndexes();
+	}
+
+	void onSupersUpdated() {
+
+		new AncestorIndexesInvalidator().invalidate();
 	}
 
 	void setAncestors(List<CAtomicFrame> ancestors) {
@@ -255,12 +268,14 @@ class CFrameSubsumptions {
 			return true;
 		}
 
-		if (testSubsumer.getAtomicSubs().getAll().isEmpty()) {
+		if (testSubsumer.getAtomicSubs().isEmpty()) {
 
 			return false;
 		}
 
-		return new SubsumptionTester(testSubsumer).isSubsumption();
+		int testIndex = testSubsumer.getSubsumptions().subsumptionIndex;
+
+		return Arrays.binarySearch(getAncestorIndexes(), testIndex) >= 0;
 	}
 
 	List<CAtomicFrame> getAncestors(CVisibility visibility) {
@@ -282,4 +297,62 @@ class CFrameSubsumptions {
 
 		return new StructuredDescendantsChecker().anyFound();
 	}
+
+	private int[] getAncestorIndexes() {
+
+		int[] indexes = ancestorIndexes;
+
+		return indexes != null ? indexes : resolveAncestorIndexes();
+	}
+
+	private synchronized int[] resolveAncestorIndexes() {
+
+		if (ancestorIndexes == null) {
+
+			ancestorIndexes = createAncestorIndexes();
+		}
+
+		return ancestorIndexes;
+	}
+
+	private synchronized boolean clearAncestorIndexes() {
+
+		if (ancestorIndexes == null) {
+
+			return false;
+		}
+
+		ancestorIndexes = null;
+
+		return true;
+	}
+
+	private int[] createAncestorIndexes() {
+
+		Set<Integer> allIndexes = new HashSet<Integer>();
+
+		for (CAtomicFrame sup : frame.getAtomicSupers().getAll()) {
+
+			CFrameSubsumptions supSubsumptions = sup.getSubsumptions();
+
+			allIndexes.add(supSubsumptions.subsumptionIndex);
+
+			for (int index : supSubsumptions.getAncestorIndexes()) {
+
+				allIndexes.add(index);
+			}
+		}
+
+		int[] indexes = new int[allIndexes.size()];
+		int i = 0;
+
+		for (int index : allIndexes) {
+
+			indexes[i++] = index;
+		}
+
+		Arrays.sort(indexes);
+
+		return indexes;
+	}
 }
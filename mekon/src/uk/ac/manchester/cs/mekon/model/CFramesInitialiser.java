@@ -118,6 +118,8 @@ class CFramesInitialiser {
 
 			ancestors.process(frame);
 			structuredAncestors.process(frame);
+
+			frame.getSubsumptions().initialiseAncestorIndexes();
 		}
 	}
 
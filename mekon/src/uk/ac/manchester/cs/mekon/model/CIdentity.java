@@ -77,6 +77,8 @@ public class CIdentity {
 	}
 
 	private List<String> identifierComponents = new ArrayList<String>();
+	private String identifier;
+	private int identifierHashCode;
 	private String label;
 
 	/**
@@ -112,7 +114,10 @@ public class CIdentity {
 
 		identifierComponents.add(identifier);
 
+		this.identifier = identifier;
 		this.label = label;
+
+		identifierHashCode = identifier != null ? identifier.hashCode() : 0;
 	}
 
 	/**
@@ -126,8 +131,10 @@ public class CIdentity {
 	public CIdentity(List<String> identifierComponents, String label) {
 
 		this.identifierComponents.addAll(identifierComponents);
-
 		this.label = label;
+
+		identifier = createIdentifier();
+		identifierHashCode = identifier.hashCode();
 	}
 
 	/**
@@ -139,11 +146,17 @@ public class CIdentity {
 	 */
 	public boolean equals(Object other) {
 
+		if (other == this) {
+
+			return true;
+		}
+
 		if (other instanceof CIdentity) {
 
 			CIdentity id = (CIdentity)other;
 
-			return getIdentifier().equals(id.getIdentifier());
+			return identifierHashCode == id.identifierHashCode
+					&& identifier.equals(id.identifier);
 		}
 
 		return false;
@@ -156,7 +169,7 @@ public class CIdentity {
 	 */
 	public int hashCode() {
 
-		return getIdentifier().hashCode();
+		return identifierHashCode;
 	}
 
 	/**
@@ -174,9 +187,7 @@ public class CIdentity {
 	 */
 	public String getIdentifier() {
 
-		return identifierComponents.size() == 1
-					? identifierComponents.get(0)
-					: createIdentifier();
+		return identifier;
 	}
 
 	/**
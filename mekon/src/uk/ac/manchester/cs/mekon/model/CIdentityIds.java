@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model;
+
+import java.util.*;
+
+/**
+ * Table that assigns dense integer ids, starting from zero, to a set
+ * of {@link CIdentity} objects. Each {@link CModel} has a table of
+ * this kind, to which the identities of all frames and slots are
+ * added as they are built (see {@link CModel#getIdentityIds}),
+ * enabling the network, matching and store layers to index by int
+ * rather than by hashed identifier strings.
+ * <p>
+ * Look-ups for the <code>CIdentity</code> object for which an id
+ * was originally assigned are resolved via object identity, without
+ * re-hashing the identifier. Look-ups for other
+ * <code>CIdentity</code> objects with the same identifier (such as
+ * those created by clients without reference to a model) fall back
+ * to an identifier-based look-up, and will always produce the same
+ * id. Ids are never reused.
+ * <p>
+ * Tables can also be created independently of any model, for use
+ * by components that operate on identities with no model available.
+ *
+ * @author Colin Puleston
+ */
+public class CIdentityIds {
+
+	private Map<CIdentity, Integer> ids = new HashMap<CIdentity, Integer>();
+	private Map<CIdentity, Integer> idsByObject = new IdentityHashMap<CIdentity, Integer>();
+	private List<CIdentity> identities = new ArrayList<CIdentity>();
+
+	/**
+	 * Provides the id for the specified identity, assigning a new
+	 * id if required.
+	 *
+	 * @param identity Identity for which id is required
+	 * @return Id for identity
+	 */
+	public synchronized int getId(CIdentity identity) {
+
+		Integer id = idsByObject.get(identity);
+
+		return id != null ? id : resolveId(identity);
+	}
+
+	/**
+	 * Provides the id for the specified identity, if one has
+	 * been assigned.
+	 *
+	 * @param identity Identity for which id is required
+	 * @return Id for identity, or -1 if no id assigned
+	 */
+	public synchronized int lookupId(CIdentity identity) {
+
+		Integer id = idsByObject.get(identity);
+
+		if (id == null) {
+
+			id = ids.get(identity);
+		}
+
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * Provides the identity for the specified id.
+	 *
+	 * @param id Id for which identity is required
+	 * @return Identity for id
+	 */
+	public synchronized CIdentity getIdentity(int id) {
+
+		return identities.get(id);
+	}
+
+	/**
+	 * Provides the number of ids that have been assigned, which will
+	 * also be one greater than the largest assigned id.
+	 *
+	 * @return Number of assigned ids
+	 */
+	public synchronized int size() {
+
+		return identities.size();
+	}
+
+	private int resolveId(CIdentity identity) {
+
+		Integer id = ids.get(identity);
+
+		if (id == null) {
+
+			id = identities.size();
+
+			ids.put(identity, id);
+			idsByObject.put(identity, id);
+			identities.add(identity);
+		}
+
+		return id;
+	}
+}
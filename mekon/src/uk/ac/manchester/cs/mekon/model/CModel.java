@@ -51,6 +51,7 @@ public class CModel implements CAnnotatable {
 	private CFrame rootFrame = new CRootFrame(this);
 	private CIdentifiedsLocal<CFrame> frames = new CIdentifiedsLocal<CFrame>();
 	private CSlotIdentities slotIdentities = new CSlotIdentities();
+	private CIdentityIds identityIds = new CIdentityIds();
 
 	private CAnnotations annotations = new CAnnotations(this);
 	private CSlotAnnotations slotAnnotations = new CSlotAnnotations();
@@ -94,6 +95,18 @@ public class CModel implements CAnnotatable {
 		return frames;
 	}
 
+	/**
+	 * Provides the table of dense integer ids for the identities of
+	 * the frames and slots in the model. Ids are assigned as the
+	 * frames and slots are added to the model.
+	 *
+	 * @return Integer-id table for model
+	 */
+	public CIdentityIds getIdentityIds() {
+
+		return identityIds;
+	}
+
 	/**
 	 * Provides any annotations on the actual model (as opposed
 	 * to annotations on the individual model components).
@@ -126,6 +139,7 @@ public class CModel implements CAnnotatable {
 
 		CAtomicFrame frame = new CAtomicFrame(this, identity, hidden);
 
+		identityIds.getId(identity);
 		frames.add(frame);
 		buildListeners.onFrameAdded(frame);
 
@@ -147,7 +161,11 @@ public class CModel implements CAnnotatable {
 
 	CIdentity resolveSlotIdentity(CFrame container, CIdentity slotId) {
 
-		return slotIdentities.resolve(container, slotId);
+		CIdentity resolvedId = slotIdentities.resolve(container, slotId);
+
+		identityIds.getId(resolvedId);
+
+		return resolvedId;
 	}
 
 	void startInitialisation() {
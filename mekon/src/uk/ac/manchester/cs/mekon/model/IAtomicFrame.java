@@ -186,9 +186,10 @@ class IAtomicFrame extends IFrame {
 
 			if (autoUpdateEnabled && !autoUpdating) {
 
-				autoUpdating = true;
-				autoUpdate(new HashSet<IFrame>());
-				autoUpdating = false;
+				if (!getIUpdating().checkDeferAutoUpdate(IAtomicFrame.this)) {
+
+					autoUpdateAsInitiator(new HashSet<IFrame>());
+				}
 			}
 		}
 	}
@@ -251,6 +252,8 @@ class IAtomicFrame extends IFrame {
 	IAtomicFrame(CFrame type, IFrameFunction function, boolean freeInstance) {
 
 		super(type, function, freeInstance);
+
+		trackStructureUpdates(slots);
 	}
 
 	void completeInitialInstantiation() {
@@ -287,6 +290,7 @@ class IAtomicFrame extends IFrame {
 
 		slots.add(slot);
 		IFrameSlotValueUpdateProcessor.checkAddTo(slot);
+		trackStructureUpdates(slot.getValues());
 
 		new AutoUpdater(slot);
 
@@ -307,6 +311,14 @@ class IAtomicFrame extends IFrame {
 		}
 	}
 
+	void applyDeferredAutoUpdate(Set<IFrame> visited) {
+
+		if (autoUpdateEnabled && !autoUpdating) {
+
+			autoUpdateAsInitiator(visited);
+		}
+	}
+
 	boolean updateInferredTypes(List<CFrame> updateds) {
 
 		return inferredTypes.update(updateds);
@@ -327,6 +339,20 @@ class IAtomicFrame extends IFrame {
 		return Collections.<IUpdateOp>emptySet();
 	}
 
+	private void autoUpdateAsInitiator(Set<IFrame> visited) {
+
+		autoUpdating = true;
+
+		try {
+
+			autoUpdate(visited);
+		}
+		finally {
+
+			autoUpdating = false;
+		}
+	}
+
 	private void autoUpdateThis() {
 
 		IUpdating updating = getIUpdating();
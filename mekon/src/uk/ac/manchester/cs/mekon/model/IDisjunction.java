@@ -83,6 +83,8 @@ class IDisjunction extends IFrame {
 		super(type, IFrameFunction.QUERY, freeInstance);
 
 		disjunctsSlot = new IDisjunctsSlot(this);
+
+		trackStructureUpdates(disjunctsSlot.getValues());
 	}
 
 	ISlot addSlotInternal(CSlot slotType) {
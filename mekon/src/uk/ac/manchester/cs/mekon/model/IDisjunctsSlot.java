@@ -55,13 +55,23 @@ class IDisjunctsSlot extends ISlot {
 
 		public void onAdded(IValue value) {
 
-			checkDisjunct(valueAsIFrame(value));
+			IFrame disjunct = valueAsIFrame(value);
+
+			checkDisjunct(disjunct);
+			disjunct.addReferencingDisjunction(disjunction);
 		}
 
 		public void onRemoved(IValue value) {
+
+			valueAsIFrame(value).removeReferencingDisjunction(disjunction);
 		}
 
 		public void onCleared(List<IValue> values) {
+
+			for (IValue value : values) {
+
+				onRemoved(value);
+			}
 		}
 
 		DisjunctsChecker() {
@@ -140,6 +140,23 @@ public abstract class IFrame implements IEntity, IValue {
 	private Object mappedObject = null;
 	private List<IFrameListener> listeners = new ArrayList<IFrameListener>();
 
+	private List<IFrame> referencingDisjunctions = Collections.emptyList();
+	private StructureUpdateListener structureUpdateListener = new StructureUpdateListener();
+
+	private int structuralHashCode = 0;
+	private boolean structuralHashCodeCached = false;
+	private boolean leadsToCycle = false;
+	private boolean cycleStatusCached = false;
+	private boolean withinCachedStructure = false;
+
+	private class StructureUpdateListener implements KUpdateListener {
+
+		public void onUpdated() {
+
+			onStructureUpdated();
+		}
+	}
+
 	private abstract class DisjunctsMatchTester {
 
 		boolean disjunctsMatch(IFrame other) {
@@ -472,7 +489,13 @@ public abstract class IFrame implements IEntity, IValue {
 	 */
 	public int structuralHashCode() {
 
-		return new IStructuralHashCode(this).getCode();
+		if (!structuralHashCodeCached) {
+
+			structuralHashCode = new IStructuralHashCode(this).getCode();
+			structuralHashCodeCached = true;
+		}
+
+		return structuralHashCode;
 	}
 
 	/**
@@ -615,13 +638,20 @@ public abstract class IFrame implements IEntity, IValue {
 
 	/**
 	 * Tests whether the frame/slot network emanating from this
-	 * frame contains any cycles.
+	 * frame contains any cycles. The result is cached, both for this
+	 * frame and for all frames in the network, until the relevant
+	 * section of the network is next updated.
 	 *
 	 * @return True if any cycles detected
 	 */
 	public boolean leadsToCycle() {
 
-		return new IFrameCycleTester(this).leadsToCycle();
+		if (!cycleStatusCached) {
+
+			new IFrameCycleTester().testFrom(this);
+		}
+
+		return leadsToCycle;
 	}
 
 	IFrame(CFrame type, IFrameFunction function, boolean freeInstance) {
@@ -664,6 +694,64 @@ public abstract class IFrame implements IEntity, IValue {
 		referencingSlots.remove(slot);
 	}
 
+	void addReferencingDisjunction(IFrame disjunction) {
+
+		if (referencingDisjunctions.isEmpty()) {
+
+			referencingDisjunctions = new ArrayList<IFrame>();
+		}
+
+		referencingDisjunctions.add(disjunction);
+	}
+
+	void removeReferencingDisjunction(IFrame disjunction) {
+
+		referencingDisjunctions.remove(disjunction);
+	}
+
+	void trackStructureUpdates(KList<?> structureElements) {
+
+		structureElements.addUpdateListener(structureUpdateListener);
+	}
+
+	void onStructuralHashCodeCalculation() {
+
+		withinCachedStructure = true;
+	}
+
+	void setCycleStatus(boolean leadsToCycle) {
+
+		this.leadsToCycle = leadsToCycle;
+
+		cycleStatusCached = true;
+		withinCachedStructure = true;
+	}
+
+	boolean cycleStatusCached() {
+
+		return cycleStatusCached;
+	}
+
+	void onStructureUpdated() {
+
+		if (withinCachedStructure) {
+
+			withinCachedStructure = false;
+			structuralHashCodeCached = false;
+			cycleStatusCached = false;
+
+			for (ISlot slot : referencingSlots.asList()) {
+
+				slot.getContainer().onStructureUpdated();
+			}
+
+			for (IFrame disjunction : referencingDisjunctions) {
+
+				disjunction.onStructureUpdated();
+			}
+		}
+	}
+
 	void setMappedObject(Object mappedObject) {
 
 		this.mappedObject = mappedObject;
@@ -766,6 +854,8 @@ public abstract class IFrame implements IEntity, IValue {
 
 		type = type.toNormalisedInstanceType();
 
+		onStructureUpdated();
+
 		if (!freeInstance) {
 
 			type.pollListenersForInstantiated(this, reinstantiation);
@@ -27,80 +27,170 @@ package uk.ac.manchester.cs.mekon.model;
 import java.util.*;
 
 /**
+ * Performs an iterative, Tarjan-style computation of the strongly
+ * connected components of the frame/slot network emanating from a
+ * specified frame, from which the cycle-status of every frame in
+ * the network is derived and cached on the frame. Frames whose
+ * cycle-status is already cached are not re-visited.
+ *
  * @author Colin Puleston
  */
 class IFrameCycleTester {
 
-	private IFrame startFrame;
+	private Map<IFrame, FrameVisit> visits = new HashMap<IFrame, FrameVisit>();
 
-	private Set<IFrame> visited = new HashSet<IFrame>();
-	private Deque<IFrame> stack = new ArrayDeque<IFrame>();
+	private Deque<FrameVisit> componentStack = new ArrayDeque<FrameVisit>();
+	private Deque<FrameVisit> callStack = new ArrayDeque<FrameVisit>();
 
-	IFrameCycleTester(IFrame startFrame) {
+	private int nextIndex = 0;
 
-		this.startFrame = startFrame;
-	}
+	private class FrameVisit {
 
-	boolean leadsToCycle() {
+		private IFrame frame;
 
-		return leadsToCycle(startFrame);
-	}
+		private int index;
+		private int lowLink;
+		private boolean onComponentStack = true;
+
+		private boolean selfReferencing = false;
+		private boolean reachesCycle = false;
+
+		private Iterator<IFrame> successors;
+
+		FrameVisit(IFrame frame) {
 
-	private boolean leadsToCycle(IFrame frame) {
+			this.frame = frame;
 
-		if (stack.contains(frame)) {
+			index = nextIndex++;
+			lowLink = index;
+			successors = getSuccessors(frame).iterator();
 
-			return true;
+			visits.put(frame, this);
+			componentStack.push(this);
 		}
 
-		if (visited.add(frame)) {
+		void checkNextSuccessor() {
 
-			stack.push(frame);
+			IFrame successor = successors.next();
 
-			if (slotsLeadToCycle(frame)) {
+			if (successor == frame) {
 
-				return true;
+				selfReferencing = true;
 			}
+			else if (successor.cycleStatusCached()) {
+
+				reachesCycle |= successor.leadsToCycle();
+			}
+			else {
+
+				FrameVisit visit = visits.get(successor);
+
+				if (visit == null) {
+
+					callStack.push(new FrameVisit(successor));
+				}
+				else if (visit.onComponentStack) {
 
-			stack.pop();
+					lowLink = Math.min(lowLink, visit.index);
+				}
+			}
+		}
+
+		void onSuccessorVisited(FrameVisit visit) {
+
+			if (visit.onComponentStack) {
+
+				lowLink = Math.min(lowLink, visit.lowLink);
+			}
+			else {
+
+				reachesCycle |= visit.frame.leadsToCycle();
+			}
 		}
 
-		return false;
+		boolean componentRoot() {
+
+			return lowLink == index;
+		}
 	}
 
-	private boolean slotsLeadToCycle(IFrame frame) {
+	void testFrom(IFrame startFrame) {
 
-		for (ISlot slot : frame.getSlots().asList()) {
+		if (startFrame.cycleStatusCached()) {
 
-			if (slotLeadsToCycle(slot)) {
+			return;
+		}
+
+		callStack.push(new FrameVisit(startFrame));
+
+		while (!callStack.isEmpty()) {
 
-				return true;
+			FrameVisit visit = callStack.peek();
+
+			if (visit.successors.hasNext()) {
+
+				visit.checkNextSuccessor();
 			}
-		}
+			else {
 
-		return false;
+				callStack.pop();
+
+				if (visit.componentRoot()) {
+
+					completeComponent(visit);
+				}
+
+				if (!callStack.isEmpty()) {
+
+					callStack.peek().onSuccessorVisited(visit);
+				}
+			}
+		}
 	}
 
-	private boolean slotLeadsToCycle(ISlot slot) {
+	private void completeComponent(FrameVisit root) {
+
+		List<FrameVisit> component = new ArrayList<FrameVisit>();
+		boolean cyclic = false;
+		FrameVisit member;
+
+		do {
 
-		if (slot.getValueType() instanceof CFrame) {
+			member = componentStack.pop();
+			member.onComponentStack = false;
 
-			frameValuedSlotLeadsToCycle(slot);
+			component.add(member);
+
+			cyclic |= member.selfReferencing || member.reachesCycle;
 		}
+		while (member != root);
+
+		cyclic |= component.size() > 1;
 
-		return false;
+		for (FrameVisit visit : component) {
+
+			visit.frame.setCycleStatus(cyclic);
+		}
 	}
 
-	private boolean frameValuedSlotLeadsToCycle(ISlot slot) {
+	private List<IFrame> getSuccessors(IFrame frame) {
+
+		List<IFrame> successors = new ArrayList<IFrame>();
+
+		if (!frame.getCategory().reference()) {
+
+			for (ISlot slot : frame.getSlots().asList()) {
 
-		for (IValue value : slot.getValues().asList()) {
+				if (slot.getValueType() instanceof CFrame) {
 
-			if (leadsToCycle((IFrame)value)) {
+					for (IValue value : slot.getValues().asList()) {
 
-				return true;
+						successors.add((IFrame)value);
+					}
+				}
 			}
 		}
 
-		return false;
+		return successors;
 	}
 }
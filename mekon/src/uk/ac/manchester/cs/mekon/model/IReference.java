@@ -78,6 +78,8 @@ class IReference extends IFrame {
 		super(type, function, freeInstance);
 
 		this.referenceId = referenceId;
+
+		trackStructureUpdates(slots);
 	}
 
 	ISlot addSlotInternal(CSlot slotType) {
@@ -85,6 +87,7 @@ class IReference extends IFrame {
 		ISlot slot = new ISlot(toDeactivatedSlotType(slotType), this);
 
 		slots.add(slot);
+		trackStructureUpdates(slot.getValues());
 
 		return slot;
 	}
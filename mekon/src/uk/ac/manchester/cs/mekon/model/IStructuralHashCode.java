@@ -50,6 +50,8 @@ class IStructuralHashCode {
 
 		if (visited.add(frame)) {
 
+			frame.onStructuralHashCodeCalculation();
+
 			code += frame.localHashCode();
 
 			for (ISlot slot : frame.getSlots().asList()) {
@@ -61,11 +63,16 @@ class IStructuralHashCode {
 
 	private void updateFor(ISlot slot) {
 
-		code += slot.getType().getIdentity().hashCode();
+		List<IValue> values = slot.getValues().asList();
+
+		if (!values.isEmpty()) {
 
-		for (IValue value : slot.getValues().asList()) {
+			code += slot.getType().getIdentity().hashCode();
 
-			updateFor(value);
+			for (IValue value : values) {
+
+				updateFor(value);
+			}
 		}
 	}
 
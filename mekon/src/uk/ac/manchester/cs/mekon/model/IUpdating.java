@@ -25,12 +25,32 @@
 package uk.ac.manchester.cs.mekon.model;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import uk.ac.manchester.cs.mekon.model.motor.*;
+import uk.ac.manchester.cs.mekon_util.*;
 
 /**
  * Represents configuration for the types of update to be
  * performed on instance-level frames as the result of reasoning.
+ * <p>
+ * When auto-update is enabled, the updates that would normally be
+ * performed after each individual slot-value change can instead be
+ * deferred and coalesced, so that each affected frame is updated
+ * only once. Deferral occurs either within an explicit update-batch
+ * for the current thread (see {@link #startUpdateBatch}), or, if an
+ * auto-update delay has been specified (see {@link
+ * CBuilder#setAutoUpdateDelay}), until the specified period has
+ * elapsed without further changes, after which the updates will be
+ * applied via the client-supplied auto-update executor (see {@link
+ * CBuilder#setAutoUpdateExecutor}). Since instance-level frames are
+ * not thread-safe, the executor should run the updates on the
+ * thread (or threads) that own the frames, such as a GUI event
+ * thread. No delay will occur unless an executor has been supplied.
+ * Pending updates can be applied at
+ * any time via {@link #flush}, and any registered {@link
+ * IUpdatingListener}s will be notified after each set of deferred
+ * updates has been applied.
  *
  * @author Colin Puleston
  */
@@ -50,6 +70,78 @@ public class IUpdating {
 	private boolean autoUpdate = true;
 	private Set<IUpdateOp> defaultOps = IUpdateOp.valuesAsSet();
 
+	private int autoUpdateDelay = 0;
+	private Executor autoUpdateExecutor = null;
+
+	private ThreadLocal<UpdateBatch> updateBatches = new ThreadLocal<UpdateBatch>();
+	private ThreadLocal<Boolean> applyingDeferreds = new ThreadLocal<Boolean>();
+
+	private Set<IAtomicFrame> delayedFrames = new LinkedHashSet<IAtomicFrame>();
+
+	private ScheduledExecutorService delayTimer = null;
+	private ScheduledFuture<?> scheduledFlush = null;
+
+	private List<IUpdatingListener> listeners = new ArrayList<IUpdatingListener>();
+
+	private class UpdateBatch {
+
+		private int depth = 1;
+		private Set<IAtomicFrame> pendingFrames = new LinkedHashSet<IAtomicFrame>();
+
+		void add(IAtomicFrame frame) {
+
+			pendingFrames.add(frame);
+		}
+
+		boolean anyPending() {
+
+			return !pendingFrames.isEmpty();
+		}
+
+		void flush() {
+
+			List<IAtomicFrame> frames = new ArrayList<IAtomicFrame>(pendingFrames);
+
+			pendingFrames.clear();
+			applyDeferreds(frames);
+		}
+	}
+
+	private class DelayedFlush implements Runnable {
+
+		public void run() {
+
+			flushDelayeds();
+		}
+	}
+
+	private class DelayExpiry implements Runnable {
+
+		private Executor executor;
+
+		public void run() {
+
+			executor.execute(new DelayedFlush());
+		}
+
+		DelayExpiry(Executor executor) {
+
+			this.executor = executor;
+		}
+	}
+
+	private class DelayTimerThreadFactory implements ThreadFactory {
+
+		public Thread newThread(Runnable runnable) {
+
+			Thread thread = new Thread(runnable, "MEKON-instance-auto-update-timer");
+
+			thread.setDaemon(true);
+
+			return thread;
+		}
+	}
+
 	/**
 	 * Specifies whether automatic updating of instance-level
 	 * frames will occur.
@@ -61,6 +153,136 @@ public class IUpdating {
 		return autoUpdate;
 	}
 
+	/**
+	 * Provides the period after the most recent slot-value change
+	 * for which any automatic updates will be deferred (see {@link
+	 * CBuilder#setAutoUpdateDelay}).
+	 *
+	 * @return Auto-update delay in milliseconds, or zero if no
+	 * delay
+	 */
+	public int getAutoUpdateDelay() {
+
+		return autoUpdateDelay;
+	}
+
+	/**
+	 * Provides the executor via which any delayed automatic updates
+	 * will be applied (see {@link CBuilder#setAutoUpdateExecutor}).
+	 *
+	 * @return Auto-update executor, or null if not supplied
+	 */
+	public synchronized Executor getAutoUpdateExecutor() {
+
+		return autoUpdateExecutor;
+	}
+
+	/**
+	 * Starts an update-batch for the current thread, within which
+	 * any automatic updates will be deferred until the batch is
+	 * ended (see {@link #endUpdateBatch}). Batches can be nested, in
+	 * which case the deferred updates will be applied when the
+	 * outermost batch is ended.
+	 */
+	public void startUpdateBatch() {
+
+		UpdateBatch batch = updateBatches.get();
+
+		if (batch == null) {
+
+			updateBatches.set(new UpdateBatch());
+		}
+		else {
+
+			batch.depth++;
+		}
+	}
+
+	/**
+	 * Ends the current update-batch for the current thread. If this
+	 * is the outermost batch then all updates deferred within the
+	 * batch will be applied, with each affected frame being updated
+	 * only once.
+	 *
+	 * @throws KAccessException if no update-batch has been started
+	 * for the current thread
+	 */
+	public void endUpdateBatch() {
+
+		UpdateBatch batch = updateBatches.get();
+
+		if (batch == null) {
+
+			throw new KAccessException("No update-batch has been started");
+		}
+
+		if (--batch.depth == 0) {
+
+			updateBatches.remove();
+			batch.flush();
+		}
+	}
+
+	/**
+	 * Applies any automatic updates that have been deferred, either
+	 * within an update-batch for the current thread, or as the result
+	 * of an auto-update delay.
+	 */
+	public void flush() {
+
+		UpdateBatch batch = updateBatches.get();
+
+		if (batch != null) {
+
+			batch.flush();
+		}
+
+		flushDelayeds();
+	}
+
+	/**
+	 * Specifies whether there are any deferred automatic updates that
+	 * are yet to be applied, either within an update-batch for the
+	 * current thread, or as the result of an auto-update delay.
+	 *
+	 * @return True if deferred updates are pending
+	 */
+	public boolean updatesPending() {
+
+		UpdateBatch batch = updateBatches.get();
+
+		if (batch != null && batch.anyPending()) {
+
+			return true;
+		}
+
+		synchronized (delayedFrames) {
+
+			return !delayedFrames.isEmpty();
+		}
+	}
+
+	/**
+	 * Adds a listener to be notified after each set of deferred
+	 * automatic updates has been applied.
+	 *
+	 * @param listener Listener to add
+	 */
+	public synchronized void addUpdatingListener(IUpdatingListener listener) {
+
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a previously added updating listener.
+	 *
+	 * @param listener Listener to remove
+	 */
+	public synchronized void removeUpdatingListener(IUpdatingListener listener) {
+
+		listeners.remove(listener);
+	}
+
 	/**
 	 * Checks whether the specified update operation is one of the
 	 * default operations.
@@ -94,6 +316,23 @@ public class IUpdating {
 		this.autoUpdate = autoUpdate;
 	}
 
+	void setAutoUpdateDelay(int autoUpdateDelay) {
+
+		if (autoUpdateDelay < 0) {
+
+			throw new KAccessException(
+						"Auto-update delay cannot be negative: "
+						+ autoUpdateDelay);
+		}
+
+		this.autoUpdateDelay = autoUpdateDelay;
+	}
+
+	synchronized void setAutoUpdateExecutor(Executor autoUpdateExecutor) {
+
+		this.autoUpdateExecutor = autoUpdateExecutor;
+	}
+
 	void setDefaultOp(IUpdateOp op, boolean enabled) {
 
 		if (enabled) {
@@ -140,6 +379,34 @@ public class IUpdating {
 		return autoUpdate ? update(instance) : NO_OPS;
 	}
 
+	boolean checkDeferAutoUpdate(IAtomicFrame instance) {
+
+		if (!autoUpdate || applyingDeferreds.get() != null) {
+
+			return false;
+		}
+
+		UpdateBatch batch = updateBatches.get();
+
+		if (batch != null) {
+
+			batch.add(instance);
+
+			return true;
+		}
+
+		Executor executor = getAutoUpdateExecutor();
+
+		if (autoUpdateDelay != 0 && executor != null) {
+
+			addDelayed(instance, executor);
+
+			return true;
+		}
+
+		return false;
+	}
+
 	Set<IUpdateOp> checkManualUpdate(IFrame instance) {
 
 		return autoUpdate ? NO_OPS : update(instance);
@@ -155,6 +422,90 @@ public class IUpdating {
 		return update(instance, ops);
 	}
 
+	private void addDelayed(IAtomicFrame instance, Executor executor) {
+
+		synchronized (delayedFrames) {
+
+			delayedFrames.add(instance);
+
+			if (scheduledFlush != null) {
+
+				scheduledFlush.cancel(false);
+			}
+
+			scheduledFlush = getDelayTimer().schedule(
+									new DelayExpiry(executor),
+									autoUpdateDelay,
+									TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void flushDelayeds() {
+
+		applyDeferreds(removeDelayeds());
+	}
+
+	private List<IAtomicFrame> removeDelayeds() {
+
+		synchronized (delayedFrames) {
+
+			List<IAtomicFrame> frames = new ArrayList<IAtomicFrame>(delayedFrames);
+
+			delayedFrames.clear();
+
+			return frames;
+		}
+	}
+
+	private void applyDeferreds(List<IAtomicFrame> frames) {
+
+		if (frames.isEmpty()) {
+
+			return;
+		}
+
+		Set<IFrame> visited = new LinkedHashSet<IFrame>();
+
+		applyingDeferreds.set(Boolean.TRUE);
+
+		try {
+
+			for (IAtomicFrame frame : frames) {
+
+				frame.applyDeferredAutoUpdate(visited);
+			}
+		}
+		finally {
+
+			applyingDeferreds.remove();
+		}
+
+		pollListenersForDeferredUpdates(new ArrayList<IFrame>(visited));
+	}
+
+	private void pollListenersForDeferredUpdates(List<IFrame> updatedFrames) {
+
+		for (IUpdatingListener listener : copyListeners()) {
+
+			listener.onDeferredUpdatesApplied(updatedFrames);
+		}
+	}
+
+	private synchronized List<IUpdatingListener> copyListeners() {
+
+		return new ArrayList<IUpdatingListener>(listeners);
+	}
+
+	private synchronized ScheduledExecutorService getDelayTimer() {
+
+		if (delayTimer == null) {
+
+			delayTimer = Executors.newSingleThreadScheduledExecutor(new DelayTimerThreadFactory());
+		}
+
+		return delayTimer;
+	}
+
 	private Set<IUpdateOp> getMaximalReinitialisationOps(IFrame instance) {
 
 		Set<IUpdateOp> ops = new HashSet<IUpdateOp>(defaultOps);
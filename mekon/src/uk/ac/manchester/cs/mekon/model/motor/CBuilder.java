@@ -25,6 +25,7 @@
 package uk.ac.manchester.cs.mekon.model.motor;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon_util.*;
@@ -45,6 +46,33 @@ public interface CBuilder {
 	 */
 	public void setAutoUpdate(boolean autoUpdate);
 
+	/**
+	 * Sets a period for which any automatic updates will be deferred
+	 * after the most recent slot-value change, so that the updates
+	 * resulting from a sequence of changes are coalesced and applied
+	 * once, via the auto-update executor, after the sequence has ended
+	 * (see {@link IUpdating}). The delay only takes effect if an
+	 * executor has also been supplied (see {@link
+	 * #setAutoUpdateExecutor}). By default there will be no delay,
+	 * with updates being applied immediately after each change.
+	 *
+	 * @param delayMillis Auto-update delay in milliseconds, or zero
+	 * if no delay is required
+	 */
+	public void setAutoUpdateDelay(int delayMillis);
+
+	/**
+	 * Sets the executor via which any delayed automatic updates will
+	 * be applied (see {@link #setAutoUpdateDelay}). Since
+	 * instance-level frames are not thread-safe, the executor should
+	 * run the updates on the thread (or threads) that own the frames,
+	 * such as a GUI event thread.
+	 *
+	 * @param executor Executor for delayed auto-updates, or null if
+	 * delayed auto-updates are not required
+	 */
+	public void setAutoUpdateExecutor(Executor executor);
+
 	/**
 	 * Resets default enabled-status for a specific instance-update
 	 * operation, as represented via the {@link IUpdating} object
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.motor;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+
+/**
+ * Bounded least-recently-used cache of classification results, keyed
+ * by the structures of the free-copied frames that were classified.
+ * Since the structural hash-codes of frames are only recalculated
+ * after updates to the relevant sub-structures, look-ups for frames
+ * outside the region affected by an edit are cheap.
+ *
+ * @author Colin Puleston
+ */
+class IClassificationCache {
+
+	private int capacity = 0;
+	private Map<FrameKey, IClassification> classifications = new ClassificationMap();
+
+	private class ClassificationMap extends LinkedHashMap<FrameKey, IClassification> {
+
+		static private final long serialVersionUID = -1;
+
+		ClassificationMap() {
+
+			super(16, 0.75f, true);
+		}
+
+		protected boolean removeEldestEntry(Map.Entry<FrameKey, IClassification> eldest) {
+
+			return size() > capacity;
+		}
+	}
+
+	private class FrameKey {
+
+		private IFrame frame;
+		private IFrameFunction function;
+
+		private boolean inferreds;
+		private boolean suggesteds;
+
+		private int hashCode;
+
+		public boolean equals(Object other) {
+
+			if (other == this) {
+
+				return true;
+			}
+
+			return other instanceof FrameKey && equalsKey((FrameKey)other);
+		}
+
+		public int hashCode() {
+
+			return hashCode;
+		}
+
+		FrameKey(IFrame frame, IClassifierOps ops) {
+
+			this.frame = frame;
+
+			function = frame.getFunction();
+			inferreds = ops.inferreds();
+			suggesteds = ops.suggesteds();
+
+			hashCode = frame.structuralHashCode() + function.hashCode();
+		}
+
+		private boolean equalsKey(FrameKey other) {
+
+			return function == other.function
+					&& inferreds == other.inferreds
+					&& suggesteds == other.suggesteds
+					&& frame.equalsStructure(other.frame);
+		}
+	}
+
+	synchronized void setCapacity(int capacity) {
+
+		this.capacity = capacity;
+
+		if (classifications.size() > capacity) {
+
+			classifications.clear();
+		}
+	}
+
+	synchronized IClassification getOrNull(IFrame frame, IClassifierOps ops) {
+
+		if (capacity == 0) {
+
+			return null;
+		}
+
+		return classifications.get(new FrameKey(frame, ops));
+	}
+
+	synchronized void add(IFrame freeCopy, IClassifierOps ops, IClassification classification) {
+
+		if (capacity != 0) {
+
+			classifications.put(new FrameKey(freeCopy, ops), classification);
+		}
+	}
+
+	synchronized void clear() {
+
+		classifications.clear();
+	}
+}
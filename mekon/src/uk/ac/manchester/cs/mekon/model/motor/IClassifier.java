@@ -37,11 +37,19 @@ import uk.ac.manchester.cs.mekon.model.*;
  * The instance-level frame/slot-networks representations of instances
  * that are passed into the {@link #classify} method will be
  * "free-instance" copies of the originals (see {@link IFreeCopier}).
+ * <p>
+ * The results of classification operations can optionally be cached,
+ * keyed by the structures of the classified frames (see {@link
+ * #setClassificationCacheSize}), so that when an edit to an instance
+ * triggers automatic updates, only those frames whose structures have
+ * actually been changed will be re-classified.
  *
  * @author Colin Puleston
  */
 public abstract class IClassifier extends IReasonerDefault {
 
+	private IClassificationCache classificationCache = new IClassificationCache();
+
 	private class Updater {
 
 		private IEditor iEditor;
@@ -70,7 +78,7 @@ public abstract class IClassifier extends IReasonerDefault {
 
 		Set<IUpdateOp> update() {
 
-			IClassification results = classify(copyFree(frame), classifierOps);
+			IClassification results = getClassification();
 
 			if (classifierOps.inferreds()) {
 
@@ -85,6 +93,21 @@ public abstract class IClassifier extends IReasonerDefault {
 			return enactedUpdateOps;
 		}
 
+		private IClassification getClassification() {
+
+			IClassification results = classificationCache.getOrNull(frame, classifierOps);
+
+			if (results == null) {
+
+				IFrame freeCopy = copyFree(frame);
+
+				results = classify(freeCopy, classifierOps);
+				classificationCache.add(freeCopy, classifierOps, results);
+			}
+
+			return results;
+		}
+
 		private IClassifierOps getClassifierOps(Set<IUpdateOp> updateOps) {
 
 			boolean inferreds = doInferreds || doSlots || doSlotValues;
@@ -168,6 +191,29 @@ public abstract class IClassifier extends IReasonerDefault {
 		return new Updater(iEditor, frame, ops).update();
 	}
 
+	/**
+	 * Sets the maximum number of classification results that will be
+	 * cached, keyed by the structures of the classified frames. If not
+	 * set then the value will default to zero, meaning that no caching
+	 * will be performed.
+	 *
+	 * @param size Maximum number of cached classification results
+	 */
+	public void setClassificationCacheSize(int size) {
+
+		classificationCache.setCapacity(size);
+	}
+
+	/**
+	 * Removes all cached classification results. Should be invoked
+	 * by derived classes whenever any change occurs that could affect
+	 * the results of future classification operations.
+	 */
+	public void clearClassificationCache() {
+
+		classificationCache.clear();
+	}
+
 	/**
 	 * Abstract method whose implementations will perform the actual
 	 * classification over the relevant external knowledge sources.
@@ -180,8 +226,6 @@ public abstract class IClassifier extends IReasonerDefault {
 
 	private IFrame copyFree(IFrame instance) {
 
-		CModel model = instance.getType().getModel();
-
 		return IFreeCopier.get().createFreeCopy(instance);
 	}
 }
@@ -0,0 +1,240 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon_util.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * Reads primitive entities for the binary instance serialisation,
+ * as written by a {@link BinaryWriter}.
+ *
+ * @author Colin Puleston
+ */
+class BinaryReader implements IBinarySerialiserVocab {
+
+	private DataInputStream input;
+	private List<CIdentity> identities = new ArrayList<CIdentity>();
+
+	BinaryReader(InputStream input) {
+
+		this.input = new DataInputStream(new BufferedInputStream(input));
+	}
+
+	void readHeader() {
+
+		if (readInt() != FORMAT_MARKER) {
+
+			throw createFormatException("Unrecognised format marker");
+		}
+
+		byte version = readByte();
+
+		if (version != FORMAT_VERSION) {
+
+			throw createFormatException("Unsupported format version: " + version);
+		}
+	}
+
+	byte readByte() {
+
+		try {
+
+			return input.readByte();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	boolean readBoolean() {
+
+		return readByte() != 0;
+	}
+
+	int readCount() {
+
+		int value = 0;
+		int shift = 0;
+
+		while (true) {
+
+			byte b = readByte();
+
+			value |= (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+
+				return value;
+			}
+
+			shift += 7;
+		}
+	}
+
+	<E extends Enum<E>>E readEnum(Class<E> type) {
+
+		E[] values = type.getEnumConstants();
+		int ordinal = readCount();
+
+		if (ordinal >= values.length) {
+
+			throw createFormatException("Invalid value for " + type.getSimpleName());
+		}
+
+		return values[ordinal];
+	}
+
+	String readString() {
+
+		byte[] bytes = new byte[readCount()];
+
+		try {
+
+			input.readFully(bytes);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	CIdentity readIdentity() {
+
+		int code = readCount();
+
+		if (code < identities.size()) {
+
+			return identities.get(code);
+		}
+
+		if (code > identities.size()) {
+
+			throw createFormatException("Invalid identity code: " + code);
+		}
+
+		CIdentity identity = new CIdentity(readString(), readString());
+
+		identities.add(identity);
+
+		return identity;
+	}
+
+	List<CIdentity> readIdentities() {
+
+		List<CIdentity> identities = new ArrayList<CIdentity>();
+
+		for (int i = readCount() ; i > 0 ; i--) {
+
+			identities.add(readIdentity());
+		}
+
+		return identities;
+	}
+
+	Class<? extends Number> readNumberType() {
+
+		byte tag = readByte();
+
+		switch (tag) {
+
+			case INTEGER_TAG:
+				return Integer.class;
+
+			case LONG_TAG:
+				return Long.class;
+
+			case FLOAT_TAG:
+				return Float.class;
+
+			case DOUBLE_TAG:
+				return Double.class;
+		}
+
+		throw createFormatException("Invalid number-type tag: " + tag);
+	}
+
+	Number readNumberOrNull() {
+
+		byte tag = readByte();
+
+		switch (tag) {
+
+			case NO_NUMBER_TAG:
+				return null;
+
+			case INTEGER_TAG:
+				return readInt();
+
+			case LONG_TAG:
+				return readLong();
+
+			case FLOAT_TAG:
+				return Float.intBitsToFloat(readInt());
+
+			case DOUBLE_TAG:
+				return Double.longBitsToDouble(readLong());
+		}
+
+		throw createFormatException("Invalid number tag: " + tag);
+	}
+
+	KAccessException createFormatException(String message) {
+
+		return new KAccessException("Invalid binary instance serialisation: " + message);
+	}
+
+	private int readInt() {
+
+		try {
+
+			return input.readInt();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private long readLong() {
+
+		try {
+
+			return input.readLong();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * Writes primitive entities for the binary instance serialisation,
+ * with identities being dictionary-encoded, such that each distinct
+ * identity is written out in full only on first occurrence.
+ *
+ * @author Colin Puleston
+ */
+class BinaryWriter implements IBinarySerialiserVocab {
+
+	private DataOutputStream output;
+	private Map<CIdentity, Integer> identityCodes = new HashMap<CIdentity, Integer>();
+
+	BinaryWriter(OutputStream output) {
+
+		this.output = new DataOutputStream(new BufferedOutputStream(output));
+	}
+
+	void writeHeader() {
+
+		writeInt(FORMAT_MARKER);
+		writeByte(FORMAT_VERSION);
+	}
+
+	void writeByte(int value) {
+
+		try {
+
+			output.writeByte(value);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	void writeBoolean(boolean value) {
+
+		writeByte(value ? 1 : 0);
+	}
+
+	void writeCount(int value) {
+
+		while ((value & ~0x7F) != 0) {
+
+			writeByte((value & 0x7F) | 0x80);
+
+			value >>>= 7;
+		}
+
+		writeByte(value);
+	}
+
+	void writeEnum(Enum<?> value) {
+
+		writeCount(value.ordinal());
+	}
+
+	void writeString(String value) {
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		writeCount(bytes.length);
+		writeBytes(bytes);
+	}
+
+	void writeIdentity(CIdentity identity) {
+
+		Integer code = identityCodes.get(identity);
+
+		if (code != null) {
+
+			writeCount(code);
+		}
+		else {
+
+			code = identityCodes.size();
+
+			identityCodes.put(identity, code);
+
+			writeCount(code);
+			writeString(identity.getIdentifier());
+			writeString(identity.getLabel());
+		}
+	}
+
+	void writeIdentities(List<CIdentity> identities) {
+
+		writeCount(identities.size());
+
+		for (CIdentity identity : identities) {
+
+			writeIdentity(identity);
+		}
+	}
+
+	void writeNumberType(Class<? extends Number> numberType) {
+
+		writeByte(getNumberTypeTag(numberType));
+	}
+
+	void writeNumber(Number value) {
+
+		byte tag = getNumberTypeTag(value.getClass());
+
+		writeByte(tag);
+
+		switch (tag) {
+
+			case INTEGER_TAG:
+				writeInt(value.intValue());
+				break;
+
+			case LONG_TAG:
+				writeLong(value.longValue());
+				break;
+
+			case FLOAT_TAG:
+				writeInt(Float.floatToIntBits(value.floatValue()));
+				break;
+
+			default:
+				writeLong(Double.doubleToLongBits(value.doubleValue()));
+		}
+	}
+
+	void writeNoNumber() {
+
+		writeByte(NO_NUMBER_TAG);
+	}
+
+	void flush() {
+
+		try {
+
+			output.flush();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private byte getNumberTypeTag(Class<?> numberType) {
+
+		if (numberType == Integer.class) {
+
+			return INTEGER_TAG;
+		}
+
+		if (numberType == Long.class) {
+
+			return LONG_TAG;
+		}
+
+		if (numberType == Float.class) {
+
+			return FLOAT_TAG;
+		}
+
+		return DOUBLE_TAG;
+	}
+
+	private void writeInt(int value) {
+
+		try {
+
+			output.writeInt(value);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void writeLong(long value) {
+
+		try {
+
+			output.writeLong(value);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void writeBytes(byte[] bytes) {
+
+		try {
+
+			output.write(bytes);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
@@ -254,7 +254,7 @@ public class FSerialiser implements FSerialiserVocab {
 
 		if (format == CStringFormat.CUSTOM) {
 
-			node.setValue(STRING_CUSTOM_CONFIG_CLASS_ATTR, string.getClass());
+			node.setValue(STRING_CUSTOM_CONFIG_CLASS_ATTR, getCustomCStringConfigClass(string).getName());
 		}
 	}
 
@@ -518,6 +518,11 @@ public class FSerialiser implements FSerialiserVocab {
 		return node.getEnum(STRING_FORMAT_ATTR, CStringFormat.class, CStringFormat.FREE);
 	}
 
+	static private Class<? extends CStringConfig> getCustomCStringConfigClass(CString string) {
+
+		return ZCModelAccessor.get().getCustomCStringConfigClass(string);
+	}
+
 	static private Class<? extends CStringConfig> getCustomCStringConfigClass(XNode node) {
 
 		return loadClass(node.getString(STRING_CUSTOM_CONFIG_CLASS_ATTR), CStringConfig.class);
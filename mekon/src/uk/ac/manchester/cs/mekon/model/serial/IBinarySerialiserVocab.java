@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+/**
+ * Vocabulary for the compact binary serialisation of MEKON
+ * instances.
+ *
+ * @author Colin Puleston
+ */
+interface IBinarySerialiserVocab {
+
+	static public final int FORMAT_MARKER = 0x4D4B4249;
+	static public final byte FORMAT_VERSION = 2;
+
+	static public final byte END_FRAMES_TAG = 0;
+	static public final byte ATOMIC_FRAME_TAG = 1;
+	static public final byte REFERENCE_FRAME_TAG = 2;
+	static public final byte DISJUNCTION_FRAME_TAG = 3;
+
+	static public final byte MFRAME_SLOT_TAG = 1;
+	static public final byte CFRAME_SLOT_TAG = 2;
+	static public final byte CNUMBER_SLOT_TAG = 3;
+	static public final byte CSTRING_SLOT_TAG = 4;
+
+	static public final byte INTEGER_TAG = 1;
+	static public final byte LONG_TAG = 2;
+	static public final byte FLOAT_TAG = 3;
+	static public final byte DOUBLE_TAG = 4;
+
+	static public final byte NO_NUMBER_TAG = 0;
+}
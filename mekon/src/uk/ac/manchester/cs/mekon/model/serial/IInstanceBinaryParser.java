@@ -0,0 +1,775 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+import java.io.*;
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
+import uk.ac.manchester.cs.mekon.model.zlink.*;
+import uk.ac.manchester.cs.mekon.store.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * Parser for the compact binary serialisation of MEKON instances,
+ * as produced by {@link IInstanceBinaryRenderer}.
+ * <p>
+ * Instance regeneration is handled in the same way as by the {@link
+ * IInstanceParser}, with any updates to the model since serialisation
+ * resulting in the instance being partially assembled, and provided
+ * together with information as to the pruning that was required.
+ *
+ * @author Colin Puleston
+ */
+public class IInstanceBinaryParser implements IBinarySerialiserVocab {
+
+	static private IRelaxedInstantiator instantiator = IRelaxedInstantiator.get();
+
+	/**
+	 * Tests whether the data on the specified input stream represents
+	 * a binary serialisation, leaving the stream positioned as it
+	 * was on entry.
+	 *
+	 * @param input Stream to test, which must support marking
+	 * @return True if input represents binary serialisation
+	 */
+	static public boolean binarySerialisation(InputStream input) {
+
+		DataInputStream dataInput = new DataInputStream(input);
+
+		try {
+
+			input.mark(4);
+
+			return dataInput.readInt() == FORMAT_MARKER;
+		}
+		catch (EOFException e) {
+
+			return false;
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+		finally {
+
+			resetInput(input);
+		}
+	}
+
+	static private void resetInput(InputStream input) {
+
+		try {
+
+			input.reset();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private CModel model;
+	private IEditor iEditor;
+	private boolean freeInstances = false;
+	private boolean possibleModelUpdates = false;
+
+	private class OneTimeParser {
+
+		private BinaryReader reader;
+
+		private IFrameFunction function;
+
+		private List<FrameSpec> frameSpecs = new ArrayList<FrameSpec>();
+		private Map<Integer, IFrame> framesByIndex = new HashMap<Integer, IFrame>();
+
+		private List<SlotSpec<?>> slotSpecs = new ArrayList<SlotSpec<?>>();
+
+		private Set<CFrame> invalidFrameTypes = new HashSet<CFrame>();
+		private InstanceRegenCreator regenCreator = new InstanceRegenCreator();
+
+		private abstract class FrameSpec {
+
+			abstract IFrame create(int index);
+		}
+
+		private class AtomicFrameSpec extends FrameSpec {
+
+			private CFrame type = readCFrame();
+			private List<SlotSpec<?>> slots = new ArrayList<SlotSpec<?>>();
+
+			AtomicFrameSpec() {
+
+				for (int i = reader.readCount() ; i > 0 ; i--) {
+
+					slots.add(readSlotSpec());
+				}
+			}
+
+			IFrame create(int index) {
+
+				IFrame frame = instantiator.createAtomicFrame(type, function, freeInstances);
+
+				framesByIndex.put(index, frame);
+
+				if (validFrame(frame)) {
+
+					for (SlotSpec<?> slot : slots) {
+
+						slot.addTo(frame);
+					}
+				}
+
+				return frame;
+			}
+		}
+
+		private class ReferenceFrameSpec extends FrameSpec {
+
+			private CFrame type = readCFrame();
+			private CIdentity refId = reader.readIdentity();
+
+			IFrame create(int index) {
+
+				IFrame frame = instantiator.createReferenceFrame(type, refId, function, freeInstances);
+
+				framesByIndex.put(index, frame);
+
+				return frame;
+			}
+		}
+
+		private class DisjunctionFrameSpec extends FrameSpec {
+
+			private List<Integer> disjunctIndexes = new ArrayList<Integer>();
+
+			DisjunctionFrameSpec() {
+
+				for (int i = reader.readCount() ; i > 0 ; i--) {
+
+					disjunctIndexes.add(reader.readCount());
+				}
+			}
+
+			IFrame create(int index) {
+
+				List<IFrame> disjuncts = new ArrayList<IFrame>();
+
+				for (int disjunctIndex : disjunctIndexes) {
+
+					disjuncts.add(resolveIFrame(disjunctIndex));
+				}
+
+				IFrame frame = IFrame.createDisjunction(disjuncts);
+
+				framesByIndex.put(index, frame);
+
+				return frame;
+			}
+		}
+
+		private class SlotAttributes {
+
+			private CIdentity slotId = reader.readIdentity();
+			private CSource source = reader.readEnum(CSource.class);
+			private CCardinality cardinality = reader.readEnum(CCardinality.class);
+			private CActivation activation = reader.readEnum(CActivation.class);
+			private IEditability editability = reader.readEnum(IEditability.class);
+		}
+
+		private abstract class SlotSpec<V> {
+
+			private SlotAttributes attributes;
+			private CValue<?> valueType;
+
+			private List<V> fixedValueSpecs = new ArrayList<V>();
+			private List<V> assertedValueSpecs = new ArrayList<V>();
+
+			private ISlot slot = null;
+
+			private List<IValue> fixedValues = null;
+			private List<IValue> assertedValues = null;
+
+			SlotSpec(SlotAttributes attributes) {
+
+				this.attributes = attributes;
+			}
+
+			void readValueTypeAndValues() {
+
+				valueType = readValueType();
+
+				readValueSpecs(fixedValueSpecs);
+				readValueSpecs(assertedValueSpecs);
+			}
+
+			void addTo(IFrame container) {
+
+				slot = freeInstances ? addFreeSlot(container) : addConstrainedSlot(container);
+
+				fixedValues = getValues(fixedValueSpecs);
+				assertedValues = getValues(assertedValueSpecs);
+
+				slotSpecs.add(this);
+			}
+
+			void processValues() {
+
+				if (attributes.activation.active()) {
+
+					if (!fixedValues.isEmpty()) {
+
+						getSlotEditor(slot).updateFixedValues(fixedValues);
+					}
+
+					if (!assertedValues.isEmpty()) {
+
+						processAssertedValues();
+					}
+				}
+			}
+
+			abstract CValue<?> readValueType();
+
+			abstract V readValueSpec();
+
+			abstract CValue<?> getDefaultValueType(CValue<?> valueType);
+
+			abstract IValue getValue(ISlot slot, V valueSpec);
+
+			abstract boolean validModelValue(IValue value);
+
+			private void readValueSpecs(List<V> valueSpecs) {
+
+				for (int i = reader.readCount() ; i > 0 ; i--) {
+
+					valueSpecs.add(readValueSpec());
+				}
+			}
+
+			private ISlot addFreeSlot(IFrame container) {
+
+				return instantiator
+						.addFreeSlot(
+							container,
+							attributes.slotId,
+							getDefaultValueType(valueType));
+			}
+
+			private ISlot addConstrainedSlot(IFrame container) {
+
+				return instantiator
+						.addSlot(
+							container,
+							attributes.slotId,
+							attributes.source,
+							valueType,
+							attributes.cardinality,
+							attributes.activation,
+							attributes.editability);
+			}
+
+			private void processAssertedValues() {
+
+				CValue<?> slotValueType = slot.getValueType();
+				List<IValue> validValues = new ArrayList<IValue>();
+
+				for (IValue value : assertedValues) {
+
+					if (validModelValue(value) && slotValueType.validValue(value)) {
+
+						validValues.add(value);
+					}
+					else {
+
+						regenCreator.addPrunedValue(slot, value);
+					}
+				}
+
+				if (!validValues.isEmpty()) {
+
+					getValuesEditor(slot).update(validValues);
+				}
+			}
+
+			private List<IValue> getValues(List<V> valueSpecs) {
+
+				List<IValue> values = new ArrayList<IValue>();
+
+				for (V valueSpec : valueSpecs) {
+
+					values.add(getValue(slot, valueSpec));
+				}
+
+				return values;
+			}
+		}
+
+		private class CFrameSlotSpec extends SlotSpec<CFrame> {
+
+			CFrameSlotSpec(SlotAttributes attributes) {
+
+				super(attributes);
+
+				readValueTypeAndValues();
+			}
+
+			CValue<?> readValueType() {
+
+				return readCFrame().getType();
+			}
+
+			CFrame readValueSpec() {
+
+				return readCFrame();
+			}
+
+			CValue<?> getDefaultValueType(CValue<?> valueType) {
+
+				return getRootCFrame().getType();
+			}
+
+			IValue getValue(ISlot slot, CFrame valueSpec) {
+
+				return valueSpec;
+			}
+
+			boolean validModelValue(IValue value) {
+
+				return validFrameType((CFrame)value);
+			}
+		}
+
+		private class IFrameSlotSpec extends SlotSpec<Integer> {
+
+			IFrameSlotSpec(SlotAttributes attributes) {
+
+				super(attributes);
+
+				readValueTypeAndValues();
+			}
+
+			CValue<?> readValueType() {
+
+				return readCFrame();
+			}
+
+			Integer readValueSpec() {
+
+				return reader.readCount();
+			}
+
+			CValue<?> getDefaultValueType(CValue<?> valueType) {
+
+				return getRootCFrame();
+			}
+
+			IValue getValue(ISlot slot, Integer valueSpec) {
+
+				return resolveIFrame(valueSpec);
+			}
+
+			boolean validModelValue(IValue value) {
+
+				return validFrameType(((IFrame)value).getType());
+			}
+		}
+
+		private class INumberSlotSpec extends SlotSpec<INumberSpec> {
+
+			INumberSlotSpec(SlotAttributes attributes) {
+
+				super(attributes);
+
+				readValueTypeAndValues();
+			}
+
+			CValue<?> readValueType() {
+
+				return readCNumber(reader.readNumberType());
+			}
+
+			INumberSpec readValueSpec() {
+
+				return new INumberSpec();
+			}
+
+			CValue<?> getDefaultValueType(CValue<?> valueType) {
+
+				return ((CNumber)valueType).toUnconstrained();
+			}
+
+			IValue getValue(ISlot slot, INumberSpec valueSpec) {
+
+				return valueSpec.getValue(getValueNumberType(slot));
+			}
+
+			boolean validModelValue(IValue value) {
+
+				return true;
+			}
+
+			private Class<? extends Number> getValueNumberType(ISlot slot) {
+
+				CValue<?> valueType = slot.getValueType();
+
+				if (valueType instanceof CNumber) {
+
+					return ((CNumber)valueType).getNumberType();
+				}
+
+				throw reader.createFormatException(
+							"Unexpected value-type for slot: " + slot
+							+ ": Expected: " + CNumber.class
+							+ ", Found: " + valueType.getClass());
+			}
+		}
+
+		private class INumberSpec {
+
+			private Number definiteValue = null;
+
+			private Number min = null;
+			private Number max = null;
+
+			INumberSpec() {
+
+				if (reader.readBoolean()) {
+
+					definiteValue = reader.readNumberOrNull();
+				}
+				else {
+
+					min = reader.readNumberOrNull();
+					max = reader.readNumberOrNull();
+				}
+			}
+
+			INumber getValue(Class<? extends Number> numberType) {
+
+				if (definiteValue != null) {
+
+					return toINumber(numberType, definiteValue);
+				}
+
+				return createCNumber(numberType, min, max).asINumber();
+			}
+		}
+
+		private class IStringSlotSpec extends SlotSpec<IString> {
+
+			IStringSlotSpec(SlotAttributes attributes) {
+
+				super(attributes);
+
+				readValueTypeAndValues();
+			}
+
+			CValue<?> readValueType() {
+
+				CStringFormat format = reader.readEnum(CStringFormat.class);
+
+				return format == CStringFormat.CUSTOM
+							? readCustomValueType()
+							: format.getStandardValueType();
+			}
+
+			IString readValueSpec() {
+
+				return CString.FREE.instantiate(reader.readString());
+			}
+
+			CValue<?> getDefaultValueType(CValue<?> valueType) {
+
+				return CString.FREE;
+			}
+
+			IValue getValue(ISlot slot, IString valueSpec) {
+
+				return valueSpec;
+			}
+
+			boolean validModelValue(IValue value) {
+
+				return true;
+			}
+
+			private CString readCustomValueType() {
+
+				Class<? extends CStringConfig> configClass = loadCustomConfigClass();
+
+				return ZCModelAccessor.get().resolveCustomCString(configClass);
+			}
+
+			private Class<? extends CStringConfig> loadCustomConfigClass() {
+
+				return new KConfigClassLoader(reader.readString()).load(CStringConfig.class);
+			}
+		}
+
+		OneTimeParser(InputStream input) {
+
+			reader = new BinaryReader(input);
+		}
+
+		IRegenInstance parse() {
+
+			reader.readHeader();
+
+			function = reader.readEnum(IFrameFunction.class);
+
+			readFrameSpecs();
+
+			IFrame rootFrame = resolveIFrame(0);
+
+			if (validFrame(rootFrame)) {
+
+				processSlotValues();
+
+				regenCreator.processPrePruned(rootFrame);
+				completeReinstantiation();
+
+				return regenCreator.createValid(rootFrame);
+			}
+
+			return regenCreator.createInvalid(rootFrame.getType().getIdentity());
+		}
+
+		private void readFrameSpecs() {
+
+			while (true) {
+
+				byte tag = reader.readByte();
+
+				switch (tag) {
+
+					case END_FRAMES_TAG:
+						return;
+
+					case ATOMIC_FRAME_TAG:
+						frameSpecs.add(new AtomicFrameSpec());
+						break;
+
+					case REFERENCE_FRAME_TAG:
+						frameSpecs.add(new ReferenceFrameSpec());
+						break;
+
+					case DISJUNCTION_FRAME_TAG:
+						frameSpecs.add(new DisjunctionFrameSpec());
+						break;
+
+					default:
+						throw reader.createFormatException("Invalid frame tag: " + tag);
+				}
+			}
+		}
+
+		private SlotSpec<?> readSlotSpec() {
+
+			SlotAttributes attributes = new SlotAttributes();
+			byte tag = reader.readByte();
+
+			switch (tag) {
+
+				case MFRAME_SLOT_TAG:
+					return new CFrameSlotSpec(attributes);
+
+				case CFRAME_SLOT_TAG:
+					return new IFrameSlotSpec(attributes);
+
+				case CNUMBER_SLOT_TAG:
+					return new INumberSlotSpec(attributes);
+
+				case CSTRING_SLOT_TAG:
+					return new IStringSlotSpec(attributes);
+			}
+
+			throw reader.createFormatException("Invalid slot tag: " + tag);
+		}
+
+		private IFrame resolveIFrame(int index) {
+
+			IFrame frame = framesByIndex.get(index);
+
+			if (frame == null) {
+
+				if (index >= frameSpecs.size()) {
+
+					throw reader.createFormatException("Invalid frame index: " + index);
+				}
+
+				frame = frameSpecs.get(index).create(index);
+			}
+
+			return frame;
+		}
+
+		private CFrame readCFrame() {
+
+			List<CFrame> disjuncts = new ArrayList<CFrame>();
+
+			for (CIdentity disjunctId : reader.readIdentities()) {
+
+				disjuncts.add(getCFrame(disjunctId));
+			}
+
+			return CFrame.resolveDisjunction(disjuncts);
+		}
+
+		private CNumber readCNumber(Class<? extends Number> numberType) {
+
+			Number min = reader.readNumberOrNull();
+			Number max = reader.readNumberOrNull();
+
+			return createCNumber(numberType, min, max);
+		}
+
+		private CNumber createCNumber(Class<? extends Number> numberType, Number min, Number max) {
+
+			INumber iMin = min != null ? toINumber(numberType, min) : INumber.MINUS_INFINITY;
+			INumber iMax = max != null ? toINumber(numberType, max) : INumber.PLUS_INFINITY;
+
+			return CNumberFactory.range(numberType, iMin, iMax);
+		}
+
+		private INumber toINumber(Class<? extends Number> numberType, Number value) {
+
+			if (value.getClass() == numberType) {
+
+				return new INumber(value);
+			}
+
+			return new INumber(numberType, value.toString());
+		}
+
+		private CFrame getCFrame(CIdentity id) {
+
+			CFrame frame = model.getRootFrame();
+
+			if (!frame.getIdentity().equals(id)) {
+
+				frame = model.getFrames().getOrNull(id);
+
+				if (frame == null) {
+
+					frame = instantiator.createNonModelFrameType(id);
+
+					invalidFrameTypes.add(frame);
+				}
+			}
+
+			return frame;
+		}
+
+		private boolean validFrame(IFrame frame) {
+
+			return validFrameType(frame.getType());
+		}
+
+		private boolean validFrameType(CFrame type) {
+
+			return !invalidFrameTypes.contains(type);
+		}
+
+		private void processSlotValues() {
+
+			for (SlotSpec<?> spec : slotSpecs) {
+
+				spec.processValues();
+			}
+		}
+
+		private void completeReinstantiation() {
+
+			for (IFrame frame : framesByIndex.values()) {
+
+				instantiator.completeReinstantiation(frame, possibleModelUpdates);
+			}
+		}
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param model Relevant model
+	 */
+	public IInstanceBinaryParser(CModel model) {
+
+		this.model = model;
+
+		iEditor = ZCModelAccessor.get().getIEditor(model);
+	}
+
+	/**
+	 * Sets whether "free-instances", rather than normal instances are
+	 * to be generated as a result of the parsing (see {@link IFreeCopier}).
+	 *
+	 * @param freeInstances True if free-instances are to be generated
+	 */
+	public void setFreeInstances(boolean freeInstances) {
+
+		this.freeInstances = freeInstances;
+	}
+
+	/**
+	 * Sets whether model could possibly have been updated since
+	 * frame/slot network was serialized.
+	 *
+	 * @param possibleModelUpdates True if model possibly updated since
+	 * serialiszation
+	 */
+	public void setPossibleModelUpdates(boolean possibleModelUpdates) {
+
+		this.possibleModelUpdates = possibleModelUpdates;
+	}
+
+	/**
+	 * Parses serialised frame/slot network from the specified input
+	 * stream.
+	 *
+	 * @param input Stream to parse from
+	 * @return Output of parsing process
+	 */
+	public IRegenInstance parse(InputStream input) {
+
+		return new OneTimeParser(input).parse();
+	}
+
+	private CFrame getRootCFrame() {
+
+		return model.getRootFrame();
+	}
+
+	private ISlotEditor getSlotEditor(ISlot slot) {
+
+		return iEditor.getSlotEditor(slot);
+	}
+
+	private ISlotValuesEditor getValuesEditor(ISlot slot) {
+
+		return iEditor.getSlotValuesEditor(slot);
+	}
+}
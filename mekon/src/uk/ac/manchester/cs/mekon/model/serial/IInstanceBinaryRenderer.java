@@ -0,0 +1,299 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+import java.io.*;
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
+import uk.ac.manchester.cs.mekon.model.util.*;
+import uk.ac.manchester.cs.mekon.model.zlink.*;
+import uk.ac.manchester.cs.mekon_util.*;
+
+/**
+ * Renderer for the compact binary serialisation of MEKON instances
+ * as represented via {@link IFrame}/{@link ISlot} networks. Captures
+ * the same information as the standard XML serialisation (minus any
+ * values-update information), but is written directly to the output
+ * stream, without the construction of any intermediate document.
+ *
+ * @author Colin Puleston
+ */
+public class IInstanceBinaryRenderer implements IBinarySerialiserVocab {
+
+	private class OneTimeRenderer {
+
+		private BinaryWriter writer;
+
+		private Map<IFrame, Integer> frameIndexes = new HashMap<IFrame, Integer>();
+		private List<IFrame> frames = new ArrayList<IFrame>();
+
+		private class ISlotValueTypeRenderer extends CValueVisitor {
+
+			protected void visit(CFrame value) {
+
+				writer.writeByte(CFRAME_SLOT_TAG);
+				renderCFrame(value);
+			}
+
+			protected void visit(CNumber value) {
+
+				writer.writeByte(CNUMBER_SLOT_TAG);
+				renderNumberType(value.getNumberType());
+				renderNumberRange(value);
+			}
+
+			protected void visit(CString value) {
+
+				CStringFormat format = value.getFormat();
+
+				writer.writeByte(CSTRING_SLOT_TAG);
+				writer.writeEnum(format);
+
+				if (format == CStringFormat.CUSTOM) {
+
+					writer.writeString(getCustomConfigClass(value).getName());
+				}
+			}
+
+			protected void visit(MFrame value) {
+
+				writer.writeByte(MFRAME_SLOT_TAG);
+				renderCFrame(value.getRootCFrame());
+			}
+
+			ISlotValueTypeRenderer(ISlot slot) {
+
+				visit(slot.getValueType());
+			}
+
+			private Class<? extends CStringConfig> getCustomConfigClass(CString value) {
+
+				return ZCModelAccessor.get().getCustomCStringConfigClass(value);
+			}
+		}
+
+		private class ISlotValuesRenderer extends IValueVisitor {
+
+			protected void visit(IFrame value) {
+
+				writer.writeCount(getFrameIndex(value));
+			}
+
+			protected void visit(INumber value) {
+
+				if (value.indefinite()) {
+
+					writer.writeBoolean(false);
+					renderNumberRange(value.getType());
+				}
+				else {
+
+					writer.writeBoolean(true);
+					writer.writeNumber(value.asTypeNumber());
+				}
+			}
+
+			protected void visit(IString value) {
+
+				writer.writeString(value.get());
+			}
+
+			protected void visit(CFrame value) {
+
+				renderCFrame(value);
+			}
+
+			ISlotValuesRenderer(List<IValue> values) {
+
+				writer.writeCount(values.size());
+
+				for (IValue value : values) {
+
+					visit(value);
+				}
+			}
+		}
+
+		OneTimeRenderer(OutputStream output) {
+
+			writer = new BinaryWriter(output);
+		}
+
+		void render(IFrame rootFrame) {
+
+			writer.writeHeader();
+			writer.writeEnum(rootFrame.getFunction());
+
+			getFrameIndex(rootFrame);
+
+			for (int i = 0 ; i < frames.size() ; i++) {
+
+				renderIFrame(frames.get(i));
+			}
+
+			writer.writeByte(END_FRAMES_TAG);
+			writer.flush();
+		}
+
+		private void renderIFrame(IFrame frame) {
+
+			IFrameCategory category = frame.getCategory();
+
+			if (category.disjunction()) {
+
+				writer.writeByte(DISJUNCTION_FRAME_TAG);
+				renderDisjuncts(frame);
+			}
+			else if (category.reference()) {
+
+				writer.writeByte(REFERENCE_FRAME_TAG);
+				renderCFrame(frame.getType());
+				writer.writeIdentity(frame.getReferenceId());
+			}
+			else {
+
+				writer.writeByte(ATOMIC_FRAME_TAG);
+				renderCFrame(frame.getType());
+				renderISlots(frame);
+			}
+		}
+
+		private void renderDisjuncts(IFrame frame) {
+
+			List<IFrame> disjuncts = frame.asDisjuncts();
+
+			writer.writeCount(disjuncts.size());
+
+			for (IFrame disjunct : disjuncts) {
+
+				writer.writeCount(getFrameIndex(disjunct));
+			}
+		}
+
+		private void renderISlots(IFrame frame) {
+
+			List<ISlot> slots = frame.getSlots().asList();
+
+			writer.writeCount(slots.size());
+
+			for (ISlot slot : slots) {
+
+				renderISlot(slot);
+			}
+		}
+
+		private void renderISlot(ISlot slot) {
+
+			CSlot slotType = slot.getType();
+			ISlotValues values = slot.getValues();
+
+			writer.writeIdentity(slotType.getIdentity());
+			writer.writeEnum(slotType.getSource());
+			writer.writeEnum(slotType.getCardinality());
+			writer.writeEnum(slotType.getActivation());
+			writer.writeEnum(slot.getEditability());
+
+			new ISlotValueTypeRenderer(slot);
+			new ISlotValuesRenderer(values.getFixedValues());
+			new ISlotValuesRenderer(values.getAssertedValues());
+		}
+
+		private void renderCFrame(CFrame frame) {
+
+			if (frame.getCategory().disjunction()) {
+
+				writer.writeIdentities(CIdentified.extractIdentities(frame.getSubs()));
+			}
+			else {
+
+				writer.writeIdentities(Collections.singletonList(frame.getIdentity()));
+			}
+		}
+
+		private void renderNumberType(Class<? extends Number> numberType) {
+
+			writer.writeNumberType(numberType);
+		}
+
+		private void renderNumberRange(CNumber number) {
+
+			renderNumberLimit(number.hasMin(), number.getMin());
+			renderNumberLimit(number.hasMax(), number.getMax());
+		}
+
+		private void renderNumberLimit(boolean hasLimit, INumber limit) {
+
+			if (hasLimit) {
+
+				writer.writeNumber(limit.asTypeNumber());
+			}
+			else {
+
+				writer.writeNoNumber();
+			}
+		}
+
+		private int getFrameIndex(IFrame frame) {
+
+			Integer index = frameIndexes.get(frame);
+
+			if (index == null) {
+
+				index = frames.size();
+
+				frameIndexes.put(frame, index);
+				frames.add(frame);
+			}
+
+			return index;
+		}
+	}
+
+	/**
+	 * Renders a frame/slot network to the specified output stream.
+	 *
+	 * @param rootFrame Root-frame of network to be rendered
+	 * @param output Stream to render to
+	 */
+	public void render(IFrame rootFrame, OutputStream output) {
+
+		checkAtomicRootFrame(rootFrame);
+
+		new OneTimeRenderer(output).render(rootFrame);
+	}
+
+	private void checkAtomicRootFrame(IFrame frame) {
+
+		if (frame.getCategory().disjunction()) {
+
+			throw new KAccessException(
+						"Cannot render instance whose root-frame "
+						+ "has category DISJUNCTION: "
+						+ frame);
+		}
+	}
+}
@@ -908,7 +908,18 @@ public class IInstanceParser extends FSerialiser implements ISerialiserVocab {
 	 */
 	public IRegenInstance parse(IInstanceParseInput input) {
 
-		return new OneTimeParser(input).parse();
+		IUpdating updating = model.getIUpdating();
+
+		updating.startUpdateBatch();
+
+		try {
+
+			return new OneTimeParser(input).parse();
+		}
+		finally {
+
+			updating.endUpdateBatch();
+		}
 	}
 
 	/**
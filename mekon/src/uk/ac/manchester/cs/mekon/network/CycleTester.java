@@ -34,63 +34,79 @@ class CycleTester {
 	private NNode startNode;
 
 	private Set<NNode> visited = new HashSet<NNode>();
-	private Deque<NNode> stack = new ArrayDeque<NNode>();
+	private Set<NNode> onPath = new HashSet<NNode>();
 
-	CycleTester(NNode startNode) {
-
-		this.startNode = startNode;
-	}
+	private Deque<NodeVisit> path = new ArrayDeque<NodeVisit>();
 
-	boolean leadsToCycle() {
+	private class NodeVisit {
 
-		return leadsToCycle(startNode);
-	}
+		private NNode node;
+		private Iterator<NLink> links;
+		private Iterator<NNode> values = Collections.<NNode>emptyIterator();
 
-	private boolean leadsToCycle(NNode frame) {
+		NodeVisit(NNode node) {
 
-		if (stack.contains(frame)) {
+			this.node = node;
 
-			return true;
+			links = node.getLinksView().iterator();
 		}
 
-		if (visited.add(frame)) {
+		NNode nextValueOrNull() {
 
-			stack.push(frame);
+			while (!values.hasNext()) {
 
-			if (slotsLeadToCycle(frame)) {
+				if (!links.hasNext()) {
 
-				return true;
+					return null;
+				}
+
+				values = links.next().getValuesView().iterator();
 			}
 
-			stack.pop();
+			return values.next();
 		}
+	}
 
-		return false;
+	CycleTester(NNode startNode) {
+
+		this.startNode = startNode;
 	}
 
-	private boolean slotsLeadToCycle(NNode frame) {
+	boolean leadsToCycle() {
 
-		for (NLink slot : frame.getLinks()) {
+		enter(startNode);
 
-			if (slotLeadsToCycle(slot)) {
+		while (!path.isEmpty()) {
 
-				return true;
-			}
-		}
+			NodeVisit visit = path.peek();
+			NNode next = visit.nextValueOrNull();
 
-		return false;
-	}
+			if (next == null) {
 
-	private boolean slotLeadsToCycle(NLink slot) {
+				onPath.remove(visit.node);
+				path.pop();
+			}
+			else {
+
+				if (onPath.contains(next)) {
 
-		for (NNode value : slot.getValues()) {
+					return true;
+				}
 
-			if (leadsToCycle(value)) {
+				if (visited.add(next)) {
 
-				return true;
+					enter(next);
+				}
 			}
 		}
 
 		return false;
 	}
+
+	private void enter(NNode node) {
+
+		visited.add(node);
+		onPath.add(node);
+		path.push(new NodeVisit(node));
+	}
 }
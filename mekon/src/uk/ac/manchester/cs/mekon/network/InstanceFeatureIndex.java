@@ -0,0 +1,430 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.network;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon_util.*;
+
+/**
+ * @author Colin Puleston
+ */
+abstract class InstanceFeatureIndex {
+
+	static private final KIntSet NO_IDS = new KIntSet();
+
+	private CIdentityIds typeIds = null;
+	private List<FeatureTypeIndex> featureTypeIndexes = new ArrayList<FeatureTypeIndex>();
+
+	private class FeatureTypeIndex {
+
+		private Map<CFrame, KIntSet> byLinkValueType = new HashMap<CFrame, KIntSet>();
+		private Map<String, KIntSet> byStringValue = new HashMap<String, KIntSet>();
+		private NavigableMap<Double, KIntSet> byNumberValue = new TreeMap<Double, KIntSet>();
+
+		private KIntSet unindexedValues = new KIntSet();
+
+		void addLinkValue(NNode value, int index) {
+
+			CFrame type = getIndexableInstanceValueType(value);
+
+			if (type != null) {
+
+				addPosting(byLinkValueType, type, index);
+			}
+			else {
+
+				unindexedValues.add(index);
+			}
+		}
+
+		void removeLinkValue(NNode value, int index) {
+
+			CFrame type = getIndexableInstanceValueType(value);
+
+			if (type != null) {
+
+				removePosting(byLinkValueType, type, index);
+			}
+			else {
+
+				unindexedValues.remove(index);
+			}
+		}
+
+		void addNumberValue(INumber value, int index) {
+
+			if (indexableNumber(value)) {
+
+				addPosting(byNumberValue, value.asDouble(), index);
+			}
+			else {
+
+				unindexedValues.add(index);
+			}
+		}
+
+		void removeNumberValue(INumber value, int index) {
+
+			if (indexableNumber(value)) {
+
+				removePosting(byNumberValue, value.asDouble(), index);
+			}
+			else {
+
+				unindexedValues.remove(index);
+			}
+		}
+
+		void addStringValue(String value, int index) {
+
+			addPosting(byStringValue, value, index);
+		}
+
+		void removeStringValue(String value, int index) {
+
+			removePosting(byStringValue, value, index);
+		}
+
+		KIntSet getLinkValueCandidates(CFrame queryValueType) {
+
+			KIntSet candidates = new KIntSet(unindexedValues);
+
+			for (Map.Entry<CFrame, KIntSet> entry : byLinkValueType.entrySet()) {
+
+				if (queryValueType.subsumes(entry.getKey())) {
+
+					candidates.addAll(entry.getValue());
+				}
+			}
+
+			return candidates;
+		}
+
+		KIntSet getNumberValueCandidates(CNumber queryValueType) {
+
+			KIntSet candidates = new KIntSet(unindexedValues);
+
+			for (KIntSet indexes : getNumberValuesInRange(queryValueType).values()) {
+
+				candidates.addAll(indexes);
+			}
+
+			return candidates;
+		}
+
+		KIntSet getStringValueCandidates(String queryValue) {
+
+			KIntSet indexes = byStringValue.get(queryValue);
+
+			return indexes != null ? indexes : NO_IDS;
+		}
+
+		boolean isEmpty() {
+
+			return byLinkValueType.isEmpty()
+					&& byStringValue.isEmpty()
+					&& byNumberValue.isEmpty()
+					&& unindexedValues.isEmpty();
+		}
+
+		private NavigableMap<Double, KIntSet> getNumberValuesInRange(CNumber range) {
+
+			double min = range.hasMin() ? range.getMin().asDouble() : Double.NEGATIVE_INFINITY;
+			double max = range.hasMax() ? range.getMax().asDouble() : Double.POSITIVE_INFINITY;
+
+			return byNumberValue.subMap(min, true, max, true);
+		}
+
+		private boolean indexableNumber(INumber value) {
+
+			return value.definite() && !value.infinite();
+		}
+	}
+
+	private class QueryCandidatesFinder {
+
+		private KIntSet candidates = null;
+
+		QueryCandidatesFinder(NNode query) {
+
+			if (!query.instanceRef()) {
+
+				applyLinks(query);
+				applyNumbers(query);
+				applyStrings(query);
+			}
+		}
+
+		KIntSet getCandidates() {
+
+			return candidates;
+		}
+
+		private void applyLinks(NNode query) {
+
+			for (NLink link : query.getLinksView()) {
+
+				if (indexableQueryFeature(link) && !link.disjunctionLink()) {
+
+					FeatureTypeIndex index = lookupFeatureTypeIndex(link);
+
+					for (NNode value : link.getValuesView()) {
+
+						CFrame type = getIndexableQueryValueType(value);
+
+						if (type != null) {
+
+							applyConstraint(index != null ? index.getLinkValueCandidates(type) : NO_IDS);
+						}
+					}
+				}
+			}
+		}
+
+		private void applyNumbers(NNode query) {
+
+			for (NNumber number : query.getNumbersView()) {
+
+				if (indexableQueryFeature(number)) {
+
+					FeatureTypeIndex index = lookupFeatureTypeIndex(number);
+
+					for (INumber value : number.getValuesView()) {
+
+						applyConstraint(index != null ? index.getNumberValueCandidates(value.getType()) : NO_IDS);
+					}
+				}
+			}
+		}
+
+		private void applyStrings(NNode query) {
+
+			for (NString string : query.getStringsView()) {
+
+				if (indexableQueryFeature(string)) {
+
+					FeatureTypeIndex index = lookupFeatureTypeIndex(string);
+
+					for (String value : string.getValuesView()) {
+
+						applyConstraint(index != null ? index.getStringValueCandidates(value) : NO_IDS);
+					}
+				}
+			}
+		}
+
+		private void applyConstraint(KIntSet constraint) {
+
+			if (candidates == null) {
+
+				candidates = new KIntSet(constraint);
+			}
+			else {
+
+				candidates.retainAll(constraint);
+			}
+		}
+
+		private boolean indexableQueryFeature(NFeature<?> feature) {
+
+			return feature.hasValues() && !customMatchFeatureType(feature.getType());
+		}
+	}
+
+	void setTypeIds(CIdentityIds typeIds) {
+
+		if (this.typeIds == null) {
+
+			this.typeIds = typeIds;
+		}
+	}
+
+	int getTypeId(NNode instance, CFrame type) {
+
+		checkResolveTypeIds(instance);
+
+		return typeIds.getId(type.getIdentity());
+	}
+
+	void add(NNode instance, int index) {
+
+		checkResolveTypeIds(instance);
+
+		for (NLink link : instance.getLinksView()) {
+
+			for (NNode value : link.getValuesView()) {
+
+				resolveFeatureTypeIndex(link).addLinkValue(value, index);
+			}
+		}
+
+		for (NNumber number : instance.getNumbersView()) {
+
+			for (INumber value : number.getValuesView()) {
+
+				resolveFeatureTypeIndex(number).addNumberValue(value, index);
+			}
+		}
+
+		for (NString string : instance.getStringsView()) {
+
+			for (String value : string.getValuesView()) {
+
+				resolveFeatureTypeIndex(string).addStringValue(value, index);
+			}
+		}
+	}
+
+	void remove(NNode instance, int index) {
+
+		for (NLink link : instance.getLinksView()) {
+
+			for (NNode value : link.getValuesView()) {
+
+				lookupFeatureTypeIndex(link).removeLinkValue(value, index);
+			}
+
+			checkRemoveFeatureTypeIndex(link);
+		}
+
+		for (NNumber number : instance.getNumbersView()) {
+
+			for (INumber value : number.getValuesView()) {
+
+				lookupFeatureTypeIndex(number).removeNumberValue(value, index);
+			}
+
+			checkRemoveFeatureTypeIndex(number);
+		}
+
+		for (NString string : instance.getStringsView()) {
+
+			for (String value : string.getValuesView()) {
+
+				lookupFeatureTypeIndex(string).removeStringValue(value, index);
+			}
+
+			checkRemoveFeatureTypeIndex(string);
+		}
+	}
+
+	KIntSet lookForCandidates(NNode query) {
+
+		return new QueryCandidatesFinder(query).getCandidates();
+	}
+
+	abstract boolean customMatchFeatureType(CIdentity featureType);
+
+	private void checkResolveTypeIds(NNode instance) {
+
+		if (typeIds == null) {
+
+			CFrame type = instance.getCFrame();
+
+			typeIds = type != null ? type.getModel().getIdentityIds() : new CIdentityIds();
+		}
+	}
+
+	private FeatureTypeIndex resolveFeatureTypeIndex(NFeature<?> feature) {
+
+		int typeId = typeIds.getId(feature.getType());
+
+		while (featureTypeIndexes.size() <= typeId) {
+
+			featureTypeIndexes.add(null);
+		}
+
+		FeatureTypeIndex index = featureTypeIndexes.get(typeId);
+
+		if (index == null) {
+
+			index = new FeatureTypeIndex();
+			featureTypeIndexes.set(typeId, index);
+		}
+
+		return index;
+	}
+
+	private FeatureTypeIndex lookupFeatureTypeIndex(NFeature<?> feature) {
+
+		int typeId = typeIds != null ? typeIds.lookupId(feature.getType()) : -1;
+
+		return typeId != -1 && typeId < featureTypeIndexes.size()
+					? featureTypeIndexes.get(typeId)
+					: null;
+	}
+
+	private void checkRemoveFeatureTypeIndex(NFeature<?> feature) {
+
+		FeatureTypeIndex index = lookupFeatureTypeIndex(feature);
+
+		if (index != null && index.isEmpty()) {
+
+			featureTypeIndexes.set(typeIds.lookupId(feature.getType()), null);
+		}
+	}
+
+	private CFrame getIndexableInstanceValueType(NNode value) {
+
+		CFrame type = value.getCFrame();
+
+		return type != null && !type.getCategory().disjunction() ? type : null;
+	}
+
+	private CFrame getIndexableQueryValueType(NNode value) {
+
+		return value.instanceRef() ? null : getIndexableInstanceValueType(value);
+	}
+
+	private <K>void addPosting(Map<K, KIntSet> postings, K key, int index) {
+
+		KIntSet indexes = postings.get(key);
+
+		if (indexes == null) {
+
+			indexes = new KIntSet();
+			postings.put(key, indexes);
+		}
+
+		indexes.add(index);
+	}
+
+	private <K>void removePosting(Map<K, KIntSet> postings, K key, int index) {
+
+		KIntSet indexes = postings.get(key);
+
+		if (indexes != null) {
+
+			indexes.remove(index);
+
+			if (indexes.isEmpty()) {
+
+				postings.remove(key);
+			}
+		}
+	}
+}
@@ -56,6 +56,7 @@ public abstract class NClassifier extends IClassifier {
 	public void addPreProcessor(NProcessor preProcessor) {
 
 		networkCreator.addPreProcessor(preProcessor);
+		clearClassificationCache();
 	}
 
 	/**
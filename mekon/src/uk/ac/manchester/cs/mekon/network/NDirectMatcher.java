@@ -24,13 +24,17 @@
 
 package uk.ac.manchester.cs.mekon.network;
 
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.store.motor.*;
 import uk.ac.manchester.cs.mekon.store.disk.*;
 
+import uk.ac.manchester.cs.mekon_util.*;
 import uk.ac.manchester.cs.mekon_util.config.*;
 
 /**
@@ -41,46 +45,406 @@ import uk.ac.manchester.cs.mekon_util.config.*;
  * networks, taking into account subsumption relationships between
  * the {@link CFrame} representations of the node-types, where
  * available.
+ * <p>
+ * Instances are indexed by the types and values of the features
+ * attached to their root-nodes, so that the full recursive matching
+ * is only performed on those candidate instances whose root-level
+ * features are compatible with those of the query. Both the instances
+ * and their root-node types are held against dense integer ids, with
+ * the type ids being provided by the model (see {@link
+ * CModel#getIdentityIds}).
+ * <p>
+ * If the matcher is configured with more than one match-thread
+ * (see {@link IMatcherConfig#getMatchThreads}), then the candidate
+ * instances for each query will be divided between the threads of
+ * a fork-join pool, with the results being merged into the same
+ * order as would be produced by serial evaluation. In this case any
+ * custom value-matchers must be able to handle concurrent invocation.
+ * <p>
+ * Checkpoints of the matcher state (see {@link ICheckpointMatcher})
+ * consist of binary serialisations of the instances as held by the
+ * matcher, including the expansions of any referenced instances,
+ * so that the networks can be rebuilt on restoration without any
+ * further access to the store.
  *
  * @author Colin Puleston
  */
-public class NDirectMatcher extends NMatcher {
+public class NDirectMatcher extends NMatcher implements ICheckpointMatcher {
 
-	private Map<CFrame, InstanceGroup> instanceGroups
-					= new HashMap<CFrame, InstanceGroup>();
+	static private final int DEFAULT_MATCH_CHUNK_SIZE = 100;
+
+	static private final String CHECKPOINT_FILE_NAME = "INSTANCES.bin";
+
+	private List<InstanceGroup> instanceGroups = new ArrayList<InstanceGroup>();
+
+	private InstanceIndexes instanceIndexes = new InstanceIndexes();
+	private List<NNode> instancesByIndex = new ArrayList<NNode>();
+
+	private InstanceFeatureIndex featureIndex = new FeatureIndex();
+
+	private int matchThreads = 0;
+	private int matchChunkSize = DEFAULT_MATCH_CHUNK_SIZE;
+
+	private ForkJoinPool matchPool = null;
+
+	private class FeatureIndex extends InstanceFeatureIndex {
+
+		boolean customMatchFeatureType(CIdentity featureType) {
+
+			return NDirectMatcher.this.customMatchFeatureType(featureType);
+		}
+	}
+
+	private class InstanceIndexes extends KIndexes<CIdentity> {
+
+		protected KRuntimeException createException(String message) {
+
+			return new KAccessException(message);
+		}
+	}
 
 	private class InstanceGroup {
 
 		private CFrame rootFrameType;
-		private Map<CIdentity, NNode> instances = new HashMap<CIdentity, NNode>();
+		private KIntSet instances = new KIntSet();
 
 		InstanceGroup(CFrame rootFrameType) {
 
 			this.rootFrameType = rootFrameType;
 		}
 
-		void add(NNode instance, CIdentity identity) {
+		void add(int index) {
 
-			instances.put(identity, instance);
+			instances.add(index);
 		}
 
-		boolean checkRemove(CIdentity identity) {
+		void remove(int index) {
 
-			return instances.remove(identity) != null;
+			instances.remove(index);
 		}
 
-		void collectMatches(NNode query, List<CIdentity> matches) {
+		void collectCandidates(
+				NNode query,
+				KIntSet indexCandidates,
+				MatchCandidates candidates) {
 
 			if (getType(query).subsumes(rootFrameType)) {
 
-				for (Map.Entry<CIdentity, NNode> entry : instances.entrySet()) {
+				if (indexCandidates == null) {
+
+					collectAllCandidates(candidates);
+				}
+				else if (indexCandidates.size() < instances.size()) {
+
+					collectIndexCandidates(indexCandidates, candidates);
+				}
+				else {
+
+					collectIndexedCandidates(indexCandidates, candidates);
+				}
+			}
+		}
+
+		private void collectAllCandidates(MatchCandidates candidates) {
+
+			for (int i = 0 ; i < instances.size() ; i++) {
+
+				candidates.add(instances.get(i));
+			}
+		}
+
+		private void collectIndexCandidates(
+						KIntSet indexCandidates,
+						MatchCandidates candidates) {
+
+			for (int i = 0 ; i < indexCandidates.size() ; i++) {
+
+				int index = indexCandidates.get(i);
+
+				if (instances.contains(index)) {
+
+					candidates.add(index);
+				}
+			}
+		}
 
-					if (matches(query, entry.getValue())) {
+		private void collectIndexedCandidates(
+						KIntSet indexCandidates,
+						MatchCandidates candidates) {
 
-						matches.add(entry.getKey());
+			for (int i = 0 ; i < instances.size() ; i++) {
+
+				int index = instances.get(i);
+
+				if (indexCandidates.contains(index)) {
+
+					candidates.add(index);
+				}
+			}
+		}
+	}
+
+	private class CheckpointWriter {
+
+		private IInstanceBinaryRenderer renderer = new IInstanceBinaryRenderer();
+		private DataOutputStream output;
+
+		CheckpointWriter(DataOutputStream output) {
+
+			this.output = output;
+		}
+
+		boolean write() throws IOException {
+
+			output.writeInt(getInstanceCount());
+
+			for (int i = 0 ; i < instancesByIndex.size() ; i++) {
+
+				NNode instance = instancesByIndex.get(i);
+
+				if (instance != null) {
+
+					if (!write(instanceIndexes.getElement(i), instance.getIFrame())) {
+
+						return false;
 					}
 				}
 			}
+
+			return true;
+		}
+
+		private boolean write(CIdentity identity, IFrame instance) throws IOException {
+
+			if (instance == null) {
+
+				return false;
+			}
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			renderer.render(instance, bytes);
+
+			output.writeUTF(identity.getIdentifier());
+			output.writeUTF(identity.getLabel());
+			output.writeInt(bytes.size());
+
+			bytes.writeTo(output);
+
+			return true;
+		}
+
+		private int getInstanceCount() {
+
+			int count = 0;
+
+			for (NNode instance : instancesByIndex) {
+
+				if (instance != null) {
+
+					count++;
+				}
+			}
+
+			return count;
+		}
+	}
+
+	private class CheckpointReader {
+
+		private IInstanceBinaryParser parser = new IInstanceBinaryParser(getModel());
+		private DataInputStream input;
+
+		private Map<CIdentity, IFrame> instances = new LinkedHashMap<CIdentity, IFrame>();
+
+		CheckpointReader(DataInputStream input) {
+
+			this.input = input;
+
+			parser.setFreeInstances(true);
+			parser.setPossibleModelUpdates(false);
+		}
+
+		boolean read() throws IOException {
+
+			for (int i = input.readInt() ; i > 0 ; i--) {
+
+				if (!readNext()) {
+
+					return false;
+				}
+			}
+
+			for (Map.Entry<CIdentity, IFrame> entry : instances.entrySet()) {
+
+				addExpanded(entry.getValue(), entry.getKey());
+			}
+
+			return true;
+		}
+
+		private boolean readNext() throws IOException {
+
+			CIdentity identity = new CIdentity(input.readUTF(), input.readUTF());
+			byte[] bytes = new byte[input.readInt()];
+
+			input.readFully(bytes);
+
+			IRegenInstance regen = parser.parse(new ByteArrayInputStream(bytes));
+
+			if (regen.getStatus() != IRegenStatus.FULLY_VALID) {
+
+				return false;
+			}
+
+			instances.put(identity, regen.getRootFrame());
+
+			return true;
+		}
+	}
+
+	private class MatchCandidates {
+
+		private List<CIdentity> ids = new ArrayList<CIdentity>();
+		private List<NNode> instances = new ArrayList<NNode>();
+
+		void add(int index) {
+
+			ids.add(instanceIndexes.getElement(index));
+			instances.add(instancesByIndex.get(index));
+		}
+
+		List<CIdentity> match(NNode query) {
+
+			return matchBlock(compileQuery(query), 0, ids.size());
+		}
+
+		List<CIdentity> match(NNode query, int maxMatches) {
+
+			QueryPlan queryPlan = compileQuery(query);
+			List<CIdentity> matches = new ArrayList<CIdentity>();
+
+			int blockSize = getMatchBlockSize();
+
+			for (int start = 0 ; start < ids.size() ; start += blockSize) {
+
+				if (matches.size() >= maxMatches) {
+
+					break;
+				}
+
+				int end = Math.min(start + blockSize, ids.size());
+
+				matches.addAll(matchBlock(queryPlan, start, end));
+			}
+
+			return matches;
+		}
+
+		List<CIdentity> matchRange(QueryPlan queryPlan, int start, int end) {
+
+			List<CIdentity> matches = new ArrayList<CIdentity>();
+			QueryNodeDirectMatcher matcher = createDirectMatcher(queryPlan);
+
+			for (int i = start ; i < end ; i++) {
+
+				if (matcher.matches(instances.get(i))) {
+
+					matches.add(ids.get(i));
+				}
+			}
+
+			return matches;
+		}
+
+		private List<CIdentity> matchBlock(QueryPlan queryPlan, int start, int end) {
+
+			if (matchPool != null && end - start > matchChunkSize) {
+
+				return matchPool.invoke(new MatchTask(queryPlan, this, start, end));
+			}
+
+			return matchSerially(queryPlan, start, end);
+		}
+
+		private List<CIdentity> matchSerially(QueryPlan queryPlan, int start, int end) {
+
+			List<CIdentity> matches = new ArrayList<CIdentity>();
+
+			for (int chunkStart = start ; chunkStart < end ; chunkStart += matchChunkSize) {
+
+				int chunkEnd = Math.min(chunkStart + matchChunkSize, end);
+
+				matches.addAll(matchRange(queryPlan, chunkStart, chunkEnd));
+			}
+
+			return matches;
+		}
+
+		private int getMatchBlockSize() {
+
+			return matchPool != null ? matchChunkSize * matchThreads : matchChunkSize;
+		}
+	}
+
+	private class MatchTask extends RecursiveTask<List<CIdentity>> {
+
+		static private final long serialVersionUID = -1;
+
+		private QueryPlan queryPlan;
+		private MatchCandidates candidates;
+
+		private int start;
+		private int end;
+
+		MatchTask(QueryPlan queryPlan, MatchCandidates candidates, int start, int end) {
+
+			this.queryPlan = queryPlan;
+			this.candidates = candidates;
+			this.start = start;
+			this.end = end;
+		}
+
+		protected List<CIdentity> compute() {
+
+			if (end - start <= matchChunkSize) {
+
+				return candidates.matchRange(queryPlan, start, end);
+			}
+
+			int mid = (start + end) / 2;
+
+			MatchTask first = new MatchTask(queryPlan, candidates, start, mid);
+			MatchTask second = new MatchTask(queryPlan, candidates, mid, end);
+
+			first.fork();
+
+			List<CIdentity> secondMatches = second.compute();
+			List<CIdentity> matches = first.join();
+
+			matches.addAll(secondMatches);
+
+			return matches;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void initialise(IMatcherConfig config) {
+
+		super.initialise(config);
+
+		featureIndex.setTypeIds(getModel().getIdentityIds());
+
+		if (matchThreads == 0) {
+
+			matchThreads = config.getMatchThreads();
+		}
+
+		if (matchThreads > 1) {
+
+			matchPool = new ForkJoinPool(matchThreads);
 		}
 	}
 
@@ -102,16 +466,19 @@ public class NDirectMatcher extends NMatcher {
 	 */
 	public void add(NNode instance, CIdentity identity) {
 
-		CFrame rootFrameType = getType(instance);
-		InstanceGroup group = instanceGroups.get(rootFrameType);
+		remove(identity);
 
-		if (group == null) {
+		int index = instanceIndexes.assignIndex(identity);
+
+		while (instancesByIndex.size() <= index) {
 
-			group = new InstanceGroup(rootFrameType);
-			instanceGroups.put(rootFrameType, group);
+			instancesByIndex.add(null);
 		}
 
-		group.add(instance, identity);
+		instancesByIndex.set(index, instance);
+
+		resolveInstanceGroup(instance).add(index);
+		featureIndex.add(instance, index);
 	}
 
 	/**
@@ -119,12 +486,17 @@ public class NDirectMatcher extends NMatcher {
 	 */
 	public void remove(CIdentity identity) {
 
-		for (InstanceGroup group : instanceGroups.values()) {
+		Integer index = instanceIndexes.getIndexOrNull(identity);
 
-			if (group.checkRemove(identity)) {
+		if (index != null) {
 
-				break;
-			}
+			NNode instance = instancesByIndex.get(index);
+
+			instanceGroups.get(getTypeId(instance)).remove(index);
+			featureIndex.remove(instance, index);
+
+			instancesByIndex.set(index, null);
+			instanceIndexes.freeIndex(identity);
 		}
 	}
 
@@ -133,14 +505,23 @@ public class NDirectMatcher extends NMatcher {
 	 */
 	public IMatches match(NNode query) {
 
-		List<CIdentity> matches = new ArrayList<CIdentity>();
+		return new IUnrankedMatches(collectCandidates(query).match(query));
+	}
 
-		for (InstanceGroup group : instanceGroups.values()) {
+	/**
+	 * Finds the specified range of the instances that match the
+	 * specified query, with the matching of candidate instances
+	 * ceasing as soon as the range has been filled.
+	 *
+	 * @param query Query to be matched
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	public IMatches match(NNode query, IMatchesRange range) {
 
-			group.collectMatches(query, matches);
-		}
+		List<CIdentity> matches = collectCandidates(query).match(query, range.getEnd());
 
-		return new IUnrankedMatches(matches);
+		return new IUnrankedMatches(IMatchesRangeSelector.select(matches, range));
 	}
 
 	/**
@@ -152,10 +533,58 @@ public class NDirectMatcher extends NMatcher {
 	}
 
 	/**
-	 * Does nothing since no clear-ups are required for this type
-	 * of store.
+	 * {@inheritDoc}
+	 */
+	public boolean writeCheckpoint(File directory) {
+
+		DataOutputStream output = openCheckpointOutput(directory);
+
+		try {
+
+			return new CheckpointWriter(output).write();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+		finally {
+
+			closeCheckpointStream(output);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean readCheckpoint(File directory) {
+
+		File file = new File(directory, CHECKPOINT_FILE_NAME);
+
+		if (!file.exists()) {
+
+			return false;
+		}
+
+		if (readCheckpointFile(file)) {
+
+			return true;
+		}
+
+		clearInstances();
+
+		return false;
+	}
+
+	/**
+	 * Shuts down the pool of match-threads, if applicable.
 	 */
 	public void stop() {
+
+		if (matchPool != null) {
+
+			matchPool.shutdown();
+			matchPool = null;
+		}
 	}
 
 	/**
@@ -168,6 +597,130 @@ public class NDirectMatcher extends NMatcher {
 		return true;
 	}
 
+	void setParallelMatching(int matchThreads, int matchChunkSize) {
+
+		this.matchThreads = matchThreads;
+		this.matchChunkSize = matchChunkSize;
+	}
+
+	private MatchCandidates collectCandidates(NNode query) {
+
+		KIntSet indexCandidates = featureIndex.lookForCandidates(query);
+		MatchCandidates candidates = new MatchCandidates();
+
+		if (indexCandidates == null || !indexCandidates.isEmpty()) {
+
+			for (InstanceGroup group : instanceGroups) {
+
+				if (group != null) {
+
+					group.collectCandidates(query, indexCandidates, candidates);
+				}
+			}
+		}
+
+		return candidates;
+	}
+
+	private InstanceGroup resolveInstanceGroup(NNode instance) {
+
+		int typeId = getTypeId(instance);
+
+		while (instanceGroups.size() <= typeId) {
+
+			instanceGroups.add(null);
+		}
+
+		InstanceGroup group = instanceGroups.get(typeId);
+
+		if (group == null) {
+
+			group = new InstanceGroup(getType(instance));
+			instanceGroups.set(typeId, group);
+		}
+
+		return group;
+	}
+
+	private int getTypeId(NNode instance) {
+
+		return featureIndex.getTypeId(instance, getType(instance));
+	}
+
+	private boolean readCheckpointFile(File file) {
+
+		DataInputStream input = openCheckpointInput(file);
+
+		try {
+
+			return new CheckpointReader(input).read();
+		}
+		catch (IOException e) {
+
+			return false;
+		}
+		catch (RuntimeException e) {
+
+			return false;
+		}
+		finally {
+
+			closeCheckpointStream(input);
+		}
+	}
+
+	private void clearInstances() {
+
+		instanceGroups.clear();
+		instanceIndexes = new InstanceIndexes();
+		instancesByIndex.clear();
+
+		featureIndex = new FeatureIndex();
+		featureIndex.setTypeIds(getModel().getIdentityIds());
+	}
+
+	private DataOutputStream openCheckpointOutput(File directory) {
+
+		File file = new File(directory, CHECKPOINT_FILE_NAME);
+
+		try {
+
+			return new DataOutputStream(
+						new BufferedOutputStream(
+							new FileOutputStream(file)));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private DataInputStream openCheckpointInput(File file) {
+
+		try {
+
+			return new DataInputStream(
+						new BufferedInputStream(
+							new FileInputStream(file)));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void closeCheckpointStream(Closeable stream) {
+
+		try {
+
+			stream.close();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
 	private CFrame getType(NNode instance) {
 
 		CFrame type = instance.getCFrame();
@@ -38,6 +38,7 @@ import uk.ac.manchester.cs.mekon.model.*;
 public abstract class NFeature<V> extends NEntity {
 
 	private List<V> values = new ArrayList<V>();
+	private List<V> valuesView = Collections.unmodifiableList(values);
 	private ISlot iSlot = null;
 
 	/**
@@ -161,11 +162,16 @@ public abstract class NFeature<V> extends NEntity {
 		this.iSlot = iSlot;
 	}
 
+	List<V> getValuesView() {
+
+		return valuesView;
+	}
+
 	NFeature<V> copy() {
 
 		NFeature<V> copy = copyNoValues();
 
-		for (V value : getValues()) {
+		for (V value : values) {
 
 			copy.addValue(resolveCopyValue(value));
 		}
@@ -46,9 +46,9 @@ import uk.ac.manchester.cs.mekon.store.disk.*;
  *
  * @author Colin Puleston
  */
-public abstract class NMatcher implements IMatcher {
+public abstract class NMatcher implements IRangeMatcher {
 
-	private IStore store;
+	private IMatcherConfig config;
 
 	private IMatchInstanceRefExpander instanceRefExpander = null;
 
@@ -58,6 +58,7 @@ public abstract class NMatcher implements IMatcher {
 	private class CustomisedQueryNodeMatcher  {
 
 		private CustomisedQuery query;
+		private QueryPlan customQueryPlan = null;
 
 		CustomisedQueryNodeMatcher(CustomisedQuery query) {
 
@@ -114,7 +115,9 @@ public abstract class NMatcher implements IMatcher {
 
 			for (CIdentity id : coreMatches) {
 
-				if (customMatches(getInstanceNode(id))) {
+				NNode instance = getInstanceNodeOrNull(id);
+
+				if (instance != null && customMatches(instance)) {
 
 					filtered.add(id);
 				}
@@ -135,12 +138,24 @@ public abstract class NMatcher implements IMatcher {
 
 		private boolean customMatches(NNode instance) {
 
-			return matchesDirect(query.getCustomQuery(), instance);
+			return createDirectMatcher(getCustomQueryPlan()).matches(instance);
 		}
 
-		private NNode getInstanceNode(CIdentity id) {
+		private QueryPlan getCustomQueryPlan() {
+
+			if (customQueryPlan == null) {
+
+				customQueryPlan = compileQuery(query.getCustomQuery());
+			}
 
-			return new NNetwork(store.get(id).getRootFrame()).getRootNode();
+			return customQueryPlan;
+		}
+
+		private NNode getInstanceNodeOrNull(CIdentity id) {
+
+			IFrame instance = config.getFreeInstanceOrNull(id);
+
+			return instance != null ? new NNetwork(instance).getRootNode() : null;
 		}
 	}
 
@@ -149,9 +164,9 @@ public abstract class NMatcher implements IMatcher {
 	 */
 	public void initialise(IMatcherConfig config) {
 
-		store = config.getStore();
+		this.config = config;
 
-		instanceRefExpander = new IMatchInstanceRefExpander(store);
+		instanceRefExpander = new IMatchInstanceRefExpander(config.getStore());
 		queryCustomiser = new QueryCustomiser(config.getValueMatchCustomisers());
 	}
 
@@ -204,6 +219,32 @@ public abstract class NMatcher implements IMatcher {
 		return new CustomisedQueryNodeMatcher(cnQuery).match();
 	}
 
+	/**
+	 * Converts the specified instance-level query frame to the
+	 * network-based representation, runs any registered pre-processors
+	 * over the resulting network, then invokes {@link
+	 * #match(NNode, IMatchesRange)} to perform the matching operation.
+	 * If the query requires any custom value-matching, then the full
+	 * set of matches is found and the range selected from it.
+	 *
+	 * @param query Query to be matched
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	public IMatches match(IFrame query, IMatchesRange range) {
+
+		NNode nQuery = queryToNetwork(query);
+
+		CustomisedQuery cnQuery = queryCustomiser.checkCustomise(nQuery);
+
+		if (cnQuery == null) {
+
+			return match(nQuery, range);
+		}
+
+		return selectRange(new CustomisedQueryNodeMatcher(cnQuery).match(), range);
+	}
+
 	/**
 	 * Converts the specified instance-level query and instance frames
 	 * to the network-based representation, runs any registered
@@ -245,6 +286,22 @@ public abstract class NMatcher implements IMatcher {
 	 */
 	protected abstract IMatches match(NNode query);
 
+	/**
+	 * Finds the specified range of the instances that match the
+	 * specified query. This default implementation invokes {@link
+	 * #match(NNode)} and selects the range from the full set of
+	 * matches. Should be overridden by matchers that can apply the
+	 * range directly.
+	 *
+	 * @param query Query to be matched
+	 * @param range Range of results required
+	 * @return Unique identities of matching instances within range
+	 */
+	protected IMatches match(NNode query, IMatchesRange range) {
+
+		return selectRange(match(query), range);
+	}
+
 	/**
 	 * Tests whether the specified query is matched by the specified
 	 * instance.
@@ -271,9 +328,39 @@ public abstract class NMatcher implements IMatcher {
 		queryCustomiser.addValueMatchCustomiser(customiser);
 	}
 
+	boolean customMatchFeatureType(CIdentity featureType) {
+
+		return queryCustomiser != null && queryCustomiser.customMatchFeatureType(featureType);
+	}
+
+	void addExpanded(IFrame expandedInstance, CIdentity identity) {
+
+		add(networkCreator.createNetwork(expandedInstance), identity);
+	}
+
+	CModel getModel() {
+
+		return config.getStore().getModel();
+	}
+
 	boolean matchesDirect(NNode query, NNode instance) {
 
-		return new QueryNodeDirectMatcher(queryCustomiser).matches(query, instance);
+		return createDirectMatcher(compileQuery(query)).matches(instance);
+	}
+
+	QueryPlan compileQuery(NNode query) {
+
+		return new QueryPlan(query, queryCustomiser);
+	}
+
+	QueryNodeDirectMatcher createDirectMatcher(QueryPlan queryPlan) {
+
+		return new QueryNodeDirectMatcher(queryPlan);
+	}
+
+	private IMatches selectRange(IMatches matches, IMatchesRange range) {
+
+		return IMatchesRangeSelector.select(matches, range);
 	}
 
 	private NNode instanceToNetwork(IFrame instance) {
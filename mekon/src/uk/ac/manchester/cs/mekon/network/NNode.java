@@ -57,6 +57,10 @@ public class NNode extends NEntity {
 
 	private List<NFeature<?>> features = new ArrayList<NFeature<?>>();
 
+	private volatile List<NLink> links = null;
+	private volatile List<NNumber> numbers = null;
+	private volatile List<NString> strings = null;
+
 	private CFrame cFrame = null;
 	private IFrame iFrame = null;
 
@@ -95,7 +99,7 @@ public class NNode extends NEntity {
 
 		for (NFeature<?> feature : features) {
 
-			copy.features.add(feature.copy());
+			copy.addFeature(feature.copy());
 		}
 
 		return copy;
@@ -149,6 +153,7 @@ public class NNode extends NEntity {
 	public void addFeature(NFeature<?> feature) {
 
 		features.add(feature);
+		clearTypeFeatures();
 	}
 
 	/**
@@ -159,6 +164,7 @@ public class NNode extends NEntity {
 	public void removeFeature(NFeature<?> feature) {
 
 		features.remove(feature);
+		clearTypeFeatures();
 	}
 
 	/**
@@ -169,6 +175,7 @@ public class NNode extends NEntity {
 	public void removeFeatures(Collection<? extends NFeature<?>> features) {
 
 		this.features.removeAll(features);
+		clearTypeFeatures();
 	}
 
 	/**
@@ -177,6 +184,7 @@ public class NNode extends NEntity {
 	public void clearFeatures() {
 
 		features.clear();
+		clearTypeFeatures();
 	}
 
 	/**
@@ -247,7 +255,7 @@ public class NNode extends NEntity {
 	 */
 	public List<NLink> getLinks() {
 
-		return getTypeFeatures(NLink.class);
+		return new ArrayList<NLink>(getLinksView());
 	}
 
 	/**
@@ -259,8 +267,8 @@ public class NNode extends NEntity {
 
 		List<NDataFeature<?>> collected = new ArrayList<NDataFeature<?>>();
 
-		collectTypeFeatures(collected, NNumber.class);
-		collectTypeFeatures(collected, NString.class);
+		collected.addAll(getNumbersView());
+		collected.addAll(getStringsView());
 
 		return collected;
 	}
@@ -272,7 +280,7 @@ public class NNode extends NEntity {
 	 */
 	public List<NNumber> getNumbers() {
 
-		return getTypeFeatures(NNumber.class);
+		return new ArrayList<NNumber>(getNumbersView());
 	}
 
 	/**
@@ -282,7 +290,7 @@ public class NNode extends NEntity {
 	 */
 	public List<NString> getStrings() {
 
-		return getTypeFeatures(NString.class);
+		return new ArrayList<NString>(getStringsView());
 	}
 
 	/**
@@ -335,6 +343,45 @@ public class NNode extends NEntity {
 		this.iFrame = iFrame;
 	}
 
+	List<NLink> getLinksView() {
+
+		List<NLink> view = links;
+
+		if (view == null) {
+
+			view = getTypeFeatures(NLink.class);
+			links = view;
+		}
+
+		return view;
+	}
+
+	List<NNumber> getNumbersView() {
+
+		List<NNumber> view = numbers;
+
+		if (view == null) {
+
+			view = getTypeFeatures(NNumber.class);
+			numbers = view;
+		}
+
+		return view;
+	}
+
+	List<NString> getStringsView() {
+
+		List<NString> view = strings;
+
+		if (view == null) {
+
+			view = getTypeFeatures(NString.class);
+			strings = view;
+		}
+
+		return view;
+	}
+
 	void renderAttributes(NEntityRenderer renderer) {
 
 		if (instanceRef()) {
@@ -359,7 +406,16 @@ public class NNode extends NEntity {
 
 		collectTypeFeatures(collected, type);
 
-		return collected;
+		return collected.isEmpty()
+				? Collections.<F>emptyList()
+				: Collections.unmodifiableList(collected);
+	}
+
+	private void clearTypeFeatures() {
+
+		links = null;
+		numbers = null;
+		strings = null;
 	}
 
 	private <F extends NFeature<?>>void collectTypeFeatures(
@@ -163,9 +163,14 @@ class QueryCustomiser {
 		return castCustomValueMatcher(customiser.getMatcher(), slotId, expectClass);
 	}
 
+	boolean customMatchFeatureType(CIdentity featureType) {
+
+		return valueMatchCustomisers.containsKey(featureType);
+	}
+
 	private boolean customMatchFeature(NFeature<?> feature) {
 
-		return valueMatchCustomisers.keySet().contains(feature.getType());
+		return customMatchFeatureType(feature.getType());
 	}
 
 	private <M extends ICustomValueMatcher>M castCustomValueMatcher(
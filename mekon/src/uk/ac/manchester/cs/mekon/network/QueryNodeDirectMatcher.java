@@ -24,11 +24,6 @@
 
 package uk.ac.manchester.cs.mekon.network;
 
-import java.util.*;
-
-import uk.ac.manchester.cs.mekon.model.*;
-import uk.ac.manchester.cs.mekon.store.disk.*;
-
 import uk.ac.manchester.cs.mekon_util.*;
 
 /**
@@ -36,213 +31,22 @@ import uk.ac.manchester.cs.mekon_util.*;
  */
 class QueryNodeDirectMatcher {
 
-	private QueryCustomiser queryCustomiser;
-
-	private LinksMatcher linksMatcher = new LinksMatcher();
-	private NumbersMatcher numbersMatcher = new NumbersMatcher();
-	private StringsMatcher stringsMatcher = new StringsMatcher();
-
-	private KSetMap<NNode, NNode> testing = new KSetMap<NNode, NNode>();
-	private KSetMap<NNode, NNode> matches = new KSetMap<NNode, NNode>();
-
-	private abstract class FeaturesMatcher<V, F extends NFeature<V>> {
-
-		boolean matches(NNode query, NNode instance) {
-
-			List<F> iFeatures = getValueFeatures(instance);
-
-			for (F qFeature : getValueFeatures(query)) {
-
-				if (!anyMatches(qFeature, iFeatures)) {
-
-					return false;
-				}
-			}
-
-			return true;
-		}
-
-		boolean valueMatches(F qFeature, F iFeature) {
-
-			for (V qValue : qFeature.getValues()) {
-
-				if (!anyValueMatches(qValue, iFeature)) {
-
-					return false;
-				}
-			}
-
-			return true;
-		}
-
-		boolean anyValueMatches(F qFeature, F iFeature) {
-
-			for (V qValue : qFeature.getValues()) {
-
-				if (anyValueMatches(qValue, iFeature)) {
-
-					return true;
-				}
-			}
-
-			return false;
-		}
-
-		abstract List<F> getFeatures(NNode node);
-
-		abstract boolean valueMatch(CIdentity featureType, V qValue, V iValue);
-
-		private List<F> getValueFeatures(NNode node) {
-
-			List<F> valueFeatures = new ArrayList<F>();
-
-			for (F feature : getFeatures(node)) {
-
-				if (feature.hasValues()) {
-
-					valueFeatures.add(feature);
-				}
-			}
-
-			return valueFeatures;
-		}
-
-		private boolean anyMatches(F qFeature, List<F> iFeatures) {
-
-			for (F iFeature : iFeatures) {
-
-				if (match(qFeature, iFeature)) {
-
-					return true;
-				}
-			}
-
-			return false;
-		}
-
-		private boolean match(F qFeature, F iFeature) {
-
-			return equalTypes(qFeature, iFeature) && valueMatches(qFeature, iFeature);
-		}
-
-		private boolean anyValueMatches(V qValue, F iFeature) {
-
-			CIdentity featureType = iFeature.getType();
-
-			for (V iValue : iFeature.getValues()) {
-
-				if (valueMatch(featureType, qValue, iValue)) {
-
-					return true;
-				}
-			}
-
-			return false;
-		}
-
-		private boolean equalTypes(F qFeature, F iFeature) {
-
-			return qFeature.getType().equals(iFeature.getType());
-		}
-	}
-
-	private class LinksMatcher extends FeaturesMatcher<NNode, NLink> {
-
-		boolean valueMatches(NLink qFeature, NLink iFeature) {
-
-			if (qFeature.disjunctionLink() && !iFeature.disjunctionLink()) {
-
-				return anyValueMatches(qFeature, iFeature);
-			}
+	private QueryPlan plan;
 
-			return super.valueMatches(qFeature, iFeature);
-		}
-
-		List<NLink> getFeatures(NNode node) {
-
-			return node.getLinks();
-		}
-
-		boolean valueMatch(CIdentity featureType, NNode qValue, NNode iValue) {
-
-			ICustomFrameMatcher matcher = lookForCustomMatcher(featureType);
-
-			if (matcher != null) {
-
-				IFrame qFrame = qValue.getIFrame();
-				IFrame iFrame = iValue.getIFrame();
+	private KSetMap<QueryPlan.NodePlan, NNode> testing = new KSetMap<QueryPlan.NodePlan, NNode>();
+	private KSetMap<QueryPlan.NodePlan, NNode> matches = new KSetMap<QueryPlan.NodePlan, NNode>();
 
-				if (qFrame != null && iFrame != null ) {
+	QueryNodeDirectMatcher(QueryPlan plan) {
 
-					return matcher.matches(qFrame, iFrame);
-				}
-			}
-
-			return QueryNodeDirectMatcher.this.matches(qValue, iValue);
-		}
-
-		private ICustomFrameMatcher lookForCustomMatcher(CIdentity featureType) {
-
-			return lookForCustomValueMatcher(featureType, ICustomFrameMatcher.class);
-		}
+		this.plan = plan;
 	}
 
-	private class NumbersMatcher extends FeaturesMatcher<INumber, NNumber> {
-
-		List<NNumber> getFeatures(NNode node) {
-
-			return node.getNumbers();
-		}
-
-		boolean valueMatch(CIdentity featureType, INumber qValue, INumber iValue) {
-
-			ICustomNumberMatcher matcher = lookForCustomMatcher(featureType);
-
-			if (matcher != null) {
-
-				return matcher.matches(qValue, iValue);
-			}
-
-			return qValue.getType().subsumes(iValue.getType());
-		}
-
-		private ICustomNumberMatcher lookForCustomMatcher(CIdentity featureType) {
+	boolean matches(NNode instance) {
 
-			return lookForCustomValueMatcher(featureType, ICustomNumberMatcher.class);
-		}
+		return matches(plan.getRootPlan(), instance);
 	}
 
-	private class StringsMatcher extends FeaturesMatcher<String, NString> {
-
-		List<NString> getFeatures(NNode node) {
-
-			return node.getStrings();
-		}
-
-		boolean valueMatch(CIdentity featureType, String qValue, String iValue) {
-
-			ICustomStringMatcher matcher = lookForCustomMatcher(featureType);
-
-			if (matcher != null) {
-
-				return matcher.matches(qValue, iValue);
-			}
-
-			return qValue.equals(iValue);
-		}
-
-		private ICustomStringMatcher lookForCustomMatcher(CIdentity featureType) {
-
-			return lookForCustomValueMatcher(featureType, ICustomStringMatcher.class);
-		}
-	}
-
-	QueryNodeDirectMatcher(QueryCustomiser queryCustomiser) {
-
-		this.queryCustomiser = queryCustomiser;
-	}
-
-	boolean matches(NNode query, NNode instance) {
+	boolean matches(QueryPlan.NodePlan query, NNode instance) {
 
 		if (testing.getSet(query).contains(instance)) {
 
@@ -258,7 +62,7 @@ class QueryNodeDirectMatcher {
 
 		testing.add(query, instance);
 
-		if (nodeMatch(query, instance)) {
+		if (query.matches(instance, this)) {
 
 			subsumption = true;
 			matches.add(query, instance);
@@ -268,42 +72,4 @@ class QueryNodeDirectMatcher {
 
 		return subsumption;
 	}
-
-	private boolean nodeMatch(NNode query, NNode instance) {
-
-		if (query.instanceRef()) {
-
-			if (!instance.instanceRef()) {
-
-				return false;
-			}
-
-			return query.getInstanceRef().equals(instance.getInstanceRef());
-		}
-
-		return typeSubsumption(query, instance)
-				&& linksMatcher.matches(query, instance)
-				&& numbersMatcher.matches(query, instance)
-				&& stringsMatcher.matches(query, instance);
-	}
-
-	private boolean typeSubsumption(NNode query, NNode instance) {
-
-		CFrame qFrame = query.getCFrame();
-		CFrame iFrame = instance.getCFrame();
-
-		if (qFrame != null && iFrame != null) {
-
-			return qFrame.subsumes(iFrame);
-		}
-
-		return instance.getTypeDisjuncts().containsAll(query.getTypeDisjuncts());
-	}
-
-	private <M extends ICustomValueMatcher>M lookForCustomValueMatcher(
-													CIdentity featureType,
-													Class<M> expectClass) {
-
-		return queryCustomiser.lookForCustomValueMatcher(featureType, expectClass);
-	}
 }
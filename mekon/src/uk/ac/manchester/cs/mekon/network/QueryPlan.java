@@ -0,0 +1,401 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.network;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.disk.*;
+
+/**
+ * Compiled form of a query network, produced once per query and
+ * then applied to each candidate instance. All information required
+ * from the query nodes, including any custom value-matchers, is
+ * resolved at compilation time, and the feature-checks for each
+ * node are ordered so that the cheaper checks are performed first.
+ * Plans are not modified after compilation, and hence can be shared
+ * between matching threads.
+ *
+ * @author Colin Puleston
+ */
+class QueryPlan {
+
+	static private final int STRING_CHECK_COST = 1;
+	static private final int NUMBER_CHECK_COST = 2;
+	static private final int LINK_CHECK_COST = 4;
+	static private final int CUSTOM_CHECK_COST = 8;
+
+	private QueryCustomiser queryCustomiser;
+
+	private Map<NNode, NodePlan> nodePlans = new HashMap<NNode, NodePlan>();
+	private NodePlan rootPlan;
+
+	class NodePlan {
+
+		private IFrame iFrame;
+		private CIdentity instanceRef = null;
+
+		private CFrame cFrame;
+		private List<CIdentity> typeDisjuncts;
+
+		private List<FeaturePlan<?, ?, ?>> featurePlans = new ArrayList<FeaturePlan<?, ?, ?>>();
+
+		NodePlan(NNode query) {
+
+			nodePlans.put(query, this);
+
+			iFrame = query.getIFrame();
+
+			if (query.instanceRef()) {
+
+				instanceRef = query.getInstanceRef();
+			}
+			else {
+
+				cFrame = query.getCFrame();
+				typeDisjuncts = query.getTypeDisjuncts();
+
+				addFeaturePlans(query);
+			}
+		}
+
+		boolean matches(NNode instance, QueryNodeDirectMatcher matcher) {
+
+			if (instanceRef != null) {
+
+				return instance.instanceRef() && instanceRef.equals(instance.getInstanceRef());
+			}
+
+			if (!typeSubsumption(instance)) {
+
+				return false;
+			}
+
+			for (FeaturePlan<?, ?, ?> featurePlan : featurePlans) {
+
+				if (!featurePlan.matches(instance, matcher)) {
+
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		IFrame getIFrame() {
+
+			return iFrame;
+		}
+
+		private void addFeaturePlans(NNode query) {
+
+			for (NString feature : query.getStringsView()) {
+
+				if (feature.hasValues()) {
+
+					featurePlans.add(new StringsPlan(feature));
+				}
+			}
+
+			for (NNumber feature : query.getNumbersView()) {
+
+				if (feature.hasValues()) {
+
+					featurePlans.add(new NumbersPlan(feature));
+				}
+			}
+
+			for (NLink feature : query.getLinksView()) {
+
+				if (feature.hasValues()) {
+
+					featurePlans.add(new LinksPlan(feature));
+				}
+			}
+
+			Collections.sort(featurePlans, new FeaturePlanCostComparator());
+		}
+
+		private boolean typeSubsumption(NNode instance) {
+
+			CFrame iFrame = instance.getCFrame();
+
+			if (cFrame != null && iFrame != null) {
+
+				return cFrame.subsumes(iFrame);
+			}
+
+			return instance.getTypeDisjuncts().containsAll(typeDisjuncts);
+		}
+	}
+
+	private abstract class FeaturePlan<Q, V, F extends NFeature<V>> {
+
+		private CIdentity type;
+		private List<Q> qValues = new ArrayList<Q>();
+
+		FeaturePlan(F qFeature) {
+
+			type = qFeature.getType();
+		}
+
+		boolean matches(NNode instance, QueryNodeDirectMatcher matcher) {
+
+			for (F iFeature : getFeatures(instance)) {
+
+				if (iFeature.hasValues()
+					&& type.equals(iFeature.getType())
+					&& valuesMatch(iFeature, matcher)) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		void addQueryValue(Q qValue) {
+
+			qValues.add(qValue);
+		}
+
+		int getCost() {
+
+			return getCheckCost() * qValues.size();
+		}
+
+		boolean valuesMatch(F iFeature, QueryNodeDirectMatcher matcher) {
+
+			for (Q qValue : qValues) {
+
+				if (!anyValueMatches(qValue, iFeature, matcher)) {
+
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		boolean anyValuesMatch(F iFeature, QueryNodeDirectMatcher matcher) {
+
+			for (Q qValue : qValues) {
+
+				if (anyValueMatches(qValue, iFeature, matcher)) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		<M extends ICustomValueMatcher>M lookForCustomMatcher(Class<M> expectClass) {
+
+			if (queryCustomiser == null) {
+
+				return null;
+			}
+
+			return queryCustomiser.lookForCustomValueMatcher(type, expectClass);
+		}
+
+		abstract List<F> getFeatures(NNode instance);
+
+		abstract int getCheckCost();
+
+		abstract boolean valueMatch(Q qValue, V iValue, QueryNodeDirectMatcher matcher);
+
+		private boolean anyValueMatches(Q qValue, F iFeature, QueryNodeDirectMatcher matcher) {
+
+			for (V iValue : iFeature.getValuesView()) {
+
+				if (valueMatch(qValue, iValue, matcher)) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+
+	private class LinksPlan extends FeaturePlan<NodePlan, NNode, NLink> {
+
+		private boolean disjunctionLink;
+		private ICustomFrameMatcher customMatcher;
+
+		LinksPlan(NLink qFeature) {
+
+			super(qFeature);
+
+			disjunctionLink = qFeature.disjunctionLink();
+			customMatcher = lookForCustomMatcher(ICustomFrameMatcher.class);
+
+			for (NNode qValue : qFeature.getValuesView()) {
+
+				addQueryValue(resolveNodePlan(qValue));
+			}
+		}
+
+		List<NLink> getFeatures(NNode instance) {
+
+			return instance.getLinksView();
+		}
+
+		int getCheckCost() {
+
+			return customMatcher != null ? CUSTOM_CHECK_COST : LINK_CHECK_COST;
+		}
+
+		boolean valuesMatch(NLink iFeature, QueryNodeDirectMatcher matcher) {
+
+			if (disjunctionLink && !iFeature.disjunctionLink()) {
+
+				return anyValuesMatch(iFeature, matcher);
+			}
+
+			return super.valuesMatch(iFeature, matcher);
+		}
+
+		boolean valueMatch(NodePlan qValue, NNode iValue, QueryNodeDirectMatcher matcher) {
+
+			if (customMatcher != null) {
+
+				IFrame qFrame = qValue.getIFrame();
+				IFrame iFrame = iValue.getIFrame();
+
+				if (qFrame != null && iFrame != null) {
+
+					return customMatcher.matches(qFrame, iFrame);
+				}
+			}
+
+			return matcher.matches(qValue, iValue);
+		}
+	}
+
+	private class NumbersPlan extends FeaturePlan<INumber, INumber, NNumber> {
+
+		private ICustomNumberMatcher customMatcher;
+
+		NumbersPlan(NNumber qFeature) {
+
+			super(qFeature);
+
+			customMatcher = lookForCustomMatcher(ICustomNumberMatcher.class);
+
+			for (INumber qValue : qFeature.getValuesView()) {
+
+				addQueryValue(qValue);
+			}
+		}
+
+		List<NNumber> getFeatures(NNode instance) {
+
+			return instance.getNumbersView();
+		}
+
+		int getCheckCost() {
+
+			return customMatcher != null ? CUSTOM_CHECK_COST : NUMBER_CHECK_COST;
+		}
+
+		boolean valueMatch(INumber qValue, INumber iValue, QueryNodeDirectMatcher matcher) {
+
+			if (customMatcher != null) {
+
+				return customMatcher.matches(qValue, iValue);
+			}
+
+			return qValue.getType().subsumes(iValue.getType());
+		}
+	}
+
+	private class StringsPlan extends FeaturePlan<String, String, NString> {
+
+		private ICustomStringMatcher customMatcher;
+
+		StringsPlan(NString qFeature) {
+
+			super(qFeature);
+
+			customMatcher = lookForCustomMatcher(ICustomStringMatcher.class);
+
+			for (String qValue : qFeature.getValuesView()) {
+
+				addQueryValue(qValue);
+			}
+		}
+
+		List<NString> getFeatures(NNode instance) {
+
+			return instance.getStringsView();
+		}
+
+		int getCheckCost() {
+
+			return customMatcher != null ? CUSTOM_CHECK_COST : STRING_CHECK_COST;
+		}
+
+		boolean valueMatch(String qValue, String iValue, QueryNodeDirectMatcher matcher) {
+
+			if (customMatcher != null) {
+
+				return customMatcher.matches(qValue, iValue);
+			}
+
+			return qValue.equals(iValue);
+		}
+	}
+
+	private class FeaturePlanCostComparator implements Comparator<FeaturePlan<?, ?, ?>> {
+
+		public int compare(FeaturePlan<?, ?, ?> first, FeaturePlan<?, ?, ?> second) {
+
+			return first.getCost() - second.getCost();
+		}
+	}
+
+	QueryPlan(NNode query, QueryCustomiser queryCustomiser) {
+
+		this.queryCustomiser = queryCustomiser;
+
+		rootPlan = resolveNodePlan(query);
+		nodePlans = null;
+	}
+
+	NodePlan getRootPlan() {
+
+		return rootPlan;
+	}
+
+	private NodePlan resolveNodePlan(NNode query) {
+
+		NodePlan plan = nodePlans.get(query);
+
+		return plan != null ? plan : new NodePlan(query);
+	}
+}
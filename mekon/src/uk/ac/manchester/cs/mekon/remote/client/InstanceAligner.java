@@ -38,6 +38,7 @@ class InstanceAligner {
 
 	private IFrame updateRoot;
 	private Map<IFrame, IFrame> updatesToMasters;
+	private Map<IFrame, List<RSlotUpdate>> slotUpdates;
 
 	private Set<IFrame> alignedMasters = new HashSet<IFrame>();
 
@@ -110,50 +111,131 @@ class InstanceAligner {
 
 		private void updateCurrentSlot(ISlot masterSlot, ISlot updateSlot) {
 
-			CSlot masterSlotType = masterSlot.getType();
 			CSlot updateSlotType = updateSlot.getType();
 
-			ISlotEditor masterSlotEd = iEditor.getSlotEditor(masterSlot);
+			updateSlotType(
+				masterSlot,
+				updateSlotType.getValueType(),
+				updateSlotType.getCardinality(),
+				updateSlotType.getActivation(),
+				updateSlot.getEditability());
+		}
+
+		private void updateSlotValues(ISlot slot) {
+
+			alignFromSlot(slot, getUpdateSlot(slot));
+		}
 
-			CValue<?> updValueType = updateSlotType.getValueType();
-			CCardinality updCardinality = updateSlotType.getCardinality();
-			CActivation updActivation = updateSlotType.getActivation();
-			IEditability updEditability = updateSlot.getEditability();
+		private ISlot getUpdateSlot(ISlot masterSlot) {
+
+			return update.getSlots().get(masterSlot.getType().getIdentity());
+		}
+
+		private boolean matchingSlotOn(IFrame frame, ISlot template) {
 
-			if (!masterSlotType.getValueType().equals(updValueType)) {
+			return frame.getSlots().containsValueFor(template.getType().getIdentity());
+		}
+	}
+
+	private class SlotUpdatesAligner {
+
+		private IFrame master;
+		private Map<CIdentity, RSlotUpdate> updates = new LinkedHashMap<CIdentity, RSlotUpdate>();
+
+		private IFrameEditor masterEd;
+
+		SlotUpdatesAligner(IFrame master, List<RSlotUpdate> updates) {
+
+			this.master = master;
 
-				masterSlotEd.setValueType(updValueType);
+			for (RSlotUpdate update : updates) {
+
+				this.updates.put(update.getSlotId(), update);
 			}
 
-			if (!masterSlotType.getCardinality().equals(updCardinality)) {
+			masterEd = iEditor.getFrameEditor(master);
+		}
+
+		void align() {
+
+			removeOldSlots();
+			updateCurrentSlots();
+			addNewSlots();
+			updateSlotValues();
+		}
+
+		private void removeOldSlots() {
+
+			for (ISlot slot : master.getSlots().asList()) {
+
+				if (!updates.containsKey(getSlotId(slot))) {
 
-				masterSlotEd.setCardinality(updCardinality);
+					masterEd.removeSlot(slot);
+				}
 			}
+		}
 
-			if (!masterSlotType.getActivation().equals(updActivation)) {
+		private void updateCurrentSlots() {
+
+			for (ISlot slot : master.getSlots().asList()) {
 
-				masterSlotEd.setActivation(updActivation);
+				RSlotUpdate update = getUpdate(slot);
+
+				updateSlotType(
+					slot,
+					update.getValueType(),
+					update.getCardinality(),
+					update.getActivation(),
+					update.getEditability());
 			}
+		}
+
+		private void addNewSlots() {
+
+			for (RSlotUpdate update : updates.values()) {
 
-			if (!masterSlot.getEditability().equals(updEditability)) {
+				if (!master.getSlots().containsValueFor(update.getSlotId())) {
 
-				masterSlotEd.setEditability(updEditability);
+					addNewSlot(update);
+				}
 			}
 		}
 
-		private void updateSlotValues(ISlot slot) {
+		private void addNewSlot(RSlotUpdate update) {
 
-			alignFromSlot(slot, getUpdateSlot(slot));
+			ISlot slot = masterEd.addSlot(
+								update.getSlotId(),
+								update.getSource(),
+								update.getValueType(),
+								update.getCardinality(),
+								update.getActivation(),
+								CEditability.DEFAULT);
+
+			if (!slot.getEditability().equals(update.getEditability())) {
+
+				iEditor.getSlotEditor(slot).setEditability(update.getEditability());
+			}
 		}
 
-		private ISlot getUpdateSlot(ISlot masterSlot) {
+		private void updateSlotValues() {
 
-			return update.getSlots().get(masterSlot.getType().getIdentity());
+			for (ISlot slot : master.getSlots().activesAsList()) {
+
+				RSlotUpdate update = getUpdate(slot);
+
+				iEditor.getSlotEditor(slot).updateFixedValues(update.getFixedValues());
+				iEditor.getSlotValuesEditor(slot).update(update.getAssertedValues());
+			}
 		}
 
-		private boolean matchingSlotOn(IFrame frame, ISlot template) {
+		private RSlotUpdate getUpdate(ISlot slot) {
 
-			return frame.getSlots().containsValueFor(template.getType().getIdentity());
+			return updates.get(getSlotId(slot));
+		}
+
+		private CIdentity getSlotId(ISlot slot) {
+
+			return slot.getType().getIdentity();
 		}
 	}
 
@@ -228,11 +310,20 @@ class InstanceAligner {
 
 		updateRoot = updates.getRoot();
 		updatesToMasters = updates.getUpdatesToMasters();
+		slotUpdates = updates.getSlotUpdates();
 	}
 
 	void align(IFrame masterRoot) {
 
-		alignFromFrame(masterRoot, updateRoot);
+		if (updateRoot != null) {
+
+			alignFromFrame(masterRoot, updateRoot);
+		}
+
+		for (Map.Entry<IFrame, List<RSlotUpdate>> entry : slotUpdates.entrySet()) {
+
+			new SlotUpdatesAligner(entry.getKey(), entry.getValue()).align();
+		}
 	}
 
 	private IFrame getAlignedFrame(IFrame update) {
@@ -242,6 +333,8 @@ class InstanceAligner {
 		if (master == null) {
 
 			master = createNewMasterFrame(update);
+
+			updatesToMasters.put(update, master);
 		}
 
 		alignFromFrame(master, update);
@@ -287,4 +380,35 @@ class InstanceAligner {
 
 		new IValuesAligner(master, update).align();
 	}
+
+	private void updateSlotType(
+					ISlot masterSlot,
+					CValue<?> valueType,
+					CCardinality cardinality,
+					CActivation activation,
+					IEditability editability) {
+
+		CSlot masterSlotType = masterSlot.getType();
+		ISlotEditor masterSlotEd = iEditor.getSlotEditor(masterSlot);
+
+		if (!masterSlotType.getValueType().equals(valueType)) {
+
+			masterSlotEd.setValueType(valueType);
+		}
+
+		if (!masterSlotType.getCardinality().equals(cardinality)) {
+
+			masterSlotEd.setCardinality(cardinality);
+		}
+
+		if (!masterSlotType.getActivation().equals(activation)) {
+
+			masterSlotEd.setActivation(activation);
+		}
+
+		if (!masterSlot.getEditability().equals(editability)) {
+
+			masterSlotEd.setEditability(editability);
+		}
+	}
 }
@@ -24,6 +24,8 @@
 
 package uk.ac.manchester.cs.mekon.remote.client;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.remote.client.xml.*;
@@ -128,4 +130,33 @@ public class RMekonClient {
 
 		return clientStore.getIStore();
 	}
+
+	/**
+	 * Retrieves a set of instances from the client MEKON instance
+	 * store, via a single server request.
+	 *
+	 * @param identities Unique identities of instances to be retrieved
+	 * @return Retrieved instances, in same order as supplied identities,
+	 * with null values for any identities that do not represent
+	 * instances in the store
+	 */
+	public List<IRegenInstance> getAll(List<CIdentity> identities) {
+
+		return clientStore.getAll(identities);
+	}
+
+	/**
+	 * Retrieves the types of a set of instances from the client MEKON
+	 * instance store, via a single server request.
+	 *
+	 * @param identities Unique identities of instances whose types
+	 * are to be retrieved
+	 * @return Retrieved types, in same order as supplied identities,
+	 * with null values for any identities that do not represent
+	 * instances in the store
+	 */
+	public List<IRegenType> getTypes(List<CIdentity> identities) {
+
+		return clientStore.getTypes(identities);
+	}
 }
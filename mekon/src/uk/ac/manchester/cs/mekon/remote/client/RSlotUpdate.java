@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.client;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+
+/**
+ * Represents the complete updated state of a specific slot, as
+ * produced by an incremental update of an instance-level frame/slot
+ * network on the server. Any frame-values will be frames from the
+ * master version of the network, as held on the client.
+ *
+ * @author Colin Puleston
+ */
+public class RSlotUpdate {
+
+	private CIdentity slotId;
+	private CSource source;
+	private CValue<?> valueType;
+	private CCardinality cardinality;
+	private CActivation activation;
+	private IEditability editability;
+
+	private List<IValue> fixedValues;
+	private List<IValue> assertedValues;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param slotId Identity of slot
+	 * @param source Source-type for slot
+	 * @param valueType Value-type for slot
+	 * @param cardinality Cardinality of slot
+	 * @param activation Activation of slot
+	 * @param editability Editability of slot
+	 * @param fixedValues Fixed values for slot
+	 * @param assertedValues Asserted values for slot
+	 */
+	public RSlotUpdate(
+				CIdentity slotId,
+				CSource source,
+				CValue<?> valueType,
+				CCardinality cardinality,
+				CActivation activation,
+				IEditability editability,
+				List<IValue> fixedValues,
+				List<IValue> assertedValues) {
+
+		this.slotId = slotId;
+		this.source = source;
+		this.valueType = valueType;
+		this.cardinality = cardinality;
+		this.activation = activation;
+		this.editability = editability;
+		this.fixedValues = fixedValues;
+		this.assertedValues = assertedValues;
+	}
+
+	CIdentity getSlotId() {
+
+		return slotId;
+	}
+
+	CSource getSource() {
+
+		return source;
+	}
+
+	CValue<?> getValueType() {
+
+		return valueType;
+	}
+
+	CCardinality getCardinality() {
+
+		return cardinality;
+	}
+
+	CActivation getActivation() {
+
+		return activation;
+	}
+
+	IEditability getEditability() {
+
+		return editability;
+	}
+
+	List<IValue> getFixedValues() {
+
+		return fixedValues;
+	}
+
+	List<IValue> getAssertedValues() {
+
+		return assertedValues;
+	}
+}
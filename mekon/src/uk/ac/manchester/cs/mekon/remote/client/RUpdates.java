@@ -30,17 +30,30 @@ import uk.ac.manchester.cs.mekon.model.*;
 
 /**
  * Represents the results of the automatic updating of an instance-level
- * frame/slot network on the server.
+ * frame/slot network on the server. The results will either be in the
+ * form of a complete updated version of the network, or, for incremental
+ * updates, the updated slots for those frames from the master version of
+ * the network that have been modified.
  *
  * @author Colin Puleston
  */
 public class RUpdates {
 
 	private IFrame root;
-	private Map<IFrame, IFrame> updatesToMasters = new HashMap<IFrame, IFrame>();
+	private Map<IFrame, IFrame> updatesToMasters = new IdentityHashMap<IFrame, IFrame>();
+	private Map<IFrame, List<RSlotUpdate>> slotUpdates = new IdentityHashMap<IFrame, List<RSlotUpdate>>();
 
 	/**
-	 * Constructor.
+	 * Constructor for object representing an incremental update.
+	 */
+	public RUpdates() {
+
+		this(null);
+	}
+
+	/**
+	 * Constructor for object representing a complete updated version of
+	 * the network.
 	 *
 	 * @param root Root-frame of updated frame/slot network
 	 */
@@ -62,6 +75,35 @@ public class RUpdates {
 		updatesToMasters.put(update, master);
 	}
 
+	/**
+	 * Adds the complete set of updated slots for a frame from the master
+	 * version of the frame/slot network that has been modified by an
+	 * incremental update.
+	 *
+	 * @param master Frame from master version of network
+	 * @param updates Updated slots for frame
+	 */
+	public void addSlotUpdates(IFrame master, List<RSlotUpdate> updates) {
+
+		slotUpdates.put(master, updates);
+	}
+
+	/**
+	 * Provides the frame from the master version of the frame/slot
+	 * network that corresponds to a particular frame from the updated
+	 * version of the network. Where the master frame has been created
+	 * whilst aligning the master version with the updated version, it
+	 * will only be available after that alignment has been performed.
+	 *
+	 * @param update Frame from updated version of network
+	 * @return Corresponding frame from master version of network, or null
+	 * if not available
+	 */
+	public IFrame getMasterOrNull(IFrame update) {
+
+		return updatesToMasters.get(update);
+	}
+
 	IFrame getRoot() {
 
 		return root;
@@ -71,4 +113,9 @@ public class RUpdates {
 
 		return updatesToMasters;
 	}
+
+	Map<IFrame, List<RSlotUpdate>> getSlotUpdates() {
+
+		return slotUpdates;
+	}
 }
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.client.xml;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.remote.client.*;
+
+/**
+ * @author Colin Puleston
+ */
+class InstanceSession {
+
+	private String token;
+	private int version;
+
+	private IFrame rootFrame;
+
+	private RUpdates pendingUpdates;
+	private Map<String, IFrame> pendingUpdatesByXDocId;
+
+	private Map<IFrame, String> masterXDocIds = new IdentityHashMap<IFrame, String>();
+	private Map<String, IFrame> mastersByXDocId = new HashMap<String, IFrame>();
+
+	InstanceSession(
+			String token,
+			int version,
+			IFrame rootFrame,
+			RUpdates updates,
+			Map<String, IFrame> updatesByXDocId) {
+
+		this.token = token;
+		this.version = version;
+		this.rootFrame = rootFrame;
+
+		pendingUpdates = updates;
+		pendingUpdatesByXDocId = updatesByXDocId;
+	}
+
+	void setVersion(int version) {
+
+		this.version = version;
+	}
+
+	String getToken() {
+
+		return token;
+	}
+
+	int getVersion() {
+
+		return version;
+	}
+
+	IFrame getRootFrame() {
+
+		return rootFrame;
+	}
+
+	boolean identifiesAll(ISlot slot) {
+
+		IFrame container = slot.getContainer();
+
+		if (!container.getCategory().atomic() || !identified(container)) {
+
+			return false;
+		}
+
+		for (IValue value : slot.getValues().getAssertedValues()) {
+
+			if (value instanceof IFrame && !identified((IFrame)value)) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	Map<IFrame, String> getMasterXDocIds() {
+
+		checkResolvePendingUpdates();
+
+		return masterXDocIds;
+	}
+
+	Map<String, IFrame> getMastersByXDocId() {
+
+		checkResolvePendingUpdates();
+
+		return mastersByXDocId;
+	}
+
+	private boolean identified(IFrame master) {
+
+		return getMasterXDocIds().containsKey(master);
+	}
+
+	private void checkResolvePendingUpdates() {
+
+		if (pendingUpdates != null) {
+
+			for (Map.Entry<String, IFrame> entry : pendingUpdatesByXDocId.entrySet()) {
+
+				IFrame master = pendingUpdates.getMasterOrNull(entry.getValue());
+
+				if (master != null) {
+
+					masterXDocIds.put(master, entry.getKey());
+					mastersByXDocId.put(entry.getKey(), master);
+				}
+			}
+
+			pendingUpdates = null;
+			pendingUpdatesByXDocId = null;
+		}
+	}
+}
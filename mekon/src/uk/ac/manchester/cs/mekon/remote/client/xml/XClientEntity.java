@@ -24,6 +24,8 @@
 
 package uk.ac.manchester.cs.mekon.remote.client.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon_util.remote.client.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
 
@@ -37,6 +39,7 @@ import uk.ac.manchester.cs.mekon_util.xdoc.*;
 public abstract class XClientEntity {
 
 	private long expiryCheckTime;
+	private String sessionId = UUID.randomUUID().toString();
 
 	/**
 	 * Accesses the server to perform a particular action.
@@ -73,6 +76,8 @@ public abstract class XClientEntity {
 			request.setClientExpiryCheckTime(expiryCheckTime);
 		}
 
+		request.setClientSessionId(sessionId);
+
 		XDocument requestDoc = request.getDocument();
 		XDocument responseDoc = performActionOnServer(requestDoc);
 
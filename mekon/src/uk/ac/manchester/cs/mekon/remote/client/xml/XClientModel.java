@@ -51,8 +51,28 @@ import uk.ac.manchester.cs.mekon_util.xdoc.*;
  */
 public abstract class XClientModel extends XClientEntity {
 
+	static private final int MAX_INSTANCE_SESSIONS = 100;
+
 	private RClientModel rClientModel;
 	private RClientInstanceParser responseParser;
+	private XDeltaSerialiser deltaSerialiser;
+
+	private InstanceSessionsByRoot instanceSessions = new InstanceSessionsByRoot();
+
+	private class InstanceSessionsByRoot extends LinkedHashMap<IFrame, InstanceSession> {
+
+		static private final long serialVersionUID = -1;
+
+		InstanceSessionsByRoot() {
+
+			super(16, 0.75f, true);
+		}
+
+		protected boolean removeEldestEntry(Map.Entry<IFrame, InstanceSession> eldest) {
+
+			return size() > MAX_INSTANCE_SESSIONS;
+		}
+	}
 
 	private abstract class InstanceAction {
 
@@ -63,19 +83,33 @@ public abstract class XClientModel extends XClientEntity {
 
 			XRequestRenderer request = getRequest(masterRoot);
 			XResponseParser response = performAction(request);
+			RUpdates updates = createUpdates(parseInstance(response));
+
+			onPerformed(masterRoot, response, updates, idsToUpdates);
 
-			return createUpdates(parseInstance(response));
+			return updates;
 		}
 
 		abstract RModelActionType getActionType();
 
+		void customiseRequest(XRequestRenderer request, IFrame masterRoot) {
+		}
+
 		void customiseRenderInput(IInstanceRenderInput input) {
 		}
 
+		void onPerformed(
+				IFrame masterRoot,
+				XResponseParser response,
+				RUpdates updates,
+				Map<String, IFrame> idsToUpdates) {
+		}
+
 		private XRequestRenderer getRequest(IFrame masterRoot) {
 
 			XRequestRenderer request = new XRequestRenderer(getActionType());
 
+			customiseRequest(request, masterRoot);
 			request.addParameter(createRenderInput(masterRoot));
 
 			return request;
@@ -148,10 +182,42 @@ public abstract class XClientModel extends XClientEntity {
 			this.clientUpdate = clientUpdate;
 		}
 
+		void customiseRequest(XRequestRenderer request, IFrame masterRoot) {
+
+			InstanceSession session = getInstanceSessionOrNull(masterRoot);
+
+			if (session != null) {
+
+				request.setInstanceSession(session.getToken(), session.getVersion());
+			}
+		}
+
 		void customiseRenderInput(IInstanceRenderInput input) {
 
 			input.setValuesUpdate(clientUpdate);
 		}
+
+		void onPerformed(
+				IFrame masterRoot,
+				XResponseParser response,
+				RUpdates updates,
+				Map<String, IFrame> idsToUpdates) {
+
+			String token = response.getInstanceSessionToken();
+
+			if (token != null) {
+
+				int version = response.getInstanceSessionVersion();
+
+				addInstanceSession(
+					new InstanceSession(
+							token,
+							version,
+							masterRoot,
+							updates,
+							idsToUpdates));
+			}
+		}
 	}
 
 	private class AssertionUpdateAction extends InstanceUpdateAction {
@@ -170,6 +236,52 @@ public abstract class XClientModel extends XClientEntity {
 		}
 	}
 
+	private class DeltaUpdateAction {
+
+		private InstanceSession session;
+
+		DeltaUpdateAction(InstanceSession session) {
+
+			this.session = session;
+		}
+
+		RUpdates checkPerform(ISlot slot) {
+
+			if (!session.identifiesAll(slot)) {
+
+				return null;
+			}
+
+			XResponseParser response = performAction(getRequest(slot));
+
+			if (response.isNullResponse()) {
+
+				return null;
+			}
+
+			RUpdates updates = response.getFrameUpdatesResponse(
+										session.getMastersByXDocId(),
+										deltaSerialiser);
+
+			if (updates != null) {
+
+				session.setVersion(response.getInstanceSessionVersion());
+			}
+
+			return updates;
+		}
+
+		private XRequestRenderer getRequest(ISlot slot) {
+
+			XRequestRenderer request = new XRequestRenderer(RModelActionType.UPDATE_DELTA);
+
+			request.setInstanceSession(session.getToken(), session.getVersion());
+			request.addValuesUpdateParameter(slot, session.getMasterXDocIds(), deltaSerialiser);
+
+			return request;
+		}
+	}
+
 	private class XRClientModel extends RClientModel {
 
 		protected RUpdates initialiseOnServer(IFrame frame) {
@@ -184,6 +296,13 @@ public abstract class XClientModel extends XClientEntity {
 
 		protected RUpdates updateOnServer(IFrame rootFrame, IValuesUpdate clientUpdate) {
 
+			RUpdates updates = checkUpdateDeltaOnServer(rootFrame, clientUpdate);
+
+			if (updates != null) {
+
+				return updates;
+			}
+
 			InstanceUpdateAction action = getUpdateAction(rootFrame);
 
 			action.setClientUpdate(clientUpdate);
@@ -219,6 +338,7 @@ public abstract class XClientModel extends XClientEntity {
 
 		rClientModel = new XRClientModel();
 		responseParser = new RClientInstanceParser(getCModel());
+		deltaSerialiser = new XDeltaSerialiser(getCModel());
 	}
 
 	void initialiseReloadedInstance(IFrame rootFrame) {
@@ -236,6 +356,30 @@ public abstract class XClientModel extends XClientEntity {
 		return new XRequestRenderer(RModelActionType.GET_FRAME_HIERARCHY);
 	}
 
+	private RUpdates checkUpdateDeltaOnServer(IFrame rootFrame, IValuesUpdate clientUpdate) {
+
+		InstanceSession session = getInstanceSessionOrNull(rootFrame);
+
+		if (session == null) {
+
+			return null;
+		}
+
+		return new DeltaUpdateAction(session).checkPerform(clientUpdate.getSlot());
+	}
+
+	private synchronized void addInstanceSession(InstanceSession session) {
+
+		instanceSessions.put(session.getRootFrame(), session);
+	}
+
+	private synchronized InstanceSession getInstanceSessionOrNull(IFrame rootFrame) {
+
+		InstanceSession session = instanceSessions.get(rootFrame);
+
+		return session != null && session.getRootFrame() == rootFrame ? session : null;
+	}
+
 	private InstanceAction getInitAction(IFrame frame) {
 
 		return query(frame) ? new QueryInitAction() : new AssertionInitAction();
@@ -68,6 +68,24 @@ public abstract class XClientStore extends XClientEntity {
 			return performInstanceOrNullResponseAction(request);
 		}
 
+		public List<CIdentity> addAll(Map<CIdentity, IFrame> instances) {
+
+			if (instances.isEmpty()) {
+
+				return new ArrayList<CIdentity>();
+			}
+
+			XRequestRenderer request = new XRequestRenderer(RStoreActionType.ADD_ALL);
+
+			for (Map.Entry<CIdentity, IFrame> entry : instances.entrySet()) {
+
+				request.addParameter(entry.getValue());
+				request.addParameter(entry.getKey());
+			}
+
+			return performIdentitiesResponseAction(request);
+		}
+
 		public boolean rename(CIdentity identity, CIdentity newIdentity) {
 
 			XRequestRenderer request = new XRequestRenderer(RStoreActionType.RENAME);
@@ -87,6 +105,23 @@ public abstract class XClientStore extends XClientEntity {
 			return performBooleanResponseAction(request);
 		}
 
+		public List<CIdentity> removeAll(Collection<CIdentity> identities) {
+
+			if (identities.isEmpty()) {
+
+				return new ArrayList<CIdentity>();
+			}
+
+			XRequestRenderer request = new XRequestRenderer(RStoreActionType.REMOVE_ALL);
+
+			for (CIdentity identity : identities) {
+
+				request.addParameter(identity);
+			}
+
+			return performIdentitiesResponseAction(request);
+		}
+
 		public boolean clear() {
 
 			XRequestRenderer request = new XRequestRenderer(RStoreActionType.CLEAR);
@@ -119,16 +154,7 @@ public abstract class XClientStore extends XClientEntity {
 
 			request.addParameter(identity);
 
-			CIdentity typeId = performIdentityOrNullResponseAction(request);
-
-			if (typeId == null) {
-
-				return null;
-			}
-
-			CFrame type = getModel().getFrames().getOrNull(typeId);
-
-			return type != null ? new IRegenValidType(type) : new IRegenInvalidType(typeId);
+			return toRegenTypeOrNull(performAction(request));
 		}
 
 		public IRegenInstance get(CIdentity identity) {
@@ -137,16 +163,7 @@ public abstract class XClientStore extends XClientEntity {
 
 			request.addParameter(identity);
 
-			IFrame instance = performInstanceOrNullResponseAction(request);
-
-			if (instance == null) {
-
-				return null;
-			}
-
-			clientModel.initialiseReloadedInstance(instance);
-
-			return new IRegenValidInstance(instance);
+			return toRegenInstanceOrNull(performAction(request));
 		}
 
 		public List<CIdentity> getAllIdentities() {
@@ -165,6 +182,16 @@ public abstract class XClientStore extends XClientEntity {
 			return performMatchesResponseAction(request);
 		}
 
+		public IMatches match(IFrame query, IMatchesRange range) {
+
+			XRequestRenderer request = new XRequestRenderer(RStoreActionType.MATCH_RANGE);
+
+			request.addParameter(query);
+			request.addParameter(range);
+
+			return performMatchesResponseAction(request);
+		}
+
 		public boolean matches(IFrame query, IFrame instance) {
 
 			XRequestRenderer request = new XRequestRenderer(RStoreActionType.MATCHES);
@@ -186,6 +213,49 @@ public abstract class XClientStore extends XClientEntity {
 		return store;
 	}
 
+	/**
+	 * Retrieves a set of instances from the store, via a single
+	 * server request.
+	 *
+	 * @param identities Unique identities of instances to be retrieved
+	 * @return Retrieved instances, in same order as supplied identities,
+	 * with null values for any identities that do not represent
+	 * instances in the store
+	 */
+	public List<IRegenInstance> getAll(List<CIdentity> identities) {
+
+		List<IRegenInstance> instances = new ArrayList<IRegenInstance>();
+
+		for (XResponseParser response : performBatchAction(RStoreActionType.GET, identities)) {
+
+			instances.add(toRegenInstanceOrNull(response));
+		}
+
+		return instances;
+	}
+
+	/**
+	 * Retrieves the types of a set of instances from the store, via
+	 * a single server request.
+	 *
+	 * @param identities Unique identities of instances whose types
+	 * are to be retrieved
+	 * @return Retrieved types, in same order as supplied identities,
+	 * with null values for any identities that do not represent
+	 * instances in the store
+	 */
+	public List<IRegenType> getTypes(List<CIdentity> identities) {
+
+		List<IRegenType> types = new ArrayList<IRegenType>();
+
+		for (XResponseParser response : performBatchAction(RStoreActionType.GET_TYPE, identities)) {
+
+			types.add(toRegenTypeOrNull(response));
+		}
+
+		return types;
+	}
+
 	/**
 	 * Constructor.
 	 *
@@ -209,30 +279,77 @@ public abstract class XClientStore extends XClientEntity {
 
 	private IFrame performInstanceOrNullResponseAction(XRequestRenderer request) {
 
-		XResponseParser response = performAction(request);
+		return parseInstanceOrNull(performAction(request));
+	}
 
-		if (response.isNullResponse()) {
+	private List<CIdentity> performIdentitiesResponseAction(XRequestRenderer request) {
 
-			return null;
+		return performAction(request).getIdentitiesResponse();
+	}
+
+	private IMatches performMatchesResponseAction(XRequestRenderer request) {
+
+		return performAction(request).getMatchesResponse();
+	}
+
+	private List<XResponseParser> performBatchAction(
+										RStoreActionType actionType,
+										Collection<CIdentity> identities) {
+
+		if (identities.isEmpty()) {
+
+			return Collections.emptyList();
 		}
 
-		return responseParser.parse(response.getInstanceResponseParseInput());
+		XRequestRenderer batch = new XRequestRenderer();
+
+		for (CIdentity identity : identities) {
+
+			batch.addBatchedRequest(actionType).addParameter(identity);
+		}
+
+		return performBatchAction(batch);
+	}
+
+	private List<XResponseParser> performBatchAction(XRequestRenderer batch) {
+
+		return performAction(batch).getBatchedResponses();
 	}
 
-	private CIdentity performIdentityOrNullResponseAction(XRequestRenderer request) {
+	private IRegenInstance toRegenInstanceOrNull(XResponseParser response) {
 
-		XResponseParser response = performAction(request);
+		IFrame instance = parseInstanceOrNull(response);
 
-		return response.isNullResponse() ? null : response.getIdentityResponse();
+		if (instance == null) {
+
+			return null;
+		}
+
+		clientModel.initialiseReloadedInstance(instance);
+
+		return new IRegenValidInstance(instance);
 	}
 
-	private List<CIdentity> performIdentitiesResponseAction(XRequestRenderer request) {
+	private IRegenType toRegenTypeOrNull(XResponseParser response) {
 
-		return performAction(request).getIdentitiesResponse();
+		if (response.isNullResponse()) {
+
+			return null;
+		}
+
+		CIdentity typeId = response.getIdentityResponse();
+		CFrame type = clientModel.getCModel().getFrames().getOrNull(typeId);
+
+		return type != null ? new IRegenValidType(type) : new IRegenInvalidType(typeId);
 	}
 
-	private IMatches performMatchesResponseAction(XRequestRenderer request) {
+	private IFrame parseInstanceOrNull(XResponseParser response) {
 
-		return performAction(request).getMatchesResponse();
+		if (response.isNullResponse()) {
+
+			return null;
+		}
+
+		return responseParser.parse(response.getInstanceResponseParseInput());
 	}
 }
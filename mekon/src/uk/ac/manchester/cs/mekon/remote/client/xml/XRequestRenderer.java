@@ -24,8 +24,11 @@
 
 package uk.ac.manchester.cs.mekon.remote.client.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.serial.*;
+import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.remote.util.*;
 import uk.ac.manchester.cs.mekon.remote.xml.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
@@ -48,11 +51,28 @@ class XRequestRenderer extends XPackageSerialiser {
 		this(RActionCategory.STORE, actionType);
 	}
 
+	XRequestRenderer() {
+
+		super(REQUEST_ROOT_ID);
+
+		structureRenderer.setActionCategory(RActionCategory.BATCH);
+	}
+
 	void setClientExpiryCheckTime(long time) {
 
 		structureRenderer.setClientExpiryCheckTime(time);
 	}
 
+	void setClientSessionId(String id) {
+
+		structureRenderer.setClientSessionId(id);
+	}
+
+	void setInstanceSession(String token, int version) {
+
+		structureRenderer.setInstanceSession(token, version);
+	}
+
 	void addParameter(CIdentity identity) {
 
 		FSerialiser.renderIdentity(identity, addParameterNode());
@@ -68,6 +88,32 @@ class XRequestRenderer extends XPackageSerialiser {
 		instanceRenderer.render(instance, addParameterNode());
 	}
 
+	void addValuesUpdateParameter(
+			ISlot slot,
+			Map<IFrame, String> frameXDocIds,
+			XDeltaSerialiser deltaSerialiser) {
+
+		deltaSerialiser.renderAssertedValuesUpdate(slot, frameXDocIds, addParameterNode());
+	}
+
+	void addParameter(IMatchesRange range) {
+
+		XNode node = addParameterNode();
+
+		node.setValue(RANGE_OFFSET_ATTR, range.getOffset());
+		node.setValue(RANGE_LIMIT_ATTR, range.getLimit());
+	}
+
+	XRequestRenderer addBatchedRequest(RModelActionType actionType) {
+
+		return addBatchedRequest(RActionCategory.MODEL, actionType);
+	}
+
+	XRequestRenderer addBatchedRequest(RStoreActionType actionType) {
+
+		return addBatchedRequest(RActionCategory.STORE, actionType);
+	}
+
 	private XRequestRenderer(RActionCategory actionCategory, Enum<?> actionType) {
 
 		super(REQUEST_ROOT_ID);
@@ -76,6 +122,21 @@ class XRequestRenderer extends XPackageSerialiser {
 		structureRenderer.setActionType(actionType);
 	}
 
+	private XRequestRenderer(XNode rootNode, RActionCategory actionCategory, Enum<?> actionType) {
+
+		super(rootNode);
+
+		structureRenderer.setActionCategory(actionCategory);
+		structureRenderer.setActionType(actionType);
+	}
+
+	private XRequestRenderer addBatchedRequest(RActionCategory actionCategory, Enum<?> actionType) {
+
+		XNode node = structureRenderer.addBatchedRequestNode();
+
+		return new XRequestRenderer(node, actionCategory, actionType);
+	}
+
 	private XNode addParameterNode() {
 
 		return structureRenderer.addParameterNode();
@@ -31,13 +31,14 @@ import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.model.util.*;
 import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.store.serial.*;
+import uk.ac.manchester.cs.mekon.remote.client.*;
 import uk.ac.manchester.cs.mekon.remote.xml.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
 
 /**
  * @author Colin Puleston
  */
-class XResponseParser extends XPackageSerialiser {
+class XResponseParser extends XPackageSerialiser implements ISerialiserVocab {
 
 	private ResponseParser structureParser = new ResponseParser();
 
@@ -46,11 +47,26 @@ class XResponseParser extends XPackageSerialiser {
 		super(document);
 	}
 
+	XResponseParser(XNode rootNode) {
+
+		super(rootNode);
+	}
+
 	boolean invalidatedClient() {
 
 		return structureParser.invalidatedClient();
 	}
 
+	String getInstanceSessionToken() {
+
+		return structureParser.getInstanceSessionToken();
+	}
+
+	int getInstanceSessionVersion() {
+
+		return structureParser.getInstanceSessionVersion();
+	}
+
 	boolean getBooleanResponse() {
 
 		return structureParser.getBooleanResponse();
@@ -71,6 +87,41 @@ class XResponseParser extends XPackageSerialiser {
 		return new IInstanceParseInput(getStructuredNode());
 	}
 
+	RUpdates getFrameUpdatesResponse(
+				Map<String, IFrame> mastersByXDocId,
+				XDeltaSerialiser deltaSerialiser) {
+
+		RUpdates updates = new RUpdates();
+
+		for (XNode frameNode : getStructuredNode().getChildren(IFRAME_ID)) {
+
+			IFrame master = mastersByXDocId.get(frameNode.getString(IFRAME_XDOC_ID_ATTR));
+
+			if (master == null) {
+
+				return null;
+			}
+
+			List<RSlotUpdate> slotUpdates = new ArrayList<RSlotUpdate>();
+
+			for (XNode slotNode : frameNode.getChildren(ISLOT_ID)) {
+
+				RSlotUpdate slotUpdate = parseSlotUpdate(slotNode, mastersByXDocId, deltaSerialiser);
+
+				if (slotUpdate == null) {
+
+					return null;
+				}
+
+				slotUpdates.add(slotUpdate);
+			}
+
+			updates.addSlotUpdates(master, slotUpdates);
+		}
+
+		return updates;
+	}
+
 	CIdentity getIdentityResponse() {
 
 		return FSerialiser.parseIdentity(getStructuredNode());
@@ -86,6 +137,50 @@ class XResponseParser extends XPackageSerialiser {
 		return IMatchesParser.parse(getStructuredNode());
 	}
 
+	List<XResponseParser> getBatchedResponses() {
+
+		List<XResponseParser> responses = new ArrayList<XResponseParser>();
+
+		for (XNode node : structureParser.getBatchedResponseNodes()) {
+
+			responses.add(new XResponseParser(node));
+		}
+
+		return responses;
+	}
+
+	private RSlotUpdate parseSlotUpdate(
+							XNode slotNode,
+							Map<String, IFrame> mastersByXDocId,
+							XDeltaSerialiser deltaSerialiser) {
+
+		XNode typeNode = slotNode.getChild(CSLOT_ID);
+		CValue<?> valueType = deltaSerialiser.parseValueType(slotNode);
+
+		if (valueType == null) {
+
+			return null;
+		}
+
+		List<IValue> fixedValues = deltaSerialiser.parseValues(slotNode, valueType, mastersByXDocId, true);
+		List<IValue> assertedValues = deltaSerialiser.parseValues(slotNode, valueType, mastersByXDocId, false);
+
+		if (fixedValues == null || assertedValues == null) {
+
+			return null;
+		}
+
+		return new RSlotUpdate(
+					FSerialiser.parseIdentity(typeNode),
+					typeNode.getEnum(SOURCE_ATTR, CSource.class),
+					valueType,
+					typeNode.getEnum(CARDINALITY_ATTR, CCardinality.class),
+					typeNode.getEnum(ACTIVATION_ATTR, CActivation.class),
+					slotNode.getEnum(EDITABILITY_ATTR, IEditability.class),
+					fixedValues,
+					assertedValues);
+	}
+
 	private XNode getStructuredNode() {
 
 		return structureParser.getStructuredNode();
@@ -0,0 +1,343 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.server.xml;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
+import uk.ac.manchester.cs.mekon.model.zlink.*;
+
+/**
+ * @author Colin Puleston
+ */
+class InstanceSession {
+
+	private String token;
+	private int version = 0;
+	private long lastAccessTime = 0;
+	private boolean invalidated = false;
+
+	private IFrame rootFrame;
+	private IEditor iEditor;
+
+	private Map<IFrame, String> frameXDocIds = new IdentityHashMap<IFrame, String>();
+	private Map<String, IFrame> framesByXDocId = new HashMap<String, IFrame>();
+
+	private class SlotState {
+
+		private CIdentity identity;
+		private CSource source;
+		private CValue<?> valueType;
+		private CCardinality cardinality;
+		private CActivation activation;
+		private IEditability editability;
+
+		private List<IValue> fixedValues;
+		private List<IValue> assertedValues;
+
+		SlotState(ISlot slot) {
+
+			CSlot type = slot.getType();
+			ISlotValues values = slot.getValues();
+
+			identity = type.getIdentity();
+			source = type.getSource();
+			valueType = type.getValueType();
+			cardinality = type.getCardinality();
+			activation = type.getActivation();
+			editability = slot.getEditability();
+
+			fixedValues = values.getFixedValues();
+			assertedValues = values.getAssertedValues();
+		}
+
+		boolean matches(SlotState other) {
+
+			return identity.equals(other.identity)
+					&& source == other.source
+					&& valueType.equals(other.valueType)
+					&& cardinality == other.cardinality
+					&& activation == other.activation
+					&& editability == other.editability
+					&& valuesMatch(fixedValues, other.fixedValues)
+					&& valuesMatch(assertedValues, other.assertedValues);
+		}
+
+		private boolean valuesMatch(List<IValue> values1, List<IValue> values2) {
+
+			if (values1.size() != values2.size()) {
+
+				return false;
+			}
+
+			for (int i = 0 ; i < values1.size() ; i++) {
+
+				if (!valuesMatch(values1.get(i), values2.get(i))) {
+
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private boolean valuesMatch(IValue value1, IValue value2) {
+
+			return value1 instanceof IFrame ? value1 == value2 : value1.equals(value2);
+		}
+	}
+
+	private class FrameState {
+
+		private List<SlotState> slotStates = new ArrayList<SlotState>();
+
+		FrameState(IFrame frame) {
+
+			for (ISlot slot : frame.getSlots().asList()) {
+
+				slotStates.add(new SlotState(slot));
+			}
+		}
+
+		boolean matches(FrameState other) {
+
+			if (slotStates.size() != other.slotStates.size()) {
+
+				return false;
+			}
+
+			for (int i = 0 ; i < slotStates.size() ; i++) {
+
+				if (!slotStates.get(i).matches(other.slotStates.get(i))) {
+
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	private class StateCollector {
+
+		private Map<IFrame, FrameState> statesByFrame = new IdentityHashMap<IFrame, FrameState>();
+		private Set<IFrame> visited = Collections.newSetFromMap(new IdentityHashMap<IFrame, Boolean>());
+
+		private Deque<IFrame> pending = new ArrayDeque<IFrame>();
+		private boolean unidentifiedFrames = false;
+
+		StateCollector() {
+
+			checkAddPending(rootFrame);
+
+			while (!pending.isEmpty()) {
+
+				collectFrom(pending.pop());
+			}
+		}
+
+		boolean unidentifiedFrames() {
+
+			return unidentifiedFrames;
+		}
+
+		List<IFrame> getUpdatedFrames(StateCollector previous) {
+
+			List<IFrame> updatedFrames = new ArrayList<IFrame>();
+
+			for (Map.Entry<IFrame, FrameState> entry : statesByFrame.entrySet()) {
+
+				IFrame frame = entry.getKey();
+				FrameState previousState = previous.statesByFrame.get(frame);
+
+				if (previousState == null || !previousState.matches(entry.getValue())) {
+
+					updatedFrames.add(frame);
+				}
+			}
+
+			return updatedFrames;
+		}
+
+		private void collectFrom(IFrame frame) {
+
+			IFrameCategory category = frame.getCategory();
+
+			if (category.disjunction()) {
+
+				for (IFrame disjunct : frame.asDisjuncts()) {
+
+					checkAddPending(disjunct);
+				}
+			}
+			else if (category.atomic()) {
+
+				statesByFrame.put(frame, new FrameState(frame));
+
+				for (ISlot slot : frame.getSlots().asList()) {
+
+					collectFromValues(slot.getValues().asList());
+				}
+			}
+		}
+
+		private void collectFromValues(List<IValue> values) {
+
+			for (IValue value : values) {
+
+				if (value instanceof IFrame) {
+
+					checkAddPending((IFrame)value);
+				}
+			}
+		}
+
+		private void checkAddPending(IFrame frame) {
+
+			if (visited.add(frame)) {
+
+				if (!frameXDocIds.containsKey(frame)) {
+
+					unidentifiedFrames = true;
+				}
+
+				pending.push(frame);
+			}
+		}
+	}
+
+	InstanceSession(String token) {
+
+		this.token = token;
+	}
+
+	synchronized void reset(IFrame rootFrame, Map<IFrame, String> frameXDocIds) {
+
+		this.rootFrame = rootFrame;
+
+		iEditor = ZCModelAccessor.get().getIEditor(getModel());
+
+		this.frameXDocIds.clear();
+		framesByXDocId.clear();
+
+		for (Map.Entry<IFrame, String> entry : frameXDocIds.entrySet()) {
+
+			this.frameXDocIds.put(entry.getKey(), entry.getValue());
+			framesByXDocId.put(entry.getValue(), entry.getKey());
+		}
+
+		invalidated = false;
+		version++;
+	}
+
+	synchronized List<IFrame> update(
+									int expectedVersion,
+									ISlot slot,
+									List<IValue> assertedValues) {
+
+		if (invalidated || version != expectedVersion) {
+
+			return null;
+		}
+
+		StateCollector previousStates = new StateCollector();
+		IUpdating updating = getModel().getIUpdating();
+
+		updating.startUpdateBatch();
+
+		try {
+
+			iEditor.getSlotValuesEditor(slot).update(assertedValues);
+		}
+		finally {
+
+			updating.endUpdateBatch();
+		}
+
+		StateCollector currentStates = new StateCollector();
+
+		if (currentStates.unidentifiedFrames()) {
+
+			invalidated = true;
+
+			return null;
+		}
+
+		version++;
+
+		return currentStates.getUpdatedFrames(previousStates);
+	}
+
+	void setLastAccessTime(long time) {
+
+		lastAccessTime = time;
+	}
+
+	String getToken() {
+
+		return token;
+	}
+
+	long getLastAccessTime() {
+
+		return lastAccessTime;
+	}
+
+	synchronized int getFrameCount() {
+
+		return frameXDocIds.size();
+	}
+
+	synchronized boolean invalidated() {
+
+		return invalidated;
+	}
+
+	synchronized int getVersion() {
+
+		return version;
+	}
+
+	synchronized IFrame getFrameOrNull(String xid) {
+
+		return framesByXDocId.get(xid);
+	}
+
+	Map<IFrame, String> getFrameXDocIds() {
+
+		return frameXDocIds;
+	}
+
+	Map<String, IFrame> getFramesByXDocId() {
+
+		return framesByXDocId;
+	}
+
+	private CModel getModel() {
+
+		return rootFrame.getType().getModel();
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.server.xml;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+
+/**
+ * @author Colin Puleston
+ */
+class InstanceSessions {
+
+	static private final int DEFAULT_MAX_SESSIONS = 1000;
+	static private final long DEFAULT_MAX_IDLE_TIME = 30 * 60 * 1000;
+	static private final int DEFAULT_MAX_TOTAL_FRAMES = 1000000;
+
+	private int maxSessions = DEFAULT_MAX_SESSIONS;
+	private long maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+	private int maxTotalFrames = DEFAULT_MAX_TOTAL_FRAMES;
+
+	private Map<String, InstanceSession> sessionsByKey
+					= new LinkedHashMap<String, InstanceSession>(16, 0.75f, true);
+
+	private Map<String, Integer> frameCountsByKey = new HashMap<String, Integer>();
+	private int totalFrames = 0;
+
+	synchronized void setMaxSessions(int maxSessions) {
+
+		this.maxSessions = maxSessions;
+	}
+
+	synchronized void setMaxIdleTime(long maxIdleTime) {
+
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	synchronized void setMaxTotalFrames(int maxTotalFrames) {
+
+		this.maxTotalFrames = maxTotalFrames;
+	}
+
+	synchronized InstanceSession reset(
+									String clientSessionId,
+									String tokenOrNull,
+									IFrame rootFrame,
+									Map<IFrame, String> frameXDocIds) {
+
+		long time = getCurrentTime();
+
+		removeIdleSessions(time);
+
+		String token = tokenOrNull != null ? tokenOrNull : createToken();
+		String key = createKey(clientSessionId, token);
+		InstanceSession session = sessionsByKey.get(key);
+
+		if (session == null) {
+
+			session = new InstanceSession(token);
+
+			sessionsByKey.put(key, session);
+		}
+
+		session.reset(rootFrame, frameXDocIds);
+		session.setLastAccessTime(time);
+
+		setFrameCount(key, session.getFrameCount());
+		removeExcessSessions(key);
+
+		return session;
+	}
+
+	synchronized InstanceSession getOrNull(String clientSessionId, String token) {
+
+		long time = getCurrentTime();
+
+		removeIdleSessions(time);
+
+		if (token == null) {
+
+			return null;
+		}
+
+		InstanceSession session = sessionsByKey.get(createKey(clientSessionId, token));
+
+		if (session == null) {
+
+			return null;
+		}
+
+		session.setLastAccessTime(time);
+
+		return session;
+	}
+
+	synchronized void remove(String clientSessionId, String token) {
+
+		String key = createKey(clientSessionId, token);
+
+		if (sessionsByKey.remove(key) != null) {
+
+			setFrameCount(key, 0);
+		}
+	}
+
+	synchronized int getSessionCount() {
+
+		return sessionsByKey.size();
+	}
+
+	synchronized int getTotalFrames() {
+
+		return totalFrames;
+	}
+
+	long getCurrentTime() {
+
+		return System.currentTimeMillis();
+	}
+
+	private void removeIdleSessions(long time) {
+
+		Iterator<Map.Entry<String, InstanceSession>> entries = sessionsByKey.entrySet().iterator();
+
+		while (entries.hasNext()) {
+
+			Map.Entry<String, InstanceSession> entry = entries.next();
+
+			if (time - entry.getValue().getLastAccessTime() <= maxIdleTime) {
+
+				break;
+			}
+
+			entries.remove();
+			setFrameCount(entry.getKey(), 0);
+		}
+	}
+
+	private void removeExcessSessions(String retainKey) {
+
+		Iterator<String> keys = sessionsByKey.keySet().iterator();
+
+		while (keys.hasNext() && limitsExceeded()) {
+
+			String key = keys.next();
+
+			if (key.equals(retainKey)) {
+
+				break;
+			}
+
+			keys.remove();
+			setFrameCount(key, 0);
+		}
+	}
+
+	private boolean limitsExceeded() {
+
+		return sessionsByKey.size() > maxSessions || totalFrames > maxTotalFrames;
+	}
+
+	private void setFrameCount(String key, int count) {
+
+		Integer oldCount = count != 0
+							? frameCountsByKey.put(key, count)
+							: frameCountsByKey.remove(key);
+
+		totalFrames += count - (oldCount != null ? oldCount : 0);
+	}
+
+	private String createKey(String clientSessionId, String token) {
+
+		return (clientSessionId != null ? clientSessionId : "") + "/" + token;
+	}
+
+	private String createToken() {
+
+		return UUID.randomUUID().toString();
+	}
+}
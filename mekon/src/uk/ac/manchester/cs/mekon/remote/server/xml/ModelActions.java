@@ -24,10 +24,14 @@
 
 package uk.ac.manchester.cs.mekon.remote.server.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.remote.server.*;
 import uk.ac.manchester.cs.mekon.remote.util.*;
+import uk.ac.manchester.cs.mekon.remote.xml.*;
+import uk.ac.manchester.cs.mekon_util.xdoc.*;
 
 /**
  * @author Colin Puleston
@@ -36,6 +40,9 @@ class ModelActions extends ServerActions<RModelActionType> {
 
 	private CModel model;
 	private RServerInstanceParser parameterParser;
+	private XDeltaSerialiser deltaSerialiser;
+
+	private InstanceSessions sessions = new InstanceSessions();
 
 	private class GetFrameHierarchyAction extends Action {
 
@@ -89,6 +96,14 @@ class ModelActions extends ServerActions<RModelActionType> {
 
 			renderInput.setFrameXDocIds(parseInput.getFrameXDocIds());
 			response.setInstanceResponse(renderInput);
+
+			InstanceSession session = sessions.reset(
+											request.getClientSessionId(),
+											request.getInstanceSessionToken(),
+											inAndOut,
+											renderInput.getFrameXDocIds());
+
+			response.setInstanceSession(session.getToken(), session.getVersion());
 		}
 	}
 
@@ -108,17 +123,112 @@ class ModelActions extends ServerActions<RModelActionType> {
 		}
 	}
 
+	private class UpdateDeltaAction extends Action {
+
+		RModelActionType getActionType() {
+
+			return RModelActionType.UPDATE_DELTA;
+		}
+
+		void perform(XRequestParser request, XResponseRenderer response) {
+
+			InstanceSession session = sessions.getOrNull(
+											request.getClientSessionId(),
+											request.getInstanceSessionToken());
+
+			if (session == null || !performForSession(request, response, session)) {
+
+				response.setFrameUpdatesOrNullResponse(null, null, deltaSerialiser);
+			}
+		}
+
+		private boolean performForSession(
+							XRequestParser request,
+							XResponseRenderer response,
+							InstanceSession session) {
+
+			synchronized (session) {
+
+				List<IFrame> updatedFrames = update(
+												session,
+												request.getInstanceSessionVersion(),
+												request.getValuesUpdateParameterNode(0));
+
+				if (updatedFrames == null) {
+
+					if (session.invalidated()) {
+
+						sessions.remove(request.getClientSessionId(), session.getToken());
+					}
+
+					return false;
+				}
+
+				response.setInstanceSession(session.getToken(), session.getVersion());
+				response.setFrameUpdatesOrNullResponse(
+							updatedFrames,
+							session.getFrameXDocIds(),
+							deltaSerialiser);
+
+				return true;
+			}
+		}
+
+		private List<IFrame> update(
+								InstanceSession session,
+								int expectedVersion,
+								XNode updateNode) {
+
+			ISlot slot = getUpdatedSlotOrNull(session, updateNode);
+
+			if (slot == null) {
+
+				return null;
+			}
+
+			List<IValue> values = deltaSerialiser.parseValues(
+										updateNode,
+										slot.getValueType(),
+										session.getFramesByXDocId(),
+										false);
+
+			return values != null ? session.update(expectedVersion, slot, values) : null;
+		}
+
+		private ISlot getUpdatedSlotOrNull(InstanceSession session, XNode updateNode) {
+
+			IFrame container = session.getFrameOrNull(
+									deltaSerialiser.parseUpdatedFrameXDocId(updateNode));
+
+			if (container == null || !container.getCategory().atomic()) {
+
+				return null;
+			}
+
+			return container
+					.getSlots()
+					.getOrNull(deltaSerialiser.parseUpdatedSlotId(updateNode));
+		}
+	}
+
 	ModelActions(CModel model) {
 
 		this.model = model;
 
 		parameterParser = new RServerInstanceParser(model);
+		deltaSerialiser = new XDeltaSerialiser(model);
 
 		new GetFrameHierarchyAction();
 		new InitialiseAssertionAction();
 		new InitialiseQueryAction();
 		new UpdateAssertionAction();
 		new UpdateQueryAction();
+		new UpdateDeltaAction();
+	}
+
+	InstanceSessions getInstanceSessions() {
+
+		return sessions;
 	}
 
 	RActionCategory getActionCategory() {
@@ -24,6 +24,8 @@
 
 package uk.ac.manchester.cs.mekon.remote.server.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.store.*;
@@ -54,6 +56,28 @@ class StoreActions extends ServerActions<RStoreActionType> {
 		}
 	}
 
+	private class AddAllAction extends Action {
+
+		RStoreActionType getActionType() {
+
+			return RStoreActionType.ADD_ALL;
+		}
+
+		void perform(XRequestParser request, XResponseRenderer response) {
+
+			Map<CIdentity, IFrame> addings = new LinkedHashMap<CIdentity, IFrame>();
+
+			for (int i = 0 ; i < request.getParameterCount() ; i += 2) {
+
+				addings.put(
+					request.getIdentityParameter(i + 1),
+					getAssertionParameter(request, i));
+			}
+
+			response.setIdentitiesResponse(store.addAll(addings));
+		}
+	}
+
 	private class RenameAction extends Action {
 
 		RStoreActionType getActionType() {
@@ -85,6 +109,26 @@ class StoreActions extends ServerActions<RStoreActionType> {
 		}
 	}
 
+	private class RemoveAllAction extends Action {
+
+		RStoreActionType getActionType() {
+
+			return RStoreActionType.REMOVE_ALL;
+		}
+
+		void perform(XRequestParser request, XResponseRenderer response) {
+
+			List<CIdentity> ids = new ArrayList<CIdentity>();
+
+			for (int i = 0 ; i < request.getParameterCount() ; i++) {
+
+				ids.add(request.getIdentityParameter(i));
+			}
+
+			response.setIdentitiesResponse(store.removeAll(ids));
+		}
+	}
+
 	private class ClearAction extends Action {
 
 		RStoreActionType getActionType() {
@@ -175,6 +219,22 @@ class StoreActions extends ServerActions<RStoreActionType> {
 		}
 	}
 
+	private class MatchRangeAction extends Action {
+
+		RStoreActionType getActionType() {
+
+			return RStoreActionType.MATCH_RANGE;
+		}
+
+		void perform(XRequestParser request, XResponseRenderer response) {
+
+			IFrame query = getQueryParameter(request, 0);
+			IMatchesRange range = request.getMatchesRangeParameter(1);
+
+			response.setMatchesResponse(store.match(query, range));
+		}
+	}
+
 	private class MatchesAction extends Action {
 
 		RStoreActionType getActionType() {
@@ -198,14 +258,17 @@ class StoreActions extends ServerActions<RStoreActionType> {
 		parameterParser = new RServerInstanceParser(store.getModel());
 
 		new AddAction();
+		new AddAllAction();
 		new RenameAction();
 		new RemoveAction();
+		new RemoveAllAction();
 		new ClearAction();
 		new ContainsAction();
 		new GetTypeAction();
 		new GetAction();
 		new GetIdsAction();
 		new MatchAction();
+		new MatchRangeAction();
 		new MatchesAction();
 	}
 
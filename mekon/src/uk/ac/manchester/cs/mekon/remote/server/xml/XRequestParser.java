@@ -24,8 +24,11 @@
 
 package uk.ac.manchester.cs.mekon.remote.server.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.serial.*;
+import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.remote.xml.*;
 import uk.ac.manchester.cs.mekon.remote.util.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
@@ -42,11 +45,31 @@ class XRequestParser extends XPackageSerialiser {
 		super(document);
 	}
 
+	XRequestParser(XNode rootNode) {
+
+		super(rootNode);
+	}
+
 	long getClientExpiryCheckTime() {
 
 		return structureParser.getClientExpiryCheckTime();
 	}
 
+	String getClientSessionId() {
+
+		return structureParser.getClientSessionId();
+	}
+
+	String getInstanceSessionToken() {
+
+		return structureParser.getInstanceSessionToken();
+	}
+
+	int getInstanceSessionVersion() {
+
+		return structureParser.getInstanceSessionVersion();
+	}
+
 	RActionCategory getActionCategory() {
 
 		return structureParser.getActionCategory();
@@ -62,6 +85,11 @@ class XRequestParser extends XPackageSerialiser {
 		return structureParser.getActionType(RStoreActionType.class);
 	}
 
+	int getParameterCount() {
+
+		return structureParser.getParameterCount();
+	}
+
 	CIdentity getIdentityParameter(int index) {
 
 		return FSerialiser.parseIdentity(structureParser.getParameterNode(index));
@@ -71,4 +99,30 @@ class XRequestParser extends XPackageSerialiser {
 
 		return new IInstanceParseInput(structureParser.getParameterNode(index));
 	}
+
+	XNode getValuesUpdateParameterNode(int index) {
+
+		return structureParser.getParameterNode(index);
+	}
+
+	IMatchesRange getMatchesRangeParameter(int index) {
+
+		XNode node = structureParser.getParameterNode(index);
+
+		return new IMatchesRange(
+						node.getInteger(RANGE_OFFSET_ATTR),
+						node.getInteger(RANGE_LIMIT_ATTR));
+	}
+
+	List<XRequestParser> getBatchedRequests() {
+
+		List<XRequestParser> requests = new ArrayList<XRequestParser>();
+
+		for (XNode node : structureParser.getBatchedRequestNodes()) {
+
+			requests.add(new XRequestParser(node));
+		}
+
+		return requests;
+	}
 }
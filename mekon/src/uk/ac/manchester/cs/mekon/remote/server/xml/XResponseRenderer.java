@@ -46,11 +46,21 @@ class XResponseRenderer extends XPackageSerialiser {
 		super(RESPONSE_ROOT_ID);
 	}
 
+	XResponseRenderer(XNode rootNode) {
+
+		super(rootNode);
+	}
+
 	void setInvalidatedClient() {
 
 		structureRenderer.setInvalidatedClient();
 	}
 
+	void setInstanceSession(String token, int version) {
+
+		structureRenderer.setInstanceSession(token, version);
+	}
+
 	void setBooleanResponse(boolean value) {
 
 		structureRenderer.setBooleanResponse(value);
@@ -74,6 +84,26 @@ class XResponseRenderer extends XPackageSerialiser {
 		instanceRenderer.render(instance, addStructuredNode());
 	}
 
+	void setFrameUpdatesOrNullResponse(
+			List<IFrame> updatedFrames,
+			Map<IFrame, String> frameXDocIds,
+			XDeltaSerialiser deltaSerialiser) {
+
+		if (updatedFrames == null) {
+
+			structureRenderer.setNullResponse();
+		}
+		else {
+
+			XNode node = addStructuredNode();
+
+			for (IFrame frame : updatedFrames) {
+
+				deltaSerialiser.renderFrameUpdate(frame, frameXDocIds, node);
+			}
+		}
+	}
+
 	void setInstanceOrNullResponse(IFrame instance) {
 
 		if (instance == null) {
@@ -108,6 +138,11 @@ class XResponseRenderer extends XPackageSerialiser {
 		IMatchesRenderer.render(matches, addStructuredNode());
 	}
 
+	XResponseRenderer addBatchedResponse() {
+
+		return new XResponseRenderer(structureRenderer.addBatchedResponseNode());
+	}
+
 	private XNode addStructuredNode() {
 
 		return structureRenderer.addStructuredNode();
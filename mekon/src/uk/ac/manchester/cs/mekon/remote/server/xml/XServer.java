@@ -24,8 +24,11 @@
 
 package uk.ac.manchester.cs.mekon.remote.server.xml;
 
+import java.util.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.store.*;
+import uk.ac.manchester.cs.mekon.remote.util.*;
 import uk.ac.manchester.cs.mekon.remote.xml.*;
 import uk.ac.manchester.cs.mekon.remote.server.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
@@ -77,34 +80,110 @@ public class XServer {
 		storeActions = new StoreActions(store);
 	}
 
+	/**
+	 * Sets the maximum number of server-side instance sessions that
+	 * will be retained at any one time. Such sessions hold live
+	 * versions of client instances, allowing subsequent client edits
+	 * to be applied incrementally. Where the limit is exceeded the
+	 * least recently used sessions are discarded, and the relevant
+	 * clients revert to full instance updates. Defaults to 1000.
+	 *
+	 * @param maxSessions Maximum number of instance sessions
+	 */
+	public void setMaxInstanceSessions(int maxSessions) {
+
+		modelActions.getInstanceSessions().setMaxSessions(maxSessions);
+	}
+
+	/**
+	 * Sets the time for which a server-side instance session can remain
+	 * unused before being discarded. Defaults to 30 minutes.
+	 *
+	 * @param maxIdleTime Maximum idle time for instance sessions, in
+	 * milliseconds
+	 */
+	public void setMaxInstanceSessionIdleTime(long maxIdleTime) {
+
+		modelActions.getInstanceSessions().setMaxIdleTime(maxIdleTime);
+	}
+
+	/**
+	 * Sets the maximum total number of instance-level frames that will
+	 * be held by the server-side instance sessions at any one time,
+	 * thus providing an upper bound on the memory that they occupy.
+	 * Where the limit is exceeded the least recently used sessions are
+	 * discarded. Defaults to 1000000.
+	 *
+	 * @param maxFrames Maximum total number of frames in instance
+	 * sessions
+	 */
+	public void setMaxInstanceSessionFrames(int maxFrames) {
+
+		modelActions.getInstanceSessions().setMaxTotalFrames(maxFrames);
+	}
+
 	/**
 	 * Performs a particular model or store-related action.
 	 *
 	 * @param requestDoc Document representing specification of required
-	 * action
-	 * @return Document representing output produced by action
+	 * action, or of a batch of actions to be performed in sequence
+	 * @return Document representing output produced by action, or by
+	 * each action in batch
 	 */
 	public XDocument performAction(XDocument requestDoc) {
 
 		XRequestParser request = new XRequestParser(requestDoc);
 		XResponseRenderer response = new XResponseRenderer();
 
-		if (performAction(request, response)) {
+		if (!checkExpiredClient(request, response)) {
 
-			return response.getDocument();
+			performNonExpiredAction(request, response);
 		}
 
-		throw new RServerException(
-					"Unrecognised server action category: "
-					+ "\"" + request.getActionCategory() + "\"");
+		return response.getDocument();
 	}
 
-	private boolean performAction(XRequestParser request, XResponseRenderer response) {
+	private void performNonExpiredAction(XRequestParser request, XResponseRenderer response) {
 
-		if (checkExpiredClient(request, response)) {
+		if (request.getActionCategory() == RActionCategory.BATCH) {
 
-			return true;
+			performBatchAction(request, response);
 		}
+		else {
+
+			performSingleAction(request, response);
+		}
+	}
+
+	private void performBatchAction(XRequestParser request, XResponseRenderer response) {
+
+		List<XRequestParser> batchedRequests = request.getBatchedRequests();
+
+		for (XRequestParser batchedRequest : batchedRequests) {
+
+			if (batchedRequest.getActionCategory() == RActionCategory.BATCH) {
+
+				throw new RServerException("Nested batch action requests are not allowed");
+			}
+		}
+
+		for (XRequestParser batchedRequest : batchedRequests) {
+
+			performSingleAction(batchedRequest, response.addBatchedResponse());
+		}
+	}
+
+	private void performSingleAction(XRequestParser request, XResponseRenderer response) {
+
+		if (!checkPerformSingleAction(request, response)) {
+
+			throw new RServerException(
+						"Unrecognised server action category: "
+						+ "\"" + request.getActionCategory() + "\"");
+		}
+	}
+
+	private boolean checkPerformSingleAction(XRequestParser request, XResponseRenderer response) {
 
 		if (modelActions.checkPerformAction(request, response)) {
 
@@ -39,5 +39,11 @@ public enum RActionCategory {
 	/**
 	 * Specifies an action over the remote instance store
 	 */
-	STORE
+	STORE,
+
+	/**
+	 * Specifies a batch of actions, of any category, to be performed
+	 * via a single request
+	 */
+	BATCH
 }
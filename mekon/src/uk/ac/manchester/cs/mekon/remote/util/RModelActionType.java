@@ -54,5 +54,12 @@ public enum RModelActionType {
 	/**
 	 * Specifies an query-instance update action
 	 */
-	UPDATE_QUERY
+	UPDATE_QUERY,
+
+	/**
+	 * Specifies an incremental update action on either an assertion
+	 * or query instance for which a server-side session is being
+	 * maintained
+	 */
+	UPDATE_DELTA
 }
@@ -36,6 +36,11 @@ public enum RStoreActionType {
 	 */
 	ADD,
 
+	/**
+	 * Specifies an instance batch-addition action
+	 */
+	ADD_ALL,
+
 	/**
 	 * Specifies an instance renaming action
 	 */
@@ -46,6 +51,11 @@ public enum RStoreActionType {
 	 */
 	REMOVE,
 
+	/**
+	 * Specifies an instance batch-removal action
+	 */
+	REMOVE_ALL,
+
 	/**
 	 * Specifies a store clear action
 	 */
@@ -76,6 +86,11 @@ public enum RStoreActionType {
 	 */
 	MATCH,
 
+	/**
+	 * Specifies a ranged query-matching instance retrieval action
+	 */
+	MATCH_RANGE,
+
 	/**
 	 * Specifies a query/instance match test
 	 */
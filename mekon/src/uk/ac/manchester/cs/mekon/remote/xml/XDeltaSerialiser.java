@@ -0,0 +1,421 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.xml;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.serial.*;
+import uk.ac.manchester.cs.mekon_util.*;
+import uk.ac.manchester.cs.mekon_util.xdoc.*;
+
+/**
+ * Provides serialisation of the slots and slot-values that are
+ * exchanged between client and server during the incremental
+ * updating of instances for which server-side sessions are being
+ * maintained. Slots are represented in the same way as for the
+ * standard instance serialisation, except that frame-values are
+ * always represented via references to the XML-document identifiers
+ * that were assigned when the instance was last fully serialised.
+ *
+ * @author Colin Puleston
+ */
+public class XDeltaSerialiser implements ISerialiserVocab {
+
+	private CModel model;
+
+	private class ValueTypeRenderer extends CValueVisitor {
+
+		private XNode slotNode;
+
+		protected void visit(CFrame value) {
+
+			FSerialiser.renderCFrame(value, slotNode.addChild(CFRAME_ID));
+		}
+
+		protected void visit(CNumber value) {
+
+			FSerialiser.renderCNumber(value, slotNode.addChild(CNUMBER_ID));
+		}
+
+		protected void visit(CString value) {
+
+			FSerialiser.renderCString(value, slotNode.addChild(CSTRING_ID));
+		}
+
+		protected void visit(MFrame value) {
+
+			FSerialiser.renderMFrame(value, slotNode.addChild(MFRAME_ID));
+		}
+
+		ValueTypeRenderer(CValue<?> valueType, XNode slotNode) {
+
+			this.slotNode = slotNode;
+
+			visit(valueType);
+		}
+	}
+
+	private class ValuesRenderer extends IValueVisitor {
+
+		private Map<IFrame, String> frameXDocIds;
+
+		private XNode valuesNode;
+		private boolean fixedValues;
+
+		protected void visit(IFrame value) {
+
+			addValueNode(IFRAME_ID).setValue(IFRAME_XDOC_ID_REF_ATTR, getXDocId(value));
+		}
+
+		protected void visit(INumber value) {
+
+			FSerialiser.renderINumber(value, addValueNode(INUMBER_ID));
+		}
+
+		protected void visit(IString value) {
+
+			FSerialiser.renderIString(value, addValueNode(ISTRING_ID));
+		}
+
+		protected void visit(CFrame value) {
+
+			FSerialiser.renderCFrame(value, addValueNode(CFRAME_ID));
+		}
+
+		ValuesRenderer(Map<IFrame, String> frameXDocIds, XNode valuesNode) {
+
+			this.frameXDocIds = frameXDocIds;
+			this.valuesNode = valuesNode;
+		}
+
+		void render(List<IValue> values, boolean fixedValues) {
+
+			this.fixedValues = fixedValues;
+
+			for (IValue value : values) {
+
+				visit(value);
+			}
+		}
+
+		private XNode addValueNode(String id) {
+
+			XNode node = valuesNode.addChild(id);
+
+			node.setValue(FIXED_VALUE_STATUS_ATTR, fixedValues);
+
+			return node;
+		}
+
+		private String getXDocId(IFrame frame) {
+
+			String xid = frameXDocIds.get(frame);
+
+			if (xid == null) {
+
+				throw new KAccessException(
+							"Frame-value has not been assigned "
+							+ "an XML-document identifier: " + frame);
+			}
+
+			return xid;
+		}
+	}
+
+	private class ValuesParser {
+
+		private CValue<?> valueType;
+		private Map<String, IFrame> framesByXDocId;
+
+		ValuesParser(CValue<?> valueType, Map<String, IFrame> framesByXDocId) {
+
+			this.valueType = valueType;
+			this.framesByXDocId = framesByXDocId;
+		}
+
+		List<IValue> parse(XNode valuesNode, boolean fixedValues) {
+
+			List<IValue> values = new ArrayList<IValue>();
+
+			for (XNode valueNode : valuesNode.getAllChildren()) {
+
+				if (valueNode.getBoolean(FIXED_VALUE_STATUS_ATTR) == fixedValues) {
+
+					IValue value = parseValue(valueNode);
+
+					if (value == null) {
+
+						return null;
+					}
+
+					values.add(value);
+				}
+			}
+
+			return values;
+		}
+
+		private IValue parseValue(XNode valueNode) {
+
+			if (valueNode.hasId(IFRAME_ID)) {
+
+				return framesByXDocId.get(valueNode.getString(IFRAME_XDOC_ID_REF_ATTR));
+			}
+
+			if (valueNode.hasId(CFRAME_ID)) {
+
+				return parseCFrame(valueNode);
+			}
+
+			if (valueNode.hasId(INUMBER_ID)) {
+
+				return valueType instanceof CNumber
+							? FSerialiser.parseINumber((CNumber)valueType, valueNode)
+							: null;
+			}
+
+			if (valueNode.hasId(ISTRING_ID)) {
+
+				return FSerialiser.parseIString(valueNode);
+			}
+
+			throw new XDocumentException("Unrecognised value node: " + valueNode.getId());
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param model Relevant model
+	 */
+	public XDeltaSerialiser(CModel model) {
+
+		this.model = model;
+	}
+
+	/**
+	 * Renders the current asserted values for a slot whose values
+	 * have been updated, together with the identities of the slot
+	 * and its container-frame.
+	 *
+	 * @param slot Slot whose values have been updated
+	 * @param frameXDocIds XML-document identifiers for all relevant
+	 * frames
+	 * @param node Node to render to
+	 * @throws KAccessException if container-frame or any frame-value has
+	 * not been assigned an XML-document identifier
+	 */
+	public void renderAssertedValuesUpdate(
+					ISlot slot,
+					Map<IFrame, String> frameXDocIds,
+					XNode node) {
+
+		ValuesRenderer valuesRenderer = createValuesRenderer(frameXDocIds, node);
+
+		node.setValue(IFRAME_XDOC_ID_REF_ATTR, valuesRenderer.getXDocId(slot.getContainer()));
+		FSerialiser.renderIdentity(slot.getType(), node.addChild(CSLOT_ID));
+
+		valuesRenderer.render(slot.getValues().getAssertedValues(), false);
+	}
+
+	/**
+	 * Renders the complete current state of a frame that has been
+	 * updated, with any frame-values being represented via references
+	 * to XML-document identifiers.
+	 *
+	 * @param frame Frame to render
+	 * @param frameXDocIds XML-document identifiers for all relevant
+	 * frames
+	 * @param parentNode Node to which frame node is to be added
+	 * @throws KAccessException if frame or any frame-value has not been
+	 * assigned an XML-document identifier
+	 */
+	public void renderFrameUpdate(
+					IFrame frame,
+					Map<IFrame, String> frameXDocIds,
+					XNode parentNode) {
+
+		XNode frameNode = parentNode.addChild(IFRAME_ID);
+
+		frameNode.setValue(IFRAME_XDOC_ID_ATTR, frameXDocIds.get(frame));
+
+		for (ISlot slot : frame.getSlots().asList()) {
+
+			renderSlot(slot, frameXDocIds, frameNode);
+		}
+	}
+
+	/**
+	 * Parses the XML-document identifier of the container-frame for
+	 * a slot whose values have been updated.
+	 *
+	 * @param node Node representing values update
+	 * @return XML-document identifier of container-frame
+	 */
+	public String parseUpdatedFrameXDocId(XNode node) {
+
+		return node.getString(IFRAME_XDOC_ID_REF_ATTR);
+	}
+
+	/**
+	 * Parses the identity of a slot whose values have been updated.
+	 *
+	 * @param node Node representing values update
+	 * @return Identity of slot
+	 */
+	public CIdentity parseUpdatedSlotId(XNode node) {
+
+		return FSerialiser.parseIdentity(node.getChild(CSLOT_ID));
+	}
+
+	/**
+	 * Parses the value-type for a slot.
+	 *
+	 * @param slotNode Node representing slot
+	 * @return Parsed value-type, or null if value-type is not valid with
+	 * respect to the model
+	 */
+	public CValue<?> parseValueType(XNode slotNode) {
+
+		XNode typeNode = slotNode.getChildOrNull(CFRAME_ID);
+
+		if (typeNode != null) {
+
+			return parseCFrame(typeNode);
+		}
+
+		typeNode = slotNode.getChildOrNull(MFRAME_ID);
+
+		if (typeNode != null) {
+
+			CFrame rootFrame = resolveCFrame(FSerialiser.parseMFrameAsDisjunctIds(typeNode));
+
+			return rootFrame != null ? rootFrame.getType() : null;
+		}
+
+		typeNode = slotNode.getChildOrNull(CNUMBER_ID);
+
+		if (typeNode != null) {
+
+			return FSerialiser.parseCNumber(typeNode);
+		}
+
+		return FSerialiser.parseCString(slotNode.getChild(CSTRING_ID));
+	}
+
+	/**
+	 * Parses either the fixed or the asserted values for a slot.
+	 *
+	 * @param parentNode Node to which values node was added
+	 * @param valueType Value-type for slot
+	 * @param framesByXDocId All relevant frames, by XML-document identifier
+	 * @param fixedValues True if fixed values are to be parsed, false
+	 * if asserted values
+	 * @return Parsed values, or null if any value could not be resolved
+	 */
+	public List<IValue> parseValues(
+							XNode parentNode,
+							CValue<?> valueType,
+							Map<String, IFrame> framesByXDocId,
+							boolean fixedValues) {
+
+		XNode valuesNode = parentNode.getChildOrNull(IVALUES_ID);
+
+		if (valuesNode == null) {
+
+			return Collections.<IValue>emptyList();
+		}
+
+		return new ValuesParser(valueType, framesByXDocId).parse(valuesNode, fixedValues);
+	}
+
+	private void renderSlot(ISlot slot, Map<IFrame, String> frameXDocIds, XNode parentNode) {
+
+		CSlot slotType = slot.getType();
+		ISlotValues values = slot.getValues();
+
+		XNode slotNode = parentNode.addChild(ISLOT_ID);
+		XNode slotTypeNode = slotNode.addChild(CSLOT_ID);
+
+		FSerialiser.renderIdentity(slotType, slotTypeNode);
+
+		slotTypeNode.setValue(SOURCE_ATTR, slotType.getSource());
+		slotTypeNode.setValue(CARDINALITY_ATTR, slotType.getCardinality());
+		slotTypeNode.setValue(ACTIVATION_ATTR, slotType.getActivation());
+
+		new ValueTypeRenderer(slot.getValueType(), slotNode);
+
+		slotNode.setValue(EDITABILITY_ATTR, slot.getEditability());
+
+		ValuesRenderer valuesRenderer = createValuesRenderer(frameXDocIds, slotNode);
+
+		valuesRenderer.render(values.getFixedValues(), true);
+		valuesRenderer.render(values.getAssertedValues(), false);
+	}
+
+	private ValuesRenderer createValuesRenderer(
+								Map<IFrame, String> frameXDocIds,
+								XNode parentNode) {
+
+		return new ValuesRenderer(frameXDocIds, parentNode.addChild(IVALUES_ID));
+	}
+
+	private CFrame parseCFrame(XNode node) {
+
+		return resolveCFrame(FSerialiser.parseCFrameAsDisjunctIds(node));
+	}
+
+	private CFrame resolveCFrame(List<CIdentity> disjunctIds) {
+
+		List<CFrame> disjuncts = new ArrayList<CFrame>();
+
+		for (CIdentity disjunctId : disjunctIds) {
+
+			CFrame disjunct = getCFrameOrNull(disjunctId);
+
+			if (disjunct == null) {
+
+				return null;
+			}
+
+			disjuncts.add(disjunct);
+		}
+
+		return CFrame.resolveDisjunction(disjuncts);
+	}
+
+	private CFrame getCFrameOrNull(CIdentity id) {
+
+		CFrame rootFrame = model.getRootFrame();
+
+		if (rootFrame.getIdentity().equals(id)) {
+
+			return rootFrame;
+		}
+
+		return model.getFrames().getOrNull(id);
+	}
+}
@@ -56,7 +56,19 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 		 */
 		public void setClientExpiryCheckTime(long time) {
 
-			rootNode.setValue(CLIENT_EXPIRY_CHECK_TIME_ATTR, time);
+			getClientNode().setValue(CLIENT_EXPIRY_CHECK_TIME_ATTR, time);
+		}
+
+		/**
+		 * Adds an attribute representing the identity of the client
+		 * session from which an action request originates. Used to scope
+		 * any server-side instance sessions to the relevant client.
+		 *
+		 * @param id Identity of client session
+		 */
+		public void setClientSessionId(String id) {
+
+			getClientNode().setValue(CLIENT_SESSION_ID_ATTR, id);
 		}
 
 		/**
@@ -81,6 +93,19 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 			rootNode.setValue(ACTION_TYPE_ATTR, type);
 		}
 
+		/**
+		 * Adds attributes identifying the server-side session, and the
+		 * current version of that session, that is associated with the
+		 * instance that is the subject of an action request.
+		 *
+		 * @param token Token identifying instance session
+		 * @param version Current version of instance session
+		 */
+		public void setInstanceSession(String token, int version) {
+
+			renderInstanceSession(token, version);
+		}
+
 		/**
 		 * Adds a node for representing a parameter for an action request.
 		 *
@@ -90,6 +115,17 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 
 			return rootNode.addChild(PARAMETER_ID);
 		}
+
+		/**
+		 * Adds a node for representing one of the individual requests
+		 * contained within a batch action request.
+		 *
+		 * @return Added node for representing batched request
+		 */
+		public XNode addBatchedRequestNode() {
+
+			return rootNode.addChild(BATCHED_REQUEST_ID);
+		}
 	}
 
 	/**
@@ -108,7 +144,19 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 		 */
 		public long getClientExpiryCheckTime() {
 
-			return rootNode.getLong(CLIENT_EXPIRY_CHECK_TIME_ATTR, -1);
+			return getClientNode().getLong(CLIENT_EXPIRY_CHECK_TIME_ATTR, -1);
+		}
+
+		/**
+		 * Retrieves value of attribute, if present, representing the
+		 * identity of the client session from which an action request
+		 * originates.
+		 *
+		 * @return Identity of client session, or null if not specified
+		 */
+		public String getClientSessionId() {
+
+			return getClientNode().getString(CLIENT_SESSION_ID_ATTR, null);
 		}
 
 		/**
@@ -139,6 +187,34 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 			return rootNode.getEnum(ACTION_TYPE_ATTR, type);
 		}
 
+		/**
+		 * Retrieves value of attribute, if present, representing the token
+		 * identifying the server-side session associated with the instance
+		 * that is the subject of an action request.
+		 *
+		 * @return Token identifying instance session, or null if no
+		 * session specified
+		 */
+		public String getInstanceSessionToken() {
+
+			return parseInstanceSessionToken();
+		}
+
+		/**
+		 * Retrieves value of attribute, if present, representing the
+		 * version of the server-side session associated with the instance
+		 * that is the subject of an action request.
+		 *
+		 * @return Version of instance session, or -1 if no session
+		 * specified
+		 * @throws XDocumentException if value for attribute exists but
+		 * is not of correct type
+		 */
+		public int getInstanceSessionVersion() {
+
+			return parseInstanceSessionVersion();
+		}
+
 		/**
 		 * Retrieves node representing a parameter for an action request.
 		 *
@@ -150,6 +226,27 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 
 			return getTopLevelNode(PARAMETER_ID, index);
 		}
+
+		/**
+		 * Provides the number of parameters for an action request.
+		 *
+		 * @return Number of action request parameters
+		 */
+		public int getParameterCount() {
+
+			return rootNode.getChildren(PARAMETER_ID).size();
+		}
+
+		/**
+		 * Retrieves nodes representing the individual requests contained
+		 * within a batch action request.
+		 *
+		 * @return Nodes representing batched requests, in order
+		 */
+		public List<XNode> getBatchedRequestNodes() {
+
+			return rootNode.getChildren(BATCHED_REQUEST_ID);
+		}
 	}
 
 	/**
@@ -177,6 +274,19 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 			rootNode.setValue(BOOLEAN_RESPONSE_ATTR, value);
 		}
 
+		/**
+		 * Adds attributes identifying the server-side session, and the
+		 * updated version of that session, that is associated with the
+		 * instance that is the subject of an action response.
+		 *
+		 * @param token Token identifying instance session
+		 * @param version Updated version of instance session
+		 */
+		public void setInstanceSession(String token, int version) {
+
+			renderInstanceSession(token, version);
+		}
+
 		/**
 		 * Adds a node for representing a structured response to an action
 		 * request.
@@ -196,6 +306,17 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 
 			rootNode.addChild(NULL_RESPONSE_ID);
 		}
+
+		/**
+		 * Adds a node for representing one of the individual responses
+		 * to a batch action request.
+		 *
+		 * @return Added node for representing batched response
+		 */
+		public XNode addBatchedResponseNode() {
+
+			return rootNode.addChild(BATCHED_RESPONSE_ID);
+		}
 	}
 
 	/**
@@ -227,6 +348,34 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 			return rootNode.getBoolean(BOOLEAN_RESPONSE_ATTR);
 		}
 
+		/**
+		 * Retrieves value of attribute, if present, representing the token
+		 * identifying the server-side session associated with the instance
+		 * that is the subject of an action response.
+		 *
+		 * @return Token identifying instance session, or null if no
+		 * session specified
+		 */
+		public String getInstanceSessionToken() {
+
+			return parseInstanceSessionToken();
+		}
+
+		/**
+		 * Retrieves value of attribute, if present, representing the
+		 * updated version of the server-side session associated with the
+		 * instance that is the subject of an action response.
+		 *
+		 * @return Version of instance session, or -1 if no session
+		 * specified
+		 * @throws XDocumentException if value for attribute exists but
+		 * is not of correct type
+		 */
+		public int getInstanceSessionVersion() {
+
+			return parseInstanceSessionVersion();
+		}
+
 		/**
 		 * Retrieves node representing a structured response to an action
 		 * request.
@@ -249,6 +398,17 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 
 			return rootNode.hasChild(NULL_RESPONSE_ID);
 		}
+
+		/**
+		 * Retrieves nodes representing the individual responses to a
+		 * batch action request.
+		 *
+		 * @return Nodes representing batched responses, in order
+		 */
+		public List<XNode> getBatchedResponseNodes() {
+
+			return rootNode.getChildren(BATCHED_RESPONSE_ID);
+		}
 	}
 
 	/**
@@ -278,9 +438,41 @@ public abstract class XPackageSerialiser implements XRequestVocab, XResponseVoca
 	 */
 	protected XPackageSerialiser(XDocument document) {
 
-		this.document = document;
+		this(document.getRootNode());
+	}
+
+	/**
+	 * Constructs object for rendering or parsing an individual request
+	 * or response contained within a batch.
+	 *
+	 * @param rootNode Node representing batched request or response
+	 */
+	protected XPackageSerialiser(XNode rootNode) {
+
+		this.rootNode = rootNode;
+
+		document = rootNode.getDocument();
+	}
+
+	private XNode getClientNode() {
+
+		return document.getRootNode();
+	}
+
+	private void renderInstanceSession(String token, int version) {
+
+		rootNode.setValue(INSTANCE_SESSION_TOKEN_ATTR, token);
+		rootNode.setValue(INSTANCE_SESSION_VERSION_ATTR, version);
+	}
+
+	private String parseInstanceSessionToken() {
+
+		return rootNode.getString(INSTANCE_SESSION_TOKEN_ATTR, null);
+	}
+
+	private int parseInstanceSessionVersion() {
 
-		rootNode = document.getRootNode();
+		return rootNode.getInteger(INSTANCE_SESSION_VERSION_ATTR, -1);
 	}
 
 	private XNode getTopLevelNode(String id, int index) {
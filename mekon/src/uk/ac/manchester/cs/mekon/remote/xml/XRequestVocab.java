@@ -34,8 +34,15 @@ public interface XRequestVocab {
 
 	static public final String REQUEST_ROOT_ID = "MekonActionRequest";
 	static public final String PARAMETER_ID = "Parameter";
+	static public final String BATCHED_REQUEST_ID = "BatchedRequest";
 
 	static public final String CLIENT_EXPIRY_CHECK_TIME_ATTR = "clientExpiryCheckTime";
+	static public final String CLIENT_SESSION_ID_ATTR = "clientSessionId";
 	static public final String ACTION_CATEGORY_ATTR = "actionCategory";
 	static public final String ACTION_TYPE_ATTR = "actionType";
+	static public final String INSTANCE_SESSION_TOKEN_ATTR = "instanceSessionToken";
+	static public final String INSTANCE_SESSION_VERSION_ATTR = "instanceSessionVersion";
+
+	static public final String RANGE_OFFSET_ATTR = "rangeOffset";
+	static public final String RANGE_LIMIT_ATTR = "rangeLimit";
 }
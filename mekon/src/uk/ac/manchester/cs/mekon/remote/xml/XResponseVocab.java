@@ -35,6 +35,7 @@ public interface XResponseVocab {
 	static public final String RESPONSE_ROOT_ID = "MekonActionResponse";
 	static public final String STRUCTURED_RESPONSE_ID = "StructuredResponse";
 	static public final String NULL_RESPONSE_ID = "NullResponse";
+	static public final String BATCHED_RESPONSE_ID = "BatchedResponse";
 
 	static public final String INVALIDATED_CLIENT_ATTR = "invalidatedClient";
 	static public final String BOOLEAN_RESPONSE_ATTR = "booleanResponse";
@@ -0,0 +1,37 @@
+package uk.ac.manchester.cs.mekon.stats;
+
+import java.lang.management.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class AllocationChecker {
+
+	static public boolean supported() {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		return threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean)threads).isThreadAllocatedMemorySupported();
+	}
+
+	static public long getCurrentThreadBytes() {
+
+		return getThreads().getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	static public void printPerItem(String testName, long bytes, int items) {
+
+		long perItem = items > 0 ? bytes / items : 0;
+
+		System.out.println(
+			"ALLOCATED BYTES: " + testName + ":"
+			+ " total (" + bytes + ")"
+			+ " per-item (" + perItem + ")");
+	}
+
+	static private com.sun.management.ThreadMXBean getThreads() {
+
+		return (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+	}
+}
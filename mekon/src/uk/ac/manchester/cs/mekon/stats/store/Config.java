@@ -12,6 +12,8 @@ class Config {
 	private boolean enableStrings = false;
 	private boolean persistStore = false;
 	private boolean reportTemplates = false;
+	private int maxQueryThreads = 1;
+	private boolean checkQueryAllocation = false;
 
 	private PhaseConfig storePopulationConfig = new PhaseConfig();
 	private PhaseConfig queryExecutionConfig = new PhaseConfig();
@@ -36,6 +38,16 @@ class Config {
 		reportTemplates = value;
 	}
 
+	void setMaxQueryThreads(int value) {
+
+		maxQueryThreads = value;
+	}
+
+	void setCheckQueryAllocation(boolean value) {
+
+		checkQueryAllocation = value;
+	}
+
 	CIdentity getInstanceTypeId() {
 
 		return instanceTypeId;
@@ -56,6 +68,16 @@ class Config {
 		return reportTemplates;
 	}
 
+	int maxQueryThreads() {
+
+		return maxQueryThreads;
+	}
+
+	boolean checkQueryAllocation() {
+
+		return checkQueryAllocation;
+	}
+
 	PhaseConfig getStorePopulationConfig() {
 
 		return storePopulationConfig;
@@ -16,6 +16,8 @@ class ConfigFile {
 	static private final String ENABLE_STRINGS_ATTR = "enableStrings";
 	static private final String PERSIST_STORE_ATTR = "persistStore";
 	static private final String REPORT_TEMPLATES_ATTR = "reportTemplates";
+	static private final String MAX_QUERY_THREADS_ATTR = "maxQueryThreads";
+	static private final String CHECK_QUERY_ALLOCATION_ATTR = "checkQueryAllocation";
 
 	static private final String TOTAL_TEMPLATES_ATTR = "templates";
 	static private final String TOTAL_ITEMS_ATTR = "items";
@@ -37,6 +39,8 @@ class ConfigFile {
 		c.setEnableStrings(rootNode.getBoolean(ENABLE_STRINGS_ATTR));
 		c.setPersistStore(rootNode.getBoolean(PERSIST_STORE_ATTR));
 		c.setReportTemplates(rootNode.getBoolean(REPORT_TEMPLATES_ATTR));
+		c.setMaxQueryThreads(rootNode.getInteger(MAX_QUERY_THREADS_ATTR, 1));
+		c.setCheckQueryAllocation(rootNode.getBoolean(CHECK_QUERY_ALLOCATION_ATTR, false));
 
 		readPhaseConfig(c.getStorePopulationConfig(), STORE_POPULATION_ID);
 		readPhaseConfig(c.getQueryExecutionConfig(), QUERY_EXECUTION_ID);
@@ -91,7 +91,7 @@ public class StoreStatsChecker {
 			}
 		}
 
-		private void processItems() {
+		void processItems() {
 
 			TimeChecker.start(processName());
 
@@ -117,6 +117,31 @@ public class StoreStatsChecker {
 			report(processName());
 		}
 
+		void processItemsConcurrently(int threadCount) {
+
+			List<ItemProcessorThread> threads = new ArrayList<ItemProcessorThread>();
+			long startMillis = System.currentTimeMillis();
+
+			for (int i = 0 ; i < threadCount ; i++) {
+
+				threads.add(new ItemProcessorThread(i, threadCount));
+			}
+
+			for (ItemProcessorThread thread : threads) {
+
+				thread.waitForCompletion();
+			}
+
+			long totalMillis = System.currentTimeMillis() - startMillis;
+
+			reportThroughput(processName(), threadCount, phaseConfig.totalItems(), totalMillis);
+		}
+
+		void clearTemplates() {
+
+			templates.clear();
+		}
+
 		private InstanceGenerator createTemplateGenerator() {
 
 			boolean s = config.enableStrings();
@@ -130,6 +155,44 @@ public class StoreStatsChecker {
 
 			return "(" + itemIndex + " Done)";
 		}
+
+		private class ItemProcessorThread extends Thread {
+
+			private int firstItemIndex;
+			private int itemIndexIncrement;
+
+			ItemProcessorThread(int firstItemIndex, int itemIndexIncrement) {
+
+				this.firstItemIndex = firstItemIndex;
+				this.itemIndexIncrement = itemIndexIncrement;
+
+				start();
+			}
+
+			public void run() {
+
+				int index = firstItemIndex;
+
+				while (index < phaseConfig.totalItems()) {
+
+					processItem(templates.get(index % templates.size()), index);
+
+					index += itemIndexIncrement;
+				}
+			}
+
+			void waitForCompletion() {
+
+				try {
+
+					join();
+				}
+				catch (InterruptedException e) {
+
+					throw new RuntimeException(e);
+				}
+			}
+		}
 	}
 
 	private class StorePopulator extends PhaseEnactor {
@@ -185,6 +248,84 @@ public class StoreStatsChecker {
 		}
 	}
 
+	private class ConcurrentQueryExecutor extends PhaseEnactor {
+
+		ConcurrentQueryExecutor() {
+
+			super(config.getQueryExecutionConfig());
+		}
+
+		String processName() {
+
+			return "CONCURRENT QUERY EXECUTION";
+		}
+
+		IFrameFunction itemFunction() {
+
+			return IFrameFunction.QUERY;
+		}
+
+		void processItem(IFrame template, int itemIndex) {
+
+			store.match(template).getAllMatches();
+		}
+
+		void processItems() {
+
+			for (int threads = 1 ; threads <= config.maxQueryThreads() ; threads *= 2) {
+
+				processItemsConcurrently(threads);
+			}
+
+			clearTemplates();
+
+			System.out.println("");
+		}
+	}
+
+	private class QueryAllocationChecker extends PhaseEnactor {
+
+		private long allocatedBytes;
+		private int queries;
+
+		QueryAllocationChecker() {
+
+			super(config.getQueryExecutionConfig());
+		}
+
+		String processName() {
+
+			return "QUERY ALLOCATION";
+		}
+
+		IFrameFunction itemFunction() {
+
+			return IFrameFunction.QUERY;
+		}
+
+		void processItem(IFrame template, int itemIndex) {
+
+			long startBytes = AllocationChecker.getCurrentThreadBytes();
+
+			store.match(template).getAllMatches();
+
+			allocatedBytes += AllocationChecker.getCurrentThreadBytes() - startBytes;
+			queries++;
+		}
+
+		void processItems() {
+
+			allocatedBytes = 0;
+			queries = 0;
+
+			super.processItems();
+
+			AllocationChecker.printPerItem(processName(), allocatedBytes, queries);
+
+			System.out.println("");
+		}
+	}
+
 	public StoreStatsChecker(CModel model, IStore store) {
 
 		this(model, store, getDefaultConfigFile());
@@ -202,6 +343,16 @@ public class StoreStatsChecker {
 		new StorePopulator();
 		new QueryExecutor();
 
+		if (config.maxQueryThreads() > 1) {
+
+			new ConcurrentQueryExecutor();
+		}
+
+		if (config.checkQueryAllocation() && AllocationChecker.supported()) {
+
+			new QueryAllocationChecker();
+		}
+
 		if (!config.persistStore()) {
 
 			store.clear();
@@ -230,6 +381,20 @@ public class StoreStatsChecker {
 		TimeChecker.show(processName, suffix);
 	}
 
+	private void reportThroughput(
+					String processName,
+					int threads,
+					int items,
+					long millis) {
+
+		long perSecond = millis > 0 ? (items * 1000L) / millis : items;
+
+		System.out.println(
+			processName + " THROUGHPUT:"
+			+ " threads (" + threads + ")"
+			+ " items-per-second (" + perSecond + ")");
+	}
+
 	private void reportTemplates(IFrameFunction itemFunction, InstanceGenerator gen) {
 
 		System.out.println(
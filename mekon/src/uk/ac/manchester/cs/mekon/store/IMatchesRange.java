@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store;
+
+import uk.ac.manchester.cs.mekon_util.*;
+
+/**
+ * Specifies a contiguous range of the results of an
+ * instance-matching query executed via an {@link IStore} object,
+ * relative to the order in which the full set of results would be
+ * provided by {@link IMatches#getAllMatches}. Hence, for ranked
+ * matches, a range with an offset of zero will select the top
+ * <code>k</code> results.
+ *
+ * @author Colin Puleston
+ */
+public class IMatchesRange {
+
+	private int offset;
+	private int limit;
+
+	/**
+	 * Creates range representing the first <code>limit</code>
+	 * results.
+	 *
+	 * @param limit Maximum number of results in range
+	 * @return Created range
+	 * @throws KAccessException if limit is negative
+	 */
+	static public IMatchesRange top(int limit) {
+
+		return new IMatchesRange(0, limit);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param offset Number of initial results to be skipped
+	 * @param limit Maximum number of results in range
+	 * @throws KAccessException if either offset or limit is negative
+	 */
+	public IMatchesRange(int offset, int limit) {
+
+		if (offset < 0 || limit < 0) {
+
+			throw new KAccessException(
+						"Illegal matches-range: "
+						+ "offset = " + offset + ", "
+						+ "limit = " + limit);
+		}
+
+		this.offset = offset;
+		this.limit = limit;
+	}
+
+	/**
+	 * Provides the number of initial results to be skipped.
+	 *
+	 * @return Number of initial results to be skipped
+	 */
+	public int getOffset() {
+
+		return offset;
+	}
+
+	/**
+	 * Provides the maximum number of results in the range.
+	 *
+	 * @return Maximum number of results in range
+	 */
+	public int getLimit() {
+
+		return limit;
+	}
+
+	/**
+	 * Provides the index of the first result beyond the range, which
+	 * is also the number of results that need to be found, including
+	 * those that are skipped, in order to fill the range.
+	 *
+	 * @return Index of first result beyond range
+	 */
+	public int getEnd() {
+
+		return (int)Math.min((long)offset + limit, Integer.MAX_VALUE);
+	}
+}
@@ -53,6 +53,20 @@ public interface IStore {
 	 */
 	public IFrame add(IFrame instance, CIdentity identity);
 
+	/**
+	 * Adds a batch of instances to the store, possibly replacing
+	 * existing instances with the same identities. This will
+	 * generally be more efficient than adding the instances
+	 * individually, since any matcher and reasoner updates can be
+	 * applied once per batch rather than once per instance.
+	 *
+	 * @param instances Representations of instances to be stored,
+	 * mapped to unique identities, in required order of addition
+	 * @return Unique identities of existing instances that were
+	 * replaced
+	 */
+	public List<CIdentity> addAll(Map<CIdentity, IFrame> instances);
+
 	/**
 	 * Provides new identity for instance in the store.
 	 *
@@ -72,6 +86,18 @@ public interface IStore {
 	 */
 	public boolean remove(CIdentity identity);
 
+	/**
+	 * Removes a batch of instances from the store. This will
+	 * generally be more efficient than removing the instances
+	 * individually, since any matcher and reasoner updates can be
+	 * applied once per batch rather than once per instance.
+	 *
+	 * @param identities Unique identities of instances
+	 * @return Unique identities of instances that were removed,
+	 * excluding any for which no instance was present
+	 */
+	public List<CIdentity> removeAll(Collection<CIdentity> identities);
+
 	/**
 	 * Removes all instances from the store.
 	 *
@@ -144,6 +170,19 @@ public interface IStore {
 	 */
 	public IMatches match(IFrame query);
 
+	/**
+	 * Finds the specified range of the instances that are matched by
+	 * the supplied query, relative to the order in which they would
+	 * be provided by {@link #match(IFrame)}. Where possible the range
+	 * will be applied by the query mechanisms themselves, so that
+	 * results beyond the end of the range need not be found.
+	 *
+	 * @param query Representation of query
+	 * @param range Range of results required
+	 * @return Results of query execution within specified range
+	 */
+	public IMatches match(IFrame query, IMatchesRange range);
+
 	/**
 	 * Uses the query mechanisms associated with the store to test
 	 * whether the supplied instance is matched by the supplied query.
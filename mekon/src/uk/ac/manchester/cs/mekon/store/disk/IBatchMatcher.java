@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+/**
+ * Extension of {@link IMatcher} for matchers that are able to
+ * process sets of add and remove operations more efficiently when
+ * they are known to form part of a single batch, for example by
+ * deferring index or reasoner updates until the end of the batch.
+ * <p>
+ * Batches will be delimited by invocations of {@link #startBatch}
+ * and {@link #endBatch}, with any number of invocations of
+ * {@link #add} and {@link #remove} in between. No query-matching
+ * requests will be made during a batch.
+ *
+ * @author Colin Puleston
+ */
+public interface IBatchMatcher extends IMatcher {
+
+	/**
+	 * Signals the start of a batch of add and/or remove operations.
+	 */
+	public void startBatch();
+
+	/**
+	 * Signals the end of a batch of add and/or remove operations,
+	 * after which the matcher must be fully up-to-date with respect
+	 * to all operations in the batch.
+	 */
+	public void endBatch();
+}
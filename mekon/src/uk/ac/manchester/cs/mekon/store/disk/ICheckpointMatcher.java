@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+
+/**
+ * Extension of {@link IMatcher} for matchers that are able to
+ * persist their internal index state when the store is stopped,
+ * so that the state can be restored on the next start-up, rather
+ * than being rebuilt by re-adding every stored instance.
+ * <p>
+ * Checkpoints are only taken if enabled for the store (see
+ * {@link IDiskStoreBuilder#setMatcherCheckpoints}). The store
+ * records, alongside each checkpoint, the store generation at
+ * which it was taken. On start-up, if a valid checkpoint is
+ * restored, then only those instances that have been added,
+ * updated or removed since that generation, together with any
+ * instances that directly or indirectly reference them, will be
+ * removed from and/or re-added to the matcher.
+ *
+ * @author Colin Puleston
+ */
+public interface ICheckpointMatcher extends IMatcher {
+
+	/**
+	 * Writes the internal index state of the matcher to the
+	 * specified directory. Will be invoked as the store is stopped,
+	 * prior to the invocation of {@link #stop}.
+	 *
+	 * @param directory Existing empty directory for checkpoint
+	 * @return True if checkpoint written, false if matcher is
+	 * unable to checkpoint its current state
+	 */
+	public boolean writeCheckpoint(File directory);
+
+	/**
+	 * Restores the internal index state of the matcher from a
+	 * checkpoint previously written to the specified directory.
+	 * Will be invoked after {@link #initialise}, and prior to any
+	 * instances being added to the matcher. If the checkpoint cannot
+	 * be restored then the matcher must be left without any
+	 * instances, in which case all stored instances will be added
+	 * in the normal manner.
+	 *
+	 * @param directory Directory containing checkpoint
+	 * @return True if checkpoint restored
+	 */
+	public boolean readCheckpoint(File directory);
+}
@@ -32,12 +32,15 @@ import uk.ac.manchester.cs.mekon.model.motor.*;
 import uk.ac.manchester.cs.mekon.network.*;
 import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.store.motor.*;
+import uk.ac.manchester.cs.mekon_util.*;
 
 /**
  * @author Colin Puleston
  */
 class IDiskStore implements IStore {
 
+	static private final int STARTUP_BATCH_SIZE = 1000;
+
 	private CModel model;
 
 	private StoreSerialiser serialiser;
@@ -49,58 +52,274 @@ class IDiskStore implements IStore {
 	private List<CIdentity> identities = new ArrayList<CIdentity>();
 	private Map<CIdentity, IRegenType> regenTypes = new HashMap<CIdentity, IRegenType>();
 	private InstanceIndexes indexes = new InstanceIndexes();
+	private InstanceCache instanceCache = new InstanceCache(0);
+	private MatchCache matchCache = new MatchCache(0);
 
 	private IStoreActiveRegenReport regenReport;
 	private InstanceRefIntegrityManager refIntegrityManager;
 
+	private StoreAccessLock accessLock = new StoreAccessLock(false);
+	private int matchThreads = 1;
+	private int startupThreads = 1;
+
+	private File mainDirectory;
+	private boolean matcherCheckpointsEnabled = false;
+	private MatcherCheckpoints checkpoints = null;
+
+	private IDiskStoreStartupTimings startupTimings = new IDiskStoreStartupTimings();
+
 	private class Initialiser {
 
+		private StoreStartupPool pool = new StoreStartupPool(startupThreads);
+
+		private class ReloadedInstance {
+
+			private IInstanceProfile profile;
+			private CIdentity identity;
+			private IMatcher matcher;
+
+			private boolean restored;
+
+			private IRegenInstance regen = null;
+			private IFrame matchInstance = null;
+
+			ReloadedInstance(IInstanceProfile profile) {
+
+				this.profile = profile;
+
+				identity = profile.getInstanceIdentity();
+				matcher = getMatcher(profile);
+				restored = restoredFromCheckpoint(matcher, identity);
+			}
+
+			ReloadedInstance parse() {
+
+				if (!restored) {
+
+					regen = load(identity, profile.getIndex(), false);
+
+					if (matchable()) {
+
+						matchInstance = createFreeCopy(regen.getRootFrame());
+					}
+				}
+
+				return this;
+			}
+
+			void register() {
+
+				int index = profile.getIndex();
+
+				indexes.assignIndex(identity, index);
+				identities.add(identity);
+				regenTypes.put(identity, createRegenType(profile.getTypeIdentity()));
+
+				refIntegrityManager.onReloadedInstance(identity, profile);
+
+				if (regen != null) {
+
+					logRegen(identity, regen);
+				}
+			}
+
+			boolean matchable() {
+
+				return regen != null && regen.getStatus() != IRegenStatus.FULLY_INVALID;
+			}
+		}
+
+		private class InstanceParser
+						extends
+							StoreStartupPool.Processor<ReloadedInstance, ReloadedInstance> {
+
+			ReloadedInstance process(ReloadedInstance input) {
+
+				return input.parse();
+			}
+		}
+
 		Initialiser(IMatcherConfig matcherConfig) {
 
-			initialiseMatchers(matcherConfig);
-			reloadInstances();
+			startupTimings = new IDiskStoreStartupTimings(startupThreads);
+
+			try {
+
+				initialiseMatchers(matcherConfig);
+				reloadInstances();
+			}
+			finally {
+
+				pool.stop();
+			}
 
 			indexes.reinitialiseFreeIndexes();
+			logFile.logStartupTimings(startupTimings);
 		}
 
 		private void initialiseMatchers(IMatcherConfig matcherConfig) {
 
+			long start = System.currentTimeMillis();
+
 			for (IMatcher matcher : matchers) {
 
 				matcher.initialise(matcherConfig);
 			}
 
 			defaultMatcher.initialise(matcherConfig);
+
+			startupTimings.addMatcherInitialisationMillis(getMillisSince(start));
 		}
 
 		private void reloadInstances() {
 
-			for (IInstanceProfile profile : serialiser.resolveStoredProfiles()) {
+			long start = System.currentTimeMillis();
+			List<IInstanceProfile> profiles = serialiser.resolveStoredProfiles(pool);
+
+			startupTimings.addProfileResolutionMillis(getMillisSince(start));
+			startupTimings.setInstanceCount(profiles.size());
+
+			if (checkpoints != null) {
 
-				reloadInstance(profile);
+				restoreCheckpoints(profiles);
+			}
+
+			restoreReferenceIndex(profiles);
+
+			for (int i = 0 ; i < profiles.size() ; i += STARTUP_BATCH_SIZE) {
+
+				int end = Math.min(i + STARTUP_BATCH_SIZE, profiles.size());
+
+				reloadInstances(profiles.subList(i, end));
 			}
 		}
 
-		private void reloadInstance(IInstanceProfile profile) {
+		private void reloadInstances(List<IInstanceProfile> profiles) {
+
+			long start = System.currentTimeMillis();
+			Map<IMatcher, List<ReloadedInstance>> matcherBatches
+							= new LinkedHashMap<IMatcher, List<ReloadedInstance>>();
 
-			CIdentity identity = profile.getInstanceIdentity();
-			IRegenType regenType = createRegenType(profile.getTypeIdentity());
-			int index = profile.getIndex();
+			for (ReloadedInstance reloaded : parseInstances(profiles)) {
 
-			indexes.assignIndex(identity, index);
-			identities.add(identity);
-			regenTypes.put(identity, regenType);
+				reloaded.register();
 
-			refIntegrityManager.onReloadedInstance(identity, profile);
+				if (reloaded.matchable()) {
 
-			IRegenInstance regen = load(identity, index, false);
+					addToMatcherBatch(matcherBatches, reloaded);
+				}
+			}
+
+			startupTimings.addInstanceParsingMillis(getMillisSince(start));
 
-			logRegen(identity, regen);
+			populateMatchers(matcherBatches);
+		}
 
-			if (regen.getStatus() != IRegenStatus.FULLY_INVALID) {
+		private void restoreCheckpoints(List<IInstanceProfile> profiles) {
 
-				addToMatcher(regen.getRootFrame(), identity);
+			long start = System.currentTimeMillis();
+			Map<CIdentity, IMatcher> currentMatchers = new HashMap<CIdentity, IMatcher>();
+
+			for (IInstanceProfile profile : profiles) {
+
+				currentMatchers.put(profile.getInstanceIdentity(), getMatcher(profile));
+			}
+
+			checkpoints.restore(getAllMatchers(), model, profiles, currentMatchers);
+
+			startupTimings.addCheckpointRestorationMillis(getMillisSince(start));
+		}
+
+		private void restoreReferenceIndex(List<IInstanceProfile> profiles) {
+
+			Set<CIdentity> instanceIds = new HashSet<CIdentity>();
+
+			for (IInstanceProfile profile : profiles) {
+
+				instanceIds.add(profile.getInstanceIdentity());
 			}
+
+			refIntegrityManager.restoreIndex(instanceIds);
+		}
+
+		private boolean restoredFromCheckpoint(IMatcher matcher, CIdentity identity) {
+
+			return checkpoints != null && checkpoints.restoredUnchanged(matcher, identity);
+		}
+
+		private IMatcher getMatcher(IInstanceProfile profile) {
+
+			return IDiskStore.this.getMatcher(model.getFrames().get(profile.getTypeIdentity()));
+		}
+
+		private List<ReloadedInstance> parseInstances(List<IInstanceProfile> profiles) {
+
+			List<ReloadedInstance> unparsed = new ArrayList<ReloadedInstance>();
+
+			for (IInstanceProfile profile : profiles) {
+
+				unparsed.add(new ReloadedInstance(profile));
+			}
+
+			return pool.processAll(unparsed, new InstanceParser());
+		}
+
+		private void addToMatcherBatch(
+						Map<IMatcher, List<ReloadedInstance>> matcherBatches,
+						ReloadedInstance reloaded) {
+
+			List<ReloadedInstance> batch = matcherBatches.get(reloaded.matcher);
+
+			if (batch == null) {
+
+				batch = new ArrayList<ReloadedInstance>();
+
+				matcherBatches.put(reloaded.matcher, batch);
+			}
+
+			batch.add(reloaded);
+		}
+
+		private void populateMatchers(Map<IMatcher, List<ReloadedInstance>> matcherBatches) {
+
+			long start = System.currentTimeMillis();
+
+			for (IMatcher matcher : matcherBatches.keySet()) {
+
+				populateMatcher(matcher, matcherBatches.get(matcher));
+			}
+
+			startupTimings.addMatcherPopulationMillis(getMillisSince(start));
+		}
+
+		private void populateMatcher(IMatcher matcher, List<ReloadedInstance> batch) {
+
+			IBatchMatcher batchMatcher = toBatchMatcherOrNull(matcher);
+
+			if (batchMatcher != null) {
+
+				batchMatcher.startBatch();
+			}
+
+			try {
+
+				for (ReloadedInstance reloaded : batch) {
+
+					matcher.add(reloaded.matchInstance, reloaded.identity);
+				}
+			}
+			finally {
+
+				if (batchMatcher != null) {
+
+					batchMatcher.endBatch();
+				}
+			}
+		}
+
+		private IBatchMatcher toBatchMatcherOrNull(IMatcher matcher) {
+
+			return matcher instanceof IBatchMatcher ? (IBatchMatcher)matcher : null;
 		}
 
 		private void logRegen(CIdentity identity, IRegenInstance regen) {
@@ -118,61 +337,259 @@ class IDiskStore implements IStore {
 					break;
 			}
 		}
+
+		private long getMillisSince(long start) {
+
+			return System.currentTimeMillis() - start;
+		}
 	}
 
-	public synchronized IFrame add(IFrame instance, CIdentity identity) {
+	private class BatchUpdater {
 
-		IFrame previous = removePreIntegrityUpdates(identity);
+		private List<IBatchMatcher> batchMatchers = new ArrayList<IBatchMatcher>();
 
-		addPreIntegrityUpdates(instance, identity, indexes.assignIndex(identity));
-		refIntegrityManager.onAddedInstance(instance, identity);
+		BatchUpdater(Collection<CIdentity> batchIds) {
+
+			if (checkpoints != null) {
+
+				checkpoints.startBatch(batchIds);
+			}
+
+			for (IMatcher matcher : getAllMatchers()) {
+
+				if (matcher instanceof IBatchMatcher) {
+
+					batchMatchers.add((IBatchMatcher)matcher);
+				}
+			}
+		}
+
+		List<CIdentity> addAll(Map<CIdentity, IFrame> instances) {
+
+			startBatch();
+
+			try {
+
+				List<CIdentity> replaceds = removeAllPreIntegrityUpdates(instances.keySet());
+
+				for (Map.Entry<CIdentity, IFrame> entry : instances.entrySet()) {
+
+					CIdentity identity = entry.getKey();
+
+					addPreIntegrityUpdates(entry.getValue(), identity, indexes.assignIndex(identity));
+				}
+
+				return replaceds;
+			}
+			finally {
+
+				endBatch();
+			}
+		}
+
+		List<CIdentity> removeAll(Collection<CIdentity> identities) {
+
+			List<CIdentity> removeds = null;
+
+			startBatch();
+
+			try {
+
+				removeds = removeAllPreIntegrityUpdates(identities);
+			}
+			finally {
+
+				endBatch();
+			}
+
+			refIntegrityManager.onRemovedInstances(removeds);
+
+			return removeds;
+		}
+
+		void rewriteAll(Map<CIdentity, IFrame> instances) {
+
+			startBatch();
+
+			try {
+
+				for (Map.Entry<CIdentity, IFrame> entry : instances.entrySet()) {
+
+					rewrite(entry.getValue(), entry.getKey());
+				}
+			}
+			finally {
+
+				endBatch();
+			}
+		}
+
+		private List<CIdentity> removeAllPreIntegrityUpdates(Collection<CIdentity> batchIds) {
+
+			List<CIdentity> removeds = new ArrayList<CIdentity>();
+
+			for (CIdentity identity : batchIds) {
+
+				if (indexes.hasIndex(identity)) {
+
+					removeWithoutRegen(identity, indexes.freeIndex(identity));
+					removeds.add(identity);
+				}
+			}
+
+			if (!removeds.isEmpty()) {
 
-		return previous;
+				identities.removeAll(new HashSet<CIdentity>(removeds));
+			}
+
+			return removeds;
+		}
+
+		private void removeWithoutRegen(CIdentity identity, int index) {
+
+			IRegenType regenType = regenTypes.remove(identity);
+
+			checkRecordChange(identity);
+
+			serialiser.remove(index);
+			instanceCache.remove(index);
+
+			if (regenType.validRootType()) {
+
+				removeFromMatcher(regenType.getRootType(), identity);
+			}
+		}
+
+		private void startBatch() {
+
+			for (IBatchMatcher matcher : batchMatchers) {
+
+				matcher.startBatch();
+			}
+		}
+
+		private void endBatch() {
+
+			for (IBatchMatcher matcher : batchMatchers) {
+
+				matcher.endBatch();
+			}
+
+			if (checkpoints != null) {
+
+				checkpoints.endBatch();
+			}
+		}
 	}
 
-	public synchronized boolean rename(CIdentity identity, CIdentity newIdentity) {
+	public IFrame add(IFrame instance, CIdentity identity) {
 
-		int index = indexes.getIndex(identity);
-		IFrame instance = removePreIntegrityUpdates(identity, index);
+		accessLock.startWrite();
 
-		if (instance != null) {
+		try {
 
-			indexes.reassignIndex(newIdentity, index);
+			refIntegrityManager.applyPendingUpdates();
 
-			addPreIntegrityUpdates(instance, newIdentity, index);
-			refIntegrityManager.onRenamedInstance(instance, identity, newIdentity);
+			IFrame previous = removePreIntegrityUpdates(identity);
 
-			return true;
+			addPreIntegrityUpdates(instance, identity, indexes.assignIndex(identity));
+			refIntegrityManager.onAddedInstance(instance, identity);
+
+			return previous;
 		}
+		finally {
 
-		return false;
+			accessLock.endWrite();
+		}
 	}
 
-	public synchronized boolean remove(CIdentity identity) {
+	public List<CIdentity> addAll(Map<CIdentity, IFrame> instances) {
 
-		if (removePreIntegrityUpdates(identity) != null) {
+		accessLock.startWrite();
 
-			refIntegrityManager.onRemovedInstance(identity);
+		try {
 
-			return true;
+			refIntegrityManager.applyPendingUpdates();
+
+			return new BatchUpdater(instances.keySet()).addAll(instances);
 		}
+		finally {
 
-		return false;
+			accessLock.endWrite();
+		}
 	}
 
-	public synchronized boolean clear() {
+	public boolean rename(CIdentity identity, CIdentity newIdentity) {
 
-		if (identities.isEmpty()) {
+		accessLock.startWrite();
 
-			return false;
+		try {
+
+			refIntegrityManager.applyPendingUpdates();
+
+			return renameInstance(identity, newIdentity);
+		}
+		finally {
+
+			accessLock.endWrite();
+		}
+	}
+
+	public boolean remove(CIdentity identity) {
+
+		accessLock.startWrite();
+
+		try {
+
+			refIntegrityManager.applyPendingUpdates();
+
+			return removeInstance(identity);
+		}
+		finally {
+
+			accessLock.endWrite();
 		}
+	}
+
+	public List<CIdentity> removeAll(Collection<CIdentity> identities) {
+
+		accessLock.startWrite();
+
+		try {
 
-		for (CIdentity identity : getAllIdentities()) {
+			refIntegrityManager.applyPendingUpdates();
 
-			remove(identity);
+			return new BatchUpdater(identities).removeAll(identities);
 		}
+		finally {
 
-		return true;
+			accessLock.endWrite();
+		}
+	}
+
+	public boolean clear() {
+
+		accessLock.startWrite();
+
+		try {
+
+			refIntegrityManager.applyPendingUpdates();
+
+			if (identities.isEmpty()) {
+
+				return false;
+			}
+
+			List<CIdentity> allIds = new ArrayList<CIdentity>(identities);
+
+			new BatchUpdater(allIds).removeAll(allIds);
+
+			return true;
+		}
+		finally {
+
+			accessLock.endWrite();
+		}
 	}
 
 	public CModel getModel() {
@@ -185,38 +602,126 @@ class IDiskStore implements IStore {
 		return regenReport;
 	}
 
-	public synchronized boolean contains(CIdentity identity) {
+	public boolean contains(CIdentity identity) {
+
+		accessLock.startRead();
 
-		return indexes.hasIndex(identity);
+		try {
+
+			return indexes.hasIndex(identity);
+		}
+		finally {
+
+			accessLock.endRead();
+		}
 	}
 
-	public synchronized IRegenType getType(CIdentity identity) {
+	public IRegenType getType(CIdentity identity) {
+
+		accessLock.startRead();
+
+		try {
 
-		return regenTypes.get(identity);
+			return regenTypes.get(identity);
+		}
+		finally {
+
+			accessLock.endRead();
+		}
 	}
 
-	public synchronized IRegenInstance get(CIdentity identity) {
+	public IRegenInstance get(CIdentity identity) {
+
+		checkApplyPendingReferenceUpdates();
+
+		accessLock.startRead();
+
+		try {
+
+			return indexes.hasIndex(identity) ? load(identity, false) : null;
+		}
+		finally {
 
-		return indexes.hasIndex(identity) ? load(identity, false) : null;
+			accessLock.endRead();
+		}
 	}
 
-	public synchronized List<CIdentity> getAllIdentities() {
+	public List<CIdentity> getAllIdentities() {
+
+		accessLock.startRead();
+
+		try {
 
-		return new ArrayList<CIdentity>(identities);
+			return new ArrayList<CIdentity>(identities);
+		}
+		finally {
+
+			accessLock.endRead();
+		}
 	}
 
-	public synchronized IMatches match(IFrame query) {
+	public IMatches match(IFrame query) {
 
 		query = createFreeCopy(query);
 
-		IMatches matches = getMatcher(query).match(query);
+		checkApplyPendingReferenceUpdates();
 
-		indexes.ensureOriginalLabelsInMatches(matches);
+		accessLock.startRead();
 
-		return matches;
+		try {
+
+			IMatcher matcher = getMatcher(query);
+			IMatches matches = matchCache.getOrNull(query);
+
+			if (matches == null) {
+
+				matches = matcher.match(query);
+
+				indexes.ensureOriginalLabelsInMatches(matches);
+				matchCache.add(matcher, query, matches);
+			}
+
+			return matches;
+		}
+		finally {
+
+			accessLock.endRead();
+		}
 	}
 
-	public synchronized boolean matches(IFrame query, IFrame instance) {
+	public IMatches match(IFrame query, IMatchesRange range) {
+
+		query = createFreeCopy(query);
+
+		checkApplyPendingReferenceUpdates();
+
+		accessLock.startRead();
+
+		try {
+
+			IMatcher matcher = getMatcher(query);
+			IMatches matches = matchCache.getOrNull(query);
+
+			if (matches != null) {
+
+				matches = IMatchesRangeSelector.select(matches, range);
+			}
+			else {
+
+				matches = matchRange(matcher, query, range);
+			}
+
+			indexes.ensureOriginalLabelsInMatches(matches);
+
+			return matches;
+		}
+		finally {
+
+			accessLock.endRead();
+		}
+	}
+
+	public boolean matches(IFrame query, IFrame instance) {
 
 		query = createFreeCopy(query);
 		instance = createFreeCopy(instance);
@@ -228,7 +733,16 @@ class IDiskStore implements IStore {
 			return false;
 		}
 
-		return matcher.matches(query, instance);
+		accessLock.startRead();
+
+		try {
+
+			return matcher.matches(query, instance);
+		}
+		finally {
+
+			accessLock.endRead();
+		}
 	}
 
 	IDiskStore(CModel model) {
@@ -240,10 +754,46 @@ class IDiskStore implements IStore {
 
 		this.model = model;
 
-		serialiser = new StoreSerialiser(model, structure);
-		logFile = new LogFile(structure.getMainDirectory());
+		mainDirectory = structure.getMainDirectory();
+		serialiser = StoreSerialiser.create(model, structure);
+		logFile = new LogFile(mainDirectory);
 		regenReport = new IStoreActiveRegenReport(logFile.getFile());
-		refIntegrityManager = new InstanceRefIntegrityManager(this);
+		refIntegrityManager = new InstanceRefIntegrityManager(this, mainDirectory);
+	}
+
+	void setConcurrentReads(boolean concurrentReads) {
+
+		accessLock = new StoreAccessLock(concurrentReads);
+	}
+
+	void setInstanceCacheSize(int cacheSize) {
+
+		instanceCache = new InstanceCache(Math.max(cacheSize, 0));
+	}
+
+	void setMatchCacheSize(int cacheSize) {
+
+		matchCache = new MatchCache(Math.max(cacheSize, 0));
+	}
+
+	void setMatchThreads(int matchThreads) {
+
+		this.matchThreads = Math.max(matchThreads, 1);
+	}
+
+	void setStartupThreads(int startupThreads) {
+
+		this.startupThreads = Math.max(startupThreads, 1);
+	}
+
+	void setMatcherCheckpoints(boolean enabled) {
+
+		matcherCheckpointsEnabled = enabled;
+	}
+
+	void setBackgroundReferenceUpdates(boolean backgroundUpdates) {
+
+		refIntegrityManager.setBackgroundUpdates(backgroundUpdates);
 	}
 
 	void addMatchers(Collection<IMatcher> matchers) {
@@ -263,49 +813,157 @@ class IDiskStore implements IStore {
 
 	void initialisePostRegistration(List<IValueMatchCustomiser> valueMatchCustomisers) {
 
-		new Initialiser(new IMatcherConfig(this, indexes, valueMatchCustomisers));
+		if (matcherCheckpointsEnabled) {
+
+			checkpoints = new MatcherCheckpoints(mainDirectory);
+		}
+		else {
+
+			MatcherCheckpoints.clear(mainDirectory);
+		}
+
+		new Initialiser(new IMatcherConfig(this, indexes, valueMatchCustomisers, matchThreads));
 	}
 
 	void stop() {
 
+		refIntegrityManager.stop();
+		applyPendingReferenceUpdates();
+		refIntegrityManager.saveIndex(identities.size());
+
+		if (checkpoints != null) {
+
+			checkpoints.write(getAllMatchers(), getMatcherIdentities());
+		}
+
 		for (IMatcher matcher : matchers) {
 
 			matcher.stop();
 		}
 
 		matchers.clear();
+		defaultMatcher.stop();
+		serialiser.stop();
 	}
 
-	void update(IFrame instance, CIdentity identity) {
+	void rewriteReferences(Map<CIdentity, IFrame> instances) {
 
-		int index = indexes.getIndex(identity);
+		new BatchUpdater(instances.keySet()).rewriteAll(instances);
+	}
 
-		removeFromMatcher(instance, identity);
+	void applyPendingReferenceUpdates() {
 
-		serialiser.remove(index);
-		serialiser.write(instance, identity, index);
+		accessLock.startWrite();
 
-		addToMatcher(instance, identity);
+		try {
+
+			refIntegrityManager.applyPendingUpdates();
+		}
+		finally {
+
+			accessLock.endWrite();
+		}
 	}
 
 	IFrame regenOrNull(CIdentity identity, boolean freeInstance) {
 
 		Integer index = indexes.getIndexOrNull(identity);
 
-		return index != null ? regenOrNull(identity, index, freeInstance) : null;
+		if (index == null) {
+
+			return null;
+		}
+
+		return freeInstance
+				? regenFreeOrNull(identity, index)
+				: regenOrNull(identity, index, false);
+	}
+
+	IDiskStoreCacheStats getInstanceCacheStats() {
+
+		return instanceCache.getStats();
+	}
+
+	IDiskStoreCacheStats getMatchCacheStats() {
+
+		return matchCache.getStats();
+	}
+
+	IDiskStoreStartupTimings getStartupTimings() {
+
+		return startupTimings;
+	}
+
+	private boolean renameInstance(CIdentity identity, CIdentity newIdentity) {
+
+		int index = indexes.getIndex(identity);
+		IFrame instance = removePreIntegrityUpdates(identity, index);
+
+		if (instance != null) {
+
+			indexes.reassignIndex(newIdentity, index);
+
+			addPreIntegrityUpdates(instance, newIdentity, index);
+			refIntegrityManager.onRenamedInstance(identity, newIdentity);
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private boolean removeInstance(CIdentity identity) {
+
+		if (removePreIntegrityUpdates(identity) != null) {
+
+			refIntegrityManager.onRemovedInstance(identity);
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private void checkApplyPendingReferenceUpdates() {
+
+		// Nested reads (e.g. from matchers expanding references) are
+		// already inside a read, so cannot upgrade to the write lock
+
+		if (refIntegrityManager.updatesPending()
+			&& !accessLock.readHeldByCurrentThread()) {
+
+			applyPendingReferenceUpdates();
+		}
 	}
 
 	private void addPreIntegrityUpdates(IFrame instance, CIdentity identity, int index) {
 
+		checkRecordChange(identity);
+
 		identities.add(identity);
 		addRegenType(instance, identity);
 		serialiser.write(instance, identity, index);
+		instanceCache.remove(index);
 
 		addToMatcher(instance, identity);
 
 		refIntegrityManager.onAddedInstance(instance, identity);
 	}
 
+	private void rewrite(IFrame instance, CIdentity identity) {
+
+		int index = indexes.getIndex(identity);
+
+		checkRecordChange(identity);
+
+		removeFromMatcher(instance, identity);
+
+		serialiser.rewrite(instance, identity, index);
+		instanceCache.remove(index);
+
+		addToMatcher(instance, identity);
+	}
+
 	private IFrame removePreIntegrityUpdates(CIdentity identity) {
 
 		if (indexes.hasIndex(identity)) {
@@ -318,11 +976,14 @@ class IDiskStore implements IStore {
 
 	private IFrame removePreIntegrityUpdates(CIdentity identity, int index) {
 
+		checkRecordChange(identity);
+
 		IFrame instance = regenOrNull(identity, index, false);
 
 		identities.remove(identity);
 		regenTypes.remove(identity);
 		serialiser.remove(index);
+		instanceCache.remove(index);
 
 		if (instance != null) {
 
@@ -332,6 +993,23 @@ class IDiskStore implements IStore {
 		return instance;
 	}
 
+	private IFrame regenFreeOrNull(CIdentity identity, int index) {
+
+		IFrame instance = instanceCache.getOrNull(index);
+
+		if (instance == null) {
+
+			instance = regenOrNull(identity, index, true);
+
+			if (instance != null) {
+
+				instanceCache.add(index, instance);
+			}
+		}
+
+		return instance;
+	}
+
 	private IFrame regenOrNull(CIdentity identity, int index, boolean freeInstance) {
 
 		IRegenInstance regen = load(identity, index, freeInstance);
@@ -354,14 +1032,69 @@ class IDiskStore implements IStore {
 		return serialiser.read(identity, index, freeInstance);
 	}
 
+	private IMatches matchRange(IMatcher matcher, IFrame query, IMatchesRange range) {
+
+		if (matcher instanceof IRangeMatcher) {
+
+			return ((IRangeMatcher)matcher).match(query, range);
+		}
+
+		return IMatchesRangeSelector.select(matcher.match(query), range);
+	}
+
 	private void addToMatcher(IFrame instance, CIdentity identity) {
 
-		getMatcher(instance).add(createFreeCopy(instance), identity);
+		IMatcher matcher = getMatcher(instance);
+
+		matcher.add(createFreeCopy(instance), identity);
+		matchCache.onUpdate(matcher, instance.getType(), identity);
 	}
 
 	private void removeFromMatcher(IFrame instance, CIdentity identity) {
 
-		getMatcher(instance).remove(identity);
+		removeFromMatcher(instance.getType(), identity);
+	}
+
+	private void removeFromMatcher(CFrame rootType, CIdentity identity) {
+
+		IMatcher matcher = getMatcher(rootType);
+
+		matcher.remove(identity);
+		matchCache.onUpdate(matcher, rootType, identity);
+	}
+
+	private void checkRecordChange(CIdentity identity) {
+
+		if (checkpoints != null) {
+
+			checkpoints.recordChange(identity);
+		}
+	}
+
+	private List<IMatcher> getAllMatchers() {
+
+		List<IMatcher> allMatchers = new ArrayList<IMatcher>(matchers);
+
+		allMatchers.add(defaultMatcher);
+
+		return allMatchers;
+	}
+
+	private KListMap<IMatcher, CIdentity> getMatcherIdentities() {
+
+		KListMap<IMatcher, CIdentity> matcherIds = new KListMap<IMatcher, CIdentity>();
+
+		for (CIdentity identity : identities) {
+
+			IRegenType regenType = regenTypes.get(identity);
+
+			if (regenType.validRootType()) {
+
+				matcherIds.add(getMatcher(regenType.getRootType()), identity);
+			}
+		}
+
+		return matcherIds;
 	}
 
 	private IMatcher getMatcher(IFrame frame) {
@@ -53,6 +53,14 @@ public class IDiskStoreBuilder {
 	private List<IValueMatchCustomiser> valueMatchCustomisers
 							= new ArrayList<IValueMatchCustomiser>();
 
+	private boolean concurrentReads = false;
+	private int matchThreads = 1;
+	private int startupThreads = 1;
+	private boolean matcherCheckpoints = false;
+	private boolean backgroundReferenceUpdates = false;
+	private int instanceCacheSize = 0;
+	private int matchCacheSize = 0;
+
 	/**
 	 * Sets the directory for instance-store serialisation.
 	 * Defaults to the default-named directory within the current
@@ -77,6 +85,28 @@ public class IDiskStoreBuilder {
 		structureBldr.setDefaultNamedMainDirectory(parentDir);
 	}
 
+	/**
+	 * Sets the way in which the serialised instances are to be laid
+	 * out on disk. Defaults to {@link IDiskStoreLayout#INSTANCE_FILES}.
+	 *
+	 * @param layout Relevant serialisation layout
+	 */
+	public void setLayout(IDiskStoreLayout layout) {
+
+		structureBldr.setLayout(layout);
+	}
+
+	/**
+	 * Sets the format in which instances are to be serialised.
+	 * Defaults to {@link IDiskStoreFormat#XML}.
+	 *
+	 * @param format Relevant serialisation format
+	 */
+	public void setInstanceFormat(IDiskStoreFormat format) {
+
+		structureBldr.setFormat(format);
+	}
+
 	/**
 	 * Adds a sub-component of the main instance-store, within
 	 * which instances of the specified types will be stored.
@@ -179,6 +209,126 @@ public class IDiskStoreBuilder {
 		valueMatchCustomisers.add(customiser);
 	}
 
+	/**
+	 * Specifies whether the read-only store operations (retrieval,
+	 * containment checks and query matching) are to be allowed to
+	 * run concurrently with one another, with only the operations
+	 * that modify the store requiring exclusive access. Defaults to
+	 * false, in which case all operations are mutually exclusive.
+	 * <p>
+	 * Should only be set if any registered matchers, and the
+	 * reasoning mechanisms for the model, can safely handle concurrent
+	 * query-matching and instance-regeneration requests.
+	 *
+	 * @param concurrentReads True if read-only operations are to be
+	 * allowed to run concurrently
+	 */
+	public void setConcurrentReads(boolean concurrentReads) {
+
+		this.concurrentReads = concurrentReads;
+	}
+
+	/**
+	 * Sets the number of threads over which matchers that support
+	 * parallel query evaluation should distribute the processing of
+	 * each query. Defaults to 1, in which case all queries will be
+	 * evaluated serially.
+	 *
+	 * @param matchThreads Number of threads for evaluation of each
+	 * query
+	 */
+	public void setMatchThreads(int matchThreads) {
+
+		this.matchThreads = matchThreads;
+	}
+
+	/**
+	 * Sets the number of threads over which the reading and parsing
+	 * of the stored instance-profiles and instances should be
+	 * distributed when the store is built. Instances are always
+	 * registered with the store, and added to the matchers, in a
+	 * fixed order, irrespective of the number of threads. Defaults
+	 * to 1, in which case all instances will be reloaded serially.
+	 * Should only be set to a greater value if the model can safely
+	 * handle concurrent instance-regeneration requests.
+	 *
+	 * @param startupThreads Number of threads for reloading of
+	 * stored instances
+	 */
+	public void setStartupThreads(int startupThreads) {
+
+		this.startupThreads = startupThreads;
+	}
+
+	/**
+	 * Specifies whether any registered matchers that implement
+	 * {@link ICheckpointMatcher} should persist their internal index
+	 * state when the store is stopped, and restore it on the next
+	 * start-up, so that only those stored instances that have changed
+	 * in the interim need to be re-added to them. Instances that are
+	 * restored in this manner are not re-parsed at start-up, and
+	 * hence will not be included in the regeneration report. Any
+	 * checkpoint is ignored if the model has changed since it was
+	 * taken. Defaults to false.
+	 *
+	 * @param matcherCheckpoints True if matcher checkpoints are to
+	 * be used
+	 */
+	public void setMatcherCheckpoints(boolean matcherCheckpoints) {
+
+		this.matcherCheckpoints = matcherCheckpoints;
+	}
+
+	/**
+	 * Specifies whether the updates to referencing instances that
+	 * are required to maintain referential integrity when stored
+	 * instances are removed or renamed, should be applied by a
+	 * background thread, rather than before the relevant remove or
+	 * rename operation returns. Any outstanding updates are applied
+	 * before any subsequent store operation that could observe them,
+	 * so that clients always see the results of their own updates.
+	 * Defaults to false.
+	 *
+	 * @param backgroundReferenceUpdates True if referential-integrity
+	 * updates are to be applied in the background
+	 */
+	public void setBackgroundReferenceUpdates(boolean backgroundReferenceUpdates) {
+
+		this.backgroundReferenceUpdates = backgroundReferenceUpdates;
+	}
+
+	/**
+	 * Sets the maximum number of regenerated instances to be held
+	 * in the store's cache, which is used when instances are required
+	 * for internal store operations, such as the expansion of instance
+	 * references during query matching. The least-recently-used cached
+	 * instance is discarded when the limit is exceeded. Defaults to
+	 * 0, in which case no caching is performed.
+	 *
+	 * @param instanceCacheSize Maximum number of cached instances
+	 */
+	public void setInstanceCacheSize(int instanceCacheSize) {
+
+		this.instanceCacheSize = instanceCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of query-match results to be held in
+	 * the store's match-cache. Queries are identified via their
+	 * recursive structures, so that a repeated query will be
+	 * satisfied from the cache, as long as no instance that could
+	 * affect the results has since been added, removed or updated.
+	 * The least-recently-used cached result is discarded when the
+	 * limit is exceeded. Defaults to 0, in which case no caching is
+	 * performed.
+	 *
+	 * @param matchCacheSize Maximum number of cached match results
+	 */
+	public void setMatchCacheSize(int matchCacheSize) {
+
+		this.matchCacheSize = matchCacheSize;
+	}
+
 	/**
 	 * Provides the directory for instance-store serialisation.
 	 *
@@ -211,6 +361,13 @@ public class IDiskStoreBuilder {
 
 		StoreRegister.add(store);
 
+		store.setConcurrentReads(concurrentReads);
+		store.setMatchThreads(matchThreads);
+		store.setStartupThreads(startupThreads);
+		store.setMatcherCheckpoints(matcherCheckpoints);
+		store.setBackgroundReferenceUpdates(backgroundReferenceUpdates);
+		store.setInstanceCacheSize(instanceCacheSize);
+		store.setMatchCacheSize(matchCacheSize);
 		store.addMatchers(matchers);
 		store.initialisePostRegistration(valueMatchCustomisers);
 
@@ -221,4 +378,14 @@ public class IDiskStoreBuilder {
 
 		this.model = model;
 	}
+
+	CModel getModel() {
+
+		return model;
+	}
+
+	StoreStructure buildStructure(IDiskStoreFormat format) {
+
+		return structureBldr.build(model, format);
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+/**
+ * Provides a snapshot of the usage statistics for one of the caches
+ * maintained by a disk-based instance-store, which will be either
+ * the cache of regenerated instances or the cache of query-match
+ * results.
+ *
+ * @author Colin Puleston
+ */
+public class IDiskStoreCacheStats {
+
+	private long hits;
+	private long misses;
+	private int size;
+	private int capacity;
+
+	/**
+	 * Provides the number of retrievals that were satisfied by the
+	 * cache.
+	 *
+	 * @return Number of cache hits
+	 */
+	public long getHits() {
+
+		return hits;
+	}
+
+	/**
+	 * Provides the number of retrievals that could not be satisfied
+	 * by the cache, and hence required the instance to be regenerated
+	 * from disk, or the query to be matched.
+	 *
+	 * @return Number of cache misses
+	 */
+	public long getMisses() {
+
+		return misses;
+	}
+
+	/**
+	 * Provides the proportion of retrievals that were satisfied by
+	 * the cache.
+	 *
+	 * @return Cache hit-ratio, or zero if no retrievals have
+	 * occurred
+	 */
+	public double getHitRatio() {
+
+		long total = hits + misses;
+
+		return total == 0 ? 0 : (double)hits / total;
+	}
+
+	/**
+	 * Provides the number of entries currently held in the cache.
+	 *
+	 * @return Current size of cache
+	 */
+	public int getSize() {
+
+		return size;
+	}
+
+	/**
+	 * Provides the maximum number of entries that can be held in
+	 * the cache.
+	 *
+	 * @return Capacity of cache, with zero indicating that caching
+	 * is disabled
+	 */
+	public int getCapacity() {
+
+		return capacity;
+	}
+
+	IDiskStoreCacheStats(long hits, long misses, int size, int capacity) {
+
+		this.hits = hits;
+		this.misses = misses;
+		this.size = size;
+		this.capacity = capacity;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.*;
+
+/**
+ * Converts the instances in an existing disk-based instance-store
+ * to a specified serialisation format. The store-structure is taken
+ * from the supplied store-builder, which should be configured in the
+ * same way as it would be for the building of the store itself. The
+ * conversion should only be performed whilst the store is not in use.
+ * <p>
+ * Only instances that can be fully regenerated from their existing
+ * serialisations will be converted. Any others are left in their
+ * original format, which will still be readable by the store.
+ *
+ * @author Colin Puleston
+ */
+public class IDiskStoreFormatConverter {
+
+	private CModel model;
+	private IDiskStoreBuilder storeBuilder;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param storeBuilder Builder that specifies structure of store
+	 * to be converted
+	 */
+	public IDiskStoreFormatConverter(IDiskStoreBuilder storeBuilder) {
+
+		this.storeBuilder = storeBuilder;
+
+		model = storeBuilder.getModel();
+	}
+
+	/**
+	 * Converts all stored instances to the specified format.
+	 *
+	 * @param format Required serialisation format
+	 * @return Number of instances that were converted
+	 */
+	public int convert(IDiskStoreFormat format) {
+
+		StoreSerialiser serialiser = createSerialiser(format);
+		int converted = 0;
+
+		try {
+
+			for (IInstanceProfile profile : serialiser.resolveStoredProfiles()) {
+
+				if (convert(serialiser, profile)) {
+
+					converted++;
+				}
+			}
+		}
+		finally {
+
+			serialiser.stop();
+		}
+
+		return converted;
+	}
+
+	private StoreSerialiser createSerialiser(IDiskStoreFormat format) {
+
+		return StoreSerialiser.create(model, storeBuilder.buildStructure(format));
+	}
+
+	private boolean convert(StoreSerialiser serialiser, IInstanceProfile profile) {
+
+		CIdentity identity = profile.getInstanceIdentity();
+		int index = profile.getIndex();
+
+		IRegenInstance regen = serialiser.read(identity, index, false);
+
+		if (regen.getStatus() != IRegenStatus.FULLY_VALID) {
+
+			return false;
+		}
+
+		serialiser.remove(index);
+		serialiser.write(regen.getRootFrame(), identity, index);
+
+		return true;
+	}
+}
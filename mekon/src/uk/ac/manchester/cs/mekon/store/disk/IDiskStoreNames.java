@@ -38,6 +38,18 @@ public interface IDiskStoreNames {
 	static public final String PROFILE_FILE_PREFIX = "PROFILE-";
 	static public final String INSTANCE_FILE_PREFIX = "INSTANCE-";
 	static public final String STORE_FILE_SUFFIX = ".xml";
+	static public final String BINARY_FILE_SUFFIX = ".bin";
+
+	static public final String SEGMENT_FILE_PREFIX = "SEGMENT-";
+	static public final String SEGMENT_FILE_SUFFIX = ".dat";
+
+	static public final String CHECKPOINTS_DIR_NAME = "CHECKPOINTS";
+	static public final String CHECKPOINT_DIR_PREFIX = "MATCHER-";
+	static public final String CHECKPOINT_DATA_DIR_NAME = "DATA";
+	static public final String CHECKPOINT_FILE_NAME = "CHECKPOINT.dat";
+	static public final String CHECKPOINT_CHANGES_FILE_NAME = "CHANGES.dat";
+
+	static public final String REFERENCE_INDEX_FILE_NAME = "REFERENCE-INDEX.dat";
 
 	static String queriesSubDirName(String subStoreName) {
 
@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+/**
+ * Provides the times taken by each of the phases involved in the
+ * start-up of a disk-based instance-store, during which the stored
+ * instances are reloaded and used to populate the relevant matchers.
+ *
+ * @author Colin Puleston
+ */
+public class IDiskStoreStartupTimings {
+
+	private int startupThreads = 1;
+	private int instanceCount = 0;
+
+	private long matcherInitialisationMillis = 0;
+	private long profileResolutionMillis = 0;
+	private long checkpointRestorationMillis = 0;
+	private long instanceParsingMillis = 0;
+	private long matcherPopulationMillis = 0;
+
+	/**
+	 * Provides the number of threads over which instance reloading
+	 * was distributed.
+	 *
+	 * @return Number of start-up threads
+	 */
+	public int getStartupThreads() {
+
+		return startupThreads;
+	}
+
+	/**
+	 * Provides the number of instances that were reloaded.
+	 *
+	 * @return Number of reloaded instances
+	 */
+	public int getInstanceCount() {
+
+		return instanceCount;
+	}
+
+	/**
+	 * Provides the time taken to initialise the matchers.
+	 *
+	 * @return Matcher-initialisation time in milliseconds
+	 */
+	public long getMatcherInitialisationMillis() {
+
+		return matcherInitialisationMillis;
+	}
+
+	/**
+	 * Provides the time taken to read and resolve the stored
+	 * instance-profiles.
+	 *
+	 * @return Profile-resolution time in milliseconds
+	 */
+	public long getProfileResolutionMillis() {
+
+		return profileResolutionMillis;
+	}
+
+	/**
+	 * Provides the time taken to restore any matcher checkpoints
+	 * (see {@link ICheckpointMatcher}).
+	 *
+	 * @return Checkpoint-restoration time in milliseconds
+	 */
+	public long getCheckpointRestorationMillis() {
+
+		return checkpointRestorationMillis;
+	}
+
+	/**
+	 * Provides the time taken to parse the stored instances, which
+	 * will include the time taken to produce the associated
+	 * regeneration reports.
+	 *
+	 * @return Instance-parsing time in milliseconds
+	 */
+	public long getInstanceParsingMillis() {
+
+		return instanceParsingMillis;
+	}
+
+	/**
+	 * Provides the time taken to add the reloaded instances to the
+	 * relevant matchers.
+	 *
+	 * @return Matcher-population time in milliseconds
+	 */
+	public long getMatcherPopulationMillis() {
+
+		return matcherPopulationMillis;
+	}
+
+	/**
+	 * Provides the total time taken by all start-up phases.
+	 *
+	 * @return Total start-up time in milliseconds
+	 */
+	public long getTotalMillis() {
+
+		return matcherInitialisationMillis
+				+ profileResolutionMillis
+				+ checkpointRestorationMillis
+				+ instanceParsingMillis
+				+ matcherPopulationMillis;
+	}
+
+	/**
+	 * Provides a description of the start-up timings.
+	 *
+	 * @return Description of timings
+	 */
+	public String toString() {
+
+		return "instances: " + instanceCount
+				+ ", threads: " + startupThreads
+				+ ", matcher-initialisation: " + matcherInitialisationMillis + "ms"
+				+ ", profile-resolution: " + profileResolutionMillis + "ms"
+				+ ", checkpoint-restoration: " + checkpointRestorationMillis + "ms"
+				+ ", instance-parsing: " + instanceParsingMillis + "ms"
+				+ ", matcher-population: " + matcherPopulationMillis + "ms"
+				+ ", total: " + getTotalMillis() + "ms";
+	}
+
+	IDiskStoreStartupTimings() {
+	}
+
+	IDiskStoreStartupTimings(int startupThreads) {
+
+		this.startupThreads = startupThreads;
+	}
+
+	void setInstanceCount(int instanceCount) {
+
+		this.instanceCount = instanceCount;
+	}
+
+	void addMatcherInitialisationMillis(long millis) {
+
+		matcherInitialisationMillis += millis;
+	}
+
+	void addProfileResolutionMillis(long millis) {
+
+		profileResolutionMillis += millis;
+	}
+
+	void addCheckpointRestorationMillis(long millis) {
+
+		checkpointRestorationMillis += millis;
+	}
+
+	void addInstanceParsingMillis(long millis) {
+
+		instanceParsingMillis += millis;
+	}
+
+	void addMatcherPopulationMillis(long millis) {
+
+		matcherPopulationMillis += millis;
+	}
+}
@@ -27,6 +27,7 @@ package uk.ac.manchester.cs.mekon.store.disk;
 import java.util.*;
 
 import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
 import uk.ac.manchester.cs.mekon.store.*;
 
 /**
@@ -37,9 +38,10 @@ import uk.ac.manchester.cs.mekon.store.*;
  */
 public class IMatcherConfig {
 
-	private IStore store;
+	private IDiskStore store;
 	private List<IValueMatchCustomiser> valueMatchCustomisers;
 	private IMatcherIndexes indexes;
+	private int matchThreads;
 
 	/**
 	 * Provides the Instance store to which the matcher is attached.
@@ -51,6 +53,21 @@ public class IMatcherConfig {
 		return store;
 	}
 
+	/**
+	 * Provides a free-instance version of the specified stored
+	 * instance (see {@link IFreeCopier}), as retrieved from the
+	 * store's instance cache where possible. The returned instance
+	 * can be freely modified by the caller.
+	 *
+	 * @param identity Identity of required instance
+	 * @return Free-instance version of instance, or null if instance
+	 * not stored, or cannot be regenerated
+	 */
+	public IFrame getFreeInstanceOrNull(CIdentity identity) {
+
+		return store.regenOrNull(identity, true);
+	}
+
 	/**
 	 * Provides the set of mappings between unique instance identities
  	 * and corresponding unique index values maintained by the store
@@ -75,13 +92,28 @@ public class IMatcherConfig {
 		return valueMatchCustomisers;
 	}
 
+	/**
+	 * Provides the number of threads over which matchers that
+	 * support parallel query evaluation should distribute the
+	 * processing of each query. A value of 1 indicates that all
+	 * queries should be evaluated serially.
+	 *
+	 * @return Number of threads for evaluation of each query
+	 */
+	public int getMatchThreads() {
+
+		return matchThreads;
+	}
+
 	IMatcherConfig(
-		IStore store,
+		IDiskStore store,
 		IMatcherIndexes indexes,
-		List<IValueMatchCustomiser> valueMatchCustomisers) {
+		List<IValueMatchCustomiser> valueMatchCustomisers,
+		int matchThreads) {
 
 		this.store = store;
 		this.valueMatchCustomisers = valueMatchCustomisers;
 		this.indexes = indexes;
+		this.matchThreads = matchThreads;
 	}
 }
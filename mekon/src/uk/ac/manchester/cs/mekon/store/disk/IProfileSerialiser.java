@@ -47,6 +47,32 @@ public class IProfileSerialiser extends FSerialiser implements IProfileSerialise
 	 */
 	static public void render(IInstanceProfile profile, File file) {
 
+		renderToDocument(profile).writeToFile(file);
+	}
+
+	/**
+	 * Parses instance-profile information from file.
+	 *
+	 * @param file File to parse from
+	 * @return parsed instance-profile information
+	 */
+	static public IInstanceProfile parse(File file) {
+
+		return parse(new XDocument(file));
+	}
+
+	static void render(IInstanceProfile profile, OutputStream output) {
+
+		renderToDocument(profile).writeToOutput(output);
+	}
+
+	static IInstanceProfile parse(InputStream input) {
+
+		return parse(new XDocument(input));
+	}
+
+	static private XDocument renderToDocument(IInstanceProfile profile) {
+
 		XDocument document = new XDocument(ROOT_ID);
 
 		XNode rootNode = document.getRootNode();
@@ -64,18 +90,12 @@ public class IProfileSerialiser extends FSerialiser implements IProfileSerialise
 
 		rootNode.setValue(FUNCTION_ATTR, profile.getFunction());
 
-		document.writeToFile(file);
+		return document;
 	}
 
-	/**
-	 * Parses instance-profile information from file.
-	 *
-	 * @param file File to parse from
-	 * @return parsed instance-profile information
-	 */
-	static public IInstanceProfile parse(File file) {
+	static private IInstanceProfile parse(XDocument document) {
 
-		XNode rootNode = new XDocument(file).getRootNode();
+		XNode rootNode = document.getRootNode();
 		XNode typeNode = rootNode.getChild(TYPE_ID);
 
 		return new IInstanceProfile(
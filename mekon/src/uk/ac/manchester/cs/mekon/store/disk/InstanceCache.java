@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
+
+/**
+ * Bounded least-recently-used cache of regenerated free-instances,
+ * keyed by instance index. Copies of the cached instances are
+ * supplied to clients, so that they can be freely modified.
+ *
+ * @author Colin Puleston
+ */
+class InstanceCache {
+
+	private int capacity;
+	private Map<Integer, IFrame> instances;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	private class InstanceMap extends LinkedHashMap<Integer, IFrame> {
+
+		static private final long serialVersionUID = -1;
+
+		InstanceMap() {
+
+			super(16, 0.75f, true);
+		}
+
+		protected boolean removeEldestEntry(Map.Entry<Integer, IFrame> eldest) {
+
+			return size() > capacity;
+		}
+	}
+
+	InstanceCache(int capacity) {
+
+		this.capacity = capacity;
+
+		instances = new InstanceMap();
+	}
+
+	synchronized IFrame getOrNull(int index) {
+
+		if (capacity == 0) {
+
+			return null;
+		}
+
+		IFrame instance = instances.get(index);
+
+		if (instance == null) {
+
+			misses++;
+
+			return null;
+		}
+
+		hits++;
+
+		return createCopy(instance);
+	}
+
+	synchronized void add(int index, IFrame instance) {
+
+		if (capacity != 0) {
+
+			instances.put(index, createCopy(instance));
+		}
+	}
+
+	synchronized void remove(int index) {
+
+		instances.remove(index);
+	}
+
+	synchronized void clear() {
+
+		instances.clear();
+	}
+
+	synchronized IDiskStoreCacheStats getStats() {
+
+		return new IDiskStoreCacheStats(hits, misses, instances.size(), capacity);
+	}
+
+	private IFrame createCopy(IFrame instance) {
+
+		return IFreeCopier.get().createFreeCopy(instance);
+	}
+}
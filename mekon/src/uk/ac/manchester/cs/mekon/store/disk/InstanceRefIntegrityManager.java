@@ -24,7 +24,9 @@
 
 package uk.ac.manchester.cs.mekon.store.disk;
 
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.motor.*;
@@ -36,36 +38,67 @@ import uk.ac.manchester.cs.mekon_util.*;
  */
 class InstanceRefIntegrityManager {
 
+	static private final int UPDATE_BATCH_SIZE = 1000;
+	static private final long STOP_WAIT_SECS = 60;
+
 	private IDiskStore store;
 	private IEditor iEditor;
 
+	private ReferenceIndexFile indexFile;
+	private boolean indexRestored = false;
+
 	private KSetMap<CIdentity, CIdentity> referencingIds = new KSetMap<CIdentity, CIdentity>();
+	private KSetMap<CIdentity, CIdentity> referencedIds = new KSetMap<CIdentity, CIdentity>();
+
+	private Map<CIdentity, RefValueUpdater> pendingUpdates
+						= new LinkedHashMap<CIdentity, RefValueUpdater>();
+
+	private volatile boolean updatesPending = false;
+
+	private ExecutorService backgroundExecutor = null;
+	private boolean backgroundUpdateScheduled = false;
 
-	private class RefValueRemover {
+	private class RefValueUpdater {
 
-		private CIdentity refedId;
+		private Map<CIdentity, CIdentity> redirections = new HashMap<CIdentity, CIdentity>();
+		private boolean anyUpdates = false;
 
-		RefValueRemover(CIdentity refedId) {
+		void addRemoval(CIdentity refedId) {
 
-			this.refedId = refedId;
+			addRedirection(refedId, null);
 		}
 
-		void forRefingId(CIdentity refingId) {
+		void addReplacement(CIdentity refedId, CIdentity newRefedId) {
 
-			IFrame refingInstance = store.regenOrNull(refingId, false);
+			addRedirection(refedId, newRefedId);
+		}
 
-			if (refingInstance != null) {
+		boolean updateAllIn(IFrame frame) {
 
-				removeAllFrom(refingInstance);
+			anyUpdates = false;
 
-				store.update(refingInstance, refingId);
-			}
+			updateAllInSlots(frame);
+
+			return anyUpdates;
 		}
 
-		void onRemoved(ISlotValuesEditor valuesEd, IFrame valueFrame) {
+		private void addRedirection(CIdentity refedId, CIdentity newRefedIdOrNull) {
+
+			for (Map.Entry<CIdentity, CIdentity> entry : redirections.entrySet()) {
+
+				if (refedId.equals(entry.getValue())) {
+
+					entry.setValue(newRefedIdOrNull);
+				}
+			}
+
+			if (!redirections.containsKey(refedId)) {
+
+				redirections.put(refedId, newRefedIdOrNull);
+			}
 		}
 
-		private void removeAllFrom(IFrame frame) {
+		private void updateAllInSlots(IFrame frame) {
 
 			for (ISlot slot : frame.getSlots().activesAsList()) {
 
@@ -73,106 +106,301 @@ class InstanceRefIntegrityManager {
 
 					for (IValue value : slot.getValues().asList()) {
 
-						removeAllFrom(slot, (IFrame)value);
+						updateAllIn(slot, (IFrame)value);
 					}
 				}
 			}
 		}
 
-		private void removeAllFrom(ISlot slot, IFrame valueFrame) {
+		private void updateAllIn(ISlot slot, IFrame valueFrame) {
 
 			if (valueFrame.getCategory().reference()) {
 
-				if (valueFrame.getReferenceId().equals(refedId)) {
+				CIdentity refedId = valueFrame.getReferenceId();
 
-					ISlotValuesEditor valuesEd = iEditor.getSlotValuesEditor(slot);
+				if (redirections.containsKey(refedId)) {
 
-					valuesEd.remove(valueFrame);
-					onRemoved(valuesEd, valueFrame);
+					redirect(slot, valueFrame, redirections.get(refedId));
 				}
 			}
 			else {
 
-				removeAllFrom(valueFrame);
+				updateAllInSlots(valueFrame);
 			}
 		}
+
+		private void redirect(ISlot slot, IFrame valueFrame, CIdentity newRefedIdOrNull) {
+
+			ISlotValuesEditor valuesEd = iEditor.getSlotValuesEditor(slot);
+
+			valuesEd.remove(valueFrame);
+
+			if (newRefedIdOrNull != null) {
+
+				valuesEd.add(valueFrame.getType().instantiateRef(newRefedIdOrNull));
+			}
+
+			anyUpdates = true;
+		}
 	}
 
-	private class RefValueReplacer extends RefValueRemover {
+	private class BackgroundUpdate implements Runnable {
 
-		private CIdentity newRefedId;
+		public void run() {
 
-		RefValueReplacer(CIdentity refedId, CIdentity newRefedId) {
+			try {
 
-			super(refedId);
+				store.applyPendingReferenceUpdates();
+			}
+			catch (RuntimeException e) {
 
-			this.newRefedId = newRefedId;
+				// Failed updates remain pending, and will be re-attempted
+				// (with any failure propagated to the relevant client)
+				// when next required by a store access
+			}
 		}
+	}
+
+	private class BackgroundThreadFactory implements ThreadFactory {
+
+		public Thread newThread(Runnable runnable) {
 
-		void onRemoved(ISlotValuesEditor valuesEd, IFrame valueFrame) {
+			Thread thread = new Thread(runnable, "MEKON-store-reference-updates");
 
-			valuesEd.add(valueFrame.getType().instantiateRef(newRefedId));
+			thread.setDaemon(true);
+
+			return thread;
 		}
 	}
 
-	InstanceRefIntegrityManager(IDiskStore store) {
+	InstanceRefIntegrityManager(IDiskStore store, File storeDir) {
 
 		this.store = store;
 
 		iEditor = ZCModelAccessor.get().getIEditor(store.getModel());
+		indexFile = new ReferenceIndexFile(storeDir);
+	}
+
+	void setBackgroundUpdates(boolean backgroundUpdates) {
+
+		if (backgroundUpdates && backgroundExecutor == null) {
+
+			backgroundExecutor = Executors.newSingleThreadExecutor(new BackgroundThreadFactory());
+		}
 	}
 
 	void onAddedInstance(IFrame instance, CIdentity identity) {
 
-		referencingIds.removeFromAll(identity);
+		removeReferencingInstance(identity);
+		addInstanceRefs(identity, instance.getAllReferenceIds());
+	}
+
+	void restoreIndex(Set<CIdentity> instanceIds) {
+
+		KSetMap<CIdentity, CIdentity> restoreds = indexFile.readOrNull(instanceIds);
+
+		if (restoreds != null) {
+
+			for (CIdentity refingId : restoreds.keySet()) {
+
+				for (CIdentity refedId : restoreds.getSet(refingId)) {
 
-		addInstanceRefs(instance, identity);
+					addInstanceRef(refingId, refedId);
+				}
+			}
+
+			indexRestored = true;
+		}
 	}
 
 	void onReloadedInstance(CIdentity identity, IInstanceProfile profile) {
 
-		addInstanceRefs(identity, profile.getReferenceIdentites());
+		if (!indexRestored) {
+
+			addInstanceRefs(identity, profile.getReferenceIdentites());
+		}
 	}
 
-	void onRenamedInstance(IFrame instance, CIdentity identity, CIdentity newIdentity) {
+	void onRenamedInstance(CIdentity identity, CIdentity newIdentity) {
 
 		for (CIdentity refingId : referencingIds.getSet(identity)) {
 
-			new RefValueReplacer(identity, newIdentity).forRefingId(refingId);
+			referencedIds.remove(refingId, identity);
+			addInstanceRef(refingId, newIdentity);
 
-			referencingIds.add(newIdentity, refingId);
+			resolvePendingUpdate(refingId).addReplacement(identity, newIdentity);
 		}
 
-		removeInstanceRefs(identity);
-		addInstanceRefs(instance, newIdentity);
+		referencingIds.removeAll(identity);
+		removeReferencingInstance(identity);
+
+		checkApplyUpdates();
 	}
 
 	void onRemovedInstance(CIdentity identity) {
 
-		for (CIdentity refingId : referencingIds.getSet(identity)) {
+		onRemovedInstances(Collections.singleton(identity));
+	}
+
+	void onRemovedInstances(Collection<CIdentity> identities) {
+
+		for (CIdentity identity : identities) {
+
+			removeReferencingInstance(identity);
+
+			for (CIdentity refingId : referencingIds.getSet(identity)) {
+
+				referencedIds.remove(refingId, identity);
+
+				resolvePendingUpdate(refingId).addRemoval(identity);
+			}
 
-			new RefValueRemover(identity).forRefingId(refingId);
+			referencingIds.removeAll(identity);
 		}
 
-		removeInstanceRefs(identity);
+		checkApplyUpdates();
 	}
 
-	private void addInstanceRefs(IFrame instance, CIdentity identity) {
+	boolean updatesPending() {
 
-		addInstanceRefs(identity, instance.getAllReferenceIds());
+		return updatesPending;
 	}
 
-	private void addInstanceRefs(CIdentity refingId, List<CIdentity> referencedIds) {
+	void applyPendingUpdates() {
 
-		for (CIdentity refedId : referencedIds) {
+		backgroundUpdateScheduled = false;
 
-			referencingIds.add(refedId, refingId);
+		while (!pendingUpdates.isEmpty()) {
+
+			applyPendingUpdates(getNextUpdateBatch());
 		}
+
+		updatesPending = false;
 	}
 
-	private void removeInstanceRefs(CIdentity identity) {
+	void saveIndex(int instanceCount) {
 
-		referencingIds.removeAll(identity);
-		referencingIds.removeFromAll(identity);
+		indexFile.write(referencedIds, instanceCount);
+	}
+
+	void stop() {
+
+		if (backgroundExecutor != null) {
+
+			backgroundExecutor.shutdown();
+
+			try {
+
+				backgroundExecutor.awaitTermination(STOP_WAIT_SECS, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			}
+
+			backgroundExecutor = null;
+		}
+	}
+
+	private void checkApplyUpdates() {
+
+		if (pendingUpdates.isEmpty()) {
+
+			return;
+		}
+
+		if (backgroundExecutor != null) {
+
+			updatesPending = true;
+
+			if (!backgroundUpdateScheduled) {
+
+				backgroundUpdateScheduled = true;
+				backgroundExecutor.execute(new BackgroundUpdate());
+			}
+		}
+		else {
+
+			applyPendingUpdates();
+		}
+	}
+
+	private void applyPendingUpdates(Map<CIdentity, RefValueUpdater> batch) {
+
+		Map<CIdentity, IFrame> updatedInstances = new LinkedHashMap<CIdentity, IFrame>();
+
+		for (Map.Entry<CIdentity, RefValueUpdater> entry : batch.entrySet()) {
+
+			CIdentity refingId = entry.getKey();
+			IFrame refingInstance = store.regenOrNull(refingId, false);
+
+			if (refingInstance != null && entry.getValue().updateAllIn(refingInstance)) {
+
+				updatedInstances.put(refingId, refingInstance);
+			}
+		}
+
+		if (!updatedInstances.isEmpty()) {
+
+			store.rewriteReferences(updatedInstances);
+		}
+
+		pendingUpdates.keySet().removeAll(batch.keySet());
+	}
+
+	private Map<CIdentity, RefValueUpdater> getNextUpdateBatch() {
+
+		Map<CIdentity, RefValueUpdater> batch = new LinkedHashMap<CIdentity, RefValueUpdater>();
+
+		for (Map.Entry<CIdentity, RefValueUpdater> entry : pendingUpdates.entrySet()) {
+
+			batch.put(entry.getKey(), entry.getValue());
+
+			if (batch.size() == UPDATE_BATCH_SIZE) {
+
+				break;
+			}
+		}
+
+		return batch;
+	}
+
+	private RefValueUpdater resolvePendingUpdate(CIdentity refingId) {
+
+		RefValueUpdater updater = pendingUpdates.get(refingId);
+
+		if (updater == null) {
+
+			updater = new RefValueUpdater();
+
+			pendingUpdates.put(refingId, updater);
+		}
+
+		return updater;
+	}
+
+	private void addInstanceRefs(CIdentity refingId, List<CIdentity> refedIds) {
+
+		for (CIdentity refedId : refedIds) {
+
+			addInstanceRef(refingId, refedId);
+		}
+	}
+
+	private void addInstanceRef(CIdentity refingId, CIdentity refedId) {
+
+		referencingIds.add(refedId, refingId);
+		referencedIds.add(refingId, refedId);
+	}
+
+	private void removeReferencingInstance(CIdentity refingId) {
+
+		for (CIdentity refedId : referencedIds.getSet(refingId)) {
+
+			referencingIds.remove(refedId, refingId);
+		}
+
+		referencedIds.removeAll(refingId);
+		pendingUpdates.remove(refingId);
 	}
-}
\ No newline at end of file
+}
@@ -29,6 +29,7 @@ import java.io.*;
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.store.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
 import uk.ac.manchester.cs.mekon_util.xdoc.*;
 
 /**
@@ -37,27 +38,136 @@ import uk.ac.manchester.cs.mekon_util.xdoc.*;
 class InstanceSerialiser {
 
 	private CModel model;
+	private IDiskStoreFormat format;
+
 	private IInstanceRenderer renderer = new IInstanceRenderer();
+	private IInstanceBinaryRenderer binaryRenderer = new IInstanceBinaryRenderer();
 
-	InstanceSerialiser(CModel model) {
+	InstanceSerialiser(CModel model, IDiskStoreFormat format) {
 
 		this.model = model;
+		this.format = format;
 	}
 
 	void render(IFrame instance, File file) {
 
-		renderer.render(new IInstanceRenderInput(instance)).writeToFile(file);
+		if (format == IDiskStoreFormat.BINARY) {
+
+			OutputStream output = openOutput(file);
+
+			try {
+
+				render(instance, output);
+			}
+			finally {
+
+				close(output);
+			}
+		}
+		else {
+
+			renderToDocument(instance).writeToFile(file);
+		}
+	}
+
+	void render(IFrame instance, OutputStream output) {
+
+		if (format == IDiskStoreFormat.BINARY) {
+
+			binaryRenderer.render(instance, output);
+		}
+		else {
+
+			renderToDocument(instance).writeToOutput(output);
+		}
 	}
 
 	IRegenInstance parse(CIdentity identity, File file, boolean freeInstance) {
 
+		InputStream input = openInput(file);
+
+		try {
+
+			return parse(identity, input, freeInstance);
+		}
+		finally {
+
+			close(input);
+		}
+	}
+
+	IRegenInstance parse(CIdentity identity, InputStream input, boolean freeInstance) {
+
+		input = new BufferedInputStream(input);
+
+		if (IInstanceBinaryParser.binarySerialisation(input)) {
+
+			return parseBinary(input, freeInstance);
+		}
+
+		return parse(new XDocument(input), freeInstance);
+	}
+
+	private XDocument renderToDocument(IFrame instance) {
+
+		return renderer.render(new IInstanceRenderInput(instance));
+	}
+
+	private IRegenInstance parse(XDocument document, boolean freeInstance) {
+
 		IInstanceParser parser = new IInstanceParser(model);
 
 		parser.setFreeInstances(freeInstance);
 		parser.setPossibleModelUpdates(true);
 
-		IInstanceParseInput input = new IInstanceParseInput(new XDocument(file));
+		IInstanceParseInput input = new IInstanceParseInput(document);
+
+		return parser.parse(input);
+	}
+
+	private IRegenInstance parseBinary(InputStream input, boolean freeInstance) {
+
+		IInstanceBinaryParser parser = new IInstanceBinaryParser(model);
+
+		parser.setFreeInstances(freeInstance);
+		parser.setPossibleModelUpdates(true);
 
 		return parser.parse(input);
 	}
-}
\ No newline at end of file
+
+	private OutputStream openOutput(File file) {
+
+		try {
+
+			return new BufferedOutputStream(new FileOutputStream(file));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private InputStream openInput(File file) {
+
+		try {
+
+			return new FileInputStream(file);
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void close(Closeable stream) {
+
+		try {
+
+			stream.close();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
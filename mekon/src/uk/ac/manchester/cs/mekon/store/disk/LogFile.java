@@ -140,6 +140,15 @@ class LogFile {
 		new ParsedInstanceWarningLogger(identity, output);
 	}
 
+	void logStartupTimings(IDiskStoreStartupTimings timings) {
+
+		PrintWriter writer = createWriter(true);
+
+		writer.println("\nSTARTUP TIMINGS: " + timings);
+
+		writer.close();
+	}
+
 	private void writeFileHeader() {
 
 		PrintWriter writer = createWriter(false);
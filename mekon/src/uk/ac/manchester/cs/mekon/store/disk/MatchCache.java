@@ -0,0 +1,210 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.network.*;
+import uk.ac.manchester.cs.mekon.store.*;
+import uk.ac.manchester.cs.mekon.store.motor.*;
+
+/**
+ * Bounded least-recently-used cache of query-match results, keyed
+ * by the structures of the relevant free-copied queries. Entries
+ * are invalidated whenever the contents of the matcher that
+ * produced them are updated with an instance that could affect
+ * the results, or when any instance referenced from the query is
+ * updated. Since match-results objects may be mutable, the cache
+ * holds its own copies, and provides a fresh copy on each hit.
+ *
+ * @author Colin Puleston
+ */
+class MatchCache {
+
+	private int capacity;
+	private Map<QueryKey, Entry> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	private class QueryKey {
+
+		private IFrame query;
+		private int hashCode;
+
+		public boolean equals(Object other) {
+
+			if (other == this) {
+
+				return true;
+			}
+
+			return other instanceof QueryKey
+					&& query.equalsStructure(((QueryKey)other).query);
+		}
+
+		public int hashCode() {
+
+			return hashCode;
+		}
+
+		QueryKey(IFrame query) {
+
+			this.query = query;
+
+			hashCode = query.structuralHashCode();
+		}
+	}
+
+	private class Entry {
+
+		private IMatcher matcher;
+		private CFrame queryType;
+		private Set<CIdentity> queryReferenceIds;
+
+		private IMatches matches;
+
+		Entry(IMatcher matcher, IFrame query, IMatches matches) {
+
+			this.matcher = matcher;
+			this.matches = matches;
+
+			queryType = query.getType();
+			queryReferenceIds = new HashSet<CIdentity>(query.getAllReferenceIds());
+		}
+
+		boolean invalidatedBy(IMatcher updatedMatcher, CFrame instanceType, CIdentity identity) {
+
+			if (queryReferenceIds.contains(identity)) {
+
+				return true;
+			}
+
+			if (matcher != updatedMatcher) {
+
+				return false;
+			}
+
+			return !rootTypeFiltered(matcher) || queryType.subsumes(instanceType);
+		}
+	}
+
+	private class EntryMap extends LinkedHashMap<QueryKey, Entry> {
+
+		static private final long serialVersionUID = -1;
+
+		EntryMap() {
+
+			super(16, 0.75f, true);
+		}
+
+		protected boolean removeEldestEntry(Map.Entry<QueryKey, Entry> eldest) {
+
+			return size() > capacity;
+		}
+	}
+
+	MatchCache(int capacity) {
+
+		this.capacity = capacity;
+
+		entries = new EntryMap();
+	}
+
+	synchronized IMatches getOrNull(IFrame query) {
+
+		if (capacity == 0) {
+
+			return null;
+		}
+
+		Entry entry = entries.get(new QueryKey(query));
+
+		if (entry == null) {
+
+			misses++;
+
+			return null;
+		}
+
+		hits++;
+
+		return copy(entry.matches);
+	}
+
+	synchronized void add(IMatcher matcher, IFrame query, IMatches matches) {
+
+		if (capacity != 0) {
+
+			entries.put(new QueryKey(query), new Entry(matcher, query, copy(matches)));
+		}
+	}
+
+	synchronized void onUpdate(IMatcher matcher, CFrame instanceType, CIdentity identity) {
+
+		Iterator<Entry> i = entries.values().iterator();
+
+		while (i.hasNext()) {
+
+			if (i.next().invalidatedBy(matcher, instanceType, identity)) {
+
+				i.remove();
+			}
+		}
+	}
+
+	synchronized void clear() {
+
+		entries.clear();
+	}
+
+	synchronized IDiskStoreCacheStats getStats() {
+
+		return new IDiskStoreCacheStats(hits, misses, entries.size(), capacity);
+	}
+
+	private IMatches copy(IMatches matches) {
+
+		if (!matches.ranked()) {
+
+			return new IUnrankedMatches(matches.getAllMatches());
+		}
+
+		IRankedMatches copy = new IRankedMatches();
+
+		for (IMatchesRank rank : matches.getRanks()) {
+
+			copy.addRank(rank.getMatches(), rank.getRankingValue());
+		}
+
+		return copy;
+	}
+
+	private boolean rootTypeFiltered(IMatcher matcher) {
+
+		return matcher instanceof NDirectMatcher;
+	}
+}
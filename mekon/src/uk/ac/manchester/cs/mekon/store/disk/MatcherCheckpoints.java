@@ -0,0 +1,591 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon_util.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * @author Colin Puleston
+ */
+class MatcherCheckpoints implements IDiskStoreNames {
+
+	static void clear(File storeDir) {
+
+		deleteAll(new File(storeDir, CHECKPOINTS_DIR_NAME));
+	}
+
+	static private void deleteAll(File file) {
+
+		File[] contents = file.listFiles();
+
+		if (contents != null) {
+
+			for (File content : contents) {
+
+				deleteAll(content);
+			}
+		}
+
+		if (file.exists() && !file.delete()) {
+
+			throw new KSystemConfigException("Cannot delete checkpoint file: " + file);
+		}
+	}
+
+	private File directory;
+	private ChangeLog changeLog;
+
+	private long modelFingerprint = 0;
+
+	private Set<CIdentity> batchIds = Collections.emptySet();
+
+	private Map<IMatcher, RestoredCheckpoint> restoreds
+					= new HashMap<IMatcher, RestoredCheckpoint>();
+
+	private class ChangeLog {
+
+		private File file;
+
+		private long baseGeneration = 0;
+		private long generation = 0;
+
+		private List<CIdentity> changes = new ArrayList<CIdentity>();
+
+		private DataOutputStream output = null;
+
+		ChangeLog() {
+
+			file = new File(directory, CHECKPOINT_CHANGES_FILE_NAME);
+
+			if (file.exists()) {
+
+				read();
+			}
+			else {
+
+				reset(0);
+			}
+		}
+
+		void recordChanges(Collection<CIdentity> identities) {
+
+			if (output == null) {
+
+				output = openOutput(file, true);
+			}
+
+			try {
+
+				for (CIdentity identity : identities) {
+
+					output.writeUTF(identity.getIdentifier());
+				}
+
+				output.flush();
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+
+			generation += identities.size();
+		}
+
+		void reset(long newBaseGeneration) {
+
+			closeOutput();
+
+			DataOutputStream resetOutput = openOutput(file, false);
+
+			try {
+
+				resetOutput.writeLong(newBaseGeneration);
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+			finally {
+
+				close(resetOutput);
+			}
+
+			baseGeneration = newBaseGeneration;
+			generation = newBaseGeneration;
+
+			changes.clear();
+		}
+
+		boolean validGeneration(long testGeneration) {
+
+			return testGeneration >= baseGeneration && testGeneration <= generation;
+		}
+
+		Set<CIdentity> getChangesSince(long sinceGeneration) {
+
+			int first = (int)(sinceGeneration - baseGeneration);
+
+			return new HashSet<CIdentity>(changes.subList(first, changes.size()));
+		}
+
+		long getGeneration() {
+
+			return generation;
+		}
+
+		void closeOutput() {
+
+			if (output != null) {
+
+				close(output);
+
+				output = null;
+			}
+		}
+
+		private void read() {
+
+			if (!readEntries()) {
+
+				rewrite();
+			}
+
+			generation = baseGeneration + changes.size();
+		}
+
+		private boolean readEntries() {
+
+			DataInputStream input = openInput(file);
+
+			try {
+
+				baseGeneration = input.readLong();
+
+				while (input.available() > 0) {
+
+					changes.add(new CIdentity(input.readUTF()));
+				}
+
+				return true;
+			}
+			catch (EOFException e) {
+
+				return false;
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+			finally {
+
+				close(input);
+			}
+		}
+
+		private void rewrite() {
+
+			DataOutputStream rewriteOutput = openOutput(file, false);
+
+			try {
+
+				rewriteOutput.writeLong(baseGeneration);
+
+				for (CIdentity change : changes) {
+
+					rewriteOutput.writeUTF(change.getIdentifier());
+				}
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+			finally {
+
+				close(rewriteOutput);
+			}
+		}
+	}
+
+	private class RestoredCheckpoint {
+
+		private Set<CIdentity> unchangedIds = new HashSet<CIdentity>();
+
+		RestoredCheckpoint(
+			IMatcher matcher,
+			Set<CIdentity> checkpointIds,
+			Map<CIdentity, IMatcher> currentMatchers,
+			Set<CIdentity> changedIds) {
+
+			for (CIdentity id : checkpointIds) {
+
+				if (currentMatchers.get(id) == matcher && !changedIds.contains(id)) {
+
+					unchangedIds.add(id);
+				}
+				else {
+
+					matcher.remove(id);
+				}
+			}
+		}
+
+		boolean unchanged(CIdentity identity) {
+
+			return unchangedIds.contains(identity);
+		}
+	}
+
+	private class CheckpointDirectory {
+
+		private File matcherDir;
+		private File dataDir;
+		private File checkpointFile;
+
+		private long generation = 0;
+		private String matcherClassName = null;
+		private long checkpointModelFingerprint = 0;
+		private Set<CIdentity> identities = new HashSet<CIdentity>();
+
+		CheckpointDirectory(int matcherIndex) {
+
+			matcherDir = new File(directory, CHECKPOINT_DIR_PREFIX + matcherIndex);
+			dataDir = new File(matcherDir, CHECKPOINT_DATA_DIR_NAME);
+			checkpointFile = new File(matcherDir, CHECKPOINT_FILE_NAME);
+		}
+
+		void checkRestore(
+				ICheckpointMatcher matcher,
+				Map<CIdentity, IMatcher> currentMatchers,
+				KSetMap<CIdentity, CIdentity> referencingIds) {
+
+			if (readCheckpointFile() && validFor(matcher) && matcher.readCheckpoint(dataDir)) {
+
+				Set<CIdentity> changedIds = changeLog.getChangesSince(generation);
+
+				addReferencingIds(changedIds, referencingIds);
+
+				restoreds.put(
+					matcher,
+					new RestoredCheckpoint(
+						matcher,
+						identities,
+						currentMatchers,
+						changedIds));
+			}
+		}
+
+		void write(ICheckpointMatcher matcher, Collection<CIdentity> matcherIds) {
+
+			deleteAll(matcherDir);
+			createDirectory(dataDir);
+
+			if (matcher.writeCheckpoint(dataDir)) {
+
+				writeCheckpointFile(matcher, matcherIds);
+			}
+		}
+
+		private boolean validFor(ICheckpointMatcher matcher) {
+
+			return changeLog.validGeneration(generation)
+					&& matcherClassName.equals(matcher.getClass().getName())
+					&& checkpointModelFingerprint == modelFingerprint;
+		}
+
+		private boolean readCheckpointFile() {
+
+			if (!checkpointFile.exists()) {
+
+				return false;
+			}
+
+			DataInputStream input = openInput(checkpointFile);
+
+			try {
+
+				generation = input.readLong();
+				matcherClassName = input.readUTF();
+				checkpointModelFingerprint = input.readLong();
+
+				for (int i = input.readInt() ; i > 0 ; i--) {
+
+					identities.add(new CIdentity(input.readUTF()));
+				}
+
+				return true;
+			}
+			catch (IOException e) {
+
+				return false;
+			}
+			finally {
+
+				close(input);
+			}
+		}
+
+		private void writeCheckpointFile(
+						ICheckpointMatcher matcher,
+						Collection<CIdentity> matcherIds) {
+
+			DataOutputStream output = openOutput(checkpointFile, false);
+
+			try {
+
+				output.writeLong(changeLog.getGeneration());
+				output.writeUTF(matcher.getClass().getName());
+				output.writeLong(modelFingerprint);
+				output.writeInt(matcherIds.size());
+
+				for (CIdentity id : matcherIds) {
+
+					output.writeUTF(id.getIdentifier());
+				}
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+			finally {
+
+				close(output);
+			}
+		}
+
+		private void addReferencingIds(
+						Set<CIdentity> changedIds,
+						KSetMap<CIdentity, CIdentity> referencingIds) {
+
+			Deque<CIdentity> pending = new ArrayDeque<CIdentity>(changedIds);
+
+			while (!pending.isEmpty()) {
+
+				for (CIdentity refingId : referencingIds.getSet(pending.pop())) {
+
+					if (changedIds.add(refingId)) {
+
+						pending.push(refingId);
+					}
+				}
+			}
+		}
+	}
+
+	MatcherCheckpoints(File storeDir) {
+
+		directory = new File(storeDir, CHECKPOINTS_DIR_NAME);
+
+		if (!directory.exists()) {
+
+			createDirectory(directory);
+		}
+
+		changeLog = new ChangeLog();
+	}
+
+	void restore(
+			List<IMatcher> matchers,
+			CModel model,
+			List<IInstanceProfile> profiles,
+			Map<CIdentity, IMatcher> currentMatchers) {
+
+		KSetMap<CIdentity, CIdentity> referencingIds = new KSetMap<CIdentity, CIdentity>();
+
+		for (IInstanceProfile profile : profiles) {
+
+			CIdentity id = profile.getInstanceIdentity();
+
+			for (CIdentity refedId : profile.getReferenceIdentites()) {
+
+				referencingIds.add(refedId, id);
+			}
+		}
+
+		modelFingerprint = createModelFingerprint(model);
+
+		for (int i = 0 ; i < matchers.size() ; i++) {
+
+			IMatcher matcher = matchers.get(i);
+
+			if (matcher instanceof ICheckpointMatcher) {
+
+				ICheckpointMatcher cpMatcher = (ICheckpointMatcher)matcher;
+
+				CheckpointDirectory cpDir = new CheckpointDirectory(i);
+
+				cpDir.checkRestore(cpMatcher, currentMatchers, referencingIds);
+			}
+		}
+	}
+
+	boolean restoredUnchanged(IMatcher matcher, CIdentity identity) {
+
+		RestoredCheckpoint restored = restoreds.get(matcher);
+
+		return restored != null && restored.unchanged(identity);
+	}
+
+	void recordChange(CIdentity identity) {
+
+		if (!batchIds.contains(identity)) {
+
+			changeLog.recordChanges(Collections.singleton(identity));
+		}
+	}
+
+	void startBatch(Collection<CIdentity> identities) {
+
+		batchIds = new HashSet<CIdentity>(identities);
+
+		changeLog.recordChanges(batchIds);
+	}
+
+	void endBatch() {
+
+		batchIds = Collections.emptySet();
+	}
+
+	void write(List<IMatcher> matchers, KListMap<IMatcher, CIdentity> matcherIds) {
+
+		for (int i = 0 ; i < matchers.size() ; i++) {
+
+			IMatcher matcher = matchers.get(i);
+
+			if (matcher instanceof ICheckpointMatcher) {
+
+				ICheckpointMatcher cpMatcher = (ICheckpointMatcher)matcher;
+
+				new CheckpointDirectory(i).write(cpMatcher, matcherIds.getList(matcher));
+			}
+		}
+
+		changeLog.reset(changeLog.getGeneration());
+	}
+
+	private long createModelFingerprint(CModel model) {
+
+		CRC32 crc = new CRC32();
+
+		for (CFrame frame : getSortedFrames(model)) {
+
+			addToFingerprint(crc, frame.getIdentity());
+
+			for (CFrame sup : frame.getSupers()) {
+
+				addToFingerprint(crc, sup.getIdentity());
+			}
+
+			for (CSlot slot : frame.getSlots().asList()) {
+
+				addToFingerprint(crc, slot.getIdentity());
+				addToFingerprint(crc, slot.getValueType().toString());
+				addToFingerprint(crc, slot.getCardinality().toString());
+			}
+		}
+
+		return crc.getValue();
+	}
+
+	private List<CFrame> getSortedFrames(CModel model) {
+
+		List<CFrame> frames = new ArrayList<CFrame>(model.getFrames().asList());
+
+		Collections.sort(frames, new Comparator<CFrame>() {
+
+			public int compare(CFrame first, CFrame second) {
+
+				String firstId = first.getIdentity().getIdentifier();
+				String secondId = second.getIdentity().getIdentifier();
+
+				return firstId.compareTo(secondId);
+			}
+		});
+
+		return frames;
+	}
+
+	private void addToFingerprint(CRC32 crc, CIdentity identity) {
+
+		addToFingerprint(crc, identity.getIdentifier());
+	}
+
+	private void addToFingerprint(CRC32 crc, String value) {
+
+		crc.update(value.getBytes());
+		crc.update(0);
+	}
+
+	private void createDirectory(File dir) {
+
+		if (!dir.mkdirs()) {
+
+			throw new KSystemConfigException("Cannot create checkpoint directory: " + dir);
+		}
+	}
+
+	private DataOutputStream openOutput(File file, boolean append) {
+
+		try {
+
+			FileOutputStream output = new FileOutputStream(file, append);
+
+			return new DataOutputStream(new BufferedOutputStream(output));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private DataInputStream openInput(File file) {
+
+		try {
+
+			return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void close(Closeable stream) {
+
+		try {
+
+			stream.close();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
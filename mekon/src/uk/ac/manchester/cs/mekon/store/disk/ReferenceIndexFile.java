@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon_util.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * Persists the referencing-to-referenced instance index between
+ * runs. The file is only written on a clean stop, and is deleted
+ * as soon as it has been read, so that after any unclean stop the
+ * index is rebuilt from the stored instance-profiles.
+ *
+ * @author Colin Puleston
+ */
+class ReferenceIndexFile implements IDiskStoreNames {
+
+	private File file;
+
+	ReferenceIndexFile(File storeDir) {
+
+		file = new File(storeDir, REFERENCE_INDEX_FILE_NAME);
+	}
+
+	KSetMap<CIdentity, CIdentity> readOrNull(Set<CIdentity> instanceIds) {
+
+		if (!file.exists()) {
+
+			return null;
+		}
+
+		try {
+
+			return readOrNullFromFile(instanceIds);
+		}
+		finally {
+
+			delete();
+		}
+	}
+
+	void write(KSetMap<CIdentity, CIdentity> referencedIds, int instanceCount) {
+
+		DataOutputStream output = openOutput();
+
+		try {
+
+			Set<CIdentity> refingIds = referencedIds.keySet();
+
+			output.writeInt(instanceCount);
+			output.writeInt(refingIds.size());
+
+			for (CIdentity refingId : refingIds) {
+
+				Set<CIdentity> refedIds = referencedIds.getSet(refingId);
+
+				output.writeUTF(refingId.getIdentifier());
+				output.writeInt(refedIds.size());
+
+				for (CIdentity refedId : refedIds) {
+
+					output.writeUTF(refedId.getIdentifier());
+				}
+			}
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+		finally {
+
+			close(output);
+		}
+	}
+
+	void delete() {
+
+		if (file.exists() && !file.delete()) {
+
+			throw new KSystemConfigException("Cannot delete reference-index file: " + file);
+		}
+	}
+
+	private KSetMap<CIdentity, CIdentity> readOrNullFromFile(Set<CIdentity> instanceIds) {
+
+		KSetMap<CIdentity, CIdentity> referencedIds = new KSetMap<CIdentity, CIdentity>();
+		DataInputStream input = null;
+
+		try {
+
+			input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+			if (input.readInt() != instanceIds.size()) {
+
+				return null;
+			}
+
+			for (int i = input.readInt() ; i > 0 ; i--) {
+
+				CIdentity refingId = new CIdentity(input.readUTF());
+
+				if (!instanceIds.contains(refingId)) {
+
+					return null;
+				}
+
+				for (int j = input.readInt() ; j > 0 ; j--) {
+
+					referencedIds.add(refingId, new CIdentity(input.readUTF()));
+				}
+			}
+
+			return referencedIds;
+		}
+		catch (IOException e) {
+
+			return null;
+		}
+		catch (RuntimeException e) {
+
+			return null;
+		}
+		finally {
+
+			if (input != null) {
+
+				close(input);
+			}
+		}
+	}
+
+	private DataOutputStream openOutput() {
+
+		try {
+
+			return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+
+	private void close(Closeable stream) {
+
+		try {
+
+			stream.close();
+		}
+		catch (IOException e) {
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
@@ -0,0 +1,711 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.zip.*;
+
+import uk.ac.manchester.cs.mekon_util.*;
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * Append-only store of profile/instance records, held in a sequence
+ * of segment files. Records are located via an in-memory offset index
+ * that is rebuilt by scanning the segments at start-up, with any torn
+ * or corrupt records at the tail of the active segment (resulting from
+ * a crash mid-write) being truncated away. Corrupt records within a
+ * sealed segment are treated as a fatal error. Sealed segments whose
+ * live content falls below a specified proportion are compacted in the
+ * background.
+ *
+ * @author Colin Puleston
+ */
+class SegmentStore implements IDiskStoreNames {
+
+	static private final int RECORD_MARKER = 0x4D4B5347;
+
+	static private final byte PUT_RECORD = 1;
+	static private final byte REMOVE_RECORD = 2;
+
+	static private final int HEADER_SIZE = 25;
+	static private final int CHECKED_HEADER_START = 4;
+	static private final int CHECKED_HEADER_SIZE = 13;
+
+	static final long DEFAULT_MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+	static final double DEFAULT_MIN_LIVE_PROPORTION = 0.5;
+
+	static private final long COMPACTION_CHECK_INTERVAL_MS = 5000;
+
+	private KFileStore segmentFiles = new KFileStore(SEGMENT_FILE_PREFIX, SEGMENT_FILE_SUFFIX);
+
+	private long maxSegmentSize;
+	private double minLiveProportion;
+
+	private SortedMap<Integer, Segment> segments = new TreeMap<Integer, Segment>();
+	private Segment activeSegment = null;
+
+	private Map<Integer, RecordLocation> locations = new HashMap<Integer, RecordLocation>();
+
+	private Compactor compactor = null;
+	private boolean stopped = false;
+
+	private class Segment {
+
+		private int id;
+		private File file;
+		private FileChannel channel;
+
+		private long size;
+		private long liveSize = 0;
+
+		Segment(int id) {
+
+			this.id = id;
+
+			file = segmentFiles.getFile(id);
+			channel = openChannel();
+
+			size = getFileSize();
+		}
+
+		void scan(boolean active) {
+
+			long position = 0;
+
+			while (position < size) {
+
+				Record record = readRecordOrNull(position);
+
+				if (record == null) {
+
+					if (!active) {
+
+						throw createCorruptRecordException(position);
+					}
+
+					truncate(position);
+
+					break;
+				}
+
+				record.replay();
+
+				position += record.getSize();
+			}
+		}
+
+		long append(ByteBuffer header, byte[]... payloads) {
+
+			long position = size;
+
+			writeFully(header, position);
+
+			long payloadPosition = position + HEADER_SIZE;
+
+			for (byte[] payload : payloads) {
+
+				writeFully(ByteBuffer.wrap(payload), payloadPosition);
+
+				payloadPosition += payload.length;
+			}
+
+			size = payloadPosition;
+
+			return position;
+		}
+
+		byte[] read(long position, int length) {
+
+			ByteBuffer buffer = ByteBuffer.allocate(length);
+
+			readFully(buffer, position);
+
+			return buffer.array();
+		}
+
+		Record readRecordOrNull(long position) {
+
+			if (position + HEADER_SIZE > size) {
+
+				return null;
+			}
+
+			ByteBuffer header = ByteBuffer.wrap(read(position, HEADER_SIZE));
+
+			if (header.getInt() != RECORD_MARKER) {
+
+				return null;
+			}
+
+			byte type = header.get();
+			int index = header.getInt();
+			int profileLength = header.getInt();
+			int instanceLength = header.getInt();
+			long checksum = header.getLong();
+
+			if (!validType(type) || profileLength < 0 || instanceLength < 0) {
+
+				return null;
+			}
+
+			long payloadPosition = position + HEADER_SIZE;
+			long payloadLength = (long)profileLength + instanceLength;
+
+			if (payloadPosition + payloadLength > size) {
+
+				return null;
+			}
+
+			byte[] payload = read(payloadPosition, (int)payloadLength);
+
+			if (getChecksum(header.array(), payload) != checksum) {
+
+				return null;
+			}
+
+			RecordLocation location = new RecordLocation(this, position, profileLength, instanceLength);
+
+			return new Record(type, index, location);
+		}
+
+		void force() {
+
+			try {
+
+				channel.force(true);
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		void close() {
+
+			try {
+
+				channel.close();
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		void delete() {
+
+			close();
+
+			segmentFiles.removeFile(id);
+		}
+
+		boolean compactable() {
+
+			return this != activeSegment && (size == 0 || liveSize < size * minLiveProportion);
+		}
+
+		private FileChannel openChannel() {
+
+			try {
+
+				return new RandomAccessFile(file, "rw").getChannel();
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		private long getFileSize() {
+
+			try {
+
+				return channel.size();
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		private void truncate(long position) {
+
+			try {
+
+				channel.truncate(position);
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+
+			size = position;
+		}
+
+		private void writeFully(ByteBuffer buffer, long position) {
+
+			try {
+
+				while (buffer.hasRemaining()) {
+
+					position += channel.write(buffer, position);
+				}
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		private void readFully(ByteBuffer buffer, long position) {
+
+			try {
+
+				while (buffer.hasRemaining()) {
+
+					int read = channel.read(buffer, position);
+
+					if (read < 0) {
+
+						throw new KSystemConfigException("Unexpected end of segment file: " + file);
+					}
+
+					position += read;
+				}
+			}
+			catch (IOException e) {
+
+				throw new KSystemConfigException(e);
+			}
+		}
+
+		KSystemConfigException createCorruptRecordException(long position) {
+
+			return new KSystemConfigException(
+						"Corrupt record in sealed segment file: "
+						+ file + ", at position: " + position);
+		}
+
+		private boolean validType(byte type) {
+
+			return type == PUT_RECORD || type == REMOVE_RECORD;
+		}
+	}
+
+	private class RecordLocation {
+
+		private Segment segment;
+		private long position;
+		private int profileLength;
+		private int instanceLength;
+
+		RecordLocation(
+			Segment segment,
+			long position,
+			int profileLength,
+			int instanceLength) {
+
+			this.segment = segment;
+			this.position = position;
+			this.profileLength = profileLength;
+			this.instanceLength = instanceLength;
+		}
+
+		byte[] readProfile() {
+
+			return segment.read(getPayloadPosition(), profileLength);
+		}
+
+		byte[] readInstance() {
+
+			return segment.read(getPayloadPosition() + profileLength, instanceLength);
+		}
+
+		boolean locates(Segment segment, long position) {
+
+			return this.segment == segment && this.position == position;
+		}
+
+		long getSize() {
+
+			return HEADER_SIZE + profileLength + instanceLength;
+		}
+
+		private long getPayloadPosition() {
+
+			return position + HEADER_SIZE;
+		}
+	}
+
+	private class Record {
+
+		private byte type;
+		private int index;
+		private RecordLocation location;
+
+		Record(byte type, int index, RecordLocation location) {
+
+			this.type = type;
+			this.index = index;
+			this.location = location;
+		}
+
+		void replay() {
+
+			if (type == PUT_RECORD) {
+
+				setLocation(index, location);
+			}
+			else {
+
+				removeLocation(index);
+			}
+		}
+
+		void copyIfRequired(Segment segment) {
+
+			if (type == PUT_RECORD) {
+
+				if (live()) {
+
+					put(index, location.readProfile(), location.readInstance());
+				}
+			}
+			else {
+
+				if (!locations.containsKey(index) && olderSegmentsExist(segment)) {
+
+					appendRemoveRecord(index);
+				}
+			}
+		}
+
+		long getSize() {
+
+			return location.getSize();
+		}
+
+		private boolean live() {
+
+			RecordLocation current = locations.get(index);
+
+			return current != null && current.locates(location.segment, location.position);
+		}
+	}
+
+	private class Compactor extends Thread {
+
+		private boolean stopped = false;
+
+		Compactor() {
+
+			setDaemon(true);
+		}
+
+		public void run() {
+
+			while (waitForNextCheck()) {
+
+				compactAll();
+			}
+		}
+
+		synchronized void stopCompaction() {
+
+			stopped = true;
+
+			notifyAll();
+		}
+
+		private synchronized boolean waitForNextCheck() {
+
+			if (!stopped) {
+
+				try {
+
+					wait(COMPACTION_CHECK_INTERVAL_MS);
+				}
+				catch (InterruptedException e) {
+
+					stopped = true;
+				}
+			}
+
+			return !stopped;
+		}
+	}
+
+	SegmentStore(File directory) {
+
+		this(directory, DEFAULT_MAX_SEGMENT_SIZE, DEFAULT_MIN_LIVE_PROPORTION);
+	}
+
+	SegmentStore(File directory, long maxSegmentSize, double minLiveProportion) {
+
+		this.maxSegmentSize = maxSegmentSize;
+		this.minLiveProportion = minLiveProportion;
+
+		segmentFiles.setDirectory(directory);
+
+		loadSegments();
+	}
+
+	void startCompaction() {
+
+		compactor = new Compactor();
+
+		compactor.start();
+	}
+
+	synchronized void put(int index, byte[] profile, byte[] instance) {
+
+		checkStartNewSegment();
+
+		ByteBuffer header = createHeader(PUT_RECORD, index, profile, instance);
+		long position = activeSegment.append(header, profile, instance);
+
+		setLocation(index, new RecordLocation(activeSegment, position, profile.length, instance.length));
+	}
+
+	synchronized void remove(int index) {
+
+		if (locations.containsKey(index)) {
+
+			removeLocation(index);
+			appendRemoveRecord(index);
+		}
+	}
+
+	synchronized void clear() {
+
+		for (Segment segment : segments.values()) {
+
+			segment.delete();
+		}
+
+		segments.clear();
+		locations.clear();
+
+		activeSegment = addSegment(0);
+	}
+
+	synchronized void stop() {
+
+		if (stopped) {
+
+			return;
+		}
+
+		stopped = true;
+
+		if (compactor != null) {
+
+			compactor.stopCompaction();
+		}
+
+		activeSegment.force();
+
+		for (Segment segment : segments.values()) {
+
+			segment.close();
+		}
+	}
+
+	synchronized byte[] readProfile(int index) {
+
+		return getLocation(index).readProfile();
+	}
+
+	synchronized byte[] readInstance(int index) {
+
+		return getLocation(index).readInstance();
+	}
+
+	synchronized List<Integer> getAllIndexes() {
+
+		List<Integer> indexes = new ArrayList<Integer>(locations.keySet());
+
+		Collections.sort(indexes);
+
+		return indexes;
+	}
+
+	synchronized int getSegmentCount() {
+
+		return segments.size();
+	}
+
+	synchronized void compactAll() {
+
+		if (stopped) {
+
+			return;
+		}
+
+		for (Segment segment : new ArrayList<Segment>(segments.values())) {
+
+			if (segment.compactable()) {
+
+				compact(segment);
+			}
+		}
+	}
+
+	private void loadSegments() {
+
+		List<Integer> ids = new ArrayList<Integer>();
+
+		for (File file : segmentFiles.getAllFiles()) {
+
+			ids.add(segmentFiles.getIndex(file));
+		}
+
+		Collections.sort(ids);
+
+		for (int id : ids) {
+
+			addSegment(id).scan(id == ids.get(ids.size() - 1));
+		}
+
+		activeSegment = segments.isEmpty() ? addSegment(0) : segments.get(segments.lastKey());
+	}
+
+	private Segment addSegment(int id) {
+
+		Segment segment = new Segment(id);
+
+		segments.put(id, segment);
+
+		return segment;
+	}
+
+	private void checkStartNewSegment() {
+
+		if (activeSegment.size >= maxSegmentSize) {
+
+			activeSegment.force();
+			activeSegment = addSegment(activeSegment.id + 1);
+		}
+	}
+
+	private void compact(Segment segment) {
+
+		long position = 0;
+
+		while (position < segment.size) {
+
+			Record record = segment.readRecordOrNull(position);
+
+			if (record == null) {
+
+				throw segment.createCorruptRecordException(position);
+			}
+
+			record.copyIfRequired(segment);
+
+			position += record.getSize();
+		}
+
+		activeSegment.force();
+
+		segments.remove(segment.id);
+		segment.delete();
+	}
+
+	private void appendRemoveRecord(int index) {
+
+		checkStartNewSegment();
+
+		activeSegment.append(createHeader(REMOVE_RECORD, index));
+	}
+
+	private void setLocation(int index, RecordLocation location) {
+
+		removeLocation(index);
+
+		locations.put(index, location);
+		location.segment.liveSize += location.getSize();
+	}
+
+	private void removeLocation(int index) {
+
+		RecordLocation location = locations.remove(index);
+
+		if (location != null) {
+
+			location.segment.liveSize -= location.getSize();
+		}
+	}
+
+	private RecordLocation getLocation(int index) {
+
+		RecordLocation location = locations.get(index);
+
+		if (location == null) {
+
+			throw new KSystemConfigException("No stored record for index: " + index);
+		}
+
+		return location;
+	}
+
+	private boolean olderSegmentsExist(Segment segment) {
+
+		return segments.firstKey() < segment.id;
+	}
+
+	private ByteBuffer createHeader(byte type, int index, byte[]... payloads) {
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+		header.putInt(RECORD_MARKER);
+		header.put(type);
+		header.putInt(index);
+		header.putInt(payloads.length > 0 ? payloads[0].length : 0);
+		header.putInt(payloads.length > 1 ? payloads[1].length : 0);
+		header.putLong(getChecksum(header.array(), payloads));
+
+		header.flip();
+
+		return header;
+	}
+
+	private long getChecksum(byte[] header, byte[]... payloads) {
+
+		CRC32 checksum = new CRC32();
+
+		checksum.update(header, CHECKED_HEADER_START, CHECKED_HEADER_SIZE);
+
+		for (byte[] payload : payloads) {
+
+			checksum.update(payload);
+		}
+
+		return checksum.getValue();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.util.concurrent.locks.*;
+
+/**
+ * @author Colin Puleston
+ */
+class StoreAccessLock {
+
+	private ReentrantReadWriteLock readWriteLock = null;
+
+	private Lock readLock;
+	private Lock writeLock;
+
+	StoreAccessLock(boolean concurrentReads) {
+
+		if (concurrentReads) {
+
+			readWriteLock = new ReentrantReadWriteLock();
+
+			readLock = readWriteLock.readLock();
+			writeLock = readWriteLock.writeLock();
+		}
+		else {
+
+			readLock = new ReentrantLock();
+			writeLock = readLock;
+		}
+	}
+
+	void startRead() {
+
+		readLock.lock();
+	}
+
+	void endRead() {
+
+		readLock.unlock();
+	}
+
+	void startWrite() {
+
+		writeLock.lock();
+	}
+
+	void endWrite() {
+
+		writeLock.unlock();
+	}
+
+	boolean readHeldByCurrentThread() {
+
+		return readWriteLock != null && readWriteLock.getReadHoldCount() != 0;
+	}
+}
@@ -25,6 +25,7 @@
 package uk.ac.manchester.cs.mekon.store.disk;
 
 import java.io.*;
+import java.util.*;
 
 import uk.ac.manchester.cs.mekon_util.*;
 
@@ -37,25 +38,39 @@ class StoreDirectory implements IDiskStoreNames {
 
 	private KFileStore profiles;
 	private KFileStore instances;
+	private List<KFileStore> otherFormatInstances = new ArrayList<KFileStore>();
 
-	StoreDirectory(File directory) {
+	StoreDirectory(File directory, IDiskStoreFormat format) {
 
 		this.directory = directory;
 
-		profiles = createFileStore(PROFILE_FILE_PREFIX);
-		instances = createFileStore(INSTANCE_FILE_PREFIX);
+		profiles = createFileStore(PROFILE_FILE_PREFIX, STORE_FILE_SUFFIX);
+		instances = createInstanceFileStore(format);
+
+		for (IDiskStoreFormat otherFormat : IDiskStoreFormat.values()) {
+
+			if (otherFormat != format) {
+
+				otherFormatInstances.add(createInstanceFileStore(otherFormat));
+			}
+		}
 	}
 
 	void remove(int index) {
 
 		profiles.removeFile(index);
-		instances.removeFile(index);
+		getInstanceFileStore(index).removeFile(index);
 	}
 
 	void clear() {
 
 		profiles.clear();
 		instances.clear();
+
+		for (KFileStore otherInstances : otherFormatInstances) {
+
+			otherInstances.clear();
+		}
 	}
 
 	boolean contains(int index) {
@@ -75,6 +90,11 @@ class StoreDirectory implements IDiskStoreNames {
 
 	File getInstanceFile(int index) {
 
+		return getInstanceFileStore(index).getFile(index);
+	}
+
+	File getInstanceOutputFile(int index) {
+
 		return instances.getFile(index);
 	}
 
@@ -88,9 +108,32 @@ class StoreDirectory implements IDiskStoreNames {
 		return profiles.getIndex(profileFile);
 	}
 
-	private KFileStore createFileStore(String filePrefix) {
+	private KFileStore getInstanceFileStore(int index) {
+
+		if (!instances.getFile(index).exists()) {
+
+			for (KFileStore otherInstances : otherFormatInstances) {
+
+				if (otherInstances.getFile(index).exists()) {
+
+					return otherInstances;
+				}
+			}
+		}
+
+		return instances;
+	}
+
+	private KFileStore createInstanceFileStore(IDiskStoreFormat format) {
+
+		String suffix = format == IDiskStoreFormat.BINARY ? BINARY_FILE_SUFFIX : STORE_FILE_SUFFIX;
+
+		return createFileStore(INSTANCE_FILE_PREFIX, suffix);
+	}
+
+	private KFileStore createFileStore(String filePrefix, String fileSuffix) {
 
-		KFileStore fileStore = new KFileStore(filePrefix, STORE_FILE_SUFFIX);
+		KFileStore fileStore = new KFileStore(filePrefix, fileSuffix);
 
 		fileStore.setDirectory(directory);
 
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * @author Colin Puleston
+ */
+class StoreStartupPool {
+
+	private ExecutorService executor = null;
+
+	static abstract class Processor<I, O> {
+
+		abstract O process(I input);
+	}
+
+	private class ProcessTask<I, O> implements Callable<O> {
+
+		private Processor<I, O> processor;
+		private I input;
+
+		public O call() {
+
+			return processor.process(input);
+		}
+
+		ProcessTask(Processor<I, O> processor, I input) {
+
+			this.processor = processor;
+			this.input = input;
+		}
+	}
+
+	StoreStartupPool(int threads) {
+
+		if (threads > 1) {
+
+			executor = Executors.newFixedThreadPool(threads);
+		}
+	}
+
+	<I, O>List<O> processAll(List<I> inputs, Processor<I, O> processor) {
+
+		return executor != null
+				? processConcurrently(inputs, processor)
+				: processSerially(inputs, processor);
+	}
+
+	void stop() {
+
+		if (executor != null) {
+
+			executor.shutdownNow();
+		}
+	}
+
+	private <I, O>List<O> processSerially(List<I> inputs, Processor<I, O> processor) {
+
+		List<O> outputs = new ArrayList<O>();
+
+		for (I input : inputs) {
+
+			outputs.add(processor.process(input));
+		}
+
+		return outputs;
+	}
+
+	private <I, O>List<O> processConcurrently(List<I> inputs, Processor<I, O> processor) {
+
+		List<Future<O>> futures = new ArrayList<Future<O>>();
+
+		for (I input : inputs) {
+
+			futures.add(executor.submit(new ProcessTask<I, O>(processor, input)));
+		}
+
+		List<O> outputs = new ArrayList<O>();
+
+		for (Future<O> future : futures) {
+
+			outputs.add(getOutput(future));
+		}
+
+		return outputs;
+	}
+
+	private <O>O getOutput(Future<O> future) {
+
+		try {
+
+			return future.get();
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new KSystemConfigException(e);
+		}
+		catch (ExecutionException e) {
+
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+
+				throw (RuntimeException)cause;
+			}
+
+			if (cause instanceof Error) {
+
+				throw (Error)cause;
+			}
+
+			throw new KSystemConfigException(e);
+		}
+	}
+}
@@ -42,6 +42,8 @@ class StoreStructure {
 	private CModel model;
 
 	private File mainDirectory;
+	private IDiskStoreLayout layout;
+	private IDiskStoreFormat format;
 
 	private List<SubStore> subStores = new ArrayList<SubStore>();
 	private Set<String> subStoreNames = new HashSet<String>();
@@ -107,10 +109,16 @@ class StoreStructure {
 		}
 	}
 
-	StoreStructure(CModel model, File mainDirectory) {
+	StoreStructure(
+			CModel model,
+			File mainDirectory,
+			IDiskStoreLayout layout,
+			IDiskStoreFormat format) {
 
 		this.model = model;
 		this.mainDirectory = mainDirectory;
+		this.layout = layout;
+		this.format = format;
 	}
 
 	void addSubStore(
@@ -126,6 +134,16 @@ class StoreStructure {
 		return mainDirectory;
 	}
 
+	IDiskStoreLayout getLayout() {
+
+		return layout;
+	}
+
+	IDiskStoreFormat getFormat() {
+
+		return format;
+	}
+
 	Set<String> getSubStoreNames() {
 
 		return subStoreNames;
@@ -40,6 +40,8 @@ class StoreStructureBuilder {
 	}
 
 	private File mainDirectory = getDefaultNamedMainDirectory(new File("."));
+	private IDiskStoreLayout layout = IDiskStoreLayout.INSTANCE_FILES;
+	private IDiskStoreFormat format = IDiskStoreFormat.XML;
 	private List<SubStore> subStores = new ArrayList<SubStore>();
 
 	private class SubStore {
@@ -74,6 +76,16 @@ class StoreStructureBuilder {
 		mainDirectory = getDefaultNamedMainDirectory(parentDir);
 	}
 
+	void setLayout(IDiskStoreLayout layout) {
+
+		this.layout = layout;
+	}
+
+	void setFormat(IDiskStoreFormat format) {
+
+		this.format = format;
+	}
+
 	void addSubStore(
 			String name,
 			boolean splitByFunction,
@@ -89,7 +101,12 @@ class StoreStructureBuilder {
 
 	StoreStructure build(CModel model) {
 
-		StoreStructure structure = new StoreStructure(model, mainDirectory);
+		return build(model, format);
+	}
+
+	StoreStructure build(CModel model, IDiskStoreFormat format) {
+
+		StoreStructure structure = new StoreStructure(model, mainDirectory, layout, format);
 
 		for (SubStore subStore : subStores) {
 
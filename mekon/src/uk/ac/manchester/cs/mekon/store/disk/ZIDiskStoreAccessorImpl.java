@@ -62,6 +62,21 @@ class ZIDiskStoreAccessorImpl extends ZIDiskStoreAccessor {
 		return StoreRegister.contains(model);
 	}
 
+	public IDiskStoreCacheStats getInstanceCacheStats(CModel model) {
+
+		return StoreRegister.get(model).getInstanceCacheStats();
+	}
+
+	public IDiskStoreCacheStats getMatchCacheStats(CModel model) {
+
+		return StoreRegister.get(model).getMatchCacheStats();
+	}
+
+	public IDiskStoreStartupTimings getStartupTimings(CModel model) {
+
+		return StoreRegister.get(model).getStartupTimings();
+	}
+
 	public void checkStopStore(CModel model) {
 
 		if (storeBuilders.remove(model) != null) {
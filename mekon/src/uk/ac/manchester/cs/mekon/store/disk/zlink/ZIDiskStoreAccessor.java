@@ -61,4 +61,10 @@ public abstract class ZIDiskStoreAccessor {
 	public abstract boolean storeFor(CModel model);
 
 	public abstract void checkStopStore(CModel model);
+
+	public abstract IDiskStoreCacheStats getInstanceCacheStats(CModel model);
+
+	public abstract IDiskStoreCacheStats getMatchCacheStats(CModel model);
+
+	public abstract IDiskStoreStartupTimings getStartupTimings(CModel model);
 }
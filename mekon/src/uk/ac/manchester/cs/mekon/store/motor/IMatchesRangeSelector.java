@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.motor;
+
+import java.util.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.*;
+
+/**
+ * Selects the sub-sets of sets of matches that fall within
+ * specified {@link IMatchesRange}s.
+ *
+ * @author Colin Puleston
+ */
+public class IMatchesRangeSelector {
+
+	/**
+	 * Selects the matches that fall within the specified range. For
+	 * ranked matches, the ranking-values of the selected matches
+	 * will be retained.
+	 *
+	 * @param matches Full set of matches
+	 * @param range Range of matches to select
+	 * @return Selected matches
+	 */
+	static public IMatches select(IMatches matches, IMatchesRange range) {
+
+		if (matches.ranked()) {
+
+			return selectRanked(matches, range);
+		}
+
+		return new IUnrankedMatches(select(matches.getAllMatches(), range));
+	}
+
+	/**
+	 * Selects the elements of an ordered list of matches that fall
+	 * within the specified range.
+	 *
+	 * @param matches Full ordered list of matches
+	 * @param range Range of matches to select
+	 * @return Selected matches
+	 */
+	static public List<CIdentity> select(List<CIdentity> matches, IMatchesRange range) {
+
+		int size = matches.size();
+		int start = Math.min(range.getOffset(), size);
+		int end = Math.min(range.getEnd(), size);
+
+		return new ArrayList<CIdentity>(matches.subList(start, end));
+	}
+
+	static private IMatches selectRanked(IMatches matches, IMatchesRange range) {
+
+		IRankedMatches selected = new IRankedMatches();
+
+		int start = range.getOffset();
+		int end = range.getEnd();
+		int rankStart = 0;
+
+		for (IMatchesRank rank : matches.getRanks()) {
+
+			if (rankStart >= end) {
+
+				break;
+			}
+
+			List<CIdentity> rankMatches = rank.getMatches();
+			int rankEnd = rankStart + rankMatches.size();
+
+			if (rankEnd > start) {
+
+				int from = Math.max(start - rankStart, 0);
+				int to = Math.min(end, rankEnd) - rankStart;
+
+				selected.addRank(rankMatches.subList(from, to), rank.getRankingValue());
+			}
+
+			rankStart = rankEnd;
+		}
+
+		return selected;
+	}
+}
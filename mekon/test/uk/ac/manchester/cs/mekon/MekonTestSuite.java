@@ -33,14 +33,18 @@ import uk.ac.manchester.cs.mekon.model.serial.*;
 import uk.ac.manchester.cs.mekon.store.*;
 import uk.ac.manchester.cs.mekon.store.disk.*;
 import uk.ac.manchester.cs.mekon.remote.*;
+import uk.ac.manchester.cs.mekon.remote.server.xml.*;
 import uk.ac.manchester.cs.mekon.network.*;
 
+import uk.ac.manchester.cs.mekon_util.xdoc.*;
+
 /**
  * @author Colin Puleston
  */
 @RunWith(Suite.class)
 @SuiteClasses({
 	MFrameTest.class,
+	CIdentityTest.class,
 	CFrameTest.class,
 	CDisjunctionTest.class,
 	CExtensionTest.class,
@@ -51,17 +55,31 @@ import uk.ac.manchester.cs.mekon.network.*;
 	CSourceTest.class,
 	MostSpecificCFramesTest.class,
 	IFrameTest.class,
+	IClassifierCacheTest.class,
 	ISlotTest.class,
 	ISlotValuesTest.class,
 	ISlotSpecsTest.class,
 	ISlotSpecsViaDisjunctionsTest.class,
 	IDiskStoreAccessTest.class,
+	SegmentedIDiskStoreAccessTest.class,
+	BinaryIDiskStoreAccessTest.class,
+	IDiskStoreFormatConverterTest.class,
 	IDiskStoreStructureTest.class,
+	SegmentStoreTest.class,
+	XDocumentTest.class,
+	BinaryDocumentTest.class,
+	MatcherCheckpointsTest.class,
 	IInstanceSerialiseTest.class,
+	IInstanceBinarySerialiseTest.class,
 	NDirectMatcherTest.class,
+	NDirectMatcherParallelTest.class,
 	RemoteIFrameTest.class,
 	RemoteISlotValuesTest.class,
 	RemoteIStoreAccessTest.class,
-	RemoteIMatcherTest.class})
+	RemoteIMatcherTest.class,
+	RemoteInstanceDeltaTest.class,
+	RemoteNetTransportTest.class,
+	InstanceSessionsTest.class,
+	XServerTest.class})
 public class MekonTestSuite {
 }
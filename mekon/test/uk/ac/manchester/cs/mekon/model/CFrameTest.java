@@ -145,6 +145,34 @@ public class CFrameTest extends CValueTest<CFrame> {
 		testNeitherSubsumption(a, d);
 	}
 
+	@Test
+	public void test_subsumptionTestingAfterPostInitialisationUpdates() {
+
+		CFrame a = frames.create("A");
+		CFrame b = frames.create("B");
+		CFrame c = frames.create("C");
+		CFrame d = frames.create("D");
+
+		addSuperFrame(b, a);
+		addSuperFrame(c, b);
+
+		model.serverModel.optimiseSubsumptionTesting();
+
+		testStrictSubsumption(a, c);
+		testNeitherSubsumption(d, c);
+
+		addSuperFrame(b, d);
+
+		testStrictSubsumption(d, b);
+		testStrictSubsumption(d, c);
+
+		model.serverModel.removeFrame(b.asAtomicFrame());
+
+		testStrictSubsumption(a, c);
+		testStrictSubsumption(d, c);
+		testNeitherSubsumption(b, c);
+	}
+
 	@Test
 	public void test_hierarchyBuilding() {
 
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model;
+
+import java.util.*;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class CIdentityTest {
+
+	@Test
+	public void test_equalityAndHashing() {
+
+		CIdentity simple = new CIdentity("AB", "label-1");
+		CIdentity composite = new CIdentity(Arrays.asList("A", "B"), "label-2");
+		CIdentity other = new CIdentity("AC");
+
+		assertEquals("AB", composite.getIdentifier());
+
+		assertEquals(simple, composite);
+		assertEquals(composite, simple);
+		assertEquals(simple.hashCode(), composite.hashCode());
+
+		assertFalse(simple.equals(other));
+		assertFalse(composite.equals(other));
+	}
+
+	@Test
+	public void test_derivedIdentityEquality() {
+
+		CIdentity composite = new CIdentity(Arrays.asList("A", "B"), "label");
+		CIdentity derived = composite.deriveIdentity("new-label");
+
+		assertEquals(composite, derived);
+		assertEquals("AB", derived.getIdentifier());
+		assertEquals("new-label", derived.getLabel());
+	}
+
+	@Test
+	public void test_denseIds() {
+
+		CIdentityIds ids = new CIdentityIds();
+
+		CIdentity first = new CIdentity("A");
+		CIdentity second = new CIdentity("B");
+
+		assertEquals(-1, ids.lookupId(first));
+
+		assertEquals(0, ids.getId(first));
+		assertEquals(1, ids.getId(second));
+		assertEquals(0, ids.getId(first));
+
+		assertEquals(0, ids.lookupId(new CIdentity("A", "other-label")));
+		assertEquals(2, ids.size());
+		assertSame(second, ids.getIdentity(1));
+	}
+
+	@Test
+	public void test_modelScopedIds() {
+
+		TestCModel model = new TestCModel();
+		CFrame frame = model.serverCFrames.create("A");
+		CIdentityIds ids = model.serverModel.getIdentityIds();
+
+		int id = ids.lookupId(frame.getIdentity());
+
+		assertTrue(id != -1);
+		assertEquals(id, ids.lookupId(new CIdentity(frame.getIdentity().getIdentifier())));
+		assertEquals(-1, new CIdentityIds().lookupId(frame.getIdentity()));
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class IClassifierCacheTest {
+
+	private MonitorIClassifier monitorIClassifier = new MonitorIClassifier();
+
+	private TestIFrames frames;
+
+	@Before
+	public void setUp() {
+
+		TestCModel model = new TestCModel(monitorIClassifier);
+
+		frames = model.createAssertionIFrames();
+	}
+
+	@Test
+	public void test_unchangedStructuresNotReclassified() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+		IFrame fc = frames.create("C");
+
+		ISlot sab = frames.repeatTypesSlots.create(fa, "sab", fb.getType());
+		ISlot sbc = frames.repeatTypesSlots.create(fb, "sbc", fc.getType());
+
+		monitorIClassifier.setClassificationCacheSize(10);
+
+		testUpdate(sab, fb, true, fa);
+		testUpdate(sbc, fc, true, fb, fa);
+		testUpdate(sbc, fc, false, fb);
+		testUpdate(sbc, fc, true);
+
+		monitorIClassifier.clearClassificationCache();
+
+		testUpdate(sbc, fc, false, fb, fa);
+	}
+
+	@Test
+	public void test_noCachingByDefault() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+
+		ISlot sab = frames.repeatTypesSlots.create(fa, "sab", fb.getType());
+
+		testUpdate(sab, fb, true, fa);
+		testUpdate(sab, fb, false, fa);
+		testUpdate(sab, fb, true, fa);
+	}
+
+	private void testUpdate(
+					ISlot slot,
+					IFrame value,
+					boolean add,
+					IFrame... expectedClassifieds) {
+
+		monitorIClassifier.resetRegisters();
+
+		if (add) {
+
+			slot.getValuesEditor().add(value);
+		}
+		else {
+
+			slot.getValuesEditor().remove(value);
+		}
+
+		assertEquals(
+			getTypeIds(expectedClassifieds),
+			monitorIClassifier.getClassifiedTypes());
+	}
+
+	private List<CIdentity> getTypeIds(IFrame... frames) {
+
+		List<CIdentity> typeIds = new ArrayList<CIdentity>();
+
+		for (IFrame frame : frames) {
+
+			typeIds.add(frame.getType().getIdentity());
+		}
+
+		return typeIds;
+	}
+}
@@ -25,6 +25,7 @@
 package uk.ac.manchester.cs.mekon.model;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.junit.Test;
 import org.junit.Before;
@@ -68,6 +69,35 @@ public class IFrameTest {
 		}
 	}
 
+	private class UpdatingListener implements IUpdatingListener {
+
+		List<IFrame> updatedFrames = new ArrayList<IFrame>();
+
+		public void onDeferredUpdatesApplied(List<IFrame> updatedFrames) {
+
+			this.updatedFrames.addAll(updatedFrames);
+		}
+	}
+
+	private class QueueingExecutor implements Executor {
+
+		private BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<Runnable>();
+
+		public void execute(Runnable task) {
+
+			tasks.add(task);
+		}
+
+		Runnable awaitTask() throws InterruptedException {
+
+			Runnable task = tasks.poll(5, TimeUnit.SECONDS);
+
+			assertNotNull("Delayed auto-update not dispatched", task);
+
+			return task;
+		}
+	}
+
 	@Before
 	public void setUp() {
 
@@ -134,6 +164,88 @@ public class IFrameTest {
 		testUpdateSlotValue(fb, "sbc", fc, Arrays.asList(fb, fa));
 	}
 
+	@Test
+	public void test_batchedSlotValueUpdates() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+		IFrame fc = frames.create("C");
+
+		ISlot sab = slots.create(fa, "sab", fb.getType());
+		ISlot sbc = slots.create(fb, "sbc", fc.getType());
+
+		IUpdating updating = fa.getType().getModel().getIUpdating();
+		UpdatingListener listener = new UpdatingListener();
+
+		updating.addUpdatingListener(listener);
+		monitorIReasoner.resetRegisters();
+
+		updating.startUpdateBatch();
+
+		sab.getValuesEditor().add(fb);
+		sbc.getValuesEditor().add(fc);
+
+		assertTrue(updating.updatesPending());
+		testList(monitorIReasoner.getUpdateds(), NO_IFRAMES);
+
+		updating.endUpdateBatch();
+
+		assertFalse(updating.updatesPending());
+		testList(monitorIReasoner.getUpdateds(), Arrays.asList(fa, fb));
+		testList(listener.updatedFrames, Arrays.asList(fa, fb));
+	}
+
+	@Test
+	public void test_delayedSlotValueUpdates() throws InterruptedException {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+		IFrame fc = frames.create("C");
+
+		ISlot sab = slots.create(fa, "sab", fb.getType());
+		ISlot sbc = slots.create(fb, "sbc", fc.getType());
+
+		IUpdating updating = fa.getType().getModel().getIUpdating();
+		UpdatingListener listener = new UpdatingListener();
+		QueueingExecutor executor = new QueueingExecutor();
+
+		updating.setAutoUpdateDelay(10);
+		updating.setAutoUpdateExecutor(executor);
+		updating.addUpdatingListener(listener);
+		monitorIReasoner.resetRegisters();
+
+		sab.getValuesEditor().add(fb);
+		sbc.getValuesEditor().add(fc);
+
+		assertTrue(updating.updatesPending());
+		testList(monitorIReasoner.getUpdateds(), NO_IFRAMES);
+
+		executor.awaitTask().run();
+
+		assertFalse(updating.updatesPending());
+		testList(monitorIReasoner.getUpdateds(), Arrays.asList(fa, fb));
+		testList(listener.updatedFrames, Arrays.asList(fa, fb));
+	}
+
+	@Test
+	public void test_noDelayedUpdatesWithoutExecutor() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+
+		ISlot sab = slots.create(fa, "sab", fb.getType());
+
+		IUpdating updating = fa.getType().getModel().getIUpdating();
+
+		updating.setAutoUpdateDelay(10);
+		monitorIReasoner.resetRegisters();
+
+		sab.getValuesEditor().add(fb);
+
+		assertFalse(updating.updatesPending());
+		testList(monitorIReasoner.getUpdateds(), Arrays.asList(fa));
+	}
+
 	@Test
 	public void test_copyAndMatch() {
 
@@ -150,6 +262,67 @@ public class IFrameTest {
 		testCopied(i, createFreeCopy(i));
 	}
 
+	@Test
+	public void test_structuralHashCodeUpdates() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+		IFrame fc = frames.create("C");
+
+		slots.create(fa, "sab", fb.getType()).getValuesEditor().add(fb);
+
+		int startCode = fa.structuralHashCode();
+
+		assertEquals(startCode, fa.structuralHashCode());
+
+		slots.create(fb, "sbc", fc.getType()).getValuesEditor().add(fc);
+
+		assertFalse(startCode == fa.structuralHashCode());
+		assertEquals(fa.copy().structuralHashCode(), fa.structuralHashCode());
+	}
+
+	@Test
+	public void test_structuralHashCodeIgnoresEmptySlots() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+
+		slots.create(fa, "sab", fb.getType()).getValuesEditor().add(fb);
+
+		IFrame copy = fa.copy();
+
+		slots.create(copy, "sempty", fb.getType());
+
+		assertTrue(copy.equalsStructure(fa));
+		assertEquals(fa.structuralHashCode(), copy.structuralHashCode());
+	}
+
+	@Test
+	public void test_cycleDetectionUpdates() {
+
+		IFrame fa = frames.create("A");
+		IFrame fb = frames.create("B");
+		IFrame fc = frames.create("C");
+
+		slots.create(fa, "sab", fb.getType()).getValuesEditor().add(fb);
+		slots.create(fb, "sbc", fc.getType()).getValuesEditor().add(fc);
+
+		ISlot sca = slots.create(fc, "sca", fa.getType());
+
+		assertFalse(fa.leadsToCycle());
+		assertFalse(fc.leadsToCycle());
+
+		sca.getValuesEditor().add(fa);
+
+		assertTrue(fa.leadsToCycle());
+		assertTrue(fb.leadsToCycle());
+
+		sca.getValuesEditor().remove(fa);
+
+		assertFalse(fb.leadsToCycle());
+		assertFalse(fa.leadsToCycle());
+	}
+
 	@Test
 	public void test_subsumption() {
 
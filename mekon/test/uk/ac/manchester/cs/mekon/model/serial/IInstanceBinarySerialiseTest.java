@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.model.serial;
+
+import java.io.*;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class IInstanceBinarySerialiseTest {
+
+	private TestCModel model = new TestCModel();
+	private TestISlots slots = model.createAssertionIFrames().repeatTypesSlots;
+	private TestInstances instances = new TestInstances(model);
+
+	private boolean freeInstances = false;
+	private boolean includeEmptySlots = false;
+	private boolean includeAbstractValues = false;
+
+	@Test
+	public void test_renderAndParse() {
+
+		testRenderAndParse();
+	}
+
+	@Test
+	public void test_renderAndParseFree() {
+
+		freeInstances = true;
+
+		testRenderAndParse();
+	}
+
+	@Test
+	public void test_renderAndParseWithEmptySlots() {
+
+		includeEmptySlots = true;
+
+		testRenderAndParse();
+	}
+
+	@Test
+	public void test_renderAndParseWithDynamicSlotInsertion() {
+
+		instances.setDynamicSlotInsertion();
+
+		testRenderAndParse();
+	}
+
+	@Test
+	public void test_renderAndParseWithAbstractValues() {
+
+		includeAbstractValues = true;
+
+		testRenderAndParse();
+	}
+
+	@Test
+	public void test_renderAndParseWithCustomString() {
+
+		CString valueType = TestCustomStringConfig.getValueType();
+
+		IFrame original = createTestInstance();
+		ISlot slot = slots.create(original, "customStringSlot", valueType);
+
+		slot.getValuesEditor().add(valueType.instantiate("CUSTOM"));
+
+		IRegenInstance parseOut = parse(render(original));
+		IFrame regen = parseOut.getRootFrame();
+		ISlot regenSlot = regen.getSlots().get(slot.getType().getIdentity());
+
+		assertEquals(IRegenStatus.FULLY_VALID, parseOut.getStatus());
+		assertTrue(regen.equalsStructure(original));
+		assertEquals(valueType, regenSlot.getValueType());
+	}
+
+	@Test
+	public void test_detectFormat() {
+
+		IFrame instance = createTestInstance();
+
+		assertTrue(IInstanceBinaryParser.binarySerialisation(toInput(render(instance))));
+		assertFalse(IInstanceBinaryParser.binarySerialisation(toInput(renderXML(instance))));
+	}
+
+	private void testRenderAndParse() {
+
+		IFrame original = createTestInstance();
+		IRegenInstance parseOut = parse(render(original));
+
+		assertEquals(IRegenStatus.FULLY_VALID, parseOut.getStatus());
+		assertTrue(parseOut.getRootFrame().equalsStructure(original));
+	}
+
+	private byte[] render(IFrame frame) {
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		new IInstanceBinaryRenderer().render(frame, output);
+
+		return output.toByteArray();
+	}
+
+	private byte[] renderXML(IFrame frame) {
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		new IInstanceRenderer().render(new IInstanceRenderInput(frame)).writeToOutput(output);
+
+		return output.toByteArray();
+	}
+
+	private IRegenInstance parse(byte[] rendering) {
+
+		IInstanceBinaryParser parser = new IInstanceBinaryParser(model.serverModel);
+
+		parser.setFreeInstances(freeInstances);
+
+		return parser.parse(toInput(rendering));
+	}
+
+	private InputStream toInput(byte[] rendering) {
+
+		return new ByteArrayInputStream(rendering);
+	}
+
+	private IFrame createTestInstance() {
+
+		IFrame instance = createCategoryTestInstance();
+
+		if (includeEmptySlots) {
+
+			addEmptySlot(instance);
+		}
+
+		return instance;
+	}
+
+	private IFrame createCategoryTestInstance() {
+
+		instances.setFunction(getFunction());
+
+		return includeAbstractValues
+				? instances.getAbstractSubsumer()
+				: instances.getBasic();
+	}
+
+	private void addEmptySlot(IFrame instance) {
+
+		slots.create(instance, "emptySlot", instance.getType());
+	}
+
+	private IFrameFunction getFunction() {
+
+		return includeAbstractValues ? IFrameFunction.QUERY : IFrameFunction.ASSERTION;
+	}
+}
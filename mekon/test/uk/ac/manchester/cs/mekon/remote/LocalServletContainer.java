@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.*;
+import java.util.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+
+import com.sun.net.httpserver.*;
+
+/**
+ * Minimal embedded servlet container, hosting a single servlet on a
+ * local HTTP server, and recording the connections and headers of the
+ * exchanges that it handles.
+ *
+ * @author Colin Puleston
+ */
+class LocalServletContainer {
+
+	private Servlet servlet;
+	private HttpServer httpServer;
+
+	private Set<Integer> clientPorts = new HashSet<Integer>();
+	private Headers lastRequestHeaders = null;
+	private Headers lastResponseHeaders = null;
+
+	private class ExchangeHandler implements HttpHandler {
+
+		public void handle(HttpExchange exchange) throws IOException {
+
+			recordExchange(exchange);
+
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+			try {
+
+				servlet.service(createRequest(exchange), createResponse(exchange, body));
+
+				exchange.sendResponseHeaders(200, body.size());
+				exchange.getResponseBody().write(body.toByteArray());
+			}
+			catch (ServletException e) {
+
+				exchange.sendResponseHeaders(500, -1);
+			}
+			finally {
+
+				exchange.close();
+			}
+		}
+	}
+
+	private class RequestHandler implements InvocationHandler {
+
+		private HttpExchange exchange;
+
+		RequestHandler(HttpExchange exchange) {
+
+			this.exchange = exchange;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) {
+
+			String name = method.getName();
+
+			if (name.equals("getHeader")) {
+
+				return exchange.getRequestHeaders().getFirst((String)args[0]);
+			}
+
+			if (name.equals("getContentType")) {
+
+				return exchange.getRequestHeaders().getFirst("Content-Type");
+			}
+
+			if (name.equals("getInputStream")) {
+
+				return createInputStream(exchange.getRequestBody());
+			}
+
+			throw new UnsupportedOperationException(name);
+		}
+	}
+
+	private class ResponseHandler implements InvocationHandler {
+
+		private HttpExchange exchange;
+		private OutputStream body;
+
+		ResponseHandler(HttpExchange exchange, OutputStream body) {
+
+			this.exchange = exchange;
+			this.body = body;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) {
+
+			String name = method.getName();
+
+			if (name.equals("setHeader")) {
+
+				exchange.getResponseHeaders().set((String)args[0], (String)args[1]);
+
+				return null;
+			}
+
+			if (name.equals("setContentType")) {
+
+				exchange.getResponseHeaders().set("Content-Type", (String)args[0]);
+
+				return null;
+			}
+
+			if (name.equals("getOutputStream")) {
+
+				return createOutputStream(body);
+			}
+
+			throw new UnsupportedOperationException(name);
+		}
+	}
+
+	LocalServletContainer(Servlet servlet) throws IOException {
+
+		this.servlet = servlet;
+
+		httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+
+		httpServer.createContext("/", new ExchangeHandler());
+		httpServer.start();
+	}
+
+	void stop() {
+
+		httpServer.stop(0);
+	}
+
+	URL getURL() throws MalformedURLException {
+
+		InetSocketAddress address = httpServer.getAddress();
+
+		return new URL("http", address.getHostString(), address.getPort(), "/");
+	}
+
+	synchronized int getConnectionCount() {
+
+		return clientPorts.size();
+	}
+
+	synchronized String getLastRequestHeader(String name) {
+
+		return lastRequestHeaders.getFirst(name);
+	}
+
+	synchronized String getLastResponseHeader(String name) {
+
+		return lastResponseHeaders.getFirst(name);
+	}
+
+	private synchronized void recordExchange(HttpExchange exchange) {
+
+		clientPorts.add(exchange.getRemoteAddress().getPort());
+
+		lastRequestHeaders = exchange.getRequestHeaders();
+		lastResponseHeaders = exchange.getResponseHeaders();
+	}
+
+	private HttpServletRequest createRequest(HttpExchange exchange) {
+
+		return createProxy(HttpServletRequest.class, new RequestHandler(exchange));
+	}
+
+	private HttpServletResponse createResponse(HttpExchange exchange, OutputStream body) {
+
+		return createProxy(HttpServletResponse.class, new ResponseHandler(exchange, body));
+	}
+
+	private <T>T createProxy(Class<T> type, InvocationHandler handler) {
+
+		ClassLoader loader = getClass().getClassLoader();
+
+		return type.cast(Proxy.newProxyInstance(loader, new Class<?>[]{type}, handler));
+	}
+
+	private ServletInputStream createInputStream(final InputStream input) {
+
+		return new ServletInputStream() {
+
+			public int read() throws IOException {
+
+				return input.read();
+			}
+
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+
+				return input.read(bytes, offset, length);
+			}
+		};
+	}
+
+	private ServletOutputStream createOutputStream(final OutputStream output) {
+
+		return new ServletOutputStream() {
+
+			public void write(int value) throws IOException {
+
+				output.write(value);
+			}
+
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+
+				output.write(bytes, offset, length);
+			}
+		};
+	}
+}
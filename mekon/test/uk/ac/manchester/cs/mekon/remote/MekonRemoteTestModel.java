@@ -37,6 +37,7 @@ public class MekonRemoteTestModel {
 
 	public final CModel clientModel;
 	public final IStore clientStore;
+	public final XClientStore xClientStore;
 
 	private CModel serverModel;
 	private XServer server;
@@ -45,7 +46,7 @@ public class MekonRemoteTestModel {
 
 		protected XDocument performActionOnServer(XDocument request) {
 
-			return server.performAction(request);
+			return performAction(request);
 		}
 
 		LocalXClientModel() {
@@ -58,7 +59,7 @@ public class MekonRemoteTestModel {
 
 		protected XDocument performActionOnServer(XDocument request) {
 
-			return server.performAction(request);
+			return performAction(request);
 		}
 
 		LocalXClientStore(XClientModel xClientModel) {
@@ -82,7 +83,13 @@ public class MekonRemoteTestModel {
 		XClientModel xClientModel = new LocalXClientModel();
 
 		clientModel = xClientModel.getCModel();
-		clientStore = new LocalXClientStore(xClientModel).getIStore();
+		xClientStore = new LocalXClientStore(xClientModel);
+		clientStore = xClientStore.getIStore();
+	}
+
+	public XServer getServer() {
+
+		return server;
 	}
 
 	public IStore resetServerStore() {
@@ -96,4 +103,9 @@ public class MekonRemoteTestModel {
 
 		return serverStore;
 	}
+
+	protected XDocument performAction(XDocument request) {
+
+		return server.performAction(request);
+	}
 }
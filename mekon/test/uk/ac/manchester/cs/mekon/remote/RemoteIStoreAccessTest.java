@@ -24,6 +24,11 @@
 
 package uk.ac.manchester.cs.mekon.remote;
 
+import java.util.*;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
 import uk.ac.manchester.cs.mekon.model.*;
 import uk.ac.manchester.cs.mekon.store.*;
 
@@ -32,9 +37,33 @@ import uk.ac.manchester.cs.mekon.store.*;
  */
 public class RemoteIStoreAccessTest extends IStoreAccessTest {
 
+	static private final CIdentity STORED_ID = new CIdentity("Stored");
+	static private final CIdentity ABSENT_ID = new CIdentity("Absent");
+
 	private TestCModel testModel;
 	private MekonRemoteTestModel remoteModel;
 
+	@Test
+	public void test_batchRetrieve() {
+
+		IFrame stored = new TestInstances(testModel).getBasic();
+
+		remoteModel.clientStore.add(stored, STORED_ID);
+
+		List<CIdentity> ids = Arrays.asList(STORED_ID, ABSENT_ID);
+
+		List<IRegenInstance> regens = remoteModel.xClientStore.getAll(ids);
+		List<IRegenType> types = remoteModel.xClientStore.getTypes(ids);
+
+		assertEquals(2, regens.size());
+		assertTrue(regens.get(0).getRootFrame().equalsStructure(stored));
+		assertNull(regens.get(1));
+
+		assertEquals(2, types.size());
+		assertEquals(stored.getType().getIdentity(), types.get(0).getRootTypeId());
+		assertNull(types.get(1));
+	}
+
 	protected TestCModel createTestModel() {
 
 		testModel = new TestCModel();
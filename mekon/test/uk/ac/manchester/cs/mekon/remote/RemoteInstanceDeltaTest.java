@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.model.motor.*;
+import uk.ac.manchester.cs.mekon.remote.util.*;
+import uk.ac.manchester.cs.mekon.remote.xml.*;
+import uk.ac.manchester.cs.mekon_util.xdoc.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class RemoteInstanceDeltaTest {
+
+	static private final int INVALID_SESSION_VERSION = -999;
+
+	private NewFrameReasoner reasoner = new NewFrameReasoner();
+
+	private List<String> actionTypes = new ArrayList<String>();
+	private boolean invalidateDeltaVersions = false;
+	private boolean replayDeltas = false;
+
+	private List<Boolean> replayedDeltaNullResponses = new ArrayList<Boolean>();
+
+	private TestCModel testModel;
+	private MonitoredRemoteTestModel remoteModel;
+
+	private CFrame ta;
+	private CFrame tb;
+	private CFrame tc;
+	private CFrame tex;
+	private CFrame tey;
+
+	private CSlot sab;
+	private CSlot sac;
+	private CSlot sae;
+
+	private class MonitoredRemoteTestModel extends MekonRemoteTestModel {
+
+		MonitoredRemoteTestModel() {
+
+			super(testModel.serverModel);
+		}
+
+		protected XDocument performAction(XDocument request) {
+
+			XNode rootNode = request.getRootNode();
+			String actionType = rootNode.getString(XRequestVocab.ACTION_TYPE_ATTR);
+
+			if (invalidateDeltaVersions && deltaAction(actionType)) {
+
+				rootNode.setValue(
+					XRequestVocab.INSTANCE_SESSION_VERSION_ATTR,
+					INVALID_SESSION_VERSION);
+			}
+
+			actionTypes.add(actionType);
+
+			XDocument response = super.performAction(request);
+
+			if (replayDeltas && deltaAction(actionType)) {
+
+				replayedDeltaNullResponses.add(nullResponse(super.performAction(request)));
+			}
+
+			return response;
+		}
+
+		private boolean nullResponse(XDocument response) {
+
+			return response.getRootNode().hasChild(XResponseVocab.NULL_RESPONSE_ID);
+		}
+
+		private boolean deltaAction(String actionType) {
+
+			return actionType.equals(RModelActionType.UPDATE_DELTA.name());
+		}
+	}
+
+	private class NewFrameReasoner extends IReasonerDefault {
+
+		private boolean enabled = false;
+
+		public Set<IUpdateOp> update(IFrame frame, IEditor iEditor, Set<IUpdateOp> ops) {
+
+			if (enabled && frame.getType().equals(ta)) {
+
+				ISlots slots = frame.getSlots();
+				ISlot triggerSlot = slots.get(sae.getIdentity());
+				ISlot targetSlot = slots.get(sac.getIdentity());
+
+				if (triggerSlot.getValues().contains(tey) && targetSlot.getValues().isEmpty()) {
+
+					iEditor.getSlotValuesEditor(targetSlot).add(FramesTestUtils.createIFrame(tc));
+				}
+			}
+
+			return Collections.<IUpdateOp>emptySet();
+		}
+	}
+
+	@Before
+	public void setUp() {
+
+		testModel = new TestCModel(reasoner);
+
+		TestCFrames frameTypes = testModel.serverCFrames;
+		TestCSlots slotTypes = frameTypes.repeatTypesSlots;
+
+		ta = frameTypes.create("A");
+		tb = frameTypes.create("B");
+		tc = frameTypes.create("C");
+		tex = frameTypes.create("EX");
+		tey = frameTypes.create("EY");
+
+		CFrame te = frameTypes.create("E");
+
+		FramesTestUtils.addSuperFrame(tex, te);
+		FramesTestUtils.addSuperFrame(tey, te);
+
+		sab = slotTypes.create(ta, "sab", tb);
+		sac = slotTypes.create(ta, "sac", tc);
+		sae = slotTypes.create(ta, "sae", te.getType());
+
+		remoteModel = new MonitoredRemoteTestModel();
+
+		testModel.setClientModel(remoteModel.clientModel);
+	}
+
+	@Test
+	public void test_deltaUpdate() {
+
+		IFrame fa = createEstablishedInstance();
+		IFrame fb = getSingleValue(fa, sab);
+
+		addValue(fa, sae, tey);
+		testActions(RModelActionType.UPDATE_DELTA);
+
+		removeValue(fa, sab, fb);
+		testActions(RModelActionType.UPDATE_DELTA);
+
+		testValues(fa, sae, tex, tey);
+		testValues(fa, sab);
+	}
+
+	@Test
+	public void test_fallbackOnVersionMismatch() {
+
+		IFrame fa = createEstablishedInstance();
+
+		invalidateDeltaVersions = true;
+
+		addValue(fa, sae, tey);
+		testActions(RModelActionType.UPDATE_DELTA, RModelActionType.UPDATE_ASSERTION);
+		testValues(fa, sae, tex, tey);
+
+		invalidateDeltaVersions = false;
+
+		removeValue(fa, sae, tex);
+		testActions(RModelActionType.UPDATE_DELTA);
+		testValues(fa, sae, tey);
+	}
+
+	@Test
+	public void test_replayedDeltaRejected() {
+
+		IFrame fa = createEstablishedInstance();
+
+		replayDeltas = true;
+
+		addValue(fa, sae, tey);
+		testActions(RModelActionType.UPDATE_DELTA);
+		testValues(fa, sae, tex, tey);
+
+		assertEquals(Collections.singletonList(true), replayedDeltaNullResponses);
+
+		replayDeltas = false;
+
+		removeValue(fa, sae, tex);
+		testActions(RModelActionType.UPDATE_DELTA);
+		testValues(fa, sae, tey);
+	}
+
+	@Test
+	public void test_fallbackOnEvictedSession() {
+
+		remoteModel.getServer().setMaxInstanceSessions(1);
+
+		IFrame fa1 = createEstablishedInstance();
+
+		createEstablishedInstance();
+
+		addValue(fa1, sae, tey);
+		testActions(RModelActionType.UPDATE_DELTA, RModelActionType.UPDATE_ASSERTION);
+		testValues(fa1, sae, tex, tey);
+	}
+
+	@Test
+	public void test_fallbackOnServerCreatedFrames() {
+
+		IFrame fa = createEstablishedInstance();
+
+		reasoner.enabled = true;
+
+		addValue(fa, sae, tey);
+		testActions(
+			RModelActionType.UPDATE_DELTA,
+			RModelActionType.UPDATE_ASSERTION,
+			RModelActionType.INITIALISE_ASSERTION);
+		testValues(fa, sae, tex, tey);
+
+		assertEquals(toClientType(tc), getSingleValue(fa, sac).getType());
+
+		removeValue(fa, sae, tex);
+		testActions(RModelActionType.UPDATE_DELTA);
+		testValues(fa, sae, tey);
+	}
+
+	private IFrame createEstablishedInstance() {
+
+		IFrame fa = createInstance(ta);
+
+		addValue(fa, sab, createInstance(tb));
+		addValue(fa, sae, tex);
+
+		resetActionTypes();
+
+		return fa;
+	}
+
+	private IFrame createInstance(CFrame serverType) {
+
+		return FramesTestUtils.createIFrame(toClientType(serverType));
+	}
+
+	private void addValue(IFrame container, CSlot serverSlotType, IValue value) {
+
+		getSlot(container, serverSlotType).getValuesEditor().add(toClientValue(value));
+	}
+
+	private void removeValue(IFrame container, CSlot serverSlotType, IValue value) {
+
+		getSlot(container, serverSlotType).getValuesEditor().remove(toClientValue(value));
+	}
+
+	private IFrame getSingleValue(IFrame container, CSlot serverSlotType) {
+
+		List<IValue> values = getSlot(container, serverSlotType).getValues().asList();
+
+		assertEquals(1, values.size());
+
+		return (IFrame)values.get(0);
+	}
+
+	private List<String> resetActionTypes() {
+
+		List<String> types = new ArrayList<String>(actionTypes);
+
+		actionTypes.clear();
+
+		return types;
+	}
+
+	private void testActions(RModelActionType... expectedTypes) {
+
+		List<String> expectedNames = new ArrayList<String>();
+
+		for (RModelActionType type : expectedTypes) {
+
+			expectedNames.add(type.name());
+		}
+
+		assertEquals(expectedNames, resetActionTypes());
+	}
+
+	private void testValues(IFrame container, CSlot serverSlotType, IValue... expectedValues) {
+
+		List<IValue> expected = new ArrayList<IValue>();
+
+		for (IValue value : expectedValues) {
+
+			expected.add(toClientValue(value));
+		}
+
+		assertEquals(expected, getSlot(container, serverSlotType).getValues().asList());
+	}
+
+	private ISlot getSlot(IFrame container, CSlot serverSlotType) {
+
+		return container.getSlots().get(serverSlotType.getIdentity());
+	}
+
+	private IValue toClientValue(IValue value) {
+
+		return value instanceof CFrame ? toClientType((CFrame)value) : value;
+	}
+
+	private CFrame toClientType(CFrame serverType) {
+
+		return testModel.getClientCFrames().get(serverType.getIdentity());
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.manage.*;
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.*;
+import uk.ac.manchester.cs.mekon.remote.client.*;
+import uk.ac.manchester.cs.mekon.remote.server.*;
+import uk.ac.manchester.cs.mekon.remote.server.xml.*;
+import uk.ac.manchester.cs.mekon_util.remote.*;
+import uk.ac.manchester.cs.mekon_util.remote.client.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class RemoteNetTransportTest {
+
+	static private final CIdentity TYPE_ID = new CIdentity("Type");
+	static private final CIdentity INSTANCE_ID = new CIdentity("Instance");
+
+	private IStore serverStore;
+	private LocalServletContainer container;
+
+	private boolean acceptBinaryRequests = true;
+
+	private class TestRMekonServer extends RMekonServer {
+
+		static private final long serialVersionUID = -1;
+
+		private XServer xServer;
+
+		TestRMekonServer(XServer xServer) {
+
+			this.xServer = xServer;
+		}
+
+		public void init() {
+
+			initNetServer();
+		}
+
+		protected XServer createXServer() {
+
+			return xServer;
+		}
+
+		protected boolean acceptBinaryRequests() {
+
+			return acceptBinaryRequests;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+
+		TestCModel model = new TestCModel();
+
+		model.serverCFrames.create(TYPE_ID.getIdentifier());
+
+		serverStore = IDiskStoreManager.getBuilder(model.serverModel).build();
+		serverStore.clear();
+
+		XServer xServer = new XServer(model.serverModel);
+
+		xServer.setStore(serverStore);
+
+		TestRMekonServer netServer = new TestRMekonServer(xServer);
+
+		netServer.init();
+		container = new LocalServletContainer(netServer);
+	}
+
+	@After
+	public void clearUp() {
+
+		container.stop();
+		serverStore.clear();
+	}
+
+	@Test
+	public void test_uncompressedTransport() throws IOException {
+
+		RNetClient netClient = createNetClient();
+
+		netClient.setAcceptCompressedResponses(false);
+
+		testActions(netClient);
+		testLastExchange(null, null, RNetVocab.XML_CONTENT_TYPE);
+	}
+
+	@Test
+	public void test_compressedTransport() throws IOException {
+
+		RNetClient netClient = createNetClient();
+
+		netClient.setRequestCompression(RNetCompression.DEFLATE);
+
+		testActions(netClient);
+		testLastExchange("deflate", "gzip", RNetVocab.XML_CONTENT_TYPE);
+	}
+
+	@Test
+	public void test_binaryTransport() throws IOException {
+
+		RNetClient netClient = createNetClient();
+
+		netClient.setRequestCompression(RNetCompression.GZIP);
+		netClient.setBinaryTransport(true);
+
+		testActions(netClient);
+		testLastExchange("gzip", "gzip", RNetVocab.BINARY_CONTENT_TYPE);
+	}
+
+	@Test(expected = RConnectionException.class)
+	public void test_binaryTransportRejectedUnlessAccepted() throws IOException {
+
+		RNetClient netClient = createNetClient();
+
+		acceptBinaryRequests = false;
+		netClient.setBinaryTransport(true);
+
+		testActions(netClient);
+	}
+
+	@Test
+	public void test_binaryConnectionReuse() throws IOException {
+
+		RNetClient netClient = createNetClient();
+
+		netClient.setBinaryTransport(true);
+
+		testActions(netClient);
+
+		assertEquals(1, container.getConnectionCount());
+	}
+
+	@Test
+	public void test_connectionReuse() throws IOException {
+
+		testActions(createNetClient());
+
+		assertEquals(1, container.getConnectionCount());
+	}
+
+	private RNetClient createNetClient() throws IOException {
+
+		return new RNetClient(container.getURL());
+	}
+
+	private void testActions(RNetClient netClient) {
+
+		RMekonClient client = new RMekonClient(netClient, false);
+		CFrame type = client.getCModel().getFrames().get(TYPE_ID);
+
+		client.getIStore().add(type.instantiate(), INSTANCE_ID);
+
+		assertTrue(client.getIStore().contains(INSTANCE_ID));
+
+		List<IRegenInstance> regens = client.getAll(Arrays.asList(INSTANCE_ID));
+
+		assertEquals(1, regens.size());
+		assertEquals(type, regens.get(0).getRootFrame().getType());
+	}
+
+	private void testLastExchange(
+					String requestEncoding,
+					String responseEncoding,
+					String contentType) {
+
+		assertEquals(requestEncoding, container.getLastRequestHeader("Content-Encoding"));
+		assertEquals(responseEncoding, container.getLastResponseHeader("Content-Encoding"));
+		assertEquals(contentType, container.getLastResponseHeader("Content-Type"));
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.remote.server.xml;
+
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class InstanceSessionsTest {
+
+	static private final String CLIENT_A = "client-A";
+	static private final String CLIENT_B = "client-B";
+
+	private TestIFrames frames;
+	private TestInstanceSessions sessions = new TestInstanceSessions();
+
+	private class TestInstanceSessions extends InstanceSessions {
+
+		long time = 0;
+
+		long getCurrentTime() {
+
+			return time;
+		}
+	}
+
+	@Before
+	public void setUp() {
+
+		frames = new TestCModel().createAssertionIFrames();
+	}
+
+	@Test
+	public void test_sessionsScopedByClient() {
+
+		InstanceSession session = createSession(CLIENT_A, 1);
+
+		assertSame(session, getSession(CLIENT_A, session));
+		assertNull(getSession(CLIENT_B, session));
+	}
+
+	@Test
+	public void test_idleSessionsExpire() {
+
+		sessions.setMaxIdleTime(100);
+
+		InstanceSession session1 = createSession(CLIENT_A, 1);
+
+		sessions.time = 60;
+
+		InstanceSession session2 = createSession(CLIENT_A, 1);
+
+		sessions.time = 120;
+
+		assertNull(getSession(CLIENT_A, session1));
+		assertSame(session2, getSession(CLIENT_A, session2));
+		assertEquals(1, sessions.getSessionCount());
+	}
+
+	@Test
+	public void test_frameLimitEvictsLeastRecentlyUsed() {
+
+		sessions.setMaxTotalFrames(5);
+
+		InstanceSession session1 = createSession(CLIENT_A, 2);
+		InstanceSession session2 = createSession(CLIENT_B, 2);
+
+		assertSame(session1, getSession(CLIENT_A, session1));
+
+		InstanceSession session3 = createSession(CLIENT_A, 3);
+
+		assertSame(session1, getSession(CLIENT_A, session1));
+		assertNull(getSession(CLIENT_B, session2));
+		assertSame(session3, getSession(CLIENT_A, session3));
+		assertEquals(5, sessions.getTotalFrames());
+	}
+
+	private InstanceSession createSession(String clientSessionId, int frameCount) {
+
+		Map<IFrame, String> frameXDocIds = new IdentityHashMap<IFrame, String>();
+		IFrame rootFrame = null;
+
+		for (int i = 0 ; i < frameCount ; i++) {
+
+			IFrame frame = frames.create("F" + i);
+
+			if (rootFrame == null) {
+
+				rootFrame = frame;
+			}
+
+			frameXDocIds.put(frame, "xid-" + i);
+		}
+
+		return sessions.reset(clientSessionId, null, rootFrame, frameXDocIds);
+	}
+
+	private InstanceSession getSession(String clientSessionId, InstanceSession session) {
+
+		return sessions.getOrNull(clientSessionId, session.getToken());
+	}
+}
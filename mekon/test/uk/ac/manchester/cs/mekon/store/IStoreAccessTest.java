@@ -42,6 +42,11 @@ public abstract class IStoreAccessTest {
 
 	static private final CIdentity FIRST_ID = new CIdentity("First");
 	static private final CIdentity SECOND_ID = new CIdentity("Second");
+	static private final CIdentity THIRD_ID = new CIdentity("Third");
+
+	static private final CIdentity REF_BX_ID = new CIdentity("ref-bx");
+	static private final CIdentity REF_BY_ID = new CIdentity("ref-by");
+	static private final CIdentity REF_BZ_ID = new CIdentity("ref-bz");
 
 	private IStore store;
 	private TestInstances instances;
@@ -89,12 +94,73 @@ public abstract class IStoreAccessTest {
 		testRetrieve();
 	}
 
+	@Test
+	public void test_batchStoreAndRemove() {
+
+		Map<CIdentity, IFrame> batch = new LinkedHashMap<CIdentity, IFrame>();
+
+		first = createAndStoreInstance(FIRST_ID);
+		second = createInstance(SECOND_ID);
+
+		batch.put(FIRST_ID, first);
+		batch.put(SECOND_ID, second);
+
+		testListContents(store.addAll(batch), Arrays.asList(FIRST_ID));
+		testStoredIds(FIRST_ID, SECOND_ID);
+		testRetrieve(second, SECOND_ID);
+
+		List<CIdentity> removeIds = Arrays.asList(FIRST_ID, THIRD_ID);
+
+		testListContents(store.removeAll(removeIds), Arrays.asList(FIRST_ID));
+		testStoredIds(SECOND_ID);
+
+		store.remove(SECOND_ID);
+	}
+
+	@Test
+	public void test_referentialIntegrity() {
+
+		testReferentialIntegrity();
+	}
+
+	@Test
+	public void test_referentialIntegrityAfterReload() {
+
+		createAndStoreInstance(FIRST_ID);
+		createAndStoreInstance(REF_BX_ID);
+		createAndStoreInstance(REF_BY_ID);
+
+		store = resetStore();
+		store.remove(REF_BX_ID);
+
+		testReferenceIds(FIRST_ID, REF_BY_ID);
+	}
+
 	protected abstract TestCModel createTestModel();
 
 	protected abstract IStore createStore();
 
 	protected abstract IStore resetStore();
 
+	protected void testReferentialIntegrity() {
+
+		createAndStoreInstance(FIRST_ID);
+		createAndStoreInstance(REF_BX_ID);
+		createAndStoreInstance(REF_BY_ID);
+
+		testReferenceIds(FIRST_ID, REF_BX_ID, REF_BY_ID);
+
+		store.remove(REF_BX_ID);
+
+		testReferenceIds(FIRST_ID, REF_BY_ID);
+		testReferenceIds(REF_BY_ID, REF_BY_ID);
+
+		store.rename(REF_BY_ID, REF_BZ_ID);
+
+		testReferenceIds(FIRST_ID, REF_BZ_ID);
+		testReferenceIds(REF_BZ_ID, REF_BZ_ID);
+	}
+
 	private void testStore() {
 
 		first = createAndStoreInstance(FIRST_ID);
@@ -161,6 +227,13 @@ public abstract class IStoreAccessTest {
 		assertFalse(retrieved == original);
 	}
 
+	private void testReferenceIds(CIdentity id, CIdentity... expectedRefIds) {
+
+		IFrame retrieved = store.get(id).getRootFrame();
+
+		testListContents(retrieved.getAllReferenceIds(), Arrays.asList(expectedRefIds));
+	}
+
 	private <E>void testListContents(List<? extends E> got, List<? extends E> expected) {
 
 		MekonTestUtils.testListContents(got, expected);
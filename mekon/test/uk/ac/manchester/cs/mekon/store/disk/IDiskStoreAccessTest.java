@@ -24,6 +24,7 @@
 
 package uk.ac.manchester.cs.mekon.store.disk;
 
+import java.io.*;
 import java.util.*;
 
 import org.junit.Test;
@@ -41,6 +42,12 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 	static private final CIdentity FIRST_ID = new CIdentity("First");
 	static private final CIdentity SECOND_ID = new CIdentity("Second");
 
+	static private final int CONCURRENT_READERS = 4;
+	static private final int CONCURRENT_READ_REPEATS = 20;
+
+	static private final int STARTUP_INSTANCES = 20;
+	static private final int STARTUP_THREADS = 4;
+
 	private TestCModel model;
 	private IDiskStore store;
 
@@ -53,6 +60,8 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 		final IFrame query;
 
 		private CFrame type;
+		private int matchCount = 0;
+		private boolean rankedMatches = false;
 
 		public void initialise(IMatcherConfig config) {
 		}
@@ -76,6 +85,17 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 
 			assertTrue(query.equalsStructure(this.query));
 
+			matchCount++;
+
+			if (rankedMatches) {
+
+				IRankedMatches matches = new IRankedMatches();
+
+				matches.addRank(getInstanceIdentityAsList(), 1);
+
+				return matches;
+			}
+
 			return new IUnrankedMatches(getInstanceIdentityAsList());
 		}
 
@@ -128,6 +148,41 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 		}
 	}
 
+	private class ConcurrentReader extends Thread {
+
+		private TestMatcher matcher;
+		private Throwable failure = null;
+
+		ConcurrentReader(TestMatcher matcher) {
+
+			this.matcher = matcher;
+
+			start();
+		}
+
+		public void run() {
+
+			try {
+
+				for (int i = 0 ; i < CONCURRENT_READ_REPEATS ; i++) {
+
+					matcher.checkQueriesToStoreDirectedToMatcher();
+				}
+			}
+			catch (Throwable t) {
+
+				failure = t;
+			}
+		}
+
+		void checkSucceeded() throws InterruptedException {
+
+			join();
+
+			assertNull(failure);
+		}
+	}
+
 	@Test
 	public void test_matching() {
 
@@ -144,6 +199,160 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 		matcherB.removeMatcherInstanceFromStore();
 	}
 
+	@Test
+	public void test_concurrentReads() throws InterruptedException {
+
+		store.setConcurrentReads(true);
+
+		TestMatcher matcher = new TestMatcher("A");
+		List<ConcurrentReader> readers = new ArrayList<ConcurrentReader>();
+
+		matcher.addMatcherInstanceToStore();
+
+		for (int i = 0 ; i < CONCURRENT_READERS ; i++) {
+
+			readers.add(new ConcurrentReader(matcher));
+		}
+
+		for (ConcurrentReader reader : readers) {
+
+			reader.checkSucceeded();
+		}
+
+		matcher.removeMatcherInstanceFromStore();
+	}
+
+	@Test
+	public void test_instanceCache() {
+
+		store.setInstanceCacheSize(1);
+
+		TestMatcher matcherA = new TestMatcher("A");
+		TestMatcher matcherB = new TestMatcher("B");
+
+		CIdentity idA = matcherA.getInstanceIdentity();
+		CIdentity idB = matcherB.getInstanceIdentity();
+
+		matcherA.addMatcherInstanceToStore();
+		matcherB.addMatcherInstanceToStore();
+
+		IFrame regenA = testCachedRegen(idA, matcherA.instance);
+
+		assertTrue(testCachedRegen(idA, matcherA.instance) != regenA);
+		testCacheStats(1, 1);
+
+		testCachedRegen(idB, matcherB.instance);
+		testCachedRegen(idA, matcherA.instance);
+		testCacheStats(1, 3);
+
+		matcherA.removeMatcherInstanceFromStore();
+
+		assertNull(store.regenOrNull(idA, true));
+
+		matcherB.removeMatcherInstanceFromStore();
+	}
+
+	@Test
+	public void test_matchCache() {
+
+		store.setMatchCacheSize(2);
+
+		TestMatcher matcherA = new TestMatcher("A");
+		TestMatcher matcherB = new TestMatcher("B");
+
+		matcherA.addMatcherInstanceToStore();
+
+		testCachedMatch(matcherA, 1);
+		testCachedMatch(matcherA, 1);
+		testMatchCacheStats(1, 1);
+
+		matcherB.addMatcherInstanceToStore();
+
+		testCachedMatch(matcherA, 1);
+		testMatchCacheStats(2, 1);
+
+		matcherA.removeMatcherInstanceFromStore();
+		matcherA.addMatcherInstanceToStore();
+
+		testCachedMatch(matcherA, 2);
+		testMatchCacheStats(2, 2);
+
+		matcherA.removeMatcherInstanceFromStore();
+		matcherB.removeMatcherInstanceFromStore();
+	}
+
+	@Test
+	public void test_matchCacheResultsNotShared() {
+
+		store.setMatchCacheSize(1);
+
+		TestMatcher matcherA = new TestMatcher("A");
+
+		matcherA.rankedMatches = true;
+		matcherA.addMatcherInstanceToStore();
+
+		IRankedMatches matches = (IRankedMatches)store.match(matcherA.query);
+
+		matches.addRank(Collections.singletonList(SECOND_ID), 0);
+
+		testCachedMatch(matcherA, 1);
+		testMatchCacheStats(1, 1);
+
+		matcherA.removeMatcherInstanceFromStore();
+	}
+
+	@Test
+	public void test_parallelStartup() {
+
+		CFrame type = model.serverCFrames.create("Startup");
+		List<IFrame> instances = new ArrayList<IFrame>();
+
+		for (int i = 0 ; i < STARTUP_INSTANCES ; i++) {
+
+			IFrame instance = type.instantiate();
+
+			store.add(instance, getStartupInstanceId(i));
+			instances.add(instance);
+		}
+
+		List<CIdentity> serialIds = createStore(1).getAllIdentities();
+		List<CIdentity> parallelIds = createStore(STARTUP_THREADS).getAllIdentities();
+
+		assertEquals(serialIds, parallelIds);
+
+		for (int i = 0 ; i < STARTUP_INSTANCES ; i++) {
+
+			IFrame regen = store.get(getStartupInstanceId(i)).getRootFrame();
+
+			assertTrue(regen.equalsStructure(instances.get(i)));
+		}
+
+		IDiskStoreStartupTimings timings = store.getStartupTimings();
+
+		assertEquals(STARTUP_THREADS, timings.getStartupThreads());
+		assertEquals(STARTUP_INSTANCES, timings.getInstanceCount());
+	}
+
+	@Test
+	public void test_backgroundReferenceUpdates() {
+
+		store.setBackgroundReferenceUpdates(true);
+
+		testReferentialIntegrity();
+	}
+
+	@Test
+	public void test_referenceIndexReadOnlyAfterCleanStop() {
+
+		File indexFile = new File(getMainDirectory(), IDiskStoreNames.REFERENCE_INDEX_FILE_NAME);
+
+		assertFalse(indexFile.exists());
+		store.stop();
+		assertTrue(indexFile.exists());
+		createStore();
+		assertFalse(indexFile.exists());
+	}
+
 	protected TestCModel createTestModel() {
 
 		model = new TestCModel();
@@ -153,15 +362,77 @@ public class IDiskStoreAccessTest extends IStoreAccessTest {
 
 	protected IStore createStore() {
 
-		store = new IDiskStore(model.serverModel);
+		return createStore(1);
+	}
+
+	protected void configureStructure(StoreStructureBuilder structureBuilder) {
+	}
+
+	private IStore createStore(int startupThreads) {
+
+		StoreStructureBuilder structureBuilder = new StoreStructureBuilder();
+
+		configureStructure(structureBuilder);
 
+		store = new IDiskStore(model.serverModel, structureBuilder.build(model.serverModel));
+
+		store.setStartupThreads(startupThreads);
 		store.initialisePostRegistration();
 
 		return store;
 	}
 
+	private File getMainDirectory() {
+
+		StoreStructureBuilder structureBuilder = new StoreStructureBuilder();
+
+		configureStructure(structureBuilder);
+
+		return structureBuilder.build(model.serverModel).getMainDirectory();
+	}
+
+	private IFrame testCachedRegen(CIdentity identity, IFrame expected) {
+
+		IFrame regen = store.regenOrNull(identity, true);
+
+		assertTrue(regen.equalsStructure(expected));
+
+		return regen;
+	}
+
+	private void testCachedMatch(TestMatcher matcher, int expectedMatchCount) {
+
+		List<CIdentity> expectedIds = matcher.getInstanceIdentityAsList();
+
+		assertEquals(expectedIds, store.match(matcher.query).getAllMatches());
+		assertEquals(expectedMatchCount, matcher.matchCount);
+	}
+
+	private CIdentity getStartupInstanceId(int index) {
+
+		return new CIdentity("Startup-" + index);
+	}
+
+	private void testCacheStats(int expectedHits, int expectedMisses) {
+
+		IDiskStoreCacheStats stats = store.getInstanceCacheStats();
+
+		assertEquals(expectedHits, stats.getHits());
+		assertEquals(expectedMisses, stats.getMisses());
+	}
+
+	private void testMatchCacheStats(int expectedHits, int expectedMisses) {
+
+		IDiskStoreCacheStats stats = store.getMatchCacheStats();
+
+		assertEquals(expectedHits, stats.getHits());
+		assertEquals(expectedMisses, stats.getMisses());
+	}
+
 	protected IStore resetStore() {
 
+		store.stop();
+
 		return createStore();
 	}
 }
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+
+import org.junit.Before;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.store.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class IDiskStoreFormatConverterTest implements IDiskStoreNames {
+
+	static private final File TEST_DIR = new File("test-format-conversion");
+
+	static private final CIdentity FIRST_ID = new CIdentity("First");
+	static private final CIdentity SECOND_ID = new CIdentity("Second");
+
+	private TestCModel model = new TestCModel();
+	private TestISlots slots = model.createAssertionIFrames().repeatTypesSlots;
+	private TestInstances instances = new TestInstances(model);
+
+	private IDiskStoreBuilder storeBuilder = new IDiskStoreBuilder(model.serverModel);
+	private IDiskStore store = null;
+
+	private IFrame first;
+	private IFrame second;
+
+	@Before
+	public void setUp() {
+
+		storeBuilder.setStoreDirectory(TEST_DIR);
+
+		first = createInstance(FIRST_ID);
+		second = createInstance(SECOND_ID);
+
+		addCustomStringSlot(second);
+	}
+
+	@After
+	public void clearUp() {
+
+		if (store != null) {
+
+			store.clear();
+			store.stop();
+		}
+
+		deleteAll(TEST_DIR);
+	}
+
+	@Test
+	public void test_convertToBinaryAndBack() {
+
+		startStore(IDiskStoreFormat.XML);
+
+		store.add(first, FIRST_ID);
+		store.add(second, SECOND_ID);
+
+		testConvert(IDiskStoreFormat.BINARY);
+		testConvert(IDiskStoreFormat.XML);
+	}
+
+	@Test
+	public void test_mixedFormatsReadable() {
+
+		startStore(IDiskStoreFormat.XML);
+		store.add(first, FIRST_ID);
+
+		startStore(IDiskStoreFormat.BINARY);
+		store.add(second, SECOND_ID);
+
+		testInstanceFileCount(STORE_FILE_SUFFIX, 1);
+		testInstanceFileCount(BINARY_FILE_SUFFIX, 1);
+
+		testRetrieve();
+	}
+
+	private void testConvert(IDiskStoreFormat format) {
+
+		stopStore();
+
+		assertEquals(2, new IDiskStoreFormatConverter(storeBuilder).convert(format));
+
+		testInstanceFileCount(getInstanceFileSuffix(format), 2);
+
+		startStore(format);
+		testRetrieve();
+	}
+
+	private void testRetrieve() {
+
+		assertTrue(store.get(FIRST_ID).getRootFrame().equalsStructure(first));
+		assertTrue(store.get(SECOND_ID).getRootFrame().equalsStructure(second));
+	}
+
+	private void testInstanceFileCount(String suffix, int expected) {
+
+		int count = 0;
+
+		for (String fileName : TEST_DIR.list()) {
+
+			if (fileName.startsWith(INSTANCE_FILE_PREFIX) && fileName.endsWith(suffix)) {
+
+				count++;
+			}
+		}
+
+		assertEquals(expected, count);
+	}
+
+	private void startStore(IDiskStoreFormat format) {
+
+		stopStore();
+
+		store = new IDiskStore(model.serverModel, storeBuilder.buildStructure(format));
+		store.initialisePostRegistration();
+	}
+
+	private void stopStore() {
+
+		if (store != null) {
+
+			store.stop();
+			store = null;
+		}
+	}
+
+	private IFrame createInstance(CIdentity id) {
+
+		instances.setTypesPrefix(id.getIdentifier() + "Type");
+
+		return instances.getBasic();
+	}
+
+	private void addCustomStringSlot(IFrame instance) {
+
+		CString valueType = TestCustomStringConfig.getValueType();
+		ISlot slot = slots.create(instance, "customStringSlot", valueType);
+
+		slot.getValuesEditor().add(valueType.instantiate("CUSTOM"));
+	}
+
+	private String getInstanceFileSuffix(IDiskStoreFormat format) {
+
+		return format == IDiskStoreFormat.BINARY ? BINARY_FILE_SUFFIX : STORE_FILE_SUFFIX;
+	}
+
+	private void deleteAll(File file) {
+
+		File[] children = file.listFiles();
+
+		if (children != null) {
+
+			for (File child : children) {
+
+				deleteAll(child);
+			}
+		}
+
+		file.delete();
+	}
+}
@@ -190,6 +190,18 @@ public abstract class IMatcherTest extends DemoModelBasedTest {
 			DOCTOR_ID);
 	}
 
+	@Test
+	public void test_rangedQueries() {
+
+		IFrame query = createJobQuery();
+		List<CIdentity> allMatchIds = clientStore.match(query).getAllMatches();
+
+		testRangedMatching(query, IMatchesRange.top(2), allMatchIds.subList(0, 2));
+		testRangedMatching(query, new IMatchesRange(1, 2), allMatchIds.subList(1, 3));
+		testRangedMatching(query, new IMatchesRange(3, 5), allMatchIds.subList(3, 4));
+		testRangedMatching(query, new IMatchesRange(4, 1), Collections.<CIdentity>emptyList());
+	}
+
 	@Test
 	public void test_conceptPropertyBasedQueries() {
 
@@ -379,6 +391,18 @@ public abstract class IMatcherTest extends DemoModelBasedTest {
 			DOCTORING_JOB_ID);
 	}
 
+	@Test
+	public void test_customMatchQueriesIgnoreInstancesMissingFromStore() {
+
+		addValueMatchCustomiser(INDUSTRY_PROPERTY, new ComplementFrameMatcher());
+
+		matcher.add(createJob(HEALTH, DOCTOR), createInstanceId("UnstoredDoctoring"));
+
+		testMatching(
+			createAcademiaQuery(),
+			DOCTORING_JOB_ID);
+	}
+
 	@Test
 	public void test_customNumberMatchQueries() {
 
@@ -794,6 +818,14 @@ public abstract class IMatcherTest extends DemoModelBasedTest {
 		}
 	}
 
+	private void testRangedMatching(
+					IFrame query,
+					IMatchesRange range,
+					List<CIdentity> expectedMatchIds) {
+
+		assertEquals(expectedMatchIds, clientStore.match(query, range).getAllMatches());
+	}
+
 	private CIdentity getInstanceId(IFrame instance) {
 
 		for (CIdentity id : storedInstancesById.keySet()) {
@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon.model.*;
+import uk.ac.manchester.cs.mekon.network.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class MatcherCheckpointsTest {
+
+	static private final File TEST_DIR = new File("test-checkpoint-store");
+
+	static private final CIdentity A_ID = new CIdentity("A");
+	static private final CIdentity B_ID = new CIdentity("B");
+	static private final CIdentity C_ID = new CIdentity("C");
+	static private final CIdentity D_ID = new CIdentity("D");
+
+	private TestCModel model = new TestCModel();
+	private CFrame type = model.serverCFrames.create("Type");
+
+	private IDiskStore store;
+	private CountingMatcher matcher;
+
+	private class CountingMatcher extends NDirectMatcher {
+
+		private List<CIdentity> addedIds = new ArrayList<CIdentity>();
+
+		public void add(IFrame instance, CIdentity identity) {
+
+			super.add(instance, identity);
+
+			addedIds.add(identity);
+		}
+	}
+
+	@Before
+	public void setUp() {
+
+		createStore(true);
+
+		addInstances(A_ID, B_ID, C_ID);
+	}
+
+	@After
+	public void clearUp() {
+
+		store.clear();
+		store.stop();
+
+		deleteAll(TEST_DIR);
+	}
+
+	@Test
+	public void test_restoreUnchanged() {
+
+		store.stop();
+		createStore(true);
+
+		testAddedIds();
+		testMatches(A_ID, B_ID, C_ID);
+	}
+
+	@Test
+	public void test_restoreWithDelta() {
+
+		store.stop();
+		createStore(true);
+
+		addInstances(B_ID, D_ID);
+		store.remove(C_ID);
+
+		createStore(true);
+
+		testAddedIds(B_ID, D_ID);
+		testMatches(A_ID, B_ID, D_ID);
+	}
+
+	@Test
+	public void test_restoreWithBatchDelta() {
+
+		store.stop();
+		createStore(true);
+
+		Map<CIdentity, IFrame> batch = new LinkedHashMap<CIdentity, IFrame>();
+
+		batch.put(B_ID, type.instantiate());
+		batch.put(D_ID, type.instantiate());
+
+		store.addAll(batch);
+		store.removeAll(Arrays.asList(C_ID));
+
+		createStore(true);
+
+		testAddedIds(B_ID, D_ID);
+		testMatches(A_ID, B_ID, D_ID);
+	}
+
+	@Test
+	public void test_disabledCheckpoints() {
+
+		store.stop();
+		createStore(false);
+
+		testAddedIds(A_ID, B_ID, C_ID);
+		testMatches(A_ID, B_ID, C_ID);
+
+		createStore(true);
+
+		testAddedIds(A_ID, B_ID, C_ID);
+	}
+
+	private void createStore(boolean checkpoints) {
+
+		StoreStructureBuilder structureBldr = new StoreStructureBuilder();
+
+		structureBldr.setMainDirectory(TEST_DIR);
+
+		store = new IDiskStore(model.serverModel, structureBldr.build(model.serverModel));
+		matcher = new CountingMatcher();
+
+		store.setMatcherCheckpoints(checkpoints);
+		store.addMatcher(matcher);
+		store.initialisePostRegistration();
+	}
+
+	private void addInstances(CIdentity... ids) {
+
+		for (CIdentity id : ids) {
+
+			store.add(type.instantiate(), id);
+		}
+	}
+
+	private void testAddedIds(CIdentity... expectedIds) {
+
+		testIds(matcher.addedIds, expectedIds);
+	}
+
+	private void testMatches(CIdentity... expectedIds) {
+
+		testIds(store.match(type.instantiateQuery()).getAllMatches(), expectedIds);
+	}
+
+	private void testIds(List<CIdentity> gotIds, CIdentity... expectedIds) {
+
+		Set<CIdentity> expected = new HashSet<CIdentity>(Arrays.asList(expectedIds));
+
+		assertEquals(expected, new HashSet<CIdentity>(gotIds));
+		assertEquals(expectedIds.length, gotIds.size());
+	}
+
+	private void deleteAll(File file) {
+
+		File[] contents = file.listFiles();
+
+		if (contents != null) {
+
+			for (File content : contents) {
+
+				deleteAll(content);
+			}
+		}
+
+		file.delete();
+	}
+}
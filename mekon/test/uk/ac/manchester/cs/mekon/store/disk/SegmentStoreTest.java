@@ -0,0 +1,232 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon.store.disk;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.Before;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import uk.ac.manchester.cs.mekon_util.config.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class SegmentStoreTest implements IDiskStoreNames {
+
+	static private final File TEST_DIR = new File("test-segment-store");
+
+	static private final long SMALL_SEGMENT_SIZE = 200;
+
+	private SegmentStore store;
+
+	@Before
+	public void setUp() {
+
+		store = createStore(SegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+
+		store.clear();
+	}
+
+	@After
+	public void clearUp() {
+
+		store.clear();
+		store.stop();
+
+		for (File file : TEST_DIR.listFiles()) {
+
+			file.delete();
+		}
+
+		TEST_DIR.delete();
+	}
+
+	@Test
+	public void test_putAndRead() {
+
+		put(1, "first");
+		put(2, "second");
+		put(1, "first-updated");
+
+		testIndexes(1, 2);
+		testRecord(1, "first-updated");
+		testRecord(2, "second");
+	}
+
+	@Test
+	public void test_removeAndReload() {
+
+		put(1, "first");
+		put(2, "second");
+		store.remove(1);
+
+		reopenStore(SegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+
+		testIndexes(2);
+		testRecord(2, "second");
+	}
+
+	@Test
+	public void test_tornTailTruncatedOnReload() throws IOException {
+
+		put(1, "first");
+		put(2, "second");
+
+		store.stop();
+		appendToLastSegment(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+		reopenStore(SegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+
+		testIndexes(1, 2);
+		put(3, "third");
+
+		reopenStore(SegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+
+		testIndexes(1, 2, 3);
+		testRecord(3, "third");
+	}
+
+	@Test
+	public void test_corruptSealedSegmentRejectedOnReload() throws IOException {
+
+		reopenStore(SMALL_SEGMENT_SIZE);
+
+		for (int i = 0 ; i < 10 ; i++) {
+
+			put(i, "value-" + i);
+		}
+
+		assertTrue(store.getSegmentCount() > 1);
+
+		store.stop();
+		corruptFirstSegment();
+
+		try {
+
+			store = createStore(SMALL_SEGMENT_SIZE);
+
+			fail("Expected KSystemConfigException");
+		}
+		catch (KSystemConfigException e) {
+		}
+	}
+
+	@Test
+	public void test_compaction() {
+
+		reopenStore(SMALL_SEGMENT_SIZE);
+
+		for (int i = 0 ; i < 20 ; i++) {
+
+			put(i % 4, "value-" + i);
+		}
+
+		store.remove(3);
+
+		int preCompactionSegments = store.getSegmentCount();
+
+		store.compactAll();
+
+		assertTrue(store.getSegmentCount() < preCompactionSegments);
+
+		reopenStore(SMALL_SEGMENT_SIZE);
+
+		testIndexes(0, 1, 2);
+		testRecord(0, "value-16");
+		testRecord(1, "value-17");
+		testRecord(2, "value-18");
+	}
+
+	private SegmentStore createStore(long maxSegmentSize) {
+
+		return new SegmentStore(TEST_DIR, maxSegmentSize, SegmentStore.DEFAULT_MIN_LIVE_PROPORTION);
+	}
+
+	private void reopenStore(long maxSegmentSize) {
+
+		store.stop();
+		store = createStore(maxSegmentSize);
+	}
+
+	private void put(int index, String value) {
+
+		store.put(index, toProfileBytes(value), toInstanceBytes(value));
+	}
+
+	private void appendToLastSegment(byte[] bytes) throws IOException {
+
+		File[] files = TEST_DIR.listFiles();
+
+		Arrays.sort(files);
+
+		FileOutputStream output = new FileOutputStream(files[files.length - 1], true);
+
+		output.write(bytes);
+		output.close();
+	}
+
+	private void corruptFirstSegment() throws IOException {
+
+		File[] files = TEST_DIR.listFiles();
+
+		Arrays.sort(files);
+
+		RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+
+		long position = file.length() - 1;
+
+		file.seek(position);
+		int value = file.read();
+
+		file.seek(position);
+		file.write(value ^ 0xFF);
+		file.close();
+	}
+
+	private void testIndexes(Integer... expected) {
+
+		assertEquals(Arrays.asList(expected), store.getAllIndexes());
+	}
+
+	private void testRecord(int index, String value) {
+
+		assertArrayEquals(toProfileBytes(value), store.readProfile(index));
+		assertArrayEquals(toInstanceBytes(value), store.readInstance(index));
+	}
+
+	private byte[] toProfileBytes(String value) {
+
+		return ("P:" + value).getBytes();
+	}
+
+	private byte[] toInstanceBytes(String value) {
+
+		return ("I:" + value).getBytes();
+	}
+}
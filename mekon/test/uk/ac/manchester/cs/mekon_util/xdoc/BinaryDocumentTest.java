@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon_util.xdoc;
+
+import java.io.*;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class BinaryDocumentTest {
+
+	static private final int FORMAT_MARKER = 0x4D4B5844;
+	static private final int FORMAT_VERSION = 1;
+
+	static private final int ELEMENT_TAG = 1;
+
+	private class DocumentBytes {
+
+		private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		DocumentBytes() {
+
+			DataOutputStream output = new DataOutputStream(bytes);
+
+			try {
+
+				output.writeInt(FORMAT_MARKER);
+				output.writeByte(FORMAT_VERSION);
+			}
+			catch (IOException e) {
+
+				throw new Error(e);
+			}
+		}
+
+		void add(int... values) {
+
+			for (int value : values) {
+
+				bytes.write(value);
+			}
+		}
+
+		void addElement(boolean firstOccurrence) {
+
+			add(0x00);
+
+			if (firstOccurrence) {
+
+				add(0x01, 'e');
+			}
+
+			add(0x00);
+		}
+
+		byte[] get() {
+
+			return bytes.toByteArray();
+		}
+	}
+
+	@Test
+	public void test_roundTrip() {
+
+		XDocument xDoc = new XDocument("root");
+		XNode child = xDoc.getRootNode().addChild("child");
+
+		child.setValue("attr", "value");
+		child.addChild("child");
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		xDoc.writeToOutput(output, true);
+
+		XNode root = read(output.toByteArray()).getRootNode();
+
+		assertEquals("root", root.getId());
+		assertEquals("value", root.getChild("child").getString("attr"));
+		assertTrue(root.getChild("child").hasChild("child"));
+	}
+
+	@Test(expected = XDocumentException.class)
+	public void test_overlongCountRejected() {
+
+		DocumentBytes bytes = new DocumentBytes();
+
+		bytes.add(0x80, 0x80, 0x80, 0x80, 0x80, 0x00);
+
+		read(bytes.get());
+	}
+
+	@Test(expected = XDocumentException.class)
+	public void test_oversizedCountRejected() {
+
+		DocumentBytes bytes = new DocumentBytes();
+
+		bytes.add(0x80, 0x80, 0x80, 0x80, 0x08);
+
+		read(bytes.get());
+	}
+
+	@Test(expected = XDocumentException.class)
+	public void test_oversizedStringRejected() {
+
+		DocumentBytes bytes = new DocumentBytes();
+
+		bytes.add(0x00);
+		bytes.add(0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+
+		read(bytes.get());
+	}
+
+	@Test(expected = XDocumentException.class)
+	public void test_excessiveDepthRejected() {
+
+		DocumentBytes bytes = new DocumentBytes();
+
+		bytes.addElement(true);
+
+		for (int i = 0 ; i < 100000 ; i++) {
+
+			bytes.add(ELEMENT_TAG);
+			bytes.addElement(false);
+		}
+
+		read(bytes.get());
+	}
+
+	private XDocument read(byte[] bytes) {
+
+		return new XDocument(new ByteArrayInputStream(bytes), true);
+	}
+}
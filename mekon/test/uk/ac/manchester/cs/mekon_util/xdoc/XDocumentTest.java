@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Manchester
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package uk.ac.manchester.cs.mekon_util.xdoc;
+
+import java.io.*;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import org.w3c.dom.*;
+
+/**
+ * @author Colin Puleston
+ */
+public class XDocumentTest {
+
+	static private final File TEST_FILE = new File("test-xdocument.xml");
+
+	static private final String NAMESPACE = "http://example.org/test";
+	static private final String PREFIX = "ex";
+
+	static private final String TEXT = "Some text";
+	static private final String WHITESPACE = "  ";
+
+	@Test
+	public void test_streamRoundTrip() {
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		createDocument().writeToOutput(output);
+
+		XDocument xDoc = new XDocument(new ByteArrayInputStream(output.toByteArray()));
+
+		testDocument(xDoc);
+		testWhitespaceElement(xDoc);
+	}
+
+	@Test
+	public void test_fileRoundTrip() {
+
+		try {
+
+			createDocument().writeToFile(TEST_FILE);
+
+			testDocument(new XDocument(TEST_FILE));
+		}
+		finally {
+
+			TEST_FILE.delete();
+		}
+	}
+
+	@Test
+	public void test_separatingWhitespaceOmitted() {
+
+		String xml = "<root>\n  <a>" + TEXT + "</a>\n  <b>" + WHITESPACE + "</b>\n</root>";
+		Element root = read(xml).getDOMDocument().getDocumentElement();
+
+		assertEquals(2, root.getChildNodes().getLength());
+		assertEquals(TEXT, getChildElement(root, "a").getTextContent());
+		assertEquals(WHITESPACE, getChildElement(root, "b").getTextContent());
+	}
+
+	private XDocument createDocument() {
+
+		XDocument xDoc = new XDocument("root");
+		Document document = xDoc.getDOMDocument();
+		Element root = document.getDocumentElement();
+
+		root.setAttributeNS(
+			"http://www.w3.org/2000/xmlns/",
+			"xmlns:" + PREFIX,
+			NAMESPACE);
+
+		Element item = document.createElementNS(NAMESPACE, PREFIX + ":item");
+
+		item.setAttributeNS(NAMESPACE, PREFIX + ":attr", "value");
+		root.appendChild(item);
+
+		addTextElement(document, "text", TEXT);
+		addTextElement(document, "space", WHITESPACE);
+
+		return xDoc;
+	}
+
+	private void addTextElement(Document document, String name, String text) {
+
+		Element element = document.createElement(name);
+
+		element.appendChild(document.createTextNode(text));
+		document.getDocumentElement().appendChild(element);
+	}
+
+	private void testDocument(XDocument xDoc) {
+
+		Element root = xDoc.getDOMDocument().getDocumentElement();
+
+		assertEquals(NAMESPACE, root.getAttribute("xmlns:" + PREFIX));
+		assertEquals(NAMESPACE, root.lookupNamespaceURI(PREFIX));
+
+		Element item = getChildElement(root, PREFIX + ":item");
+
+		assertEquals(NAMESPACE, item.getNamespaceURI());
+		assertEquals("item", item.getLocalName());
+		assertEquals("value", item.getAttributeNS(NAMESPACE, "attr"));
+
+		assertEquals(TEXT, getChildElement(root, "text").getTextContent());
+	}
+
+	private void testWhitespaceElement(XDocument xDoc) {
+
+		Element root = xDoc.getDOMDocument().getDocumentElement();
+
+		assertEquals(WHITESPACE, getChildElement(root, "space").getTextContent());
+	}
+
+	private Element getChildElement(Element parent, String tagName) {
+
+		NodeList children = parent.getElementsByTagName(tagName);
+
+		assertEquals(1, children.getLength());
+
+		return (Element)children.item(0);
+	}
+
+	private XDocument read(String xml) {
+
+		try {
+
+			return new XDocument(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+		}
+		catch (UnsupportedEncodingException e) {
+
+			throw new Error(e);
+		}
+	}
+}